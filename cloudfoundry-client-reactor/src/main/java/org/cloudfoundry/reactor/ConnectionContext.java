@@ -17,14 +17,34 @@
 package org.cloudfoundry.reactor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.cloudfoundry.reactor.util.AdaptiveConcurrencyLimiter;
+import org.cloudfoundry.reactor.util.HttpCompression;
+import org.cloudfoundry.reactor.util.PriorityLanes;
+import org.cloudfoundry.reactor.util.RetryPolicy;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.client.HttpClient;
 
+import java.util.Optional;
+
 /**
  * Common, reusable, connection context
  */
 public interface ConnectionContext {
 
+    /**
+     * The (optional) {@link AdaptiveConcurrencyLimiter} used to limit the number of concurrent requests to each host
+     */
+    default Optional<AdaptiveConcurrencyLimiter> getConcurrencyLimiter() {
+        return Optional.empty();
+    }
+
+    /**
+     * The (optional) {@link HttpCompression} used to negotiate compressed responses and compress request bodies
+     */
+    default Optional<HttpCompression> getCompression() {
+        return Optional.empty();
+    }
+
     /**
      * The {@link HttpClient} to use
      */
@@ -35,6 +55,27 @@ public interface ConnectionContext {
      */
     ObjectMapper getObjectMapper();
 
+    /**
+     * The (optional) {@link PriorityLanes} used to limit the number of concurrent requests of each {@link RequestPriority}
+     */
+    default Optional<PriorityLanes> getPriorityLanes() {
+        return Optional.empty();
+    }
+
+    /**
+     * The priority of requests made with this context.  Defaults to {@link RequestPriority#INTERACTIVE}.
+     */
+    default RequestPriority getRequestPriority() {
+        return RequestPriority.INTERACTIVE;
+    }
+
+    /**
+     * The (optional) {@link RetryPolicy} used to retry requests that fail transiently
+     */
+    default Optional<RetryPolicy> getRetryPolicy() {
+        return Optional.empty();
+    }
+
     /**
      * The normalized API root
      */
@@ -47,4 +88,23 @@ public interface ConnectionContext {
      */
     Mono<String> getRoot(String key);
 
+    /**
+     * The context that tokens for requests made with this context are negotiated and held for.  Views of another context return that context, so that they share its tokens.  Defaults to this
+     * context.
+     */
+    default ConnectionContext getTokenContext() {
+        return this;
+    }
+
+    /**
+     * Prepares this context for use so that the first requests do not wait for it to be bootstrapped.  The default implementation negotiates a token.
+     *
+     * @param tokenProvider the {@link TokenProvider} whose token to negotiate
+     * @return completes when the context is ready
+     */
+    default Mono<Void> warmUp(TokenProvider tokenProvider) {
+        return tokenProvider.getToken(this)
+            .then();
+    }
+
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor;
+
+/**
+ * The priority of requests made with a {@link ConnectionContext}.  When requests are queued, those with a higher priority (declared earlier) are admitted before those with a lower priority.
+ */
+public enum RequestPriority {
+
+    /**
+     * Requests made on behalf of a user who is waiting for the result
+     */
+    INTERACTIVE,
+
+    /**
+     * Background requests, such as exports and clean-up jobs, that may be delayed in favor of interactive requests
+     */
+    BULK
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor;
+
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import reactor.core.Exceptions;
+import reactor.ipc.netty.resources.LoopResources;
+import reactor.ipc.netty.resources.PoolResources;
+
+import javax.net.ssl.SSLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A set of event loop, connection pool and TLS context resources shared by many {@link DefaultConnectionContext}s.  Contexts configured with shared resources use their worker threads, connection
+ * pool and default TLS context instead of creating their own, so the number of threads scales with the number of cores rather than the number of targets.  Connections are only pooled
+ * between contexts that open them the same way, so a connection opened through one context's proxy or with its certificate validation skipped is never handed to a context configured differently.
+ * <p>
+ * The resources are reference counted.  The creator holds the initial reference, and each context configured with the resources holds a reference until it is
+ * {@link DefaultConnectionContext#dispose() disposed}.  The resources are disposed when the last reference is released.
+ */
+public final class SharedConnectionResources {
+
+    private final int connectionPoolSize;
+
+    private final LoopResources loopResources;
+
+    private final ConcurrentMap<Object, PoolResources> poolResources = new ConcurrentHashMap<>();
+
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    private final SslContext sslContext;
+
+    /**
+     * Creates a new instance with the default number of worker threads and connections
+     */
+    public SharedConnectionResources() {
+        this(LoopResources.DEFAULT_IO_WORKER_COUNT, 2 * PoolResources.DEFAULT_POOL_MAX_CONNECTION);
+    }
+
+    /**
+     * Creates a new instance
+     *
+     * @param threadPoolSize     the number of worker threads to use when processing requests and responses
+     * @param connectionPoolSize the maximum number of connections to each host
+     */
+    public SharedConnectionResources(int threadPoolSize, int connectionPoolSize) {
+        if (threadPoolSize < 1) {
+            throw new IllegalArgumentException(String.format("Thread pool size %d must be at least 1", threadPoolSize));
+        }
+
+        if (connectionPoolSize < 1) {
+            throw new IllegalArgumentException(String.format("Connection pool size %d must be at least 1", connectionPoolSize));
+        }
+
+        this.connectionPoolSize = connectionPoolSize;
+        this.loopResources = LoopResources.create("cloudfoundry-client-shared", threadPoolSize, true);
+        this.sslContext = createSslContext();
+    }
+
+    /**
+     * Acquires a reference to the resources
+     *
+     * @return a lease that releases the reference
+     * @throws IllegalStateException if the resources have already been disposed
+     */
+    public Lease acquire() {
+        retain();
+        return new Lease();
+    }
+
+    /**
+     * Returns the number of outstanding references to the resources
+     *
+     * @return the number of outstanding references
+     */
+    public int getReferenceCount() {
+        return this.references.get();
+    }
+
+    /**
+     * Returns whether the resources have been disposed
+     *
+     * @return {@code true} if the last reference has been released
+     */
+    public boolean isDisposed() {
+        return this.references.get() == 0;
+    }
+
+    /**
+     * Releases a reference to the resources, disposing them if it is the last
+     *
+     * @throws IllegalStateException if the resources have already been disposed
+     */
+    public void release() {
+        int count = this.references.getAndUpdate(current -> current == 0 ? 0 : current - 1);
+
+        if (count == 0) {
+            throw new IllegalStateException("Shared connection resources have already been disposed");
+        }
+
+        if (count == 1) {
+            this.poolResources.values().forEach(PoolResources::dispose);
+            this.loopResources.dispose();
+        }
+    }
+
+    /**
+     * Acquires an additional reference to the resources
+     *
+     * @throws IllegalStateException if the resources have already been disposed
+     */
+    public void retain() {
+        int count = this.references.getAndUpdate(current -> current == 0 ? 0 : current + 1);
+
+        if (count == 0) {
+            throw new IllegalStateException("Shared connection resources have already been disposed");
+        }
+    }
+
+    LoopResources getLoopResources() {
+        return this.loopResources;
+    }
+
+    PoolResources getPoolResources(Object connectionConfiguration) {
+        return this.poolResources.computeIfAbsent(connectionConfiguration, key -> PoolResources.fixed("cloudfoundry-client-shared", this.connectionPoolSize));
+    }
+
+    SslContext getSslContext() {
+        return this.sslContext;
+    }
+
+    private static SslContext createSslContext() {
+        try {
+            return SslContextBuilder.forClient().build();
+        } catch (SSLException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    /**
+     * A single reference to a set of {@link SharedConnectionResources}.  Releasing a lease more than once has no effect.
+     */
+    public final class Lease {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease() {
+        }
+
+        /**
+         * Releases the reference held by this lease
+         */
+        public void release() {
+            if (this.released.compareAndSet(false, true)) {
+                SharedConnectionResources.this.release();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import org.immutables.value.Value;
+
+/**
+ * Configuration of HTTP compression.  Responses are always requested compressed and decompressed as they are received.  Request bodies are only compressed if enabled, as not every endpoint accepts
+ * compressed requests.
+ */
+@Value.Immutable
+abstract class _CompressionConfiguration {
+
+    /**
+     * Whether request bodies at least {@link #getRequestCompressionThreshold()} bytes long are sent {@code gzip} encoded.  Only enable this if the foundation's router and APIs accept compressed
+     * requests.  Defaults to {@code false}.
+     */
+    @Value.Default
+    boolean getCompressRequests() {
+        return false;
+    }
+
+    /**
+     * The minimum length, in bytes, of a request body that is compressed.  Smaller bodies are not worth the cost of compressing.  Defaults to {@code 8192}.
+     */
+    @Value.Default
+    int getRequestCompressionThreshold() {
+        return 8192;
+    }
+
+    @Value.Check
+    void checkValues() {
+        if (getRequestCompressionThreshold() < 0) {
+            throw new IllegalArgumentException(String.format("Request compression threshold %d must not be negative", getRequestCompressionThreshold()));
+        }
+    }
+
+}
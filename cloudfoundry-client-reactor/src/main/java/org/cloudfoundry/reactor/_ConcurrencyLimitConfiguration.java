@@ -0,0 +1,85 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor;
+
+import org.immutables.value.Value;
+
+import java.time.Duration;
+
+/**
+ * Configuration of adaptive (additive-increase/multiplicative-decrease) concurrency limiting
+ */
+@Value.Immutable
+abstract class _ConcurrencyLimitConfiguration {
+
+    /**
+     * The ratio the limit is multiplied by when a host signals overload.  Defaults to {@code 0.9}.
+     */
+    @Value.Default
+    double getBackoffRatio() {
+        return 0.9;
+    }
+
+    /**
+     * The initial number of concurrent requests allowed to each host.  Defaults to {@code 20}.
+     */
+    @Value.Default
+    int getInitialLimit() {
+        return 20;
+    }
+
+    /**
+     * The latency above which a response is treated as a signal of overload.  Defaults to {@code 10 seconds}.
+     */
+    @Value.Default
+    Duration getLatencyThreshold() {
+        return Duration.ofSeconds(10);
+    }
+
+    /**
+     * The maximum number of concurrent requests allowed to each host.  Defaults to {@code 256}.
+     */
+    @Value.Default
+    int getMaximumLimit() {
+        return 256;
+    }
+
+    /**
+     * The minimum number of concurrent requests allowed to each host.  Defaults to {@code 1}.
+     */
+    @Value.Default
+    int getMinimumLimit() {
+        return 1;
+    }
+
+    @Value.Check
+    void checkLimits() {
+        if (getBackoffRatio() <= 0 || getBackoffRatio() >= 1) {
+            throw new IllegalArgumentException(String.format("Backoff ratio %s must be between 0 and 1", getBackoffRatio()));
+        }
+
+        if (getMinimumLimit() < 1 || getMinimumLimit() > getMaximumLimit()) {
+            throw new IllegalArgumentException(String.format("Minimum limit %d must be at least 1 and no greater than maximum limit %d", getMinimumLimit(), getMaximumLimit()));
+        }
+
+        if (getInitialLimit() < getMinimumLimit() || getInitialLimit() > getMaximumLimit()) {
+            throw new IllegalArgumentException(String.format("Initial limit %d must be between minimum limit %d and maximum limit %d", getInitialLimit(), getMinimumLimit(), getMaximumLimit()));
+        }
+    }
+
+}
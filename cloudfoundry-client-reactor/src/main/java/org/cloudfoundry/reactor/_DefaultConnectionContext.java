@@ -22,14 +22,22 @@ import com.fasterxml.jackson.databind.deser.DeserializationProblemHandler;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.ChannelOption;
+import org.cloudfoundry.reactor.util.AdaptiveConcurrencyLimiter;
 import org.cloudfoundry.reactor.util.DefaultSslCertificateTruster;
+import org.cloudfoundry.reactor.util.ExchangeTimingChannelHandler;
+import org.cloudfoundry.reactor.util.HttpCompression;
 import org.cloudfoundry.reactor.util.JsonCodec;
 import org.cloudfoundry.reactor.util.NetworkLogging;
+import org.cloudfoundry.reactor.util.PriorityLanes;
+import org.cloudfoundry.reactor.util.RetryPolicy;
 import org.cloudfoundry.reactor.util.SslCertificateTruster;
 import org.cloudfoundry.reactor.util.StaticTrustManagerFactory;
 import org.immutables.value.Value;
 import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.client.HttpClient;
 import reactor.ipc.netty.options.ClientOptions;
@@ -37,9 +45,13 @@ import reactor.ipc.netty.resources.LoopResources;
 import reactor.ipc.netty.resources.PoolResources;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -58,6 +70,10 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
 
     private static final int DEFAULT_PORT = 443;
 
+    private static final List<String> ENDPOINT_KEYS = Arrays.asList("doppler_logging_endpoint", "routing_endpoint", "token_endpoint");
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("cloudfoundry-client.connection");
+
     private static final Pattern HOSTNAME_PATTERN = Pattern.compile("^[a-zA-Z0-9-.]+$");
 
     private static final int RECEIVE_BUFFER_SIZE = 10 * 1024 * 1024;
@@ -66,31 +82,71 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
 
     private static final int UNDEFINED_PORT = -1;
 
+    @Override
+    @Value.Derived
+    public Optional<AdaptiveConcurrencyLimiter> getConcurrencyLimiter() {
+        return getConcurrencyLimitConfiguration().map(AdaptiveConcurrencyLimiter::new);
+    }
+
+    @Override
+    @Value.Derived
+    public Optional<HttpCompression> getCompression() {
+        return getCompressionConfiguration().map(HttpCompression::new);
+    }
+
     /**
-     * The number of connections to use when processing requests and responses
+     * The maximum number of connections to each host when {@link #getConnectionPooling() connection pooling} is enabled
      */
     @Value.Default
     public Integer getConnectionPoolSize() {
         return 2 * PoolResources.DEFAULT_POOL_MAX_CONNECTION;
     }
 
+    /**
+     * Releases this context's reference to its {@link #getSharedResources() shared resources}, if any.  Copies of a context share its reference, so only one of them needs to be disposed.  Contexts
+     * created without shared resources own their resources and have nothing to release.
+     */
+    public void dispose() {
+        getSharedResourcesLease().ifPresent(SharedConnectionResources.Lease::release);
+    }
+
     @Override
     @Value.Default
     public HttpClient getHttpClient() {
+        Optional<SharedConnectionResources> sharedResources = getSharedResources();
+
         return HttpClient.create(options -> {
             options
-                .loopResources(LoopResources.create("cloudfoundry-client", getThreadPoolSize(), true))
+                .loopResources(sharedResources
+                    .map(SharedConnectionResources::getLoopResources)
+                    .orElseGet(() -> LoopResources.create("cloudfoundry-client", getThreadPoolSize(), true)))
                 .option(SO_SNDBUF, SEND_BUFFER_SIZE)
                 .option(SO_RCVBUF, RECEIVE_BUFFER_SIZE)
-                .option(ChannelOption.ALLOCATOR, UnpooledByteBufAllocator.DEFAULT)
-                .disablePool();  // TODO: Remove once pooling fixed
-//                .poolResources(PoolResources.fixed("cloudfoundry-client", getConnectionPoolSize()));
+                .option(ChannelOption.ALLOCATOR, UnpooledByteBufAllocator.DEFAULT);
+
+            if (getConnectionPooling().orElse(false)) {
+                options.poolResources(sharedResources
+                    .map(resources -> resources.getPoolResources(getConnectionConfiguration()))
+                    .orElseGet(() -> PoolResources.fixed("cloudfoundry-client", getConnectionPoolSize())));
+            } else {
+                options.disablePool();
+            }
+
+            if (!getExchangeTimingListeners().isEmpty()) {
+                options.afterChannelInit(channel -> channel.pipeline().addFirst(ExchangeTimingChannelHandler.NAME, new ExchangeTimingChannelHandler(getExchangeTimingListeners())));
+            }
 
             getKeepAlive().ifPresent(keepAlive -> options.option(SO_KEEPALIVE, keepAlive));
             getProxyConfiguration().ifPresent(c -> options.proxy(ClientOptions.Proxy.HTTP, c.getHost(), c.getPort().orElse(null), c.getUsername().orElse(null), u -> c.getPassword().orElse(null)));
             getSocketTimeout().ifPresent(socketTimeout -> options.option(SO_TIMEOUT, (int) socketTimeout.toMillis()));
 
-            options.sslSupport(ssl -> getSslCertificateTruster().ifPresent(trustManager -> ssl.trustManager(new StaticTrustManagerFactory(trustManager))));
+            Optional<SslCertificateTruster> sslCertificateTruster = getSslCertificateTruster();
+            if (sharedResources.isPresent() && !sslCertificateTruster.isPresent()) {
+                options.sslContext(sharedResources.get().getSslContext());
+            } else {
+                options.sslSupport(ssl -> sslCertificateTruster.ifPresent(trustManager -> ssl.trustManager(new StaticTrustManagerFactory(trustManager))));
+            }
+
             getSslHandshakeTimeout().ifPresent(options::sslHandshakeTimeout);
         });
     }
@@ -114,13 +170,21 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
         return DEFAULT_PORT;
     }
 
+    @Override
+    @Value.Derived
+    public Optional<PriorityLanes> getPriorityLanes() {
+        return getPriorityConcurrencyLimits().isEmpty() ? Optional.empty() : Optional.of(new PriorityLanes(getPriorityConcurrencyLimits()));
+    }
+
+    @Override
+    @Value.Derived
+    public Optional<RetryPolicy> getRetryPolicy() {
+        return getRetryConfiguration().map(RetryPolicy::new);
+    }
+
     @Override
     public Mono<String> getRoot(String key) {
-        return getInfo()
-            .map(info -> normalize(UriComponentsBuilder.fromUriString(info.get(key)), getScheme()))
-            .doOnNext(components -> trust(components, getSslCertificateTruster()))
-            .map(UriComponents::toUriString)
-            .cache();
+        return getRoots().get(key);
     }
 
     @Value.Derived
@@ -132,9 +196,10 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
         }
 
         UriComponents components = normalize(builder, getScheme());
-        trust(components, getSslCertificateTruster());
 
-        return Mono.just(components.toUriString());
+        return trust(components, getSslCertificateTruster())
+            .then(Mono.just(components.toUriString()))
+            .cache();
     }
 
     /**
@@ -145,6 +210,33 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
         return LoopResources.DEFAULT_IO_WORKER_COUNT;
     }
 
+    /**
+     * Prepares this context for use.  The API root is trusted and its info fetched, and then the token, logging and routing endpoints are resolved and trusted and the token negotiated in
+     * parallel.  When {@link #getConnectionPooling() connection pooling} is enabled, a connection to each endpoint is opened and returned to the pool.
+     *
+     * @param tokenProvider the {@link TokenProvider} whose token to negotiate
+     * @return completes when the context is ready
+     */
+    @Override
+    public Mono<Void> warmUp(TokenProvider tokenProvider) {
+        Flux<Void> endpoints = getInfo()
+            .flatMap(info -> Flux.fromIterable(ENDPOINT_KEYS)
+                .filter(key -> info.get(key) != null))
+            .flatMap(key -> getRoot(key)
+                .then(this::preconnect));
+
+        return Flux
+            .merge(endpoints, tokenProvider.getToken(this).then())
+            .then();
+    }
+
+    @Value.Check
+    void checkExchangeTimingWithoutPooling() {
+        if (getConnectionPooling().orElse(false) && !getExchangeTimingListeners().isEmpty()) {
+            throw new IllegalStateException("exchange timing listeners cannot be used with connection pooling");
+        }
+    }
+
     @Value.Check
     void checkForValidApiHost() {
         Matcher matcher = HOSTNAME_PATTERN.matcher(getApiHost());
@@ -159,6 +251,37 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
      */
     abstract String getApiHost();
 
+    /**
+     * The (optional) configuration of HTTP compression.  If not configured, neither responses nor requests are compressed.
+     */
+    abstract Optional<CompressionConfiguration> getCompressionConfiguration();
+
+    /**
+     * The (optional) configuration of adaptive concurrency limiting.  If not configured, the number of concurrent requests is not limited.
+     */
+    abstract Optional<ConcurrencyLimitConfiguration> getConcurrencyLimitConfiguration();
+
+    /**
+     * The configuration that determines how connections are opened.  Contexts with {@link #getSharedResources() shared resources} only share pooled connections with contexts whose connection
+     * configuration is equal.
+     */
+    List<Object> getConnectionConfiguration() {
+        return Arrays.asList(getKeepAlive(), getProxyConfiguration(), getSkipSslValidation().orElse(false), getSocketTimeout(), getSslHandshakeTimeout());
+    }
+
+    /**
+     * Whether to reuse connections between requests.  When enabled, at most {@link #getConnectionPoolSize()} connections are opened to each host and further requests wait for a free connection,
+     * rather than each request opening, handshaking and closing its own connection.  Defaults to {@code false}.
+     */
+    abstract Optional<Boolean> getConnectionPooling();
+
+    /**
+     * Listeners notified with the phase timings (address resolution, connection, TLS handshake, time to first byte and body transfer) of each exchange.  Timings are only recorded when at least one
+     * listener is configured.  {@link NetworkLogging#timing()} provides a listener that logs the timings.  Timings are recorded per connection, so listeners cannot be combined with
+     * {@link #getConnectionPooling() connection pooling}.
+     */
+    abstract List<ExchangeTimingListener> getExchangeTimingListeners();
+
     @SuppressWarnings("unchecked")
     @Value.Derived
     Mono<Map<String, String>> getInfo() {
@@ -183,11 +306,33 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
      */
     abstract List<DeserializationProblemHandler> getProblemHandlers();
 
+    /**
+     * The maximum number of concurrent requests of each {@link RequestPriority}.  Requests of a priority without a maximum are not limited.
+     */
+    abstract Map<RequestPriority, Integer> getPriorityConcurrencyLimits();
+
     /**
      * The (optional) proxy configuration
      */
     abstract Optional<ProxyConfiguration> getProxyConfiguration();
 
+    /**
+     * The (optional) configuration of automatic retries.  If not configured, requests are not retried.
+     */
+    abstract Optional<RetryConfiguration> getRetryConfiguration();
+
+    /**
+     * The resolved and trusted roots of the endpoints in the API info, memoized by key
+     */
+    @Value.Auxiliary
+    @Value.Derived
+    Roots getRoots() {
+        return new Roots(key -> getInfo()
+            .map(info -> normalize(UriComponentsBuilder.fromUriString(info.get(key)), getScheme()))
+            .then(components -> trust(components, getSslCertificateTruster())
+                .then(Mono.just(components.toUriString()))));
+    }
+
     @Value.Derived
     String getScheme() {
         if (getSecure().orElse(true)) {
@@ -202,6 +347,23 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
      */
     abstract Optional<Boolean> getSecure();
 
+    /**
+     * The (optional) event loop, connection pool and TLS context resources shared with other contexts.  When configured, {@link #getThreadPoolSize()} and {@link #getConnectionPoolSize()} are
+     * ignored, a shared connection pool is used when {@link #getConnectionPooling() connection pooling} is enabled, and the shared default TLS context is used unless SSL validation is skipped.  The
+     * shared connection pool is specific to the proxy, SSL validation and socket configuration of the context.
+     */
+    abstract Optional<SharedConnectionResources> getSharedResources();
+
+    /**
+     * The reference to the {@link #getSharedResources() shared resources} held by this context.  The reference is acquired once when the context is built and is carried over to copies made with
+     * {@code with*()} and {@code copyOf()}, so that disposing any copy releases it.  Not intended to be configured.
+     */
+    @Value.Auxiliary
+    @Value.Default
+    Optional<SharedConnectionResources.Lease> getSharedResourcesLease() {
+        return getSharedResources().map(SharedConnectionResources::acquire);
+    }
+
     /**
      * Whether to skip SSL certificate validation for all hosts reachable from the API host.  Defaults to {@code false}.
      */
@@ -226,8 +388,10 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
      */
     abstract Optional<Duration> getSslHandshakeTimeout();
 
-    private static void trust(UriComponents components, Optional<SslCertificateTruster> sslCertificateTruster) {
-        sslCertificateTruster.ifPresent(t -> t.trust(components.getHost(), components.getPort(), Duration.ofSeconds(30)));
+    private static Mono<Void> trust(UriComponents components, Optional<SslCertificateTruster> sslCertificateTruster) {
+        return sslCertificateTruster
+            .map(t -> t.trustAsync(components.getHost(), components.getPort(), Duration.ofSeconds(30)))
+            .orElse(Mono.empty());
     }
 
     private UriComponents normalize(UriComponentsBuilder builder, String scheme) {
@@ -242,4 +406,44 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
         return builder.build().encode();
     }
 
+    private Mono<Void> preconnect(String root) {
+        if (!getConnectionPooling().orElse(false)) {
+            return Mono.empty();
+        }
+
+        return getHttpClient()
+            .get(root, request -> request
+                .failOnClientError(false)
+                .failOnServerError(false)
+                .send())
+            .doOnSubscribe(NetworkLogging.get(root))
+            .then(response -> response.receive().then())
+            .otherwise(t -> {
+                LOGGER.debug("Unable to open connection to {}", root, t);
+                return Mono.empty();
+            });
+    }
+
+
+    /**
+     * A memo of the root of each endpoint.  A root that fails to resolve is forgotten so that it is resolved again on its next use.
+     */
+    static final class Roots {
+
+        private final Function<String, Mono<String>> resolver;
+
+        private final ConcurrentMap<String, Mono<String>> roots = new ConcurrentHashMap<>();
+
+        private Roots(Function<String, Mono<String>> resolver) {
+            this.resolver = resolver;
+        }
+
+        private Mono<String> get(String key) {
+            return this.roots.computeIfAbsent(key, k -> this.resolver.apply(k)
+                .doOnError(t -> this.roots.remove(k))
+                .cache());
+        }
+
+    }
+
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import org.immutables.value.Value;
+
+import java.util.Optional;
+
+/**
+ * Configuration of a download directly to a file
+ */
+@Value.Immutable
+abstract class _DownloadConfiguration {
+
+    /**
+     * The expected checksum of the download, as a hexadecimal string.  If configured, the checksum of the downloaded file is verified once the download completes.
+     */
+    abstract Optional<String> getChecksum();
+
+    /**
+     * The {@link java.security.MessageDigest} algorithm of the {@link #getChecksum() checksum}.  Defaults to {@code SHA-1}.
+     */
+    @Value.Default
+    String getChecksumAlgorithm() {
+        return "SHA-1";
+    }
+
+    /**
+     * The maximum number of times an interrupted transfer is resumed from the last byte written.  Defaults to {@code 5}.
+     */
+    @Value.Default
+    int getMaxResumes() {
+        return 5;
+    }
+
+    /**
+     * The minimum size, in bytes, of each range downloaded in parallel.  Defaults to {@code 8388608} (8 MiB).
+     */
+    @Value.Default
+    long getMinimumRangeSize() {
+        return 8 * 1024 * 1024;
+    }
+
+    /**
+     * The maximum number of ranges downloaded in parallel.  When greater than {@code 1}, and the server supports range requests, the file is split into ranges that are downloaded concurrently and
+     * the checksum is verified by reading the file back once all ranges complete.  Otherwise the file is downloaded in a single stream and the checksum is calculated as the data arrives.  Defaults
+     * to {@code 1}.
+     */
+    @Value.Default
+    int getParallelism() {
+        return 1;
+    }
+
+    @Value.Check
+    void checkValues() {
+        if (getMaxResumes() < 0) {
+            throw new IllegalArgumentException(String.format("Max resumes %d must not be negative", getMaxResumes()));
+        }
+
+        if (getMinimumRangeSize() < 1) {
+            throw new IllegalArgumentException(String.format("Minimum range size %d must be positive", getMinimumRangeSize()));
+        }
+
+        if (getParallelism() < 1) {
+            throw new IllegalArgumentException(String.format("Parallelism %d must be positive", getParallelism()));
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor;
+
+import org.immutables.value.Value;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * The phase-by-phase timing of a single HTTP exchange
+ */
+@Value.Immutable
+abstract class _ExchangeTiming {
+
+    /**
+     * The time between the first byte of the response being received and the last
+     */
+    abstract Duration getBodyTransfer();
+
+    /**
+     * The time taken to establish the TCP connection.  Absent if the connection was not established as part of this exchange.
+     */
+    abstract Optional<Duration> getConnect();
+
+    /**
+     * The time taken to resolve the remote address.  Absent if the connection was not established as part of this exchange.
+     */
+    abstract Optional<Duration> getDnsResolution();
+
+    /**
+     * The request line (method and URI) of the exchange, if known
+     */
+    abstract Optional<String> getRequest();
+
+    /**
+     * The time between the first byte of the request being sent and the first byte of the response being received
+     */
+    abstract Duration getTimeToFirstByte();
+
+    /**
+     * The time taken to negotiate TLS.  Absent if the connection was not secure or the handshake was not part of this exchange.
+     */
+    abstract Optional<Duration> getTlsHandshake();
+
+    /**
+     * The total time between the channel being initialized and the last byte of the response being received
+     */
+    abstract Duration getTotal();
+
+}
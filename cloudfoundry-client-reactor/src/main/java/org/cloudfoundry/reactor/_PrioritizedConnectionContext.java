@@ -0,0 +1,99 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.cloudfoundry.reactor.util.AdaptiveConcurrencyLimiter;
+import org.cloudfoundry.reactor.util.HttpCompression;
+import org.cloudfoundry.reactor.util.PriorityLanes;
+import org.cloudfoundry.reactor.util.RetryPolicy;
+import org.immutables.value.Value;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.client.HttpClient;
+
+import java.util.Optional;
+
+/**
+ * A view of a {@link ConnectionContext} that makes all of its requests with a given {@link RequestPriority}.  All other configuration, including connection resources and limits, is shared with the
+ * underlying {@link ConnectionContext}.
+ */
+@Value.Immutable
+abstract class _PrioritizedConnectionContext implements ConnectionContext {
+
+    @Override
+    public Optional<HttpCompression> getCompression() {
+        return getConnectionContext().getCompression();
+    }
+
+    @Override
+    public Optional<AdaptiveConcurrencyLimiter> getConcurrencyLimiter() {
+        return getConnectionContext().getConcurrencyLimiter();
+    }
+
+    @Override
+    public HttpClient getHttpClient() {
+        return getConnectionContext().getHttpClient();
+    }
+
+    @Override
+    public ObjectMapper getObjectMapper() {
+        return getConnectionContext().getObjectMapper();
+    }
+
+    @Override
+    public Optional<PriorityLanes> getPriorityLanes() {
+        return getConnectionContext().getPriorityLanes();
+    }
+
+    /**
+     * The priority of requests made with this context
+     */
+    @Override
+    public abstract RequestPriority getRequestPriority();
+
+    @Override
+    public Optional<RetryPolicy> getRetryPolicy() {
+        return getConnectionContext().getRetryPolicy();
+    }
+
+    @Override
+    public Mono<String> getRoot() {
+        return getConnectionContext().getRoot();
+    }
+
+    @Override
+    public Mono<String> getRoot(String key) {
+        return getConnectionContext().getRoot(key);
+    }
+
+    @Override
+    public ConnectionContext getTokenContext() {
+        return getConnectionContext().getTokenContext();
+    }
+
+    @Override
+    public Mono<Void> warmUp(TokenProvider tokenProvider) {
+        return getConnectionContext().warmUp(tokenProvider);
+    }
+
+    /**
+     * The underlying {@link ConnectionContext}
+     */
+    abstract ConnectionContext getConnectionContext();
+
+}
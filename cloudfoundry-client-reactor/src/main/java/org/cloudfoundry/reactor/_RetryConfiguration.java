@@ -0,0 +1,98 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor;
+
+import org.immutables.value.Value;
+
+import java.time.Duration;
+
+/**
+ * Configuration of automatic retries of transient failures
+ */
+@Value.Immutable
+abstract class _RetryConfiguration {
+
+    /**
+     * The maximum number of retry tokens the budget can accumulate.  The budget starts full.  Defaults to {@code 20}.
+     */
+    @Value.Default
+    int getBudgetCapacity() {
+        return 20;
+    }
+
+    /**
+     * The number of retry tokens each request adds to the budget.  Each retry consumes one token, so this is the sustained ratio of retries to requests.  Defaults to {@code 0.1}.
+     */
+    @Value.Default
+    double getBudgetRatio() {
+        return 0.1;
+    }
+
+    /**
+     * The maximum delay between retries.  A {@code Retry-After} longer than this causes the failure to be returned rather than retried.  Defaults to {@code 10 seconds}.
+     */
+    @Value.Default
+    Duration getMaximumBackoff() {
+        return Duration.ofSeconds(10);
+    }
+
+    /**
+     * The maximum number of times a request is retried.  Defaults to {@code 3}.
+     */
+    @Value.Default
+    int getMaximumRetries() {
+        return 3;
+    }
+
+    /**
+     * The minimum delay between retries.  Defaults to {@code 100 milliseconds}.
+     */
+    @Value.Default
+    Duration getMinimumBackoff() {
+        return Duration.ofMillis(100);
+    }
+
+    /**
+     * Whether {@code PUT} and {@code DELETE} requests are retried as well as {@code GET} requests.  Even when enabled, requests that stream their bodies, such as application, buildpack and package
+     * uploads, are never retried.  Defaults to {@code false}.
+     */
+    @Value.Default
+    boolean getRetryPutAndDelete() {
+        return false;
+    }
+
+    @Value.Check
+    void checkValues() {
+        if (getBudgetCapacity() < 0) {
+            throw new IllegalArgumentException(String.format("Budget capacity %d must not be negative", getBudgetCapacity()));
+        }
+
+        if (getBudgetRatio() < 0) {
+            throw new IllegalArgumentException(String.format("Budget ratio %s must not be negative", getBudgetRatio()));
+        }
+
+        if (getMaximumRetries() < 0) {
+            throw new IllegalArgumentException(String.format("Maximum retries %d must not be negative", getMaximumRetries()));
+        }
+
+        if (getMinimumBackoff().compareTo(getMaximumBackoff()) > 0) {
+            throw new IllegalArgumentException(String.format("Minimum backoff %s must not be greater than maximum backoff %s", getMinimumBackoff(), getMaximumBackoff()));
+        }
+    }
+
+}
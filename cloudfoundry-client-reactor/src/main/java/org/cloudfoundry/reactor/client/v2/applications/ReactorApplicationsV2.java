@@ -16,6 +16,9 @@
 
 package org.cloudfoundry.reactor.client.v2.applications;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpStatusClass;
 import org.cloudfoundry.client.v2.applications.ApplicationEnvironmentRequest;
 import org.cloudfoundry.client.v2.applications.ApplicationEnvironmentResponse;
 import org.cloudfoundry.client.v2.applications.ApplicationInstancesRequest;
@@ -52,19 +55,28 @@ import org.cloudfoundry.client.v2.applications.UpdateApplicationResponse;
 import org.cloudfoundry.client.v2.applications.UploadApplicationRequest;
 import org.cloudfoundry.client.v2.applications.UploadApplicationResponse;
 import org.cloudfoundry.reactor.ConnectionContext;
+import org.cloudfoundry.reactor.DownloadConfiguration;
 import org.cloudfoundry.reactor.TokenProvider;
 import org.cloudfoundry.reactor.client.v2.AbstractClientV2Operations;
+import org.cloudfoundry.reactor.util.MultipartBody;
+import org.cloudfoundry.reactor.util.ResumableDownload;
 import org.cloudfoundry.util.FileUtils;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.client.HttpClientRequest;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.function.Function;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
 
 /**
  * The Reactor-based implementation of {@link ApplicationsV2}
@@ -116,6 +128,19 @@ public final class ReactorApplicationsV2 extends AbstractClientV2Operations impl
             .checkpoint();
     }
 
+    /**
+     * Downloads an application's bits directly to a file, resuming the transfer if it is interrupted
+     *
+     * @param request       the download application request
+     * @param destination   the file to download to
+     * @param configuration the configuration of the download
+     * @return completes when the bits have been written and verified
+     */
+    public Mono<Void> download(DownloadApplicationRequest request, Path destination, DownloadConfiguration configuration) {
+        return download(request, builder -> builder.pathSegment("v2", "apps", request.getApplicationId(), "download"), destination, configuration)
+            .checkpoint();
+    }
+
     @Override
     public Flux<byte[]> downloadDroplet(DownloadApplicationDropletRequest request) {
         return get(request, builder -> builder.pathSegment("v2", "apps", request.getApplicationId(), "droplet", "download"), outbound -> outbound.map(HttpClientRequest::followRedirect))
@@ -123,6 +148,19 @@ public final class ReactorApplicationsV2 extends AbstractClientV2Operations impl
             .checkpoint();
     }
 
+    /**
+     * Downloads an application's droplet directly to a file, resuming the transfer if it is interrupted
+     *
+     * @param request       the download application droplet request
+     * @param destination   the file to download to
+     * @param configuration the configuration of the download
+     * @return completes when the droplet has been written and verified
+     */
+    public Mono<Void> downloadDroplet(DownloadApplicationDropletRequest request, Path destination, DownloadConfiguration configuration) {
+        return download(request, builder -> builder.pathSegment("v2", "apps", request.getApplicationId(), "droplet", "download"), destination, configuration)
+            .checkpoint();
+    }
+
     @Override
     public Mono<ApplicationEnvironmentResponse> environment(ApplicationEnvironmentRequest request) {
         return get(request, ApplicationEnvironmentResponse.class, builder -> builder.pathSegment("v2", "apps", request.getApplicationId(), "env"))
@@ -207,7 +245,9 @@ public final class ReactorApplicationsV2 extends AbstractClientV2Operations impl
         return put(request, UploadApplicationResponse.class, builder -> builder.pathSegment("v2", "apps", request.getApplicationId(), "bits"),
             outbound -> outbound
                 .then(r -> {
-                    if (Files.isDirectory(request.getApplication())) {
+                    if (request.getApplicationBits() != null) {
+                        return upload(request.getApplicationBits(), r, request);
+                    } else if (Files.isDirectory(request.getApplication())) {
                         return FileUtils.compress(request.getApplication())
                             .then(application -> upload(application, r, request)
                                 .doOnTerminate((v, t) -> {
@@ -224,20 +264,52 @@ public final class ReactorApplicationsV2 extends AbstractClientV2Operations impl
             .checkpoint();
     }
 
+    private Mono<Void> download(Object request, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer, Path destination, DownloadConfiguration configuration) {
+        return Mono
+            .using(() -> FileChannel.open(destination, CREATE, READ, TRUNCATE_EXISTING, WRITE),
+                channel -> get(request, uriTransformer, Function.identity())
+                    .then(response -> {
+                        String location = response.responseHeaders().get(HttpHeaderNames.LOCATION);
+
+                        if (HttpStatusClass.REDIRECTION == response.status().codeClass() && location != null) {
+                            return response.receive()
+                                .then()
+                                .then(ResumableDownload.download(this.connectionContext.getHttpClient(), location, channel, configuration));
+                        }
+
+                        return ResumableDownload.write(response, channel, configuration);
+                    }),
+                channel -> {
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        throw Exceptions.propagate(e);
+                    }
+                });
+    }
+
+    private Mono<Void> upload(Flux<byte[]> applicationBits, HttpClientRequest r, UploadApplicationRequest request) {
+        try {
+            return new MultipartBody()
+                .text("resources", this.connectionContext.getObjectMapper().writeValueAsBytes(request.getResources()), APPLICATION_JSON)
+                .stream("application", "application.zip", applicationBits, APPLICATION_ZIP)
+                .send(r)
+                .then();
+        } catch (JsonProcessingException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
     private Mono<Void> upload(Path application, HttpClientRequest r, UploadApplicationRequest request) {
-        return r
-            .chunkedTransfer(false)
-            .sendForm(form -> {
-                try (InputStream resources = new ByteArrayInputStream(this.connectionContext.getObjectMapper().writeValueAsBytes(request.getResources()))) {
-                    form
-                        .multipart(true)
-                        .textFile("resources", resources, APPLICATION_JSON)
-                        .file("application", "application.zip", application.toFile(), APPLICATION_ZIP);
-                } catch (IOException e) {
-                    throw Exceptions.propagate(e);
-                }
-            })
-            .then();
+        try {
+            return new MultipartBody()
+                .text("resources", this.connectionContext.getObjectMapper().writeValueAsBytes(request.getResources()), APPLICATION_JSON)
+                .file("application", "application.zip", application, APPLICATION_ZIP)
+                .send(r)
+                .then();
+        } catch (JsonProcessingException e) {
+            throw Exceptions.propagate(e);
+        }
     }
 
 }
@@ -32,6 +32,7 @@ import org.cloudfoundry.client.v2.buildpacks.UploadBuildpackResponse;
 import org.cloudfoundry.reactor.ConnectionContext;
 import org.cloudfoundry.reactor.TokenProvider;
 import org.cloudfoundry.reactor.client.v2.AbstractClientV2Operations;
+import org.cloudfoundry.reactor.util.MultipartBody;
 import reactor.core.publisher.Mono;
 
 /**
@@ -85,11 +86,9 @@ public final class ReactorBuildpacks extends AbstractClientV2Operations implemen
     public Mono<UploadBuildpackResponse> upload(UploadBuildpackRequest request) {
         return put(request, UploadBuildpackResponse.class, builder -> builder.pathSegment("v2", "buildpacks", request.getBuildpackId(), "bits"),
             outbound -> outbound
-                .flatMap(r -> r
-                    .chunkedTransfer(false)
-                    .sendForm(form -> form
-                        .multipart(true)
-                        .file("buildpack", request.getFilename(), request.getBuildpack().toFile(), APPLICATION_ZIP)))
+                .flatMap(r -> new MultipartBody()
+                    .file("buildpack", request.getFilename(), request.getBuildpack(), APPLICATION_ZIP)
+                    .send(r))
                 .then())
             .checkpoint();
     }
@@ -34,6 +34,7 @@ import org.cloudfoundry.client.v3.packages.UploadPackageResponse;
 import org.cloudfoundry.reactor.ConnectionContext;
 import org.cloudfoundry.reactor.TokenProvider;
 import org.cloudfoundry.reactor.client.v3.AbstractClientV3Operations;
+import org.cloudfoundry.reactor.util.MultipartBody;
 import org.cloudfoundry.util.FileUtils;
 import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
@@ -127,11 +128,9 @@ public final class ReactorPackages extends AbstractClientV3Operations implements
     }
 
     private Mono<Void> upload(Path bits, HttpClientRequest r) {
-        return r
-            .chunkedTransfer(false)
-            .sendForm(form -> form
-                .multipart(true)
-                .file("bits", "application.zip", bits.toFile(), APPLICATION_ZIP))
+        return new MultipartBody()
+            .file("bits", "application.zip", bits, APPLICATION_ZIP)
+            .send(r)
             .then();
     }
 
@@ -30,10 +30,17 @@ import org.immutables.value.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.client.HttpClientRequest;
 import reactor.ipc.netty.http.client.HttpClientResponse;
 
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Base64;
@@ -51,9 +58,11 @@ import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_TYPE;
 import static io.netty.handler.codec.http.HttpHeaderValues.APPLICATION_JSON;
 import static io.netty.handler.codec.http.HttpHeaderValues.APPLICATION_X_WWW_FORM_URLENCODED;
 import static io.netty.handler.codec.http.HttpResponseStatus.UNAUTHORIZED;
+import static org.cloudfoundry.util.tuple.TupleUtils.function;
 
 /**
- * An abstract base class for all token providers that interact with the UAA.  It encapsulates the logic to refresh the token before expiration.
+ * An abstract base class for all token providers that interact with the UAA.  It encapsulates the logic to refresh the token before expiration and, when a {@link TokenStore} is configured, to
+ * reuse stored tokens instead of negotiating new ones.
  */
 public abstract class AbstractUaaTokenProvider implements TokenProvider {
 
@@ -61,6 +70,8 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
 
     private static final String ACCESS_TOKEN = "access_token";
 
+    private static final Duration EXPIRATION_MARGIN = Duration.ofMinutes(1);
+
     private static final String REFRESH_TOKEN = "refresh_token";
 
     private static final String TOKEN_ENDPOINT = "token_endpoint";
@@ -91,14 +102,49 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
 
     @Override
     public final Mono<String> getToken(ConnectionContext connectionContext) {
-        return this.accessTokens.getOrDefault(connectionContext, Mono.empty());
+        return this.accessTokens.computeIfAbsent(connectionContext.getTokenContext(), this::initialToken);
     }
 
     @Override
     public void invalidate(ConnectionContext connectionContext) {
-        this.accessTokens.put(connectionContext, token(connectionContext));
+        ConnectionContext tokenContext = connectionContext.getTokenContext();
+        this.accessTokens.put(tokenContext, token(tokenContext));
+    }
+
+    /**
+     * Returns a hex-encoded SHA-256 digest of a sequence of values
+     *
+     * @param values the values to digest
+     * @return the digest
+     */
+    static String digest(String... values) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            for (String value : values) {
+                digest.update(value.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+
+            return String.format("%064x", new BigInteger(1, digest.digest()));
+        } catch (NoSuchAlgorithmException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    /**
+     * The identity that tokens are negotiated for.  Providers with the same identity share tokens in a {@link TokenStore}, so the identity must include a digest of every credential used to
+     * negotiate a token.  Otherwise a provider with the wrong credentials would be handed another provider's tokens.
+     */
+    String getIdentity() {
+        return String.format("%s:%s", getClientId(), digest(getClientSecret()));
     }
 
+    /**
+     * The (optional) store of negotiated tokens.  If not configured, tokens are only held in memory by this provider.
+     */
+    abstract Optional<TokenStore> getTokenStore();
+
     /**
      * Transforms a {@code Mono} in order to make a request to negotiate an access token
      *
@@ -140,6 +186,12 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
             .build().encode().toUriString();
     }
 
+    private static boolean isUsable(String accessToken) {
+        return parseToken(accessToken.substring(accessToken.indexOf(' ') + 1))
+            .map(claims -> claims.getExpiration() == null || claims.getExpiration().toInstant().isAfter(Instant.now().plus(EXPIRATION_MARGIN)))
+            .orElse(false);
+    }
+
     private static Optional<Claims> parseToken(String token) {
         try {
             String jws = token.substring(0, token.lastIndexOf('.') + 1);
@@ -181,7 +233,42 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
             .transform(JsonCodec.decode(connectionContext.getObjectMapper(), Map.class))
             .map(payload -> (Map<String, String>) payload)
             .doOnNext(extractRefreshToken(connectionContext))
-            .map(AbstractUaaTokenProvider::extractAccessToken);
+            .then(payload -> {
+                String accessToken = extractAccessToken(payload);
+
+                return storeTokens(connectionContext, accessToken)
+                    .then(Mono.just(accessToken));
+            });
+    }
+
+    private Mono<StoredTokens> getStoredTokens(ConnectionContext connectionContext) {
+        return getTokenStore()
+            .map(tokenStore -> getTokenKey(connectionContext)
+                .then(tokenStore::get)
+                .otherwise(t -> {
+                    LOGGER.warn("Unable to read stored tokens", t);
+                    return Mono.empty();
+                }))
+            .orElse(Mono.empty());
+    }
+
+    private Mono<String> getTokenKey(ConnectionContext connectionContext) {
+        return connectionContext.getRoot()
+            .map(root -> digest(root, getIdentity()));
+    }
+
+    private Mono<String> initialToken(ConnectionContext connectionContext) {
+        return getStoredTokens(connectionContext)
+            .then(tokens -> {
+                tokens.getRefreshToken()
+                    .ifPresent(refreshToken -> this.refreshTokens.put(connectionContext, Mono.just(refreshToken)));
+
+                return isUsable(tokens.getAccessToken()) ? Mono.just(tokens.getAccessToken()) : Mono.empty();
+            })
+            .doOnNext(accessToken -> LOGGER.debug("Using stored access token"))
+            .otherwiseIfEmpty(Mono.defer(() -> token(connectionContext)))
+            .cache()
+            .checkpoint();
     }
 
     private Mono<HttpClientResponse> primaryToken(ConnectionContext connectionContext) {
@@ -193,6 +280,25 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
             .otherwise(t -> t instanceof UaaException && ((UaaException) t).getStatusCode() == UNAUTHORIZED.code(), t -> Mono.empty());
     }
 
+    private Mono<Void> storeTokens(ConnectionContext connectionContext, String accessToken) {
+        return getTokenStore()
+            .map(tokenStore -> Mono
+                .when(
+                    getTokenKey(connectionContext),
+                    this.refreshTokens.getOrDefault(connectionContext, Mono.empty())
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty()))
+                .then(function((key, refreshToken) -> tokenStore.put(key, StoredTokens.builder()
+                    .accessToken(accessToken)
+                    .refreshToken(refreshToken)
+                    .build())))
+                .otherwise(t -> {
+                    LOGGER.warn("Unable to store tokens", t);
+                    return Mono.empty();
+                }))
+            .orElse(Mono.empty());
+    }
+
     private Function<Mono<HttpClientRequest>, Mono<Void>> refreshTokenGrantTokenRequestTransformer(String refreshToken) {
         return outbound -> outbound
             .then(request -> request
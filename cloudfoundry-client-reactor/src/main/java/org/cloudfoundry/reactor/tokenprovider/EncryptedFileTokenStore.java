@@ -0,0 +1,251 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.tokenprovider;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.function.Consumer;
+
+/**
+ * A {@link TokenStore} that holds tokens in a local file encrypted with AES-GCM under a key derived from a passphrase.  The file is re-read on each access and updated atomically under a file lock,
+ * so several processes using the same file and passphrase share each other's tokens.
+ */
+public final class EncryptedFileTokenStore implements TokenStore {
+
+    private static final String ACCESS_TOKEN_SUFFIX = ".access";
+
+    private static final int IV_LENGTH = 12;
+
+    private static final int KEY_ITERATIONS = 65_536;
+
+    private static final int KEY_LENGTH = 256;
+
+    private static final String REFRESH_TOKEN_SUFFIX = ".refresh";
+
+    private static final int SALT_LENGTH = 16;
+
+    private static final int TAG_LENGTH = 128;
+
+    private static final byte VERSION = 1;
+
+    private final Path file;
+
+    private final Path lockFile;
+
+    private final Object monitor = new Object();
+
+    private final char[] passphrase;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private byte[] salt;
+
+    private SecretKey secretKey;
+
+    /**
+     * Creates a new instance
+     *
+     * @param file       the file to store tokens in.  The file is created if it does not exist.
+     * @param passphrase the passphrase to derive the encryption key from
+     */
+    public EncryptedFileTokenStore(Path file, char[] passphrase) {
+        if (passphrase.length == 0) {
+            throw new IllegalArgumentException("Passphrase must not be empty");
+        }
+
+        this.file = file;
+        this.lockFile = file.resolveSibling(String.format("%s.lock", file.getFileName()));
+        this.passphrase = passphrase.clone();
+    }
+
+    @Override
+    public Mono<StoredTokens> get(String key) {
+        return Mono
+            .fromCallable(() -> {
+                synchronized (this.monitor) {
+                    try (FileChannel channel = openLockFile(); FileLock ignored = channel.lock()) {
+                        return toStoredTokens(read(), key);
+                    }
+                }
+            })
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .subscribeOn(Schedulers.elastic());
+    }
+
+    @Override
+    public Mono<Void> put(String key, StoredTokens tokens) {
+        return update(properties -> {
+            properties.setProperty(key + ACCESS_TOKEN_SUFFIX, tokens.getAccessToken());
+
+            if (tokens.getRefreshToken().isPresent()) {
+                properties.setProperty(key + REFRESH_TOKEN_SUFFIX, tokens.getRefreshToken().get());
+            } else {
+                properties.remove(key + REFRESH_TOKEN_SUFFIX);
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> remove(String key) {
+        return update(properties -> {
+            properties.remove(key + ACCESS_TOKEN_SUFFIX);
+            properties.remove(key + REFRESH_TOKEN_SUFFIX);
+        });
+    }
+
+    private static void restrictPermissions(Path path) throws IOException {
+        try {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            // Permissions are left to the platform defaults where POSIX permissions are not supported
+        }
+    }
+
+    private static Optional<StoredTokens> toStoredTokens(Properties properties, String key) {
+        return Optional.ofNullable(properties.getProperty(key + ACCESS_TOKEN_SUFFIX))
+            .map(accessToken -> StoredTokens.builder()
+                .accessToken(accessToken)
+                .refreshToken(Optional.ofNullable(properties.getProperty(key + REFRESH_TOKEN_SUFFIX)))
+                .build());
+    }
+
+    private Cipher cipher(int mode, byte[] salt, byte[] iv) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(mode, getSecretKey(salt), new GCMParameterSpec(TAG_LENGTH, iv));
+        return cipher;
+    }
+
+    private SecretKey getSecretKey(byte[] salt) throws GeneralSecurityException {
+        if (this.secretKey == null || !Arrays.equals(this.salt, salt)) {
+            PBEKeySpec keySpec = new PBEKeySpec(this.passphrase, salt, KEY_ITERATIONS, KEY_LENGTH);
+
+            try {
+                byte[] encoded = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(keySpec).getEncoded();
+                this.secretKey = new SecretKeySpec(encoded, "AES");
+                this.salt = salt.clone();
+            } finally {
+                keySpec.clearPassword();
+            }
+        }
+
+        return this.secretKey;
+    }
+
+    private FileChannel openLockFile() throws IOException {
+        return FileChannel.open(this.lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    private Properties read() throws IOException, GeneralSecurityException {
+        Properties properties = new Properties();
+
+        if (!Files.exists(this.file)) {
+            return properties;
+        }
+
+        ByteBuffer contents = ByteBuffer.wrap(Files.readAllBytes(this.file));
+        if (contents.remaining() < 1 + SALT_LENGTH + IV_LENGTH || contents.get() != VERSION) {
+            throw new IllegalStateException(String.format("Token store %s is not in a recognized format", this.file));
+        }
+
+        byte[] salt = new byte[SALT_LENGTH];
+        contents.get(salt);
+
+        byte[] iv = new byte[IV_LENGTH];
+        contents.get(iv);
+
+        byte[] encrypted = new byte[contents.remaining()];
+        contents.get(encrypted);
+
+        byte[] decrypted = cipher(Cipher.DECRYPT_MODE, salt, iv).doFinal(encrypted);
+        properties.load(new ByteArrayInputStream(decrypted));
+
+        return properties;
+    }
+
+    private Mono<Void> update(Consumer<Properties> updater) {
+        return Mono
+            .fromRunnable(() -> {
+                synchronized (this.monitor) {
+                    try (FileChannel channel = openLockFile(); FileLock ignored = channel.lock()) {
+                        Properties properties = read();
+                        updater.accept(properties);
+                        write(properties);
+                    } catch (IOException | GeneralSecurityException e) {
+                        throw Exceptions.propagate(e);
+                    }
+                }
+            })
+            .subscribeOn(Schedulers.elastic())
+            .then();
+    }
+
+    private void write(Properties properties) throws IOException, GeneralSecurityException {
+        byte[] salt = this.salt != null ? this.salt : new byte[SALT_LENGTH];
+        if (this.salt == null) {
+            this.random.nextBytes(salt);
+        }
+
+        byte[] iv = new byte[IV_LENGTH];
+        this.random.nextBytes(iv);
+
+        ByteArrayOutputStream plaintext = new ByteArrayOutputStream();
+        properties.store(plaintext, null);
+        byte[] encrypted = cipher(Cipher.ENCRYPT_MODE, salt, iv).doFinal(plaintext.toByteArray());
+
+        ByteBuffer contents = ByteBuffer.allocate(1 + SALT_LENGTH + IV_LENGTH + encrypted.length)
+            .put(VERSION)
+            .put(salt)
+            .put(iv)
+            .put(encrypted);
+
+        Path staging = Files.createTempFile(this.file.toAbsolutePath().getParent(), String.format("%s-", this.file.getFileName()), ".tmp");
+        try {
+            restrictPermissions(staging);
+            Files.write(staging, contents.array());
+            Files.move(staging, this.file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+    }
+
+}
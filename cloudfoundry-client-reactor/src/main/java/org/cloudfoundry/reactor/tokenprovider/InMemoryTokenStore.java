@@ -0,0 +1,47 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.tokenprovider;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link TokenStore} that holds tokens in memory.  A single instance can be shared by many providers so that providers with the same identity reuse each other's tokens.
+ */
+public final class InMemoryTokenStore implements TokenStore {
+
+    private final ConcurrentMap<String, StoredTokens> tokens = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<StoredTokens> get(String key) {
+        return Mono.justOrEmpty(this.tokens.get(key));
+    }
+
+    @Override
+    public Mono<Void> put(String key, StoredTokens tokens) {
+        return Mono.fromRunnable(() -> this.tokens.put(key, tokens));
+    }
+
+    @Override
+    public Mono<Void> remove(String key) {
+        return Mono.fromRunnable(() -> this.tokens.remove(key));
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.tokenprovider;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * A store of the tokens negotiated by {@link AbstractUaaTokenProvider}s.  Stored tokens are reused by providers with the same identity instead of negotiating new ones, so that tokens can survive
+ * restarts and be shared between providers and processes.  Keys are opaque digests of the API root and the provider's identity and never contain credentials.
+ */
+public interface TokenStore {
+
+    /**
+     * Returns the tokens stored for a key
+     *
+     * @param key the key
+     * @return the stored tokens, or empty if no tokens are stored
+     */
+    Mono<StoredTokens> get(String key);
+
+    /**
+     * Stores tokens for a key, replacing any tokens already stored
+     *
+     * @param key    the key
+     * @param tokens the tokens to store
+     * @return completes when the tokens have been stored
+     */
+    Mono<Void> put(String key, StoredTokens tokens);
+
+    /**
+     * Removes the tokens stored for a key
+     *
+     * @param key the key
+     * @return completes when the tokens have been removed
+     */
+    Mono<Void> remove(String key);
+
+}
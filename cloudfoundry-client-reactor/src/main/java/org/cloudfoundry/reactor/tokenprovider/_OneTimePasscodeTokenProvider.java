@@ -33,6 +33,11 @@ abstract class _OneTimePasscodeTokenProvider extends AbstractUaaTokenProvider {
      */
     abstract String getPasscode();
 
+    @Override
+    String getIdentity() {
+        return String.format("%s:%s", super.getIdentity(), digest(getPasscode()));
+    }
+
     @Override
     Mono<Void> tokenRequestTransformer(Mono<HttpClientRequest> outbound) {
         return outbound
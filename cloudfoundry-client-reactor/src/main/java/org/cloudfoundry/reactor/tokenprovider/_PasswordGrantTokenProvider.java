@@ -37,6 +37,11 @@ abstract class _PasswordGrantTokenProvider extends AbstractUaaTokenProvider {
      */
     abstract String getUsername();
 
+    @Override
+    String getIdentity() {
+        return String.format("%s:%s:%s", super.getIdentity(), getUsername(), digest(getPassword()));
+    }
+
     @Override
     Mono<Void> tokenRequestTransformer(Mono<HttpClientRequest> outbound) {
         return outbound
@@ -32,6 +32,11 @@ abstract class _RefreshTokenGrantTokenProvider extends AbstractUaaTokenProvider
      */
     abstract String getToken();
 
+    @Override
+    String getIdentity() {
+        return String.format("%s:%s", super.getIdentity(), digest(getToken()));
+    }
+
     @Override
     Mono<Void> tokenRequestTransformer(Mono<HttpClientRequest> outbound) {
         return outbound
@@ -17,9 +17,11 @@
 package org.cloudfoundry.reactor.util;
 
 
+import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.util.AsciiString;
 import org.cloudfoundry.reactor.ConnectionContext;
+import org.cloudfoundry.reactor.RequestPriority;
 import org.cloudfoundry.reactor.TokenProvider;
 import org.reactivestreams.Publisher;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -61,12 +63,16 @@ public abstract class AbstractReactorOperations {
             .then(uri -> this.connectionContext.getHttpClient()
                 .delete(uri, request -> Mono.just(request)
                     .map(AbstractReactorOperations::disableFailOnError)
+                    .map(ExchangeTimingChannelHandler::tag)
                     .transform(this::addAuthorization)
                     .map(UserAgent::addUserAgent)
+                    .map(this::negotiateCompression)
                     .transform(requestTransformer)
                     .transform(serializedRequest(requestPayload)))
                 .doOnSubscribe(NetworkLogging.delete(uri))
-                .transform(NetworkLogging.response(uri)))
+                .transform(NetworkLogging.response(uri))
+                .transform(limited(uri))
+                .transform(retried(HttpMethod.DELETE, true)))
             .transform(this::invalidateToken)
             .transform(responseTransformer)
             .transform(ErrorPayloadMapper.fallback())
@@ -92,12 +98,16 @@ public abstract class AbstractReactorOperations {
             .then(uri -> this.connectionContext.getHttpClient()
                 .get(uri, request -> Mono.just(request)
                     .map(AbstractReactorOperations::disableFailOnError)
+                    .map(ExchangeTimingChannelHandler::tag)
                     .transform(this::addAuthorization)
                     .map(UserAgent::addUserAgent)
+                    .map(this::negotiateCompression)
                     .transform(requestTransformer)
                     .flatMap(HttpClientRequest::send))
                 .doOnSubscribe(NetworkLogging.get(uri))
-                .transform(NetworkLogging.response(uri)))
+                .transform(NetworkLogging.response(uri))
+                .transform(limited(uri))
+                .transform(retried(HttpMethod.GET, true)))
             .transform(this::invalidateToken)
             .transform(responseTransformer)
             .transform(ErrorPayloadMapper.fallback());
@@ -112,12 +122,15 @@ public abstract class AbstractReactorOperations {
             .then(uri -> this.connectionContext.getHttpClient()
                 .patch(uri, request -> Mono.just(request)
                     .map(AbstractReactorOperations::disableFailOnError)
+                    .map(ExchangeTimingChannelHandler::tag)
                     .transform(this::addAuthorization)
                     .map(UserAgent::addUserAgent)
+                    .map(this::negotiateCompression)
                     .transform(requestTransformer)
                     .transform(serializedRequest(requestPayload)))
                 .doOnSubscribe(NetworkLogging.patch(uri))
-                .transform(NetworkLogging.response(uri)))
+                .transform(NetworkLogging.response(uri))
+                .transform(limited(uri)))
             .transform(this::invalidateToken)
             .transform(responseTransformer)
             .transform(ErrorPayloadMapper.fallback())
@@ -145,11 +158,14 @@ public abstract class AbstractReactorOperations {
             .then(uri -> this.connectionContext.getHttpClient()
                 .post(uri, request -> Mono.just(request)
                     .map(AbstractReactorOperations::disableFailOnError)
+                    .map(ExchangeTimingChannelHandler::tag)
                     .transform(this::addAuthorization)
                     .map(UserAgent::addUserAgent)
+                    .map(this::negotiateCompression)
                     .transform(requestTransformer))
                 .doOnSubscribe(NetworkLogging.post(uri))
-                .transform(NetworkLogging.response(uri)))
+                .transform(NetworkLogging.response(uri))
+                .transform(limited(uri)))
             .transform(this::invalidateToken)
             .transform(responseTransformer)
             .transform(ErrorPayloadMapper.fallback())
@@ -165,23 +181,35 @@ public abstract class AbstractReactorOperations {
             outbound -> outbound
                 .transform(requestTransformer)
                 .transform(serializedRequest(requestPayload)),
-            responseTransformer);
+            responseTransformer, true);
     }
 
     protected final <T> Mono<T> doPut(Class<T> responseType,
                                       Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer,
                                       Function<Mono<HttpClientRequest>, Publisher<Void>> requestTransformer,
                                       Function<Mono<HttpClientResponse>, Mono<HttpClientResponse>> responseTransformer) {
+        return doPut(responseType, uriTransformer, requestTransformer, responseTransformer, false);
+    }
+
+    protected final <T> Mono<T> doPut(Class<T> responseType,
+                                      Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer,
+                                      Function<Mono<HttpClientRequest>, Publisher<Void>> requestTransformer,
+                                      Function<Mono<HttpClientResponse>, Mono<HttpClientResponse>> responseTransformer,
+                                      boolean idempotent) {
         return this.root
             .transform(transformUri(uriTransformer))
             .then(uri -> this.connectionContext.getHttpClient()
                 .put(uri, request -> Mono.just(request)
                     .map(AbstractReactorOperations::disableFailOnError)
+                    .map(ExchangeTimingChannelHandler::tag)
                     .transform(this::addAuthorization)
                     .map(UserAgent::addUserAgent)
+                    .map(this::negotiateCompression)
                     .transform(requestTransformer))
                 .doOnSubscribe(NetworkLogging.put(uri))
-                .transform(NetworkLogging.response(uri)))
+                .transform(NetworkLogging.response(uri))
+                .transform(limited(uri))
+                .transform(retried(HttpMethod.PUT, idempotent)))
             .transform(this::invalidateToken)
             .transform(responseTransformer)
             .transform(ErrorPayloadMapper.fallback())
@@ -196,12 +224,14 @@ public abstract class AbstractReactorOperations {
             .then(uri -> this.connectionContext.getHttpClient()
                 .get(uri, request -> Mono.just(request)
                     .map(AbstractReactorOperations::disableFailOnError)
+                    .map(ExchangeTimingChannelHandler::tag)
                     .transform(this::addAuthorization)
                     .map(UserAgent::addUserAgent)
                     .transform(requestTransformer)
                     .flatMap(HttpClientRequest::sendWebsocket))
                 .doOnSubscribe(NetworkLogging.ws(uri))
-                .transform(NetworkLogging.response(uri)))
+                .transform(NetworkLogging.response(uri))
+                .transform(limited(uri)))
             .transform(this::invalidateToken)
             .transform(responseTransformer)
             .transform(ErrorPayloadMapper.fallback());
@@ -244,9 +274,35 @@ public abstract class AbstractReactorOperations {
             });
     }
 
+    private Function<Mono<HttpClientResponse>, Mono<HttpClientResponse>> limited(String uri) {
+        RequestPriority priority = this.connectionContext.getRequestPriority();
+
+        return inbound -> {
+            Mono<HttpClientResponse> hostLimited = this.connectionContext.getConcurrencyLimiter()
+                .map(limiter -> limiter.execute(UriComponentsBuilder.fromUriString(uri).build().getHost(), priority, inbound))
+                .orElse(inbound);
+
+            return this.connectionContext.getPriorityLanes()
+                .map(lanes -> lanes.execute(priority, hostLimited))
+                .orElse(hostLimited);
+        };
+    }
+
+    private HttpClientRequest negotiateCompression(HttpClientRequest request) {
+        return this.connectionContext.getCompression()
+            .map(compression -> compression.negotiate(request))
+            .orElse(request);
+    }
+
+    private Function<Mono<HttpClientResponse>, Mono<HttpClientResponse>> retried(HttpMethod method, boolean idempotent) {
+        return inbound -> this.connectionContext.getRetryPolicy()
+            .map(retryPolicy -> retryPolicy.execute(method, idempotent, inbound))
+            .orElse(inbound);
+    }
+
     private Function<Mono<HttpClientRequest>, Publisher<Void>> serializedRequest(Object requestPayload) {
         return outbound -> outbound
-            .transform(JsonCodec.encode(this.connectionContext.getObjectMapper(), requestPayload));
+            .transform(JsonCodec.encode(this.connectionContext.getObjectMapper(), this.connectionContext.getCompression(), requestPayload));
     }
 
 }
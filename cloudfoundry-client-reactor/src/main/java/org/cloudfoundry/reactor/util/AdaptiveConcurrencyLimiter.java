@@ -0,0 +1,194 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.cloudfoundry.reactor.ConcurrencyLimitConfiguration;
+import org.cloudfoundry.reactor.RequestPriority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.client.HttpClientResponse;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.cloudfoundry.util.tuple.TupleUtils.function;
+
+/**
+ * A limiter that bounds the number of requests in flight to each host, where a request is in flight until its response body has been received or abandoned.  The limit for each host is discovered
+ * using additive-increase/multiplicative-decrease: each timely, successful response increases the limit by {@code 1 / limit} while a {@code 429}, {@code 502}, {@code 503}, {@code 504}, connection
+ * error or response slower than the configured threshold multiplies it by the configured backoff ratio.  As with TCP congestion control, the limit is decreased at most once per window: only a
+ * congestion signal for a request started after the previous decrease decreases it again.  Requests in excess of the limit are queued and admitted in priority order and, within a priority, in the
+ * order they arrived.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("cloudfoundry-client.concurrency");
+
+    private final ConcurrencyLimitConfiguration configuration;
+
+    private final ConcurrentMap<String, HostLimit> hostLimits = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Executes an {@link RequestPriority#INTERACTIVE} exchange once the limit for a host allows it
+     *
+     * @param host     the host the exchange is made with
+     * @param exchange the exchange to execute
+     * @return the response of the exchange
+     */
+    public Mono<HttpClientResponse> execute(String host, Mono<HttpClientResponse> exchange) {
+        return execute(host, RequestPriority.INTERACTIVE, exchange);
+    }
+
+    /**
+     * Executes an exchange once the limit for a host allows it
+     *
+     * @param host     the host the exchange is made with
+     * @param priority the priority of the exchange
+     * @param exchange the exchange to execute
+     * @return the response of the exchange
+     */
+    public Mono<HttpClientResponse> execute(String host, RequestPriority priority, Mono<HttpClientResponse> exchange) {
+        return Mono
+            .defer(() -> getHostLimit(host).execute(priority, exchange));
+    }
+
+    /**
+     * Returns the number of requests to a host currently in flight
+     *
+     * @param host the host
+     * @return the number of requests in flight
+     */
+    public int getInFlight(String host) {
+        return getHostLimit(host).requests.getInFlight();
+    }
+
+    /**
+     * Returns the current concurrency limit for a host
+     *
+     * @param host the host
+     * @return the current concurrency limit
+     */
+    public int getLimit(String host) {
+        return getHostLimit(host).getLimit();
+    }
+
+    /**
+     * Returns the number of requests to a host currently queued waiting for the limit to allow them
+     *
+     * @param host the host
+     * @return the number of queued requests
+     */
+    public int getQueued(String host) {
+        return getHostLimit(host).requests.getQueued();
+    }
+
+    private HostLimit getHostLimit(String host) {
+        return this.hostLimits.computeIfAbsent(host, HostLimit::new);
+    }
+
+    private final class HostLimit {
+
+        private final String host;
+
+        private final RequestQueue requests = new RequestQueue(this::getLimit);
+
+        private volatile double limit;
+
+        private long recovery = 0;
+
+        private long started = 0;
+
+        private HostLimit(String host) {
+            this.host = host;
+            this.limit = AdaptiveConcurrencyLimiter.this.configuration.getInitialLimit();
+        }
+
+        private synchronized void decrease(long sequence) {
+            if (sequence < this.recovery) {
+                return;
+            }
+
+            update(Math.max(AdaptiveConcurrencyLimiter.this.configuration.getMinimumLimit(), this.limit * AdaptiveConcurrencyLimiter.this.configuration.getBackoffRatio()));
+            this.recovery = this.started;
+        }
+
+        private Mono<HttpClientResponse> execute(RequestPriority priority, Mono<HttpClientResponse> exchange) {
+            return this.requests.execute(priority, Mono
+                .defer(() -> {
+                    long sequence = start();
+
+                    return exchange
+                        .elapsed()
+                        .doOnNext(function((elapsed, response) -> onResponse(sequence, Duration.ofMillis(elapsed), response.status())))
+                        .doOnError(t -> decrease(sequence))
+                        .map(function((elapsed, response) -> response));
+                }), response -> response.context().onClose());
+        }
+
+        private int getLimit() {
+            return (int) this.limit;
+        }
+
+        private void increase() {
+            synchronized (this) {
+                if (this.requests.getInFlight() * 2 < this.limit) {
+                    return;
+                }
+
+                update(Math.min(AdaptiveConcurrencyLimiter.this.configuration.getMaximumLimit(), this.limit + (1 / this.limit)));
+            }
+
+            this.requests.drain();
+        }
+
+        private boolean isOverloaded(HttpResponseStatus status) {
+            int code = status.code();
+            return code == 429 || code == 502 || code == 503 || code == 504;
+        }
+
+        private void onResponse(long sequence, Duration elapsed, HttpResponseStatus status) {
+            if (isOverloaded(status) || elapsed.compareTo(AdaptiveConcurrencyLimiter.this.configuration.getLatencyThreshold()) > 0) {
+                decrease(sequence);
+            } else if (status.code() < 500) {
+                increase();
+            }
+        }
+
+        private synchronized long start() {
+            return this.started++;
+        }
+
+        private void update(double candidate) {
+            int previous = (int) this.limit;
+            this.limit = candidate;
+
+            if (previous != (int) this.limit) {
+                LOGGER.debug("Concurrency limit for {} changed from {} to {}", this.host, previous, (int) this.limit);
+            }
+        }
+
+    }
+
+}
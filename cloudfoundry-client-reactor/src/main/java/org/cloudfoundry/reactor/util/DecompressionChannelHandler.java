@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpContentDecompressor;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.LastHttpContent;
+
+import java.util.List;
+
+/**
+ * Decompresses compressed response bodies chunk by chunk as they are received, recording the number of bytes before and after decompression
+ */
+final class DecompressionChannelHandler extends HttpContentDecompressor {
+
+    private final HttpCompression compression;
+
+    private long compressedBytes;
+
+    private boolean compressing;
+
+    private long uncompressedBytes;
+
+    DecompressionChannelHandler(HttpCompression compression) {
+        this.compression = compression;
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, HttpObject msg, List<Object> out) throws Exception {
+        if (msg instanceof HttpResponse) {
+            this.compressedBytes = 0;
+            this.compressing = false;
+            this.uncompressedBytes = 0;
+        }
+
+        int received = msg instanceof HttpContent ? ((HttpContent) msg).content().readableBytes() : 0;
+        int start = out.size();
+        super.decode(ctx, msg, out);
+
+        if (this.compressing) {
+            this.compressedBytes += received;
+
+            for (int i = start; i < out.size(); i++) {
+                Object decoded = out.get(i);
+                if (decoded instanceof HttpContent) {
+                    ByteBuf content = ((HttpContent) decoded).content();
+                    this.uncompressedBytes += content.readableBytes();
+                }
+            }
+
+            if (msg instanceof LastHttpContent) {
+                this.compression.onResponse(this.compressedBytes, this.uncompressedBytes);
+                this.compressing = false;
+            }
+        }
+    }
+
+    @Override
+    protected EmbeddedChannel newContentDecoder(String contentEncoding) throws Exception {
+        EmbeddedChannel decoder = super.newContentDecoder(contentEncoding);
+        this.compressing = decoder != null;
+        return decoder;
+    }
+
+}
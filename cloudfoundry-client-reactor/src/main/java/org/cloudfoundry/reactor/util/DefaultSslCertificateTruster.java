@@ -19,6 +19,7 @@ package org.cloudfoundry.reactor.util;
 import org.cloudfoundry.reactor.ProxyConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
 import reactor.ipc.netty.options.ClientOptions;
 import reactor.ipc.netty.tcp.TcpClient;
 import reactor.util.function.Tuple2;
@@ -35,6 +36,7 @@ import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.time.Duration;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -46,6 +48,8 @@ public final class DefaultSslCertificateTruster implements SslCertificateTruster
 
     private final AtomicReference<X509TrustManager> delegate;
 
+    private final Map<Tuple2<String, Integer>, Mono<Void>> pendingHostsAndPorts;
+
     private final Optional<ProxyConfiguration> proxyConfiguration;
 
     private final Set<Tuple2<String, Integer>> trustedHostsAndPorts;
@@ -53,6 +57,7 @@ public final class DefaultSslCertificateTruster implements SslCertificateTruster
     public DefaultSslCertificateTruster(Optional<ProxyConfiguration> proxyConfiguration) {
         this.proxyConfiguration = proxyConfiguration;
         this.delegate = new AtomicReference<>(getTrustManager(getTrustManagerFactory(null)));
+        this.pendingHostsAndPorts = new ConcurrentHashMap<>();
         this.trustedHostsAndPorts = Collections.newSetFromMap(new ConcurrentHashMap<>());
     }
 
@@ -73,23 +78,33 @@ public final class DefaultSslCertificateTruster implements SslCertificateTruster
 
     @Override
     public void trust(String host, int port, Duration duration) {
-        Tuple2<String, Integer> hostAndPort = Tuples.of(host, port);
-        if (this.trustedHostsAndPorts.contains(hostAndPort)) {
-            return;
-        }
-
-        this.logger.warn("Trusting SSL Certificate for {}:{}", host, port);
-
-        X509TrustManager trustManager = this.delegate.get();
-        X509Certificate[] untrustedCertificates = getUntrustedCertificates(duration, host, port, this.proxyConfiguration, trustManager);
+        trustAsync(host, port, duration).block();
+    }
 
-        if (untrustedCertificates != null) {
-            KeyStore trustStore = addToTrustStore(untrustedCertificates, trustManager);
-            this.delegate.set(getTrustManager(getTrustManagerFactory(trustStore)));
-        }
+    @Override
+    public Mono<Void> trustAsync(String host, int port, Duration duration) {
+        Tuple2<String, Integer> hostAndPort = Tuples.of(host, port);
 
-        this.trustedHostsAndPorts.add(hostAndPort);
-        this.logger.debug("Trusted SSL Certificate for {}:{}", host, port);
+        return Mono
+            .defer(() -> {
+                if (this.trustedHostsAndPorts.contains(hostAndPort)) {
+                    return Mono.empty();
+                }
+
+                return this.pendingHostsAndPorts.computeIfAbsent(hostAndPort, key -> {
+                    this.logger.warn("Trusting SSL Certificate for {}:{}", host, port);
+
+                    return getUntrustedCertificates(duration, host, port, this.proxyConfiguration, this.delegate.get())
+                        .doOnNext(untrustedCertificates -> this.delegate.updateAndGet(trustManager -> getTrustManager(getTrustManagerFactory(addToTrustStore(untrustedCertificates, trustManager)))))
+                        .then()
+                        .doOnSuccess(v -> {
+                            this.trustedHostsAndPorts.add(hostAndPort);
+                            this.logger.debug("Trusted SSL Certificate for {}:{}", host, port);
+                        })
+                        .doOnTerminate((v, t) -> this.pendingHostsAndPorts.remove(hostAndPort))
+                        .cache();
+                });
+            });
     }
 
     private static KeyStore addToTrustStore(X509Certificate[] untrustedCertificates, X509TrustManager trustManager) {
@@ -142,23 +157,24 @@ public final class DefaultSslCertificateTruster implements SslCertificateTruster
         }
     }
 
-    private static X509Certificate[] getUntrustedCertificates(Duration duration, String host, int port, Optional<ProxyConfiguration> proxyConfiguration, X509TrustManager delegate) {
+    private static Mono<X509Certificate[]> getUntrustedCertificates(Duration duration, String host, int port, Optional<ProxyConfiguration> proxyConfiguration, X509TrustManager delegate) {
         CertificateCollectingTrustManager collector = new CertificateCollectingTrustManager(delegate);
 
-        getTcpClient(proxyConfiguration, collector, host, port)
+        return getTcpClient(proxyConfiguration, collector, host, port)
             .newHandler((inbound, outbound) -> inbound.receive().then())
-            .block(duration);
-
-        X509Certificate[] chain = collector.getCollectedCertificateChain();
-        if (chain == null) {
-            throw new IllegalStateException("Could not obtain server certificate chain");
-        }
-
-        if (collector.isTrusted()) {
-            return null;
-        } else {
-            return chain;
-        }
+            .timeout(duration)
+            .then(context -> {
+                X509Certificate[] chain = collector.getCollectedCertificateChain();
+                if (chain == null) {
+                    return Mono.error(new IllegalStateException("Could not obtain server certificate chain"));
+                }
+
+                if (collector.isTrusted()) {
+                    return Mono.empty();
+                } else {
+                    return Mono.just(chain);
+                }
+            });
     }
 
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.AttributeKey;
+import org.cloudfoundry.reactor.ExchangeTiming;
+import org.cloudfoundry.reactor.ExchangeTimingListener;
+import reactor.ipc.netty.http.client.HttpClientRequest;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A {@link io.netty.channel.ChannelHandler} that records the phases of an exchange (address resolution, connection, TLS handshake, time to first byte and body transfer) and reports them to a
+ * collection of {@link ExchangeTimingListener}s when the channel is closed.  This handler must be added at the head of the pipeline so that it observes raw connection events.  It assumes that each
+ * channel carries a single exchange, and so must not be used on pooled connections.
+ */
+public final class ExchangeTimingChannelHandler extends ChannelDuplexHandler {
+
+    public static final String NAME = "cloudfoundry-client.exchange-timing";
+
+    static final AttributeKey<String> REQUEST = AttributeKey.valueOf("cloudfoundry-client.exchange-timing.request");
+
+    private static final long UNSET = -1;
+
+    private final long initialized = System.nanoTime();
+
+    private final List<ExchangeTimingListener> listeners;
+
+    private long connectStarted = UNSET;
+
+    private long connected = UNSET;
+
+    private long firstByte = UNSET;
+
+    private long handshaken = UNSET;
+
+    private long lastByte = UNSET;
+
+    private boolean reported = false;
+
+    private long requestStarted = UNSET;
+
+    private boolean secure = false;
+
+    public ExchangeTimingChannelHandler(List<ExchangeTimingListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    /**
+     * Records the request line of a request so that it can be reported with the exchange timing.  Does nothing if exchange timing is not enabled for the request's channel.
+     *
+     * @param request the request to record
+     * @return the request
+     */
+    public static HttpClientRequest tag(HttpClientRequest request) {
+        Channel channel = request.context().channel();
+
+        if (channel.pipeline().get(NAME) != null) {
+            channel.attr(REQUEST).set(String.format("%s %s", request.method(), request.uri()));
+        }
+
+        return request;
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext context) throws Exception {
+        SslHandler sslHandler = context.pipeline().get(SslHandler.class);
+
+        if (sslHandler != null) {
+            this.secure = true;
+            sslHandler.handshakeFuture().addListener(future -> this.handshaken = System.nanoTime());
+        }
+
+        super.channelActive(context);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext context) throws Exception {
+        report(context.channel());
+        super.channelInactive(context);
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext context, Object message) throws Exception {
+        if (UNSET != this.requestStarted) {
+            long now = System.nanoTime();
+
+            if (UNSET == this.firstByte) {
+                this.firstByte = now;
+            }
+
+            this.lastByte = now;
+        }
+
+        super.channelRead(context, message);
+    }
+
+    @Override
+    public void connect(ChannelHandlerContext context, SocketAddress remoteAddress, SocketAddress localAddress, ChannelPromise promise) throws Exception {
+        this.connectStarted = System.nanoTime();
+        promise.addListener(future -> this.connected = System.nanoTime());
+
+        super.connect(context, remoteAddress, localAddress, promise);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext context, Object message, ChannelPromise promise) throws Exception {
+        if (UNSET == this.requestStarted && (!this.secure || UNSET != this.handshaken)) {
+            this.requestStarted = System.nanoTime();
+        }
+
+        super.write(context, message, promise);
+    }
+
+    private static Duration between(long start, long end) {
+        return Duration.ofNanos(end - start);
+    }
+
+    private void report(Channel channel) {
+        if (this.reported || UNSET == this.firstByte) {
+            return;
+        }
+        this.reported = true;
+
+        ExchangeTiming.Builder builder = ExchangeTiming.builder()
+            .bodyTransfer(between(this.firstByte, this.lastByte))
+            .request(Optional.ofNullable(channel.attr(REQUEST).get()))
+            .timeToFirstByte(between(this.requestStarted, this.firstByte))
+            .total(between(this.initialized, this.lastByte));
+
+        if (UNSET != this.connectStarted) {
+            builder.dnsResolution(between(this.initialized, this.connectStarted));
+        }
+
+        if (UNSET != this.connectStarted && UNSET != this.connected) {
+            builder.connect(between(this.connectStarted, this.connected));
+        }
+
+        if (UNSET != this.connected && UNSET != this.handshaken) {
+            builder.tlsHandshake(between(this.connected, this.handshaken));
+        }
+
+        ExchangeTiming exchangeTiming = builder.build();
+        this.listeners.forEach(listener -> listener.onExchange(exchangeTiming));
+    }
+
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import org.cloudfoundry.reactor.CompressionConfiguration;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.NettyOutbound;
+import reactor.ipc.netty.http.client.HttpClientRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Negotiates compressed responses, decompressing them as they are received, and optionally compresses request bodies.  Records the number of bytes before and after compression so that the
+ * effectiveness of compression can be monitored.
+ */
+public final class HttpCompression {
+
+    static final String NAME = "cloudfoundry-client.decompression";
+
+    private final AtomicLong compressedRequestBytes = new AtomicLong();
+
+    private final AtomicLong compressedResponseBytes = new AtomicLong();
+
+    private final AtomicLong compressedResponses = new AtomicLong();
+
+    private final CompressionConfiguration configuration;
+
+    private final AtomicLong uncompressedRequestBytes = new AtomicLong();
+
+    private final AtomicLong uncompressedResponseBytes = new AtomicLong();
+
+    public HttpCompression(CompressionConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Returns the number of bytes of compressed request bodies that have been sent
+     *
+     * @return the number of bytes of compressed request bodies
+     */
+    public long getCompressedRequestBytes() {
+        return this.compressedRequestBytes.get();
+    }
+
+    /**
+     * Returns the number of bytes of compressed response bodies that have been received
+     *
+     * @return the number of bytes of compressed response bodies
+     */
+    public long getCompressedResponseBytes() {
+        return this.compressedResponseBytes.get();
+    }
+
+    /**
+     * Returns the number of responses that have been received compressed
+     *
+     * @return the number of compressed responses
+     */
+    public long getCompressedResponses() {
+        return this.compressedResponses.get();
+    }
+
+    /**
+     * Returns the ratio of the uncompressed to compressed size of the request bodies that have been compressed
+     *
+     * @return the request compression ratio, or {@code 1} if no requests have been compressed
+     */
+    public double getRequestCompressionRatio() {
+        return ratio(this.uncompressedRequestBytes.get(), this.compressedRequestBytes.get());
+    }
+
+    /**
+     * Returns the ratio of the uncompressed to compressed size of the response bodies that have been received compressed
+     *
+     * @return the response compression ratio, or {@code 1} if no responses have been received compressed
+     */
+    public double getResponseCompressionRatio() {
+        return ratio(this.uncompressedResponseBytes.get(), this.compressedResponseBytes.get());
+    }
+
+    /**
+     * Returns the number of bytes the compressed request bodies that have been sent would have been uncompressed
+     *
+     * @return the number of uncompressed bytes of compressed request bodies
+     */
+    public long getUncompressedRequestBytes() {
+        return this.uncompressedRequestBytes.get();
+    }
+
+    /**
+     * Returns the number of bytes the compressed response bodies that have been received decompressed to
+     *
+     * @return the number of uncompressed bytes of compressed response bodies
+     */
+    public long getUncompressedResponseBytes() {
+        return this.uncompressedResponseBytes.get();
+    }
+
+    /**
+     * Requests a compressed response.  Installs a decompressor on the request's channel, if the channel does not already have one, so that the response body is decompressed as it is received.
+     *
+     * @param request the request
+     * @return the request
+     */
+    public HttpClientRequest negotiate(HttpClientRequest request) {
+        ChannelPipeline pipeline = request.context().channel().pipeline();
+
+        if (pipeline.get(NAME) == null) {
+            ChannelHandlerContext codec = pipeline.context(HttpClientCodec.class);
+
+            if (codec == null) {
+                return request;
+            }
+
+            pipeline.addAfter(codec.name(), NAME, new DecompressionChannelHandler(this));
+        }
+
+        return request.header(HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderValues.GZIP + "," + HttpHeaderValues.DEFLATE);
+    }
+
+    /**
+     * Sends a request body, compressing it if request compression is enabled and the body is long enough
+     *
+     * @param request the request
+     * @param body    the body to send
+     * @return the outbound of the request
+     */
+    public NettyOutbound send(HttpClientRequest request, byte[] body) {
+        if (!this.configuration.getCompressRequests() || body.length < this.configuration.getRequestCompressionThreshold()) {
+            return request.sendByteArray(Mono.just(body));
+        }
+
+        byte[] compressed = compress(body);
+        this.compressedRequestBytes.addAndGet(compressed.length);
+        this.uncompressedRequestBytes.addAndGet(body.length);
+
+        return request
+            .header(HttpHeaderNames.CONTENT_ENCODING, HttpHeaderValues.GZIP)
+            .sendByteArray(Mono.just(compressed));
+    }
+
+    void onResponse(long compressedBytes, long uncompressedBytes) {
+        this.compressedResponses.incrementAndGet();
+        this.compressedResponseBytes.addAndGet(compressedBytes);
+        this.uncompressedResponseBytes.addAndGet(uncompressedBytes);
+    }
+
+    private static byte[] compress(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+
+        return out.toByteArray();
+    }
+
+    private static double ratio(long uncompressed, long compressed) {
+        return compressed == 0 ? 1 : (double) uncompressed / compressed;
+    }
+
+}
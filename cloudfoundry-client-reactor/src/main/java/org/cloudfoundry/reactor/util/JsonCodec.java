@@ -30,6 +30,7 @@ import reactor.ipc.netty.http.client.HttpClientResponse;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.Optional;
 import java.util.function.Function;
 
 public final class JsonCodec {
@@ -46,7 +47,7 @@ public final class JsonCodec {
             });
     }
 
-    static Function<Mono<HttpClientRequest>, Publisher<Void>> encode(ObjectMapper objectMapper, Object requestPayload) {
+    static Function<Mono<HttpClientRequest>, Publisher<Void>> encode(ObjectMapper objectMapper, Optional<HttpCompression> compression, Object requestPayload) {
         if (!objectMapper.canSerialize(requestPayload.getClass())) {
             return outbound -> outbound
                 .then(HttpClientRequest::send);
@@ -56,8 +57,11 @@ public final class JsonCodec {
             .map(request -> request.header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON))
             .flatMap(request -> {
                 try {
+                    byte[] payload = objectMapper.writeValueAsBytes(requestPayload);
 
-                    return request.sendByteArray(Mono.just(objectMapper.writeValueAsBytes(requestPayload)));
+                    return compression
+                        .map(c -> c.send(request, payload))
+                        .orElseGet(() -> request.sendByteArray(Mono.just(payload)));
                 } catch (JsonProcessingException e) {
                     throw Exceptions.propagate(e);
                 }
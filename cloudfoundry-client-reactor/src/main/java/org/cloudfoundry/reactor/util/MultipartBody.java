@@ -0,0 +1,180 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.NettyOutbound;
+import reactor.ipc.netty.http.client.HttpClientRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A {@code multipart/form-data} request body whose file parts are sent with {@link NettyOutbound#sendFile(Path)}.  Only the multipart framing is written from the heap; file contents are sent as
+ * file regions over plain connections and as chunked buffers over TLS connections, so the cost of an upload does not grow with the size of the file.
+ */
+public final class MultipartBody {
+
+    private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final String boundary = String.format("%016x%016x", ThreadLocalRandom.current().nextLong(), ThreadLocalRandom.current().nextLong());
+
+    private final List<Part> parts = new ArrayList<>();
+
+    /**
+     * Adds a file part
+     *
+     * @param name        the name of the part
+     * @param filename    the filename of the part
+     * @param file        the file to send
+     * @param contentType the content type of the file
+     * @return this body
+     */
+    public MultipartBody file(String name, String filename, Path file, String contentType) {
+        try {
+            long size = Files.size(file);
+
+            this.parts.add(new Part(file, null, null, String.format("content-disposition: form-data; name=\"%s\"; filename=\"%s\"\r\n" +
+                "content-length: %d\r\n" +
+                "content-type: %s\r\n" +
+                "content-transfer-encoding: application/octet-stream\r\n" +
+                "\r\n", name, filename, size, contentType), size));
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+
+        return this;
+    }
+
+    /**
+     * Sends the body as the payload of a request
+     *
+     * @param request the request
+     * @return the outbound of the request
+     */
+    public NettyOutbound send(HttpClientRequest request) {
+        NettyOutbound outbound = request
+            .header(HttpHeaderNames.CONTENT_TYPE, String.format("multipart/form-data; boundary=%s", this.boundary));
+
+        if (this.parts.stream().anyMatch(part -> part.stream != null)) {
+            request.chunkedTransfer(true);
+        } else {
+            long contentLength = getClosingDelimiter().length;
+            for (Part part : this.parts) {
+                contentLength += part.getLength(this.boundary);
+            }
+
+            request
+                .chunkedTransfer(false)
+                .header(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(contentLength));
+        }
+
+        for (Part part : this.parts) {
+            outbound = outbound.sendByteArray(Mono.just(part.getHeader(this.boundary)));
+
+            if (part.file != null) {
+                outbound = outbound.sendFile(part.file);
+            } else if (part.stream != null) {
+                outbound = outbound.sendByteArray(part.stream);
+            } else {
+                outbound = outbound.sendByteArray(Mono.just(part.content));
+            }
+
+            outbound = outbound.sendByteArray(Mono.just(CRLF));
+        }
+
+        return outbound.sendByteArray(Mono.just(getClosingDelimiter()));
+    }
+
+    /**
+     * Adds a streamed file part.  The length of the stream is not known in advance, so a body with a streamed part is sent with chunked transfer encoding.
+     *
+     * @param name        the name of the part
+     * @param filename    the filename of the part
+     * @param stream      the contents of the file
+     * @param contentType the content type of the file
+     * @return this body
+     */
+    public MultipartBody stream(String name, String filename, Flux<byte[]> stream, String contentType) {
+        this.parts.add(new Part(null, null, stream, String.format("content-disposition: form-data; name=\"%s\"; filename=\"%s\"\r\n" +
+            "content-type: %s\r\n" +
+            "content-transfer-encoding: application/octet-stream\r\n" +
+            "\r\n", name, filename, contentType), -1));
+
+        return this;
+    }
+
+    /**
+     * Adds a text part
+     *
+     * @param name        the name of the part
+     * @param content     the content of the part, encoded as {@code UTF-8}
+     * @param contentType the content type of the part
+     * @return this body
+     */
+    public MultipartBody text(String name, byte[] content, String contentType) {
+        this.parts.add(new Part(null, content, null, String.format("content-disposition: form-data; name=\"%s\";\r\n" +
+            "content-length: %d\r\n" +
+            "content-type: %s; charset=UTF-8\r\n" +
+            "\r\n", name, content.length, contentType), content.length));
+
+        return this;
+    }
+
+    private byte[] getClosingDelimiter() {
+        return String.format("--%s--\r\n", this.boundary).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static final class Part {
+
+        private final byte[] content;
+
+        private final Path file;
+
+        private final String headers;
+
+        private final long size;
+
+        private final Flux<byte[]> stream;
+
+        private Part(Path file, byte[] content, Flux<byte[]> stream, String headers, long size) {
+            this.content = content;
+            this.file = file;
+            this.headers = headers;
+            this.size = size;
+            this.stream = stream;
+        }
+
+        private byte[] getHeader(String boundary) {
+            return String.format("--%s\r\n%s", boundary, this.headers).getBytes(StandardCharsets.UTF_8);
+        }
+
+        private long getLength(String boundary) {
+            return getHeader(boundary).length + this.size + CRLF.length;
+        }
+
+    }
+
+}
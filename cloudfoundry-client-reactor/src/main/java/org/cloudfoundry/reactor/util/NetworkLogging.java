@@ -16,6 +16,7 @@
 
 package org.cloudfoundry.reactor.util;
 
+import org.cloudfoundry.reactor.ExchangeTimingListener;
 import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,6 +24,7 @@ import org.springframework.util.StringUtils;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.client.HttpClientResponse;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -35,6 +37,8 @@ public final class NetworkLogging {
 
     public static final Logger RESPONSE_LOGGER = LoggerFactory.getLogger("cloudfoundry-client.response");
 
+    public static final Logger TIMING_LOGGER = LoggerFactory.getLogger("cloudfoundry-client.timing");
+
     private static final String CF_WARNINGS = "X-Cf-Warnings";
 
     private static final double MILLISECOND = 1;
@@ -81,10 +85,29 @@ public final class NetworkLogging {
             }));
     }
 
+    public static ExchangeTimingListener timing() {
+        return exchangeTiming -> {
+            if (TIMING_LOGGER.isDebugEnabled()) {
+                TIMING_LOGGER.debug("{} (dns: {}, connect: {}, tls: {}, ttfb: {}, body: {}, total: {})",
+                    exchangeTiming.getRequest().orElse("UNKNOWN"),
+                    exchangeTiming.getDnsResolution().map(NetworkLogging::asTime).orElse("-"),
+                    exchangeTiming.getConnect().map(NetworkLogging::asTime).orElse("-"),
+                    exchangeTiming.getTlsHandshake().map(NetworkLogging::asTime).orElse("-"),
+                    asTime(exchangeTiming.getTimeToFirstByte()),
+                    asTime(exchangeTiming.getBodyTransfer()),
+                    asTime(exchangeTiming.getTotal()));
+            }
+        };
+    }
+
     public static Consumer<Subscription> ws(String uri) {
         return s -> REQUEST_LOGGER.debug("WS     {}", uri);
     }
 
+    private static String asTime(Duration elapsed) {
+        return asTime(elapsed.toMillis());
+    }
+
     private static String asTime(long elapsed) {
         if (elapsed > HOUR) {
             return String.format("%.1f h", (elapsed / HOUR));
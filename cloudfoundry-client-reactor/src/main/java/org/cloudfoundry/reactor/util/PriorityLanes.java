@@ -0,0 +1,81 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.util;
+
+import org.cloudfoundry.reactor.RequestPriority;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.client.HttpClientResponse;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A set of independent concurrency budgets, one for each {@link RequestPriority}.  Each priority that has a limit is given its own queue so that requests of one priority never wait behind requests
+ * of another.  Requests of a priority without a limit pass through unlimited.
+ */
+public final class PriorityLanes {
+
+    private final Map<RequestPriority, RequestQueue> lanes = new EnumMap<>(RequestPriority.class);
+
+    public PriorityLanes(Map<RequestPriority, Integer> limits) {
+        limits.forEach((priority, limit) -> this.lanes.put(priority, new RequestQueue(() -> limit)));
+    }
+
+    /**
+     * Executes an exchange once the budget for its priority allows it
+     *
+     * @param priority the priority of the exchange
+     * @param exchange the exchange to execute
+     * @return the response of the exchange
+     */
+    public Mono<HttpClientResponse> execute(RequestPriority priority, Mono<HttpClientResponse> exchange) {
+        return getLane(priority)
+            .map(lane -> lane.execute(priority, exchange))
+            .orElse(exchange);
+    }
+
+    /**
+     * Returns the number of requests of a priority currently awaiting a response
+     *
+     * @param priority the priority
+     * @return the number of requests awaiting a response
+     */
+    public int getInFlight(RequestPriority priority) {
+        return getLane(priority)
+            .map(RequestQueue::getInFlight)
+            .orElse(0);
+    }
+
+    /**
+     * Returns the number of requests of a priority currently queued waiting for the budget to allow them
+     *
+     * @param priority the priority
+     * @return the number of queued requests
+     */
+    public int getQueued(RequestPriority priority) {
+        return getLane(priority)
+            .map(RequestQueue::getQueued)
+            .orElse(0);
+    }
+
+    private Optional<RequestQueue> getLane(RequestPriority priority) {
+        return Optional.ofNullable(this.lanes.get(priority));
+    }
+
+}
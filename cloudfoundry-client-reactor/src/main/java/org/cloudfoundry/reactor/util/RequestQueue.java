@@ -0,0 +1,188 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.util;
+
+import org.cloudfoundry.reactor.RequestPriority;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+
+/**
+ * A queue that admits requests while the number in flight is below a (possibly changing) limit.  Queued requests are admitted in priority order and, within a priority, in the order they arrived.
+ */
+final class RequestQueue {
+
+    private final IntSupplier limit;
+
+    private final Map<RequestPriority, Queue<Ticket>> queues = new EnumMap<>(RequestPriority.class);
+
+    private int inFlight = 0;
+
+    RequestQueue(IntSupplier limit) {
+        this.limit = limit;
+
+        for (RequestPriority priority : RequestPriority.values()) {
+            this.queues.put(priority, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Admits queued requests until the limit is reached.  Must be called when the limit increases.
+     */
+    void drain() {
+        List<Ticket> granted = new ArrayList<>();
+
+        synchronized (this) {
+            Ticket ticket;
+            while (this.inFlight < this.limit.getAsInt() && (ticket = poll()) != null) {
+                if (ticket.grant()) {
+                    this.inFlight++;
+                    granted.add(ticket);
+                }
+            }
+        }
+
+        granted.forEach(Ticket::onGranted);
+    }
+
+    <T> Mono<T> execute(RequestPriority priority, Mono<T> exchange) {
+        return execute(priority, exchange, response -> Mono.empty());
+    }
+
+    /**
+     * Executes an exchange once the limit allows it, holding its place until the publisher returned by {@code completion} for the response terminates.  An exchange that fails, completes empty
+     * or is cancelled releases its place immediately.
+     */
+    <T> Mono<T> execute(RequestPriority priority, Mono<T> exchange, Function<T, Mono<Void>> completion) {
+        return Mono
+            .defer(() -> {
+                Ticket ticket = enqueue(priority);
+
+                return ticket.getGranted()
+                    .then(exchange)
+                    .doOnSuccess(response -> {
+                        if (response == null) {
+                            ticket.release();
+                        } else {
+                            completion.apply(response).subscribe(null, t -> ticket.release(), ticket::release);
+                        }
+                    })
+                    .doOnError(t -> ticket.release())
+                    .doOnCancel(ticket::cancel);
+            });
+    }
+
+    synchronized int getInFlight() {
+        return this.inFlight;
+    }
+
+    synchronized int getQueued() {
+        return this.queues.values().stream()
+            .mapToInt(Queue::size)
+            .sum();
+    }
+
+    private Ticket enqueue(RequestPriority priority) {
+        Ticket ticket = new Ticket();
+
+        synchronized (this) {
+            this.queues.get(priority).add(ticket);
+        }
+
+        drain();
+        return ticket;
+    }
+
+    private Ticket poll() {
+        for (Queue<Ticket> queue : this.queues.values()) {
+            if (!queue.isEmpty()) {
+                return queue.poll();
+            }
+        }
+
+        return null;
+    }
+
+    private void release() {
+        synchronized (this) {
+            this.inFlight--;
+        }
+
+        drain();
+    }
+
+    private synchronized void remove(Ticket ticket) {
+        this.queues.values().forEach(queue -> queue.remove(ticket));
+    }
+
+    private enum State {
+
+        CANCELLED,
+
+        GRANTED,
+
+        QUEUED,
+
+        RELEASED
+
+    }
+
+    private final class Ticket {
+
+        private final MonoProcessor<Void> granted = MonoProcessor.create();
+
+        private final AtomicReference<State> state = new AtomicReference<>(State.QUEUED);
+
+        private void cancel() {
+            if (this.state.compareAndSet(State.QUEUED, State.CANCELLED)) {
+                remove(this);
+            } else {
+                release();
+            }
+        }
+
+        private Mono<Void> getGranted() {
+            return this.granted;
+        }
+
+        private boolean grant() {
+            return this.state.compareAndSet(State.QUEUED, State.GRANTED);
+        }
+
+        private void onGranted() {
+            this.granted.onComplete();
+        }
+
+        private void release() {
+            if (this.state.compareAndSet(State.GRANTED, State.RELEASED)) {
+                RequestQueue.this.release();
+            }
+        }
+
+    }
+
+}
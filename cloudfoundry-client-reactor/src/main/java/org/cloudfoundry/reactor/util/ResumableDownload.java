@@ -0,0 +1,326 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.cloudfoundry.UnknownCloudFoundryException;
+import org.cloudfoundry.reactor.DownloadConfiguration;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.client.HttpClient;
+import reactor.ipc.netty.http.client.HttpClientResponse;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Downloads directly to a {@link FileChannel}, writing each received network buffer to the file without copying it onto the heap.  Interrupted transfers are resumed with range requests from the
+ * last byte written and, if the server supports range requests, a file can be downloaded as several ranges in parallel.  Transfers of unknown length cannot be resumed, as there is no way to tell
+ * whether the bytes already written are a prefix of the content.
+ */
+public final class ResumableDownload {
+
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+|\\*)");
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private static final long UNKNOWN = -1;
+
+    private ResumableDownload() {
+    }
+
+    /**
+     * Downloads a URI to a file.  The URI must not require authorization, as is the case for the signed blobstore URIs that the Cloud Controller redirects downloads to.
+     *
+     * @param httpClient    the {@link HttpClient} to download with
+     * @param uri           the URI to download
+     * @param channel       the channel to write to.  Must also be readable if the download is in parallel and a checksum is configured.
+     * @param configuration the configuration of the download
+     * @return completes when the download has been written and verified
+     */
+    public static Mono<Void> download(HttpClient httpClient, String uri, FileChannel channel, DownloadConfiguration configuration) {
+        if (configuration.getParallelism() == 1) {
+            return sequential(httpClient, uri, channel, configuration);
+        }
+
+        return probe(httpClient, uri)
+            .then(size -> {
+                int count = (int) Math.min(configuration.getParallelism(), size / configuration.getMinimumRangeSize());
+
+                if (count < 2) {
+                    return sequential(httpClient, uri, channel, configuration);
+                }
+
+                return parallel(httpClient, uri, channel, configuration, size, count);
+            });
+    }
+
+    /**
+     * Writes the body of a response that has already been received to a file.  The transfer cannot be resumed if it is interrupted.
+     *
+     * @param response      the response
+     * @param channel       the channel to write to
+     * @param configuration the configuration of the download
+     * @return completes when the body has been written and verified
+     */
+    public static Mono<Void> write(HttpClientResponse response, FileChannel channel, DownloadConfiguration configuration) {
+        return Mono
+            .defer(() -> {
+                Range range = new Range(0, getEnd(response));
+                Optional<MessageDigest> digest = getDigest(configuration);
+
+                return receive(response, channel, range, digest)
+                    .then(Mono.<Void>fromRunnable(() -> verify(configuration, digest)));
+            });
+    }
+
+    private static Mono<Void> checkComplete(HttpClientResponse response, Range range) {
+        if (range.end == UNKNOWN ? !isClosedPrematurely(response) : range.isComplete()) {
+            return Mono.empty();
+        }
+
+        return Mono.error(new EOFException(String.format("Transfer of bytes %d-%s interrupted at byte %d", range.start, range.end == UNKNOWN ? "" : range.end, range.position)));
+    }
+
+    private static Mono<Void> fetch(HttpClient httpClient, String uri, FileChannel channel, Range range, Optional<MessageDigest> digest, DownloadConfiguration configuration) {
+        return Mono
+            .defer(() -> httpClient
+                .get(uri, request -> request
+                    .failOnClientError(false)
+                    .failOnServerError(false)
+                    .header(HttpHeaderNames.RANGE, range.getHeader())
+                    .send())
+                .doOnSubscribe(NetworkLogging.get(uri))
+                .transform(NetworkLogging.response(uri))
+                .then(response -> {
+                    if (HttpResponseStatus.PARTIAL_CONTENT.equals(response.status())) {
+                        Matcher matcher = CONTENT_RANGE.matcher(String.valueOf(response.responseHeaders().get(HttpHeaderNames.CONTENT_RANGE)));
+
+                        if (!matcher.matches() || Long.parseLong(matcher.group(1)) != range.position) {
+                            return Mono.error(new IllegalStateException(String.format("Unexpected content range %s for %s", response.responseHeaders().get(HttpHeaderNames.CONTENT_RANGE),
+                                range.getHeader())));
+                        }
+
+                        range.setEnd(Long.parseLong(matcher.group(2)));
+                        return receive(response, channel, range, digest);
+                    }
+
+                    if (HttpResponseStatus.OK.equals(response.status())) {
+                        if (range.start != 0 || range.end != UNKNOWN) {
+                            response.context().dispose();
+                            return Mono.error(new IllegalStateException(String.format("Server does not support range requests for %s", uri)));
+                        }
+
+                        range.restart(getEnd(response));
+                        digest.ifPresent(MessageDigest::reset);
+                        return receive(response, channel, range, digest);
+                    }
+
+                    return response.receive().aggregate().asString()
+                        .otherwiseIfEmpty(Mono.just(""))
+                        .then(payload -> Mono.error(new UnknownCloudFoundryException(response.status().code(), payload)));
+                }))
+            .retry(configuration.getMaxResumes(), t -> range.isResumable() && isResumable(t));
+    }
+
+    private static Optional<MessageDigest> getDigest(DownloadConfiguration configuration) {
+        if (!configuration.getChecksum().isPresent()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(MessageDigest.getInstance(configuration.getChecksumAlgorithm()));
+        } catch (NoSuchAlgorithmException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private static long getEnd(HttpClientResponse response) {
+        String contentLength = response.responseHeaders().get(HttpHeaderNames.CONTENT_LENGTH);
+        return contentLength == null ? UNKNOWN : Long.parseLong(contentLength) - 1;
+    }
+
+    /**
+     * Without a {@code Content-Length}, a chunked body is only complete if its last chunk arrived while the connection was still open.  A body delimited by the connection closing cannot be checked.
+     */
+    private static boolean isClosedPrematurely(HttpClientResponse response) {
+        return response.responseHeaders().contains(HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED, true) && !response.context().channel().isActive();
+    }
+
+    private static boolean isResumable(Throwable t) {
+        return !(t instanceof IllegalStateException || t instanceof UnknownCloudFoundryException);
+    }
+
+    private static Mono<Void> parallel(HttpClient httpClient, String uri, FileChannel channel, DownloadConfiguration configuration, long size, int count) {
+        List<Range> ranges = new ArrayList<>(count);
+
+        long rangeSize = size / count;
+        for (int i = 0; i < count; i++) {
+            long start = i * rangeSize;
+            ranges.add(new Range(start, i == count - 1 ? size - 1 : start + rangeSize - 1));
+        }
+
+        return Flux.fromIterable(ranges)
+            .flatMap(range -> fetch(httpClient, uri, channel, range, Optional.empty(), configuration), count)
+            .then()
+            .then(Mono.<Void>fromRunnable(() -> {
+                Optional<MessageDigest> digest = getDigest(configuration);
+                digest.ifPresent(d -> read(channel, d));
+                verify(configuration, digest);
+            }));
+    }
+
+    private static Mono<Long> probe(HttpClient httpClient, String uri) {
+        return httpClient
+            .get(uri, request -> request
+                .failOnClientError(false)
+                .failOnServerError(false)
+                .header(HttpHeaderNames.RANGE, "bytes=0-0")
+                .send())
+            .doOnSubscribe(NetworkLogging.get(uri))
+            .transform(NetworkLogging.response(uri))
+            .then(response -> {
+                Matcher matcher = CONTENT_RANGE.matcher(String.valueOf(response.responseHeaders().get(HttpHeaderNames.CONTENT_RANGE)));
+
+                if (!HttpResponseStatus.PARTIAL_CONTENT.equals(response.status()) || !matcher.matches() || "*".equals(matcher.group(3))) {
+                    response.context().dispose();
+                    return Mono.just(UNKNOWN);
+                }
+
+                return response.receive()
+                    .then()
+                    .then(Mono.just(Long.parseLong(matcher.group(3))));
+            });
+    }
+
+    private static void read(FileChannel channel, MessageDigest digest) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+
+        try {
+            long position = 0;
+            int read;
+            while ((read = channel.read(buffer, position)) != -1) {
+                position += read;
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private static Mono<Void> receive(HttpClientResponse response, FileChannel channel, Range range, Optional<MessageDigest> digest) {
+        return response.receive()
+            .doOnNext(buffer -> range.write(channel, buffer, digest))
+            .then()
+            .then(Mono.defer(() -> checkComplete(response, range)));
+    }
+
+    private static Mono<Void> sequential(HttpClient httpClient, String uri, FileChannel channel, DownloadConfiguration configuration) {
+        return Mono
+            .defer(() -> {
+                Optional<MessageDigest> digest = getDigest(configuration);
+
+                return fetch(httpClient, uri, channel, new Range(0, UNKNOWN), digest, configuration)
+                    .then(Mono.<Void>fromRunnable(() -> verify(configuration, digest)));
+            });
+    }
+
+    private static void verify(DownloadConfiguration configuration, Optional<MessageDigest> digest) {
+        digest.ifPresent(d -> {
+            String actual = String.format("%0" + (d.getDigestLength() * 2) + "x", new BigInteger(1, d.digest()));
+            String expected = configuration.getChecksum().orElse(actual);
+
+            if (!expected.equalsIgnoreCase(actual)) {
+                throw new IllegalStateException(String.format("Checksum %s of download does not match expected checksum %s", actual, expected));
+            }
+        });
+    }
+
+    private static final class Range {
+
+        private final long start;
+
+        private long end;
+
+        private long position;
+
+        private Range(long start, long end) {
+            this.start = start;
+            this.end = end;
+            this.position = start;
+        }
+
+        private String getHeader() {
+            return this.end == UNKNOWN ? String.format("bytes=%d-", this.position) : String.format("bytes=%d-%d", this.position, this.end);
+        }
+
+        private boolean isComplete() {
+            return this.end != UNKNOWN && this.position > this.end;
+        }
+
+        private boolean isResumable() {
+            return this.end != UNKNOWN || this.position == this.start;
+        }
+
+        private void restart(long end) {
+            this.end = end;
+            this.position = this.start;
+        }
+
+        private void setEnd(long end) {
+            if (this.end == UNKNOWN) {
+                this.end = end;
+            }
+        }
+
+        private void write(FileChannel channel, ByteBuf buffer, Optional<MessageDigest> digest) {
+            try {
+                for (ByteBuffer source : buffer.nioBuffers()) {
+                    while (source.hasRemaining()) {
+                        ByteBuffer written = source.duplicate();
+                        this.position += channel.write(source, this.position);
+                        written.limit(source.position());
+
+                        if (digest.isPresent()) {
+                            digest.get().update(written);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.handler.codec.http.HttpMethod;
+import org.cloudfoundry.reactor.RetryConfiguration;
+import org.cloudfoundry.util.DelayUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.client.HttpClientResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.RETRY_AFTER;
+import static org.cloudfoundry.util.tuple.TupleUtils.function;
+
+/**
+ * A policy that retries exchanges that fail transiently: connection-level {@link IOException}s (including premature closes) and {@code 429}, {@code 502}, {@code 503} and {@code 504} responses.
+ * Only requests that their call site marks idempotent are retried: {@code GET} requests, and optionally {@code PUT} and {@code DELETE} requests whose bodies can be replayed.  Delays between retries use decorrelated jitter and honor any {@code Retry-After} header.  Retries
+ * are drawn from a budget that is replenished by a fraction of each request so that retries cannot amplify an outage.
+ */
+public final class RetryPolicy {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("cloudfoundry-client.retry");
+
+    private static final Set<Integer> RETRYABLE_STATUSES = new HashSet<>(Arrays.asList(429, 502, 503, 504));
+
+    private final AtomicLong attemptsExhausted = new AtomicLong();
+
+    private final AtomicLong budgetExhausted = new AtomicLong();
+
+    private final RetryConfiguration configuration;
+
+    private final AtomicLong retries = new AtomicLong();
+
+    private double budget;
+
+    public RetryPolicy(RetryConfiguration configuration) {
+        this.configuration = configuration;
+        this.budget = configuration.getBudgetCapacity();
+    }
+
+    /**
+     * Executes an exchange, retrying it if it fails transiently and it is retryable
+     *
+     * @param method     the method of the exchange
+     * @param idempotent whether the call site can safely repeat the exchange.  Exchanges that stream a request body that cannot be replayed, or whose repetition would start another operation,
+     *                   are not idempotent.
+     * @param exchange   the exchange to execute
+     * @return the response of the exchange
+     */
+    public Mono<HttpClientResponse> execute(HttpMethod method, boolean idempotent, Mono<HttpClientResponse> exchange) {
+        if (!isRetryable(method, idempotent)) {
+            return exchange;
+        }
+
+        return Mono
+            .defer(() -> {
+                deposit();
+                AtomicReference<Duration> previousDelay = new AtomicReference<>(this.configuration.getMinimumBackoff());
+
+                return exchange
+                    .then(response -> RETRYABLE_STATUSES.contains(response.status().code()) ? Mono.<HttpClientResponse>error(new RetryableResponseException(response)) : Mono.just(response))
+                    .retryWhen(errors -> errors
+                        .zipWith(Flux.range(1, Integer.MAX_VALUE))
+                        .flatMap(function((error, attempt) -> retry(error, attempt, previousDelay)), 1))
+                    .otherwise(t -> t instanceof RetryableResponseException, t -> Mono.just(((RetryableResponseException) t).getResponse()));
+            });
+    }
+
+    /**
+     * Returns the number of retries that were abandoned because the maximum number of retries had been made
+     */
+    public long getAttemptsExhausted() {
+        return this.attemptsExhausted.get();
+    }
+
+    /**
+     * Returns the number of retry tokens currently available
+     */
+    public synchronized double getBudget() {
+        return this.budget;
+    }
+
+    /**
+     * Returns the number of retries that were abandoned because the retry budget was exhausted
+     */
+    public long getBudgetExhausted() {
+        return this.budgetExhausted.get();
+    }
+
+    /**
+     * Returns the number of retries made
+     */
+    public long getRetries() {
+        return this.retries.get();
+    }
+
+    private static Optional<Duration> getRetryAfter(Throwable t) {
+        if (!(t instanceof RetryableResponseException)) {
+            return Optional.empty();
+        }
+
+        String value = ((RetryableResponseException) t).getResponse().responseHeaders().get(RETRY_AFTER);
+        if (value == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(Duration.ofSeconds(Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                Duration duration = Duration.between(Instant.now(), ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+                return Optional.of(duration.isNegative() ? Duration.ZERO : duration);
+            } catch (DateTimeParseException f) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    private static boolean isTransient(Throwable t) {
+        return t instanceof RetryableResponseException || Exceptions.unwrap(t) instanceof IOException;
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return (a.compareTo(b) >= 0) ? a : b;
+    }
+
+    private synchronized void deposit() {
+        this.budget = Math.min(this.configuration.getBudgetCapacity(), this.budget + this.configuration.getBudgetRatio());
+    }
+
+    private boolean isRetryable(HttpMethod method, boolean idempotent) {
+        if (!idempotent) {
+            return false;
+        }
+
+        return HttpMethod.GET.equals(method) || (this.configuration.getRetryPutAndDelete() && (HttpMethod.PUT.equals(method) || HttpMethod.DELETE.equals(method)));
+    }
+
+    private Mono<Long> retry(Throwable t, int attempt, AtomicReference<Duration> previousDelay) {
+        if (!isTransient(t)) {
+            return Mono.error(t);
+        }
+
+        if (attempt > this.configuration.getMaximumRetries()) {
+            this.attemptsExhausted.incrementAndGet();
+            return Mono.error(t);
+        }
+
+        Optional<Duration> retryAfter = getRetryAfter(t);
+        if (retryAfter.isPresent() && retryAfter.get().compareTo(this.configuration.getMaximumBackoff()) > 0) {
+            return Mono.error(t);
+        }
+
+        if (!withdraw()) {
+            this.budgetExhausted.incrementAndGet();
+            LOGGER.debug("Retry budget exhausted");
+            return Mono.error(t);
+        }
+
+        Duration delay = previousDelay.updateAndGet(previous -> DelayUtils.decorrelatedJitter(this.configuration.getMinimumBackoff(), this.configuration.getMaximumBackoff(), previous));
+        Duration actual = retryAfter.map(r -> max(r, delay)).orElse(delay);
+
+        if (t instanceof RetryableResponseException) {
+            ((RetryableResponseException) t).getResponse().channel().close();
+        }
+
+        this.retries.incrementAndGet();
+        LOGGER.debug("Retrying in {} ms (attempt {}): {}", actual.toMillis(), attempt, t.getMessage());
+
+        return Mono.delay(actual);
+    }
+
+    private synchronized boolean withdraw() {
+        if (this.budget < 1) {
+            return false;
+        }
+
+        this.budget -= 1;
+        return true;
+    }
+
+    private static final class RetryableResponseException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient HttpClientResponse response;
+
+        private RetryableResponseException(HttpClientResponse response) {
+            super(String.format("%d %s", response.status().code(), response.status().reasonPhrase()));
+            this.response = response;
+        }
+
+        private HttpClientResponse getResponse() {
+            return this.response;
+        }
+
+    }
+
+}
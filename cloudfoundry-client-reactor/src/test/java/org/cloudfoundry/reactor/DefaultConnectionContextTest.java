@@ -16,13 +16,18 @@
 
 package org.cloudfoundry.reactor;
 
+import okhttp3.mockwebserver.MockResponse;
 import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.netty.handler.codec.http.HttpMethod.GET;
 import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+import static org.assertj.core.api.Assertions.assertThat;
 
 public final class DefaultConnectionContextTest extends AbstractRestTest {
 
@@ -32,6 +37,43 @@ public final class DefaultConnectionContextTest extends AbstractRestTest {
         .secure(false)
         .build();
 
+    @Test
+    public void connectionPooling() throws Exception {
+        this.mockWebServer.enqueue(new MockResponse().setBody("test-body-1"));
+        this.mockWebServer.enqueue(new MockResponse().setBody("test-body-2"));
+
+        DefaultConnectionContext pooledConnectionContext = DefaultConnectionContext.builder()
+            .apiHost(this.mockWebServer.getHostName())
+            .connectionPooling(true)
+            .connectionPoolSize(1)
+            .port(this.mockWebServer.getPort())
+            .secure(false)
+            .build();
+
+        String uri = this.mockWebServer.url("/test-path").toString();
+
+        Flux.concat(
+            pooledConnectionContext.getHttpClient().get(uri).then(response -> response.receive().aggregate().asString()),
+            pooledConnectionContext.getHttpClient().get(uri).then(response -> response.receive().aggregate().asString()))
+            .as(StepVerifier::create)
+            .expectNext("test-body-1", "test-body-2")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.mockWebServer.takeRequest().getSequenceNumber()).isEqualTo(0);
+        assertThat(this.mockWebServer.takeRequest().getSequenceNumber()).isEqualTo(1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void exchangeTimingWithConnectionPooling() {
+        DefaultConnectionContext.builder()
+            .apiHost(this.mockWebServer.getHostName())
+            .connectionPooling(true)
+            .exchangeTimingListener(exchangeTiming -> {
+            })
+            .build();
+    }
+
     @Test
     public void getInfo() throws Exception {
         mockRequest(InteractionContext.builder()
@@ -52,4 +94,103 @@ public final class DefaultConnectionContextTest extends AbstractRestTest {
             .verify(Duration.ofSeconds(5));
     }
 
+    @Test
+    public void getRootMemoized() {
+        assertThat(this.connectionContext.getRoot("token_endpoint")).isSameAs(this.connectionContext.getRoot("token_endpoint"));
+    }
+
+    @Test
+    public void prioritizedCompression() {
+        DefaultConnectionContext compressedConnectionContext = DefaultConnectionContext.builder()
+            .apiHost(this.mockWebServer.getHostName())
+            .compressionConfiguration(CompressionConfiguration.builder()
+                .build())
+            .port(this.mockWebServer.getPort())
+            .secure(false)
+            .build();
+
+        ConnectionContext prioritizedConnectionContext = PrioritizedConnectionContext.builder()
+            .connectionContext(compressedConnectionContext)
+            .requestPriority(RequestPriority.BULK)
+            .build();
+
+        assertThat(prioritizedConnectionContext.getCompression()).isPresent();
+    }
+
+    @Test
+    public void sharedResources() {
+        this.mockWebServer.enqueue(new MockResponse().setBody("test-body"));
+
+        SharedConnectionResources resources = new SharedConnectionResources(1, 1);
+
+        DefaultConnectionContext sharedConnectionContext = DefaultConnectionContext.builder()
+            .apiHost(this.mockWebServer.getHostName())
+            .connectionPooling(true)
+            .port(this.mockWebServer.getPort())
+            .secure(false)
+            .sharedResources(resources)
+            .build();
+
+        resources.release();
+
+        String uri = this.mockWebServer.url("/test-path").toString();
+
+        sharedConnectionContext.getHttpClient().get(uri)
+            .then(response -> response.receive().aggregate().asString())
+            .as(StepVerifier::create)
+            .expectNext("test-body")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        sharedConnectionContext.dispose();
+        assertThat(resources.isDisposed()).isTrue();
+    }
+
+    @Test
+    public void warmUp() throws Exception {
+        mockRequest(InteractionContext.builder()
+            .request(TestRequest.builder()
+                .method(GET).path("/v2/info")
+                .build())
+            .response(TestResponse.builder()
+                .status(OK)
+                .payload("fixtures/client/v2/info/GET_response.json")
+                .build())
+            .build());
+
+        AtomicInteger tokens = new AtomicInteger();
+
+        this.connectionContext
+            .warmUp(connectionContext -> Mono.fromCallable(() -> String.format("test-token-%d", tokens.incrementAndGet())))
+            .as(StepVerifier::create)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(tokens.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void warmUpPreconnects() throws Exception {
+        String root = this.mockWebServer.url("/").toString();
+        this.mockWebServer.enqueue(new MockResponse().setHeader("Content-Type", "application/json").setBody(String.format("{\"token_endpoint\":\"%s\"}", root)));
+        this.mockWebServer.enqueue(new MockResponse());
+
+        DefaultConnectionContext pooledConnectionContext = DefaultConnectionContext.builder()
+            .apiHost(this.mockWebServer.getHostName())
+            .connectionPooling(true)
+            .port(this.mockWebServer.getPort())
+            .secure(false)
+            .build();
+
+        pooledConnectionContext
+            .warmUp(connectionContext -> Mono.just("test-token"))
+            .as(StepVerifier::create)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.mockWebServer.takeRequest().getPath()).isEqualTo("/v2/info");
+        assertThat(this.mockWebServer.takeRequest().getPath()).isEqualTo("/");
+        assertThat(this.mockWebServer.getRequestCount()).isEqualTo(2);
+    }
+
 }
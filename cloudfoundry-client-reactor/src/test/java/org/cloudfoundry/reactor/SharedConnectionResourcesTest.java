@@ -0,0 +1,145 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class SharedConnectionResourcesTest {
+
+    @Test
+    public void acquire() {
+        SharedConnectionResources resources = new SharedConnectionResources(1, 1);
+
+        SharedConnectionResources.Lease lease = resources.acquire();
+        assertThat(resources.getReferenceCount()).isEqualTo(2);
+
+        lease.release();
+        lease.release();
+        assertThat(resources.getReferenceCount()).isEqualTo(1);
+        assertThat(resources.isDisposed()).isFalse();
+
+        resources.release();
+        assertThat(resources.isDisposed()).isTrue();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void acquireDisposed() {
+        SharedConnectionResources resources = new SharedConnectionResources(1, 1);
+        resources.release();
+
+        resources.acquire();
+    }
+
+    @Test
+    public void copiedContext() {
+        SharedConnectionResources resources = new SharedConnectionResources(1, 1);
+
+        DefaultConnectionContext connectionContext = DefaultConnectionContext.builder()
+            .apiHost("test-api-host")
+            .sharedResources(resources)
+            .build();
+
+        DefaultConnectionContext copy = connectionContext.withSecure(false);
+        DefaultConnectionContext rebuilt = DefaultConnectionContext.copyOf(copy).withKeepAlive(true);
+
+        assertThat(resources.getReferenceCount()).isEqualTo(2);
+
+        resources.release();
+        rebuilt.dispose();
+        assertThat(resources.isDisposed()).isTrue();
+
+        connectionContext.dispose();
+        copy.dispose();
+        assertThat(resources.isDisposed()).isTrue();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidThreadPoolSize() {
+        new SharedConnectionResources(0, 1);
+    }
+
+    @Test
+    public void poolPerConnectionConfiguration() {
+        SharedConnectionResources resources = new SharedConnectionResources(1, 1);
+
+        DefaultConnectionContext validating = DefaultConnectionContext.builder()
+            .apiHost("test-api-host")
+            .connectionPooling(true)
+            .sharedResources(resources)
+            .build();
+
+        DefaultConnectionContext alsoValidating = DefaultConnectionContext.builder()
+            .apiHost("test-api-host")
+            .connectionPooling(true)
+            .sharedResources(resources)
+            .skipSslValidation(false)
+            .build();
+
+        DefaultConnectionContext skipping = DefaultConnectionContext.builder()
+            .apiHost("test-api-host")
+            .connectionPooling(true)
+            .sharedResources(resources)
+            .skipSslValidation(true)
+            .build();
+
+        assertThat(resources.getPoolResources(validating.getConnectionConfiguration()))
+            .isSameAs(resources.getPoolResources(alsoValidating.getConnectionConfiguration()))
+            .isNotSameAs(resources.getPoolResources(skipping.getConnectionConfiguration()));
+
+        resources.release();
+        validating.dispose();
+        alsoValidating.dispose();
+        skipping.dispose();
+        assertThat(resources.isDisposed()).isTrue();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void releaseDisposed() {
+        SharedConnectionResources resources = new SharedConnectionResources(1, 1);
+        resources.release();
+
+        resources.release();
+    }
+
+    @Test
+    public void sharedByContexts() {
+        SharedConnectionResources resources = new SharedConnectionResources(1, 1);
+
+        DefaultConnectionContext first = DefaultConnectionContext.builder()
+            .apiHost("test-api-host-1")
+            .sharedResources(resources)
+            .build();
+
+        DefaultConnectionContext second = DefaultConnectionContext.builder()
+            .apiHost("test-api-host-2")
+            .sharedResources(resources)
+            .build();
+
+        assertThat(resources.getReferenceCount()).isEqualTo(3);
+
+        resources.release();
+        first.dispose();
+        assertThat(resources.isDisposed()).isFalse();
+
+        second.dispose();
+        assertThat(resources.isDisposed()).isTrue();
+    }
+
+}
@@ -32,6 +32,8 @@ import org.cloudfoundry.client.v2.serviceplans.ServicePlanEntity;
 import org.cloudfoundry.client.v2.serviceplans.ServicePlanResource;
 import org.cloudfoundry.client.v2.serviceplans.UpdateServicePlanRequest;
 import org.cloudfoundry.client.v2.serviceplans.UpdateServicePlanResponse;
+import org.cloudfoundry.client.v2.services.ServiceEntity;
+import org.cloudfoundry.client.v2.services.ServiceResource;
 import org.cloudfoundry.reactor.InteractionContext;
 import org.cloudfoundry.reactor.TestRequest;
 import org.cloudfoundry.reactor.TestResponse;
@@ -147,6 +149,64 @@ public final class ReactorServicePlansTest extends AbstractClientApiTest {
             .verify(Duration.ofSeconds(5));
     }
 
+    @Test
+    public void getInlineRelations() {
+        mockRequest(InteractionContext.builder()
+            .request(TestRequest.builder()
+                .method(GET).path("/v2/service_plans/test-service-plan-id?include-relations=service&inline-relations-depth=1")
+                .build())
+            .response(TestResponse.builder()
+                .status(OK)
+                .payload("fixtures/client/v2/service_plans/GET_{id}_inline_response.json")
+                .build())
+            .build());
+
+        this.servicePlans
+            .get(GetServicePlanRequest.builder()
+                .includeRelation("service")
+                .inlineRelationsDepth(1)
+                .servicePlanId("test-service-plan-id")
+                .build())
+            .as(StepVerifier::create)
+            .expectNext(GetServicePlanResponse.builder()
+                .metadata(Metadata.builder()
+                    .createdAt("2015-07-27T22:43:16Z")
+                    .id("f6ceb8a2-e6fc-43d5-a11b-7ced9e1b47c7")
+                    .url("/v2/service_plans/f6ceb8a2-e6fc-43d5-a11b-7ced9e1b47c7")
+                    .build())
+                .entity(ServicePlanEntity.builder()
+                    .name("name-462")
+                    .free(false)
+                    .description("desc-52")
+                    .serviceId("8ac39757-0f9d-4295-9b6f-e626f7ee3cd4")
+                    .uniqueId("2aa0162c-9c88-4084-ad1d-566a09e8d316")
+                    .publiclyVisible(true)
+                    .active(true)
+                    .service(ServiceResource.builder()
+                        .metadata(Metadata.builder()
+                            .createdAt("2015-07-27T22:43:15Z")
+                            .id("8ac39757-0f9d-4295-9b6f-e626f7ee3cd4")
+                            .url("/v2/services/8ac39757-0f9d-4295-9b6f-e626f7ee3cd4")
+                            .build())
+                        .entity(ServiceEntity.builder()
+                            .label("label-85")
+                            .description("desc-218")
+                            .active(true)
+                            .bindable(true)
+                            .uniqueId("c181996b-f233-43d1-8901-3a43eafcaacf")
+                            .serviceBrokerId("fe6e3f23-7b92-4855-aaa7-56f515d678c5")
+                            .planUpdateable(true)
+                            .servicePlansUrl("/v2/services/8ac39757-0f9d-4295-9b6f-e626f7ee3cd4/service_plans")
+                            .build())
+                        .build())
+                    .serviceUrl("/v2/services/8ac39757-0f9d-4295-9b6f-e626f7ee3cd4")
+                    .serviceInstancesUrl("/v2/service_plans/f6ceb8a2-e6fc-43d5-a11b-7ced9e1b47c7/service_instances")
+                    .build())
+                .build())
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
     @Test
     public void list() {
         mockRequest(InteractionContext.builder()
@@ -24,6 +24,7 @@ import org.cloudfoundry.client.v3.Link;
 import org.cloudfoundry.client.v3.Pagination;
 import org.cloudfoundry.client.v3.Relationship;
 import org.cloudfoundry.client.v3.applications.ApplicationResource;
+import org.cloudfoundry.client.v3.applications.ApplicationsIncluded;
 import org.cloudfoundry.client.v3.applications.AssignApplicationDropletRequest;
 import org.cloudfoundry.client.v3.applications.AssignApplicationDropletResponse;
 import org.cloudfoundry.client.v3.applications.CancelApplicationTaskRequest;
@@ -41,6 +42,7 @@ import org.cloudfoundry.client.v3.applications.GetApplicationRequest;
 import org.cloudfoundry.client.v3.applications.GetApplicationResponse;
 import org.cloudfoundry.client.v3.applications.GetApplicationTaskRequest;
 import org.cloudfoundry.client.v3.applications.GetApplicationTaskResponse;
+import org.cloudfoundry.client.v3.applications.IncludedSpace;
 import org.cloudfoundry.client.v3.applications.ListApplicationDropletsRequest;
 import org.cloudfoundry.client.v3.applications.ListApplicationDropletsResponse;
 import org.cloudfoundry.client.v3.applications.ListApplicationPackagesRequest;
@@ -811,6 +813,59 @@ public final class ReactorApplicationsV3Test extends AbstractClientApiTest {
             .verify(Duration.ofSeconds(5));
     }
 
+    @Test
+    public void listIncludeSpace() {
+        mockRequest(InteractionContext.builder()
+            .request(TestRequest.builder()
+                .method(GET).path("/v3/apps?include=space&page=1")
+                .build())
+            .response(TestResponse.builder()
+                .status(OK)
+                .payload("fixtures/client/v3/apps/GET_include_space_response.json")
+                .build())
+            .build());
+
+        this.applications
+            .list(ListApplicationsRequest.builder()
+                .page(1)
+                .include("space")
+                .build())
+            .as(StepVerifier::create)
+            .expectNext(ListApplicationsResponse.builder()
+                .pagination(Pagination.builder()
+                    .totalResults(1)
+                    .first(Link.builder()
+                        .href("/v3/apps?include=space&page=1&per_page=50")
+                        .build())
+                    .last(Link.builder()
+                        .href("/v3/apps?include=space&page=1&per_page=50")
+                        .build())
+                    .build())
+                .resource(ApplicationResource.builder()
+                    .id("guid-fde0d401-0615-4ebf-9585-57ab0fe0d2fa")
+                    .name("my_app")
+                    .desiredState("STOPPED")
+                    .totalDesiredInstances(0)
+                    .createdAt("1970-01-01T00:00:03Z")
+                    .link("self", Link.builder()
+                        .href("/v3/apps/guid-fde0d401-0615-4ebf-9585-57ab0fe0d2fa")
+                        .build())
+                    .build())
+                .included(ApplicationsIncluded.builder()
+                    .space(IncludedSpace.builder()
+                        .id("801a008f-dfda-464f-88ed-b9abd4bf3b1b")
+                        .name("my_space")
+                        .createdAt("1970-01-01T00:00:01Z")
+                        .link("self", Link.builder()
+                            .href("/v3/spaces/801a008f-dfda-464f-88ed-b9abd4bf3b1b")
+                            .build())
+                        .build())
+                    .build())
+                .build())
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
     @Test
     public void listPackages() {
         mockRequest(InteractionContext.builder()
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.tokenprovider;
+
+import org.junit.After;
+import org.junit.Test;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class EncryptedFileTokenStoreTest {
+
+    private final Path directory;
+
+    private final Path file;
+
+    private final StoredTokens tokens = StoredTokens.builder()
+        .accessToken("bearer test-access-token")
+        .refreshToken("test-refresh-token")
+        .build();
+
+    public EncryptedFileTokenStoreTest() throws IOException {
+        this.directory = Files.createTempDirectory("token-store-");
+        this.file = this.directory.resolve("tokens");
+    }
+
+    @After
+    public void cleanUp() throws IOException {
+        try (Stream<Path> paths = Files.walk(this.directory)) {
+            paths
+                .sorted(Comparator.reverseOrder())
+                .forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void encrypted() throws IOException {
+        new EncryptedFileTokenStore(this.file, "test-passphrase".toCharArray())
+            .put("test-key", this.tokens)
+            .block(Duration.ofSeconds(5));
+
+        assertThat(new String(Files.readAllBytes(this.file), "ISO-8859-1")).doesNotContain("test-access-token", "test-refresh-token");
+    }
+
+    @Test
+    public void get() {
+        EncryptedFileTokenStore tokenStore = new EncryptedFileTokenStore(this.file, "test-passphrase".toCharArray());
+
+        tokenStore
+            .put("test-key", this.tokens)
+            .then(tokenStore.get("test-key"))
+            .as(StepVerifier::create)
+            .expectNext(this.tokens)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void getMissing() {
+        new EncryptedFileTokenStore(this.file, "test-passphrase".toCharArray())
+            .get("test-key")
+            .as(StepVerifier::create)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void getSharedBetweenInstances() {
+        new EncryptedFileTokenStore(this.file, "test-passphrase".toCharArray())
+            .put("test-key", this.tokens)
+            .block(Duration.ofSeconds(5));
+
+        new EncryptedFileTokenStore(this.file, "test-passphrase".toCharArray())
+            .get("test-key")
+            .as(StepVerifier::create)
+            .expectNext(this.tokens)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void getWrongPassphrase() {
+        new EncryptedFileTokenStore(this.file, "test-passphrase".toCharArray())
+            .put("test-key", this.tokens)
+            .block(Duration.ofSeconds(5));
+
+        new EncryptedFileTokenStore(this.file, "test-other-passphrase".toCharArray())
+            .get("test-key")
+            .as(StepVerifier::create)
+            .expectError()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void remove() {
+        EncryptedFileTokenStore tokenStore = new EncryptedFileTokenStore(this.file, "test-passphrase".toCharArray());
+
+        tokenStore
+            .put("test-key", this.tokens)
+            .then(tokenStore.remove("test-key"))
+            .then(tokenStore.get("test-key"))
+            .as(StepVerifier::create)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+}
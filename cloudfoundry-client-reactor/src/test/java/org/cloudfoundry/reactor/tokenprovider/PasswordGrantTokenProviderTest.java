@@ -0,0 +1,241 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.tokenprovider;
+
+import io.jsonwebtoken.Jwts;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.cloudfoundry.reactor.ConnectionContext;
+import org.cloudfoundry.reactor.DefaultConnectionContext;
+import org.cloudfoundry.reactor.PrioritizedConnectionContext;
+import org.cloudfoundry.reactor.RequestPriority;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class PasswordGrantTokenProviderTest {
+
+    private static final Pattern GRANT_TYPE = Pattern.compile("grant_type=([a-z_]+)");
+
+    private final String expiredToken = token(Instant.now().minus(Duration.ofHours(1)));
+
+    private final List<String> grants = new CopyOnWriteArrayList<>();
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    private final Queue<MockResponse> tokenResponses = new LinkedList<>();
+
+    private final String validToken = token(Instant.now().plus(Duration.ofHours(1)));
+
+    @After
+    public void shutdown() throws IOException {
+        this.mockWebServer.shutdown();
+    }
+
+    @Before
+    public void start() throws IOException {
+        this.mockWebServer.setDispatcher(new Dispatcher() {
+
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getPath().startsWith("/v2/info")) {
+                    return new MockResponse()
+                        .setHeader("Content-Type", "application/json")
+                        .setBody(String.format("{\"token_endpoint\":\"%s\"}", PasswordGrantTokenProviderTest.this.mockWebServer.url("/").toString().replaceAll("/$", "")));
+                }
+
+                Matcher matcher = GRANT_TYPE.matcher(request.getBody().readUtf8());
+                PasswordGrantTokenProviderTest.this.grants.add(matcher.find() ? matcher.group(1) : "unknown");
+
+                synchronized (PasswordGrantTokenProviderTest.this.tokenResponses) {
+                    MockResponse response = PasswordGrantTokenProviderTest.this.tokenResponses.poll();
+                    return response != null ? response : new MockResponse().setResponseCode(500);
+                }
+            }
+
+        });
+
+        this.mockWebServer.start();
+    }
+
+    @Test
+    public void getTokenFirstUse() {
+        enqueueToken(this.validToken);
+
+        provider("test-password", null)
+            .getToken(connectionContext())
+            .as(StepVerifier::create)
+            .expectNext(String.format("bearer %s", this.validToken))
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.grants).containsExactly("password");
+    }
+
+    @Test
+    public void getTokenPrioritized() {
+        ConnectionContext connectionContext = connectionContext();
+        ConnectionContext prioritizedConnectionContext = PrioritizedConnectionContext.builder()
+            .connectionContext(connectionContext)
+            .requestPriority(RequestPriority.BULK)
+            .build();
+        PasswordGrantTokenProvider provider = provider("test-password", null);
+        enqueueToken(this.validToken);
+
+        provider
+            .getToken(prioritizedConnectionContext)
+            .as(StepVerifier::create)
+            .expectNext(String.format("bearer %s", this.validToken))
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        provider
+            .getToken(connectionContext)
+            .as(StepVerifier::create)
+            .expectNext(String.format("bearer %s", this.validToken))
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.grants).containsExactly("password");
+    }
+
+    @Test
+    public void getTokenStoredDifferentPassword() {
+        TokenStore tokenStore = new InMemoryTokenStore();
+        enqueueToken(this.validToken);
+        enqueueToken(this.validToken);
+
+        provider("test-password", tokenStore).getToken(connectionContext()).block(Duration.ofSeconds(5));
+        provider("test-other-password", tokenStore).getToken(connectionContext()).block(Duration.ofSeconds(5));
+
+        assertThat(this.grants).containsExactly("password", "password");
+    }
+
+    @Test
+    public void getTokenStoredExpired() {
+        TokenStore tokenStore = new InMemoryTokenStore();
+        enqueueToken(this.expiredToken);
+        enqueueToken(this.validToken);
+
+        provider("test-password", tokenStore).getToken(connectionContext()).block(Duration.ofSeconds(5));
+
+        provider("test-password", tokenStore)
+            .getToken(connectionContext())
+            .as(StepVerifier::create)
+            .expectNext(String.format("bearer %s", this.validToken))
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.grants).containsExactly("password", "refresh_token");
+
+        provider("test-password", tokenStore)
+            .getToken(connectionContext())
+            .as(StepVerifier::create)
+            .expectNext(String.format("bearer %s", this.validToken))
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.grants).containsExactly("password", "refresh_token");
+    }
+
+    @Test
+    public void getTokenStoredRefreshRejected() {
+        TokenStore tokenStore = new InMemoryTokenStore();
+        enqueueToken(this.expiredToken);
+        this.tokenResponses.add(new MockResponse()
+            .setResponseCode(401)
+            .setHeader("Content-Type", "application/json")
+            .setBody("{\"error\":\"invalid_token\",\"error_description\":\"test-error-description\"}"));
+        enqueueToken(this.validToken);
+
+        provider("test-password", tokenStore).getToken(connectionContext()).block(Duration.ofSeconds(5));
+
+        provider("test-password", tokenStore)
+            .getToken(connectionContext())
+            .as(StepVerifier::create)
+            .expectNext(String.format("bearer %s", this.validToken))
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.grants).containsExactly("password", "refresh_token", "password");
+    }
+
+    @Test
+    public void getTokenStoredReused() {
+        TokenStore tokenStore = new InMemoryTokenStore();
+        enqueueToken(this.validToken);
+
+        provider("test-password", tokenStore).getToken(connectionContext()).block(Duration.ofSeconds(5));
+
+        provider("test-password", tokenStore)
+            .getToken(connectionContext())
+            .as(StepVerifier::create)
+            .expectNext(String.format("bearer %s", this.validToken))
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.grants).containsExactly("password");
+    }
+
+    private static String token(Instant expiration) {
+        return Jwts.builder()
+            .setIssuedAt(new Date())
+            .setExpiration(Date.from(expiration))
+            .compact();
+    }
+
+    private ConnectionContext connectionContext() {
+        return DefaultConnectionContext.builder()
+            .apiHost(this.mockWebServer.getHostName())
+            .port(this.mockWebServer.getPort())
+            .secure(false)
+            .build();
+    }
+
+    private void enqueueToken(String accessToken) {
+        this.tokenResponses.add(new MockResponse()
+            .setHeader("Content-Type", "application/json")
+            .setBody(String.format("{\"access_token\":\"%s\",\"refresh_token\":\"test-refresh-token\",\"token_type\":\"bearer\"}", accessToken)));
+    }
+
+    private PasswordGrantTokenProvider provider(String password, TokenStore tokenStore) {
+        return PasswordGrantTokenProvider.builder()
+            .password(password)
+            .tokenStore(Optional.ofNullable(tokenStore))
+            .username("test-username")
+            .build();
+    }
+
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.cloudfoundry.reactor.ConcurrencyLimitConfiguration;
+import org.cloudfoundry.reactor.RequestPriority;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.ipc.netty.NettyContext;
+import reactor.ipc.netty.http.client.HttpClientResponse;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_SMART_NULLS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public final class AdaptiveConcurrencyLimiterTest {
+
+    private static final String HOST = "test-host";
+
+    @Test
+    public void decreaseOnError() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(ConcurrencyLimitConfiguration.builder()
+            .initialLimit(10)
+            .build());
+
+        limiter
+            .execute(HOST, Mono.error(new IOException()))
+            .as(StepVerifier::create)
+            .expectError(IOException.class)
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(limiter.getLimit(HOST)).isEqualTo(9);
+        assertThat(limiter.getInFlight(HOST)).isEqualTo(0);
+    }
+
+    @Test
+    public void decreaseOncePerWindow() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(ConcurrencyLimitConfiguration.builder()
+            .initialLimit(10)
+            .build());
+
+        MonoProcessor<HttpClientResponse> first = MonoProcessor.create();
+        MonoProcessor<HttpClientResponse> second = MonoProcessor.create();
+
+        limiter.execute(HOST, first).subscribe();
+        limiter.execute(HOST, second).subscribe();
+
+        first.onNext(response(HttpResponseStatus.SERVICE_UNAVAILABLE));
+        second.onNext(response(HttpResponseStatus.SERVICE_UNAVAILABLE));
+
+        assertThat(limiter.getLimit(HOST)).isEqualTo(9);
+
+        limiter
+            .execute(HOST, Mono.just(response(HttpResponseStatus.SERVICE_UNAVAILABLE)))
+            .as(StepVerifier::create)
+            .expectNextCount(1)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(limiter.getLimit(HOST)).isEqualTo(8);
+    }
+
+    @Test
+    public void decreaseOnOverload() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(ConcurrencyLimitConfiguration.builder()
+            .initialLimit(10)
+            .build());
+
+        limiter
+            .execute(HOST, Mono.just(response(HttpResponseStatus.SERVICE_UNAVAILABLE)))
+            .as(StepVerifier::create)
+            .expectNextCount(1)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(limiter.getLimit(HOST)).isEqualTo(9);
+    }
+
+    @Test
+    public void increase() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(ConcurrencyLimitConfiguration.builder()
+            .initialLimit(1)
+            .build());
+
+        limiter
+            .execute(HOST, Mono.just(response(HttpResponseStatus.OK)))
+            .as(StepVerifier::create)
+            .expectNextCount(1)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(limiter.getLimit(HOST)).isEqualTo(2);
+    }
+
+    @Test
+    public void minimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(ConcurrencyLimitConfiguration.builder()
+            .initialLimit(1)
+            .build());
+
+        limiter
+            .execute(HOST, Mono.just(response(HttpResponseStatus.TOO_MANY_REQUESTS)))
+            .as(StepVerifier::create)
+            .expectNextCount(1)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(limiter.getLimit(HOST)).isEqualTo(1);
+    }
+
+    @Test
+    public void releaseOnBodyCompletion() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(ConcurrencyLimitConfiguration.builder()
+            .initialLimit(1)
+            .build());
+
+        MonoProcessor<Void> body = MonoProcessor.create();
+
+        limiter
+            .execute(HOST, Mono.just(response(HttpResponseStatus.OK, body)))
+            .as(StepVerifier::create)
+            .expectNextCount(1)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(limiter.getInFlight(HOST)).isEqualTo(1);
+
+        body.onComplete();
+
+        assertThat(limiter.getInFlight(HOST)).isEqualTo(0);
+    }
+
+    @Test
+    public void queue() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(ConcurrencyLimitConfiguration.builder()
+            .initialLimit(1)
+            .build());
+
+        MonoProcessor<HttpClientResponse> first = MonoProcessor.create();
+        AtomicBoolean secondSubscribed = new AtomicBoolean(false);
+
+        limiter.execute(HOST, first).subscribe();
+        limiter.execute(HOST, Mono.just(response(HttpResponseStatus.OK)).doOnSubscribe(s -> secondSubscribed.set(true))).subscribe();
+
+        assertThat(secondSubscribed).isFalse();
+        assertThat(limiter.getInFlight(HOST)).isEqualTo(1);
+        assertThat(limiter.getQueued(HOST)).isEqualTo(1);
+
+        first.onNext(response(HttpResponseStatus.OK));
+
+        assertThat(secondSubscribed).isTrue();
+        assertThat(limiter.getInFlight(HOST)).isEqualTo(0);
+        assertThat(limiter.getQueued(HOST)).isEqualTo(0);
+    }
+
+    @Test
+    public void queuePriority() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(ConcurrencyLimitConfiguration.builder()
+            .initialLimit(1)
+            .maximumLimit(1)
+            .build());
+
+        MonoProcessor<HttpClientResponse> first = MonoProcessor.create();
+        List<RequestPriority> order = new ArrayList<>();
+
+        limiter.execute(HOST, RequestPriority.BULK, first).subscribe();
+        limiter.execute(HOST, RequestPriority.BULK, Mono.just(response(HttpResponseStatus.OK)).doOnSubscribe(s -> order.add(RequestPriority.BULK))).subscribe();
+        limiter.execute(HOST, RequestPriority.INTERACTIVE, Mono.just(response(HttpResponseStatus.OK)).doOnSubscribe(s -> order.add(RequestPriority.INTERACTIVE))).subscribe();
+
+        assertThat(limiter.getQueued(HOST)).isEqualTo(2);
+
+        first.onNext(response(HttpResponseStatus.OK));
+
+        assertThat(order).containsExactly(RequestPriority.INTERACTIVE, RequestPriority.BULK);
+    }
+
+    private static HttpClientResponse response(HttpResponseStatus status) {
+        return response(status, Mono.empty());
+    }
+
+    private static HttpClientResponse response(HttpResponseStatus status, Mono<Void> body) {
+        NettyContext context = mock(NettyContext.class, RETURNS_SMART_NULLS);
+        when(context.onClose()).thenReturn(body);
+
+        HttpClientResponse response = mock(HttpClientResponse.class, RETURNS_SMART_NULLS);
+        when(response.context()).thenReturn(context);
+        when(response.status()).thenReturn(status);
+        return response;
+    }
+
+}
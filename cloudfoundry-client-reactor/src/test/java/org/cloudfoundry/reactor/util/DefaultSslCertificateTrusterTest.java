@@ -0,0 +1,98 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class DefaultSslCertificateTrusterTest {
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final DefaultSslCertificateTruster truster = new DefaultSslCertificateTruster(Optional.empty());
+
+    private ServerSocket serverSocket;
+
+    @After
+    public void closeServer() throws IOException {
+        this.serverSocket.close();
+    }
+
+    @Before
+    public void startServer() throws IOException {
+        this.serverSocket = new ServerSocket(0);
+
+        Thread server = new Thread(() -> {
+            while (!this.serverSocket.isClosed()) {
+                try (Socket socket = this.serverSocket.accept()) {
+                    this.connections.incrementAndGet();
+                    Thread.sleep(500);
+                } catch (IOException | InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        server.setDaemon(true);
+        server.start();
+    }
+
+    @Test
+    public void trustConcurrent() {
+        Flux
+            .merge(
+                trust().otherwise(t -> Mono.empty()),
+                trust().otherwise(t -> Mono.empty()))
+            .as(StepVerifier::create)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.connections.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void trustFailureNotCached() {
+        trust()
+            .as(StepVerifier::create)
+            .expectError()
+            .verify(Duration.ofSeconds(5));
+
+        trust()
+            .as(StepVerifier::create)
+            .expectError()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.connections.get()).isEqualTo(2);
+    }
+
+    private Mono<Void> trust() {
+        return this.truster.trustAsync("localhost", this.serverSocket.getLocalPort(), Duration.ofSeconds(5));
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.cloudfoundry.reactor.ExchangeTiming;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class ExchangeTimingChannelHandlerTest {
+
+    private final List<ExchangeTiming> exchangeTimings = new ArrayList<>();
+
+    private final EmbeddedChannel channel = new EmbeddedChannel(new ExchangeTimingChannelHandler(Collections.singletonList(this.exchangeTimings::add)));
+
+    @Test
+    public void noResponse() {
+        this.channel.writeOutbound(Unpooled.wrappedBuffer(new byte[]{0}));
+        this.channel.close();
+
+        assertThat(this.exchangeTimings).isEmpty();
+    }
+
+    @Test
+    public void report() {
+        this.channel.attr(ExchangeTimingChannelHandler.REQUEST).set("GET /v2/info");
+
+        this.channel.writeOutbound(Unpooled.wrappedBuffer(new byte[]{0}));
+        this.channel.writeInbound(Unpooled.wrappedBuffer(new byte[]{1}));
+        this.channel.writeInbound(Unpooled.wrappedBuffer(new byte[]{2}));
+        this.channel.close();
+
+        assertThat(this.exchangeTimings).hasSize(1);
+
+        ExchangeTiming exchangeTiming = this.exchangeTimings.get(0);
+        assertThat(exchangeTiming.getRequest()).hasValue("GET /v2/info");
+        assertThat(exchangeTiming.getDnsResolution()).isEmpty();
+        assertThat(exchangeTiming.getConnect()).isEmpty();
+        assertThat(exchangeTiming.getTlsHandshake()).isEmpty();
+        assertThat(exchangeTiming.getTimeToFirstByte().isNegative()).isFalse();
+        assertThat(exchangeTiming.getBodyTransfer().isNegative()).isFalse();
+        assertThat(exchangeTiming.getTotal()).isGreaterThanOrEqualTo(exchangeTiming.getTimeToFirstByte().plus(exchangeTiming.getBodyTransfer()));
+    }
+
+    @Test
+    public void reportOnce() {
+        this.channel.writeOutbound(Unpooled.wrappedBuffer(new byte[]{0}));
+        this.channel.writeInbound(Unpooled.wrappedBuffer(new byte[]{1}));
+        this.channel.close();
+        this.channel.close();
+
+        assertThat(this.exchangeTimings).hasSize(1);
+        assertThat(this.exchangeTimings.get(0).getRequest()).isEmpty();
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import org.cloudfoundry.reactor.CompressionConfiguration;
+import org.junit.Test;
+import reactor.ipc.netty.http.client.HttpClientRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.RETURNS_SMART_NULLS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class HttpCompressionTest {
+
+    private static final byte[] PAYLOAD = repeat("{\"metadata\":{\"guid\":\"test-guid\"}}", 1_000).getBytes(StandardCharsets.UTF_8);
+
+    private final HttpCompression compression = new HttpCompression(CompressionConfiguration.builder()
+        .compressRequests(true)
+        .requestCompressionThreshold(1_024)
+        .build());
+
+    private final EmbeddedChannel channel = new EmbeddedChannel(new DecompressionChannelHandler(this.compression));
+
+    private final HttpClientRequest request = mock(HttpClientRequest.class, RETURNS_SMART_NULLS);
+
+    @Test
+    public void compressRequest() {
+        when(this.request.header(any(CharSequence.class), any(CharSequence.class))).thenReturn(this.request);
+
+        this.compression.send(this.request, PAYLOAD);
+
+        verify(this.request).header(HttpHeaderNames.CONTENT_ENCODING, HttpHeaderValues.GZIP);
+        assertThat(this.compression.getUncompressedRequestBytes()).isEqualTo(PAYLOAD.length);
+        assertThat(this.compression.getCompressedRequestBytes()).isLessThan(PAYLOAD.length);
+        assertThat(this.compression.getRequestCompressionRatio()).isGreaterThan(1);
+    }
+
+    @Test
+    public void compressRequestBelowThreshold() {
+        this.compression.send(this.request, new byte[]{0});
+
+        verify(this.request, never()).header(any(CharSequence.class), any(CharSequence.class));
+        assertThat(this.compression.getUncompressedRequestBytes()).isZero();
+        assertThat(this.compression.getRequestCompressionRatio()).isEqualTo(1);
+    }
+
+    @Test
+    public void decompressResponse() throws IOException {
+        byte[] compressed = gzip(PAYLOAD);
+
+        HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+        response.headers().set(HttpHeaderNames.CONTENT_ENCODING, HttpHeaderValues.GZIP);
+
+        this.channel.writeInbound(response);
+        this.channel.writeInbound(new DefaultLastHttpContent(Unpooled.wrappedBuffer(compressed)));
+
+        assertThat(readContent()).isEqualTo(PAYLOAD);
+        assertThat(this.compression.getCompressedResponses()).isEqualTo(1);
+        assertThat(this.compression.getCompressedResponseBytes()).isEqualTo(compressed.length);
+        assertThat(this.compression.getUncompressedResponseBytes()).isEqualTo(PAYLOAD.length);
+        assertThat(this.compression.getResponseCompressionRatio()).isGreaterThan(1);
+    }
+
+    @Test
+    public void uncompressedResponse() {
+        this.channel.writeInbound(new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK));
+        this.channel.writeInbound(new DefaultLastHttpContent(Unpooled.wrappedBuffer(PAYLOAD)));
+
+        assertThat(readContent()).isEqualTo(PAYLOAD);
+        assertThat(this.compression.getCompressedResponses()).isZero();
+        assertThat(this.compression.getResponseCompressionRatio()).isEqualTo(1);
+    }
+
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        }
+
+        return out.toByteArray();
+    }
+
+    private static String repeat(String s, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(s);
+        }
+        return sb.toString();
+    }
+
+    private byte[] readContent() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Object message;
+        while ((message = this.channel.readInbound()) != null) {
+            if (message instanceof HttpContent) {
+                ByteBuf content = ((HttpContent) message).content();
+                byte[] bytes = new byte[content.readableBytes()];
+                content.readBytes(bytes);
+                out.write(bytes, 0, bytes.length);
+                content.release();
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+}
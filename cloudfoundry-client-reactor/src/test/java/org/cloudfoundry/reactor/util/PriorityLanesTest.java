@@ -0,0 +1,69 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.util;
+
+import org.cloudfoundry.reactor.RequestPriority;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.ipc.netty.http.client.HttpClientResponse;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_SMART_NULLS;
+import static org.mockito.Mockito.mock;
+
+public final class PriorityLanesTest {
+
+    private final PriorityLanes lanes = new PriorityLanes(Collections.singletonMap(RequestPriority.BULK, 1));
+
+    @Test
+    public void bulkQueued() {
+        MonoProcessor<HttpClientResponse> first = MonoProcessor.create();
+        AtomicBoolean secondSubscribed = new AtomicBoolean(false);
+
+        this.lanes.execute(RequestPriority.BULK, first).subscribe();
+        this.lanes.execute(RequestPriority.BULK, Mono.just(mock(HttpClientResponse.class, RETURNS_SMART_NULLS)).doOnSubscribe(s -> secondSubscribed.set(true))).subscribe();
+
+        assertThat(secondSubscribed).isFalse();
+        assertThat(this.lanes.getInFlight(RequestPriority.BULK)).isEqualTo(1);
+        assertThat(this.lanes.getQueued(RequestPriority.BULK)).isEqualTo(1);
+
+        first.onNext(mock(HttpClientResponse.class, RETURNS_SMART_NULLS));
+
+        assertThat(secondSubscribed).isTrue();
+        assertThat(this.lanes.getInFlight(RequestPriority.BULK)).isEqualTo(0);
+        assertThat(this.lanes.getQueued(RequestPriority.BULK)).isEqualTo(0);
+    }
+
+    @Test
+    public void interactiveBypassesBulk() {
+        MonoProcessor<HttpClientResponse> bulk = MonoProcessor.create();
+        AtomicBoolean interactiveSubscribed = new AtomicBoolean(false);
+
+        this.lanes.execute(RequestPriority.BULK, bulk).subscribe();
+        this.lanes.execute(RequestPriority.BULK, Mono.never()).subscribe();
+        this.lanes.execute(RequestPriority.INTERACTIVE, Mono.just(mock(HttpClientResponse.class, RETURNS_SMART_NULLS)).doOnSubscribe(s -> interactiveSubscribed.set(true))).subscribe();
+
+        assertThat(interactiveSubscribed).isTrue();
+        assertThat(this.lanes.getInFlight(RequestPriority.INTERACTIVE)).isEqualTo(0);
+    }
+
+}
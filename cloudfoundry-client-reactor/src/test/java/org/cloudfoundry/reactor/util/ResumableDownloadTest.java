@@ -0,0 +1,211 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import okio.Buffer;
+import org.cloudfoundry.reactor.DownloadConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.ipc.netty.http.client.HttpClient;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class ResumableDownloadTest {
+
+    private static final byte[] CONTENT = new byte[256 * 1024];
+
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d*)");
+
+    static {
+        new Random(0).nextBytes(CONTENT);
+    }
+
+    private final AtomicBoolean chunked = new AtomicBoolean();
+
+    private final AtomicInteger disconnects = new AtomicInteger();
+
+    private final HttpClient httpClient = HttpClient.create(options -> options.disablePool());
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    private Path destination;
+
+    @After
+    public void cleanUp() throws IOException {
+        this.mockWebServer.shutdown();
+        Files.deleteIfExists(this.destination);
+    }
+
+    @Test
+    public void checksumMismatch() throws IOException {
+        download(DownloadConfiguration.builder()
+            .checksum("0000000000000000000000000000000000000000")
+            .build())
+            .expectError(IllegalStateException.class)
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void parallel() throws IOException, NoSuchAlgorithmException {
+        download(DownloadConfiguration.builder()
+            .checksum(sha1(CONTENT))
+            .minimumRangeSize(64 * 1024)
+            .parallelism(4)
+            .build())
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(Files.readAllBytes(this.destination)).isEqualTo(CONTENT);
+        assertThat(this.mockWebServer.getRequestCount()).isEqualTo(5);
+    }
+
+    @Test
+    public void resume() throws IOException, NoSuchAlgorithmException {
+        this.disconnects.set(2);
+
+        download(DownloadConfiguration.builder()
+            .checksum(sha1(CONTENT))
+            .build())
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(Files.readAllBytes(this.destination)).isEqualTo(CONTENT);
+        assertThat(this.mockWebServer.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void sequential() throws IOException, NoSuchAlgorithmException {
+        download(DownloadConfiguration.builder()
+            .checksum(sha1(CONTENT))
+            .build())
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(Files.readAllBytes(this.destination)).isEqualTo(CONTENT);
+        assertThat(this.mockWebServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        this.destination = Files.createTempFile("resumable-download-test", ".bin");
+
+        this.mockWebServer.setDispatcher(new Dispatcher() {
+
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (ResumableDownloadTest.this.chunked.get()) {
+                    MockResponse response = new MockResponse().setChunkedBody(new Buffer().write(CONTENT), 16 * 1024);
+
+                    if (ResumableDownloadTest.this.disconnects.getAndDecrement() > 0) {
+                        response.setSocketPolicy(SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY);
+                    }
+
+                    return response;
+                }
+
+                Matcher matcher = RANGE.matcher(String.valueOf(request.getHeader("Range")));
+                if (!matcher.matches()) {
+                    return new MockResponse().setBody(new Buffer().write(CONTENT));
+                }
+
+                int start = Integer.parseInt(matcher.group(1));
+                int end = matcher.group(2).isEmpty() ? CONTENT.length - 1 : Integer.parseInt(matcher.group(2));
+
+                MockResponse response = new MockResponse()
+                    .setResponseCode(206)
+                    .setHeader("Content-Range", String.format("bytes %d-%d/%d", start, end, CONTENT.length))
+                    .setBody(new Buffer().write(CONTENT, start, end - start + 1));
+
+                if (ResumableDownloadTest.this.disconnects.getAndDecrement() > 0) {
+                    response.setSocketPolicy(SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY);
+                }
+
+                return response;
+            }
+
+        });
+    }
+
+    @Test
+    public void unknownLength() throws IOException, NoSuchAlgorithmException {
+        this.chunked.set(true);
+
+        download(DownloadConfiguration.builder()
+            .checksum(sha1(CONTENT))
+            .build())
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(Files.readAllBytes(this.destination)).isEqualTo(CONTENT);
+        assertThat(this.mockWebServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void unknownLengthInterrupted() throws IOException {
+        this.chunked.set(true);
+        this.disconnects.set(1);
+
+        download(DownloadConfiguration.builder()
+            .build())
+            .expectError(IOException.class)
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.mockWebServer.getRequestCount()).isEqualTo(1);
+    }
+
+    private static String sha1(byte[] content) throws NoSuchAlgorithmException {
+        return String.format("%040x", new BigInteger(1, MessageDigest.getInstance("SHA-1").digest(content)));
+    }
+
+    private StepVerifier.Step<Void> download(DownloadConfiguration configuration) throws IOException {
+        FileChannel channel = FileChannel.open(this.destination, READ, WRITE);
+
+        return ResumableDownload.download(this.httpClient, this.mockWebServer.url("/droplet").toString(), channel, configuration)
+            .doAfterTerminate((v, t) -> {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            })
+            .as(StepVerifier::create);
+    }
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.cloudfoundry.reactor.RetryConfiguration;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.client.HttpClientResponse;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.RETRY_AFTER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_SMART_NULLS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class RetryPolicyTest {
+
+    private final RetryPolicy retryPolicy = new RetryPolicy(RetryConfiguration.builder()
+        .maximumBackoff(Duration.ofMillis(10))
+        .maximumRetries(2)
+        .minimumBackoff(Duration.ofMillis(1))
+        .build());
+
+    @Test
+    public void attemptsExhausted() {
+        this.retryPolicy
+            .execute(HttpMethod.GET, true, exchange(HttpResponseStatus.BAD_GATEWAY, HttpResponseStatus.BAD_GATEWAY, HttpResponseStatus.BAD_GATEWAY))
+            .map(response -> response.status())
+            .as(StepVerifier::create)
+            .expectNext(HttpResponseStatus.BAD_GATEWAY)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.retryPolicy.getRetries()).isEqualTo(2);
+        assertThat(this.retryPolicy.getAttemptsExhausted()).isEqualTo(1);
+    }
+
+    @Test
+    public void budgetExhausted() {
+        RetryPolicy retryPolicy = new RetryPolicy(RetryConfiguration.builder()
+            .budgetCapacity(0)
+            .budgetRatio(0)
+            .minimumBackoff(Duration.ofMillis(1))
+            .build());
+
+        retryPolicy
+            .execute(HttpMethod.GET, true, exchange(HttpResponseStatus.SERVICE_UNAVAILABLE, HttpResponseStatus.OK))
+            .map(response -> response.status())
+            .as(StepVerifier::create)
+            .expectNext(HttpResponseStatus.SERVICE_UNAVAILABLE)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(retryPolicy.getRetries()).isEqualTo(0);
+        assertThat(retryPolicy.getBudgetExhausted()).isEqualTo(1);
+    }
+
+    @Test
+    public void connectionError() {
+        Queue<Mono<HttpClientResponse>> exchanges = new ArrayDeque<>(Arrays.asList(Mono.error(new IOException("Connection reset by peer")), Mono.just(response(HttpResponseStatus.OK))));
+
+        this.retryPolicy
+            .execute(HttpMethod.GET, true, Mono.defer(exchanges::poll))
+            .map(response -> response.status())
+            .as(StepVerifier::create)
+            .expectNext(HttpResponseStatus.OK)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.retryPolicy.getRetries()).isEqualTo(1);
+    }
+
+    @Test
+    public void nonIdempotent() {
+        RetryPolicy retryPolicy = new RetryPolicy(RetryConfiguration.builder()
+            .minimumBackoff(Duration.ofMillis(1))
+            .retryPutAndDelete(true)
+            .build());
+
+        retryPolicy
+            .execute(HttpMethod.PUT, false, exchange(HttpResponseStatus.SERVICE_UNAVAILABLE, HttpResponseStatus.OK))
+            .map(response -> response.status())
+            .as(StepVerifier::create)
+            .expectNext(HttpResponseStatus.SERVICE_UNAVAILABLE)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(retryPolicy.getRetries()).isEqualTo(0);
+    }
+
+    @Test
+    public void nonRetryableMethod() {
+        this.retryPolicy
+            .execute(HttpMethod.POST, true, exchange(HttpResponseStatus.SERVICE_UNAVAILABLE, HttpResponseStatus.OK))
+            .map(response -> response.status())
+            .as(StepVerifier::create)
+            .expectNext(HttpResponseStatus.SERVICE_UNAVAILABLE)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.retryPolicy.getRetries()).isEqualTo(0);
+    }
+
+    @Test
+    public void nonRetryableStatus() {
+        this.retryPolicy
+            .execute(HttpMethod.GET, true, exchange(HttpResponseStatus.INTERNAL_SERVER_ERROR, HttpResponseStatus.OK))
+            .map(response -> response.status())
+            .as(StepVerifier::create)
+            .expectNext(HttpResponseStatus.INTERNAL_SERVER_ERROR)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.retryPolicy.getRetries()).isEqualTo(0);
+    }
+
+    @Test
+    public void retry() {
+        HttpClientResponse unavailable = response(HttpResponseStatus.SERVICE_UNAVAILABLE);
+        Queue<HttpClientResponse> responses = new ArrayDeque<>(Arrays.asList(unavailable, response(HttpResponseStatus.OK)));
+
+        this.retryPolicy
+            .execute(HttpMethod.GET, true, Mono.defer(() -> Mono.just(responses.poll())))
+            .map(response -> response.status())
+            .as(StepVerifier::create)
+            .expectNext(HttpResponseStatus.OK)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.retryPolicy.getRetries()).isEqualTo(1);
+        verify(unavailable.channel()).close();
+    }
+
+    @Test
+    public void retryAfterTooLong() {
+        HttpClientResponse tooManyRequests = response(HttpResponseStatus.TOO_MANY_REQUESTS);
+        tooManyRequests.responseHeaders().set(RETRY_AFTER, "60");
+
+        Queue<HttpClientResponse> responses = new ArrayDeque<>(Arrays.asList(tooManyRequests, response(HttpResponseStatus.OK)));
+
+        this.retryPolicy
+            .execute(HttpMethod.GET, true, Mono.defer(() -> Mono.just(responses.poll())))
+            .map(response -> response.status())
+            .as(StepVerifier::create)
+            .expectNext(HttpResponseStatus.TOO_MANY_REQUESTS)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.retryPolicy.getRetries()).isEqualTo(0);
+    }
+
+    private static Mono<HttpClientResponse> exchange(HttpResponseStatus... statuses) {
+        Queue<HttpResponseStatus> queue = new ArrayDeque<>(Arrays.asList(statuses));
+        return Mono.defer(() -> Mono.just(response(queue.poll())));
+    }
+
+    private static HttpClientResponse response(HttpResponseStatus status) {
+        HttpClientResponse response = mock(HttpClientResponse.class, RETURNS_SMART_NULLS);
+        Channel channel = mock(Channel.class);
+
+        when(response.status()).thenReturn(status);
+        when(response.responseHeaders()).thenReturn(new DefaultHttpHeaders());
+        when(response.channel()).thenReturn(channel);
+
+        return response;
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.client.v2;
+
+import org.cloudfoundry.Nullable;
+import org.cloudfoundry.QueryParameter;
+import org.immutables.value.Value;
+
+import java.util.List;
+
+/**
+ * Base class for requests that can inline related resources in their response
+ */
+public abstract class InlineRelationsRequest {
+
+    /**
+     * The names of the relations to inline.  If not set, all relations are inlined up to the inline relations depth.
+     */
+    @Nullable
+    @QueryParameter("include-relations")
+    public abstract List<String> getIncludeRelations();
+
+    /**
+     * The depth to which related resources are inlined, between 0 and 3
+     */
+    @Nullable
+    @QueryParameter("inline-relations-depth")
+    public abstract Integer getInlineRelationsDepth();
+
+    @Value.Check
+    void checkInlineRelationsDepth() {
+        if (getInlineRelationsDepth() != null && (getInlineRelationsDepth() < 0 || getInlineRelationsDepth() > 3)) {
+            throw new IllegalStateException("inlineRelationsDepth must be between 0 and 3 inclusive");
+        }
+    }
+
+}
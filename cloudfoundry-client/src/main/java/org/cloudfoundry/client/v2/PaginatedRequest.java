@@ -22,7 +22,7 @@ import org.cloudfoundry.QueryParameter;
 /**
  * Base class for requests that are paginated
  */
-public abstract class PaginatedRequest {
+public abstract class PaginatedRequest extends InlineRelationsRequest {
 
     /**
      * The order direction
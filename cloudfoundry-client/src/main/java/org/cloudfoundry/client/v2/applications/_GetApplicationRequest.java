@@ -17,13 +17,14 @@
 package org.cloudfoundry.client.v2.applications;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.cloudfoundry.client.v2.InlineRelationsRequest;
 import org.immutables.value.Value;
 
 /**
  * The request payload for the Get Application operation
  */
 @Value.Immutable
-abstract class _GetApplicationRequest {
+abstract class _GetApplicationRequest extends InlineRelationsRequest {
 
     /**
      * The application id
@@ -20,6 +20,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.cloudfoundry.Nullable;
 import org.cloudfoundry.QueryParameter;
 import org.immutables.value.Value;
+import reactor.core.publisher.Flux;
 
 import java.nio.file.Path;
 import java.util.List;
@@ -30,12 +31,27 @@ import java.util.List;
 @Value.Immutable
 abstract class _UploadApplicationRequest {
 
+    @Value.Check
+    void check() {
+        if ((getApplication() == null) == (getApplicationBits() == null)) {
+            throw new IllegalStateException("exactly one of application and applicationBits must be set");
+        }
+    }
+
     /**
      * A binary zip file containing the application bits
      */
     @JsonIgnore
+    @Nullable
     abstract Path getApplication();
 
+    /**
+     * A stream of a binary zip file containing the application bits.  The stream is sent as it is read, without being staged to disk.
+     */
+    @JsonIgnore
+    @Nullable
+    abstract Flux<byte[]> getApplicationBits();
+
     /**
      * The application id
      */
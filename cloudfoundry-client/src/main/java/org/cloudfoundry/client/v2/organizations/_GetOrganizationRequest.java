@@ -17,13 +17,14 @@
 package org.cloudfoundry.client.v2.organizations;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.cloudfoundry.client.v2.InlineRelationsRequest;
 import org.immutables.value.Value;
 
 /**
  * The request payload for the Retrieve a Particular Organization operation
  */
 @Value.Immutable
-abstract class _GetOrganizationRequest {
+abstract class _GetOrganizationRequest extends InlineRelationsRequest {
 
     /**
      * The organization id
@@ -19,8 +19,14 @@ package org.cloudfoundry.client.v2.organizations;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import org.cloudfoundry.Nullable;
+import org.cloudfoundry.client.v2.organizationquotadefinitions.OrganizationQuotaDefinitionResource;
+import org.cloudfoundry.client.v2.privatedomains.PrivateDomainResource;
+import org.cloudfoundry.client.v2.spacequotadefinitions.SpaceQuotaDefinitionResource;
+import org.cloudfoundry.client.v2.spaces.SpaceResource;
 import org.immutables.value.Value;
 
+import java.util.List;
+
 /**
  * The entity response payload for the Organization resource
  */
@@ -84,6 +90,13 @@ abstract class _OrganizationEntity {
     @Nullable
     abstract String getName();
 
+    /**
+     * The private domains, if inlined
+     */
+    @JsonProperty("private_domains")
+    @Nullable
+    abstract List<PrivateDomainResource> getPrivateDomains();
+
     /**
      * The private domains url
      */
@@ -91,6 +104,13 @@ abstract class _OrganizationEntity {
     @Nullable
     abstract String getPrivateDomainsUrl();
 
+    /**
+     * The quota definition, if inlined
+     */
+    @JsonProperty("quota_definition")
+    @Nullable
+    abstract OrganizationQuotaDefinitionResource getQuotaDefinition();
+
     /**
      * The quota definition id
      */
@@ -105,6 +125,13 @@ abstract class _OrganizationEntity {
     @Nullable
     abstract String getQuotaDefinitionUrl();
 
+    /**
+     * The space quota definitions, if inlined
+     */
+    @JsonProperty("space_quota_definitions")
+    @Nullable
+    abstract List<SpaceQuotaDefinitionResource> getSpaceQuotaDefinitions();
+
     /**
      * The space quota definition url
      */
@@ -112,6 +139,13 @@ abstract class _OrganizationEntity {
     @Nullable
     abstract String getSpaceQuotaDefinitionsUrl();
 
+    /**
+     * The spaces, if inlined
+     */
+    @JsonProperty("spaces")
+    @Nullable
+    abstract List<SpaceResource> getSpaces();
+
     /**
      * The spaces url
      */
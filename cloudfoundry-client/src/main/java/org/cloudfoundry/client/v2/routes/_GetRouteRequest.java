@@ -17,13 +17,14 @@
 package org.cloudfoundry.client.v2.routes;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.cloudfoundry.client.v2.InlineRelationsRequest;
 import org.immutables.value.Value;
 
 /**
  * The request payload for the Retrieve a Particular Route operation
  */
 @Value.Immutable
-abstract class _GetRouteRequest {
+abstract class _GetRouteRequest extends InlineRelationsRequest {
 
     /**
      * The route id
@@ -18,13 +18,14 @@ package org.cloudfoundry.client.v2.serviceinstances;
 
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.cloudfoundry.client.v2.InlineRelationsRequest;
 import org.immutables.value.Value;
 
 /**
  * The request payload for the Get Service Instance operation
  */
 @Value.Immutable
-abstract class _GetServiceInstanceRequest {
+abstract class _GetServiceInstanceRequest extends InlineRelationsRequest {
 
     /**
      * The service instance id
@@ -18,13 +18,14 @@ package org.cloudfoundry.client.v2.serviceplans;
 
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.cloudfoundry.client.v2.InlineRelationsRequest;
 import org.immutables.value.Value;
 
 /**
  * The request payload for the Get Service Plan operation
  */
 @Value.Immutable
-abstract class _GetServicePlanRequest {
+abstract class _GetServicePlanRequest extends InlineRelationsRequest {
 
     /**
      * The service plan id
@@ -20,6 +20,7 @@ package org.cloudfoundry.client.v2.serviceplans;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import org.cloudfoundry.Nullable;
+import org.cloudfoundry.client.v2.services.ServiceResource;
 import org.immutables.value.Value;
 
 /**
@@ -71,6 +72,13 @@ abstract class _ServicePlanEntity {
     @Nullable
     abstract Boolean getPubliclyVisible();
 
+    /**
+     * The service, if inlined
+     */
+    @JsonProperty("service")
+    @Nullable
+    abstract ServiceResource getService();
+
     /**
      * The service id
      */
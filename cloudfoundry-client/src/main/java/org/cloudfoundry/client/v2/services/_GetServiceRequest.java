@@ -17,13 +17,14 @@
 package org.cloudfoundry.client.v2.services;
 
 
+import org.cloudfoundry.client.v2.InlineRelationsRequest;
 import org.immutables.value.Value;
 
 /**
  * The request payload for the Get Service operation
  */
 @Value.Immutable
-abstract class _GetServiceRequest {
+abstract class _GetServiceRequest extends InlineRelationsRequest {
 
     /**
      * The service id
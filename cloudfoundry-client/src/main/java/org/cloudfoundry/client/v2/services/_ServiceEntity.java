@@ -20,6 +20,7 @@ package org.cloudfoundry.client.v2.services;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import org.cloudfoundry.Nullable;
+import org.cloudfoundry.client.v2.servicebrokers.ServiceBrokerResource;
 import org.immutables.value.Value;
 
 import java.util.List;
@@ -112,6 +113,13 @@ abstract class _ServiceEntity {
     @Nullable
     abstract List<String> getRequires();
 
+    /**
+     * The service broker, if inlined
+     */
+    @JsonProperty("service_broker")
+    @Nullable
+    abstract ServiceBrokerResource getServiceBroker();
+
     /**
      * The service broker id
      */
@@ -17,13 +17,14 @@
 package org.cloudfoundry.client.v2.spaces;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.cloudfoundry.client.v2.InlineRelationsRequest;
 import org.immutables.value.Value;
 
 /**
  * The request payload for the Get Space operation
  */
 @Value.Immutable
-abstract class _GetSpaceRequest {
+abstract class _GetSpaceRequest extends InlineRelationsRequest {
 
     /**
      * The space id
@@ -16,6 +16,8 @@
 
 package org.cloudfoundry.client.v3.applications;
 
+import org.cloudfoundry.Nullable;
+import org.cloudfoundry.QueryParameter;
 import org.cloudfoundry.client.v3.FilterParameter;
 import org.cloudfoundry.client.v3.PaginatedAndSortedRequest;
 import org.immutables.value.Value;
@@ -34,6 +36,13 @@ abstract class _ListApplicationsRequest extends PaginatedAndSortedRequest {
     @FilterParameter("guids")
     abstract List<String> getIds();
 
+    /**
+     * The related resources to include in the response.  Only {@code space} is supported.
+     */
+    @Nullable
+    @QueryParameter("include")
+    abstract List<String> getInclude();
+
     /**
      * The names
      */
@@ -17,6 +17,7 @@
 package org.cloudfoundry.client.v2.applications;
 
 import org.junit.Test;
+import reactor.core.publisher.Flux;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -25,6 +26,15 @@ public final class UploadApplicationRequestTest {
 
     private static final Path TEST_APPLICATION = Paths.get("/");
 
+    @Test(expected = IllegalStateException.class)
+    public void applicationAndApplicationBits() {
+        UploadApplicationRequest.builder()
+            .application(TEST_APPLICATION)
+            .applicationBits(Flux.empty())
+            .applicationId("test-application-id")
+            .build();
+    }
+
     @Test(expected = IllegalStateException.class)
     public void noApplication() {
         UploadApplicationRequest.builder()
@@ -47,4 +57,12 @@ public final class UploadApplicationRequestTest {
             .build();
     }
 
+    @Test
+    public void validApplicationBits() {
+        UploadApplicationRequest.builder()
+            .applicationBits(Flux.empty())
+            .applicationId("test-application-id")
+            .build();
+    }
+
 }
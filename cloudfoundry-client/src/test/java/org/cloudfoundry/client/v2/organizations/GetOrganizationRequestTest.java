@@ -20,6 +20,14 @@ import org.junit.Test;
 
 public final class GetOrganizationRequestTest {
 
+    @Test(expected = IllegalStateException.class)
+    public void invalidInlineRelationsDepth() {
+        GetOrganizationRequest.builder()
+            .inlineRelationsDepth(4)
+            .organizationId("test-organization-id")
+            .build();
+    }
+
     @Test(expected = IllegalStateException.class)
     public void noOrganizationId() {
         GetOrganizationRequest.builder()
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.fake;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.mockwebserver.MockResponse;
+import okio.Buffer;
+import okio.ByteString;
+import org.cloudfoundry.dropsonde.events.ContainerMetric;
+import org.cloudfoundry.dropsonde.events.Envelope;
+import org.cloudfoundry.dropsonde.events.LogMessage;
+import org.cloudfoundry.fake.Table.Row;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The Doppler endpoints of a {@link FakeCloudFoundry}.  Recent logs and container metrics are served as multipart protobuf.  The websocket stream and firehose are not supported and return
+ * {@code 404}, so that clients fall back to polling.
+ */
+final class DopplerController {
+
+    private static final String BOUNDARY = "fake-doppler-boundary";
+
+    private static final String ORIGIN = "fake";
+
+    private final ObjectMapper objectMapper;
+
+    private final FakeState state;
+
+    DopplerController(ObjectMapper objectMapper, FakeState state) {
+        this.objectMapper = objectMapper;
+        this.state = state;
+    }
+
+    MockResponse dispatch(FakeRequest request) {
+        if (!"GET".equals(request.getMethod()) || !"apps".equals(request.getSegment(1)) || request.getSegmentCount() != 4) {
+            return Responses.notFound(this.objectMapper);
+        }
+
+        String applicationId = request.getSegment(2);
+
+        switch (request.getSegment(3)) {
+            case "containermetrics":
+                return multipart(containerMetrics(applicationId));
+            case "recentlogs":
+                return multipart(recentLogs(applicationId));
+            default:
+                return Responses.notFound(this.objectMapper);
+        }
+    }
+
+    private static MockResponse multipart(List<Envelope> envelopes) {
+        Buffer body = new Buffer();
+
+        envelopes.forEach(envelope -> body
+            .writeUtf8("--").writeUtf8(BOUNDARY).writeUtf8("\r\n\r\n")
+            .write(Envelope.ADAPTER.encode(envelope))
+            .writeUtf8("\r\n"));
+
+        body.writeUtf8("--").writeUtf8(BOUNDARY).writeUtf8("--\r\n");
+
+        return new MockResponse()
+            .setResponseCode(200)
+            .setHeader("Content-Type", String.format("multipart/x-protobuf; boundary=%s", BOUNDARY))
+            .setBody(body);
+    }
+
+    private List<Envelope> containerMetrics(String applicationId) {
+        Optional<Row> application = this.state.getTable("apps").get(applicationId)
+            .filter(row -> "STARTED".equals(row.getValue("state")));
+
+        if (!application.isPresent()) {
+            return Collections.emptyList();
+        }
+
+        long memory = ((Number) application.get().getValue("memory")).longValue() * 1024 * 1024;
+        long disk = ((Number) application.get().getValue("disk_quota")).longValue() * 1024 * 1024;
+        long timestamp = System.currentTimeMillis() * 1_000_000;
+
+        return IntStream.range(0, ((Number) application.get().getValue("instances")).intValue())
+            .mapToObj(index -> new Envelope.Builder()
+                .origin(ORIGIN)
+                .eventType(Envelope.EventType.ContainerMetric)
+                .timestamp(timestamp)
+                .containerMetric(new ContainerMetric.Builder()
+                    .applicationId(applicationId)
+                    .instanceIndex(index)
+                    .cpuPercentage(1.0)
+                    .memoryBytes(memory / 4)
+                    .memoryBytesQuota(memory)
+                    .diskBytes(disk / 4)
+                    .diskBytesQuota(disk)
+                    .build())
+                .build())
+            .collect(Collectors.toList());
+    }
+
+    private List<Envelope> recentLogs(String applicationId) {
+        return this.state.getLogs(applicationId).stream()
+            .map(line -> new Envelope.Builder()
+                .origin(ORIGIN)
+                .eventType(Envelope.EventType.LogMessage)
+                .timestamp(line.getTimestamp())
+                .logMessage(new LogMessage.Builder()
+                    .app_id(applicationId)
+                    .message(ByteString.encodeUtf8(line.getMessage()))
+                    .message_type(LogMessage.MessageType.OUT)
+                    .source_instance("0")
+                    .source_type(line.getSourceType())
+                    .timestamp(line.getTimestamp())
+                    .build())
+                .build())
+            .collect(Collectors.toList());
+    }
+
+}
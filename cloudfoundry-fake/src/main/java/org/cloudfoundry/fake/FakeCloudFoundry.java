@@ -0,0 +1,236 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.fake;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.cloudfoundry.reactor.DefaultConnectionContext;
+import org.cloudfoundry.reactor.tokenprovider.PasswordGrantTokenProvider;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An in-process fake of the Cloud Controller, UAA and Doppler, for measuring client behavior without a real foundation.  The Cloud Controller v2 API is served from the stateful, paginated
+ * {@link FakeState}, the v3 API supports applications, the UAA issues signed tokens for any credentials and Doppler serves recent logs and container metrics.  Latency and errors can be injected
+ * with {@link Faults}.
+ * <p>
+ * <pre>
+ * try (FakeCloudFoundry fake = new FakeCloudFoundry(new FakeState().seed(10, 5, 20))) {
+ *     fake.start();
+ *     DefaultConnectionContext connectionContext = fake.getConnectionContext();
+ *     ...
+ * }
+ * </pre>
+ */
+public final class FakeCloudFoundry implements AutoCloseable {
+
+    private final AtomicReference<Faults> faults = new AtomicReference<>(Faults.builder().build());
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicLong requestCount = new AtomicLong();
+
+    private final MockWebServer server = new MockWebServer();
+
+    private final FakeState state;
+
+    private volatile Controllers controllers;
+
+    public FakeCloudFoundry() {
+        this(new FakeState());
+    }
+
+    public FakeCloudFoundry(FakeState state) {
+        this.state = state;
+    }
+
+    /**
+     * Shuts down the server
+     */
+    @Override
+    public void close() throws IOException {
+        this.server.shutdown();
+    }
+
+    /**
+     * Returns a connection context for the server
+     *
+     * @return a connection context for the server
+     */
+    public DefaultConnectionContext getConnectionContext() {
+        return DefaultConnectionContext.builder()
+            .apiHost(getHost())
+            .port(getPort())
+            .secure(false)
+            .build();
+    }
+
+    /**
+     * Returns the host name of the server
+     *
+     * @return the host name of the server
+     */
+    public String getHost() {
+        return this.server.getHostName();
+    }
+
+    /**
+     * Returns the port of the server
+     *
+     * @return the port of the server
+     */
+    public int getPort() {
+        return this.server.getPort();
+    }
+
+    /**
+     * Returns the number of requests received since the server started or the count was last reset
+     *
+     * @return the number of requests received
+     */
+    public long getRequestCount() {
+        return this.requestCount.get();
+    }
+
+    /**
+     * Returns the state of the server
+     *
+     * @return the state of the server
+     */
+    public FakeState getState() {
+        return this.state;
+    }
+
+    /**
+     * Returns a token provider that the server accepts
+     *
+     * @return a token provider that the server accepts
+     */
+    public PasswordGrantTokenProvider getTokenProvider() {
+        return PasswordGrantTokenProvider.builder()
+            .password("fake-password")
+            .username("fake-username")
+            .build();
+    }
+
+    /**
+     * Resets the number of requests received
+     *
+     * @return the number of requests received before the reset
+     */
+    public long resetRequestCount() {
+        return this.requestCount.getAndSet(0);
+    }
+
+    /**
+     * Sets the faults injected into subsequent responses
+     *
+     * @param faults the faults to inject
+     */
+    public void setFaults(Faults faults) {
+        this.faults.set(faults);
+    }
+
+    /**
+     * Starts the server on an ephemeral port
+     *
+     * @throws IOException if the server cannot be started
+     */
+    public void start() throws IOException {
+        this.server.setDispatcher(new FakeDispatcher());
+        this.server.start();
+
+        String root = String.format("http://%s:%d", getHost(), getPort());
+        this.controllers = new Controllers(new DopplerController(this.objectMapper, this.state), new UaaController(this.objectMapper),
+            new V2Controller(this.objectMapper, this.state, root), new V3Controller(this.objectMapper, this.state));
+    }
+
+    private static MockResponse delay(MockResponse response, Faults faults) {
+        Duration latency = faults.getLatency();
+
+        if (!faults.getLatencyJitter().isZero()) {
+            latency = latency.plusNanos(ThreadLocalRandom.current().nextLong(faults.getLatencyJitter().toNanos() + 1));
+        }
+
+        return latency.isZero() ? response : response.setBodyDelay(latency.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private MockResponse dispatch(FakeRequest request) {
+        Controllers controllers = this.controllers;
+
+        switch (String.valueOf(request.getSegment(0))) {
+            case "doppler":
+                return controllers.doppler.dispatch(request);
+            case "uaa":
+                return controllers.uaa.dispatch(request);
+            case "v2":
+                return controllers.v2.dispatch(request);
+            case "v3":
+                return controllers.v3.dispatch(request);
+            default:
+                return Responses.notFound(this.objectMapper);
+        }
+    }
+
+    private MockResponse inject(FakeRequest request, Faults faults) {
+        if (faults.getErrorRate() > 0 && !"info".equals(request.getSegment(1)) && ThreadLocalRandom.current().nextDouble() < faults.getErrorRate()) {
+            return Responses.error(this.objectMapper, faults.getErrorStatus(), 10001, "CF-InjectedFault", "Injected fault");
+        }
+
+        return dispatch(request);
+    }
+
+    private static final class Controllers {
+
+        private final DopplerController doppler;
+
+        private final UaaController uaa;
+
+        private final V2Controller v2;
+
+        private final V3Controller v3;
+
+        private Controllers(DopplerController doppler, UaaController uaa, V2Controller v2, V3Controller v3) {
+            this.doppler = doppler;
+            this.uaa = uaa;
+            this.v2 = v2;
+            this.v3 = v3;
+        }
+
+    }
+
+    private final class FakeDispatcher extends Dispatcher {
+
+        @Override
+        public MockResponse dispatch(RecordedRequest recordedRequest) {
+            FakeCloudFoundry.this.requestCount.incrementAndGet();
+
+            Faults faults = FakeCloudFoundry.this.faults.get();
+            return delay(inject(FakeRequest.from(recordedRequest), faults), faults);
+        }
+
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.fake;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * A decoded request received by a {@link FakeCloudFoundry}
+ */
+final class FakeRequest {
+
+    private final byte[] body;
+
+    private final String method;
+
+    private final MultiValueMap<String, String> parameters;
+
+    private final List<String> segments;
+
+    private FakeRequest(String method, List<String> segments, MultiValueMap<String, String> parameters, byte[] body) {
+        this.body = body;
+        this.method = method;
+        this.parameters = parameters;
+        this.segments = segments;
+    }
+
+    static FakeRequest from(RecordedRequest request) {
+        UriComponents components = UriComponentsBuilder.fromUriString(request.getPath()).build();
+
+        List<String> segments = components.getPathSegments().stream()
+            .map(FakeRequest::decode)
+            .collect(Collectors.toList());
+
+        MultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
+        components.getQueryParams().forEach((key, values) -> values
+            .forEach(value -> parameters.add(decode(key), value == null ? "" : decode(value))));
+
+        return new FakeRequest(request.getMethod(), segments, parameters, request.getBody().readByteArray());
+    }
+
+    byte[] getBody() {
+        return this.body;
+    }
+
+    Map<String, String> getBodyAsForm() {
+        return Arrays.stream(new String(this.body, StandardCharsets.UTF_8).split("&"))
+            .filter(pair -> !pair.isEmpty())
+            .map(pair -> pair.split("=", 2))
+            .collect(Collectors.toMap(pair -> decode(pair[0]), pair -> pair.length > 1 ? decode(pair[1]) : "", (a, b) -> a));
+    }
+
+    @SuppressWarnings("unchecked")
+    Map<String, Object> getBodyAsMap(ObjectMapper objectMapper) {
+        if (this.body.length == 0) {
+            return Collections.emptyMap();
+        }
+
+        try {
+            return objectMapper.readValue(this.body, Map.class);
+        } catch (IOException e) {
+            return Collections.emptyMap();
+        }
+    }
+
+    String getMethod() {
+        return this.method;
+    }
+
+    Optional<String> getParameter(String name) {
+        return Optional.ofNullable(this.parameters.getFirst(name));
+    }
+
+    List<String> getParameters(String name) {
+        return this.parameters.getOrDefault(name, Collections.emptyList());
+    }
+
+    String getPath(int fromSegment) {
+        return this.segments.stream()
+            .skip(fromSegment)
+            .collect(Collectors.joining("/"));
+    }
+
+    String getSegment(int index) {
+        return index < this.segments.size() ? this.segments.get(index) : null;
+    }
+
+    int getSegmentCount() {
+        return this.segments.size();
+    }
+
+    private static String decode(String s) {
+        try {
+            return UriUtils.decode(s.replace('+', ' '), "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
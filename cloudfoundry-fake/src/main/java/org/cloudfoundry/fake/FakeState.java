@@ -0,0 +1,309 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.fake;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The in-memory state of a {@link FakeCloudFoundry}.  Each resource type is held in a table named after its v2 collection (e.g. {@code apps} or {@code service_instances}).  State can be seeded
+ * directly through this class or built up through the API.
+ */
+public final class FakeState {
+
+    /**
+     * The name of the shared domain that exists by default
+     */
+    public static final String DEFAULT_DOMAIN = "fake.cf.example.com";
+
+    private static final int MAXIMUM_LOG_LINES = 100;
+
+    private static final List<String> TYPES = Arrays.asList("apps", "buildpacks", "organizations", "private_domains", "quota_definitions", "route_mappings", "routes", "service_bindings",
+        "service_instances", "service_keys", "service_plans", "services", "shared_domains", "space_quota_definitions", "spaces", "stacks", "user_provided_service_instances");
+
+    private final String defaultDomainId;
+
+    private final String defaultQuotaDefinitionId;
+
+    private final String defaultServicePlanId;
+
+    private final String defaultStackId;
+
+    private final Map<String, Deque<LogLine>> logs = new ConcurrentHashMap<>();
+
+    private final Map<String, Table> tables = new TreeMap<>();
+
+    public FakeState() {
+        TYPES.forEach(type -> this.tables.put(type, new Table(type)));
+
+        this.defaultDomainId = insert("shared_domains", entity("name", DEFAULT_DOMAIN));
+        this.defaultQuotaDefinitionId = insert("quota_definitions", entity("name", "default"));
+        this.defaultStackId = insert("stacks", entity("name", "cflinuxfs2", "description", "Cloud Foundry Linux-based filesystem"));
+
+        String serviceId = insert("services", entity("label", "fake-service", "description", "A fake service"));
+        this.defaultServicePlanId = insert("service_plans", entity("name", "fake-plan", "description", "A fake service plan", "service_guid", serviceId));
+    }
+
+    /**
+     * Binds a service instance to an application
+     *
+     * @param applicationId     the application id
+     * @param serviceInstanceId the service instance id
+     * @return the service binding id
+     */
+    public String bindServiceInstance(String applicationId, String serviceInstanceId) {
+        return insert("service_bindings", entity("app_guid", applicationId, "service_instance_guid", serviceInstanceId));
+    }
+
+    /**
+     * Returns the number of resources of a type
+     *
+     * @param type the type of resource (e.g. {@code apps})
+     * @return the number of resources
+     */
+    public int count(String type) {
+        return getRequiredTable(type).size();
+    }
+
+    /**
+     * Creates a started and staged application
+     *
+     * @param spaceId the space id
+     * @param name    the name of the application
+     * @return the application id
+     */
+    public String createApplication(String spaceId, String name) {
+        String applicationId = insert("apps", entity("name", name, "space_guid", spaceId, "state", "STARTED", "package_state", "STAGED"));
+        log(applicationId, "CELL", "Container became healthy");
+        return applicationId;
+    }
+
+    /**
+     * Creates an organization with the default quota
+     *
+     * @param name the name of the organization
+     * @return the organization id
+     */
+    public String createOrganization(String name) {
+        return insert("organizations", entity("name", name));
+    }
+
+    /**
+     * Creates a route on the default shared domain
+     *
+     * @param spaceId the space id
+     * @param host    the host of the route
+     * @return the route id
+     */
+    public String createRoute(String spaceId, String host) {
+        return insert("routes", entity("host", host, "space_guid", spaceId, "domain_guid", this.defaultDomainId));
+    }
+
+    /**
+     * Creates an instance of the default service plan
+     *
+     * @param spaceId the space id
+     * @param name    the name of the service instance
+     * @return the service instance id
+     */
+    public String createServiceInstance(String spaceId, String name) {
+        return insert("service_instances", entity("name", name, "space_guid", spaceId, "service_plan_guid", this.defaultServicePlanId));
+    }
+
+    /**
+     * Creates a space
+     *
+     * @param organizationId the organization id
+     * @param name           the name of the space
+     * @return the space id
+     */
+    public String createSpace(String organizationId, String name) {
+        return insert("spaces", entity("name", name, "organization_guid", organizationId));
+    }
+
+    /**
+     * Maps a route to an application
+     *
+     * @param applicationId the application id
+     * @param routeId       the route id
+     * @return the route mapping id
+     */
+    public String mapRoute(String applicationId, String routeId) {
+        return insert("route_mappings", entity("app_guid", applicationId, "route_guid", routeId));
+    }
+
+    /**
+     * Seeds a uniform data set.  Organizations are named {@code organization-<n>}, spaces {@code space-<n>} and applications {@code application-<n>}.  Each application is mapped to its own route
+     * on the default domain.
+     *
+     * @param organizations         the number of organizations
+     * @param spacesPerOrganization the number of spaces in each organization
+     * @param applicationsPerSpace  the number of applications in each space
+     * @return this state
+     */
+    public FakeState seed(int organizations, int spacesPerOrganization, int applicationsPerSpace) {
+        for (int o = 0; o < organizations; o++) {
+            String organizationId = createOrganization(String.format("organization-%d", o));
+
+            for (int s = 0; s < spacesPerOrganization; s++) {
+                String spaceId = createSpace(organizationId, String.format("space-%d", s));
+
+                for (int a = 0; a < applicationsPerSpace; a++) {
+                    String applicationId = createApplication(spaceId, String.format("application-%d", a));
+                    mapRoute(applicationId, createRoute(spaceId, String.format("application-%d-%d-%d", o, s, a)));
+                }
+            }
+        }
+
+        return this;
+    }
+
+    List<LogLine> getLogs(String applicationId) {
+        Deque<LogLine> lines = this.logs.get(applicationId);
+        if (lines == null) {
+            return Collections.emptyList();
+        }
+
+        synchronized (lines) {
+            return new ArrayList<>(lines);
+        }
+    }
+
+    Table getTable(String type) {
+        return this.tables.get(type);
+    }
+
+    String insert(String type, Map<String, Object> values) {
+        Map<String, Object> entity = getDefaults(type);
+        entity.putAll(values);
+        return getRequiredTable(type).insert(entity);
+    }
+
+    void log(String applicationId, String sourceType, String message) {
+        Deque<LogLine> lines = this.logs.computeIfAbsent(applicationId, k -> new LinkedList<>());
+
+        synchronized (lines) {
+            lines.addLast(new LogLine(sourceType, message));
+
+            while (lines.size() > MAXIMUM_LOG_LINES) {
+                lines.removeFirst();
+            }
+        }
+    }
+
+    private static Map<String, Object> entity(Object... keysAndValues) {
+        Map<String, Object> entity = new HashMap<>();
+
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            entity.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+
+        return entity;
+    }
+
+    private Map<String, Object> getDefaults(String type) {
+        switch (type) {
+            case "apps":
+                return entity("state", "STOPPED", "package_state", "PENDING", "instances", 1, "memory", 1024, "disk_quota", 1024, "health_check_type", "port", "diego", true,
+                    "enable_ssh", true, "environment_json", Collections.emptyMap(), "production", false, "console", false, "stack_guid", this.defaultStackId, "version",
+                    UUID.randomUUID().toString(), "detected_buildpack", "", "ports", Collections.singletonList(8080));
+            case "buildpacks":
+                return entity("position", 1, "enabled", true, "locked", false);
+            case "organizations":
+                return entity("status", "active", "billing_enabled", false, "quota_definition_guid", this.defaultQuotaDefinitionId);
+            case "quota_definitions":
+                return entity("non_basic_services_allowed", true, "total_services", 100, "total_routes", 1000, "memory_limit", 10240, "instance_memory_limit", -1, "trial_db_allowed", false,
+                    "app_instance_limit", -1, "total_private_domains", -1, "total_reserved_route_ports", 0, "app_task_limit", -1);
+            case "route_mappings":
+                return entity("app_port", 8080);
+            case "routes":
+                return entity("host", "", "path", "");
+            case "service_bindings":
+                return entity("credentials", Collections.emptyMap(), "binding_options", Collections.emptyMap());
+            case "service_instances":
+                return entity("type", "managed_service_instance", "credentials", Collections.emptyMap(), "tags", Collections.emptyList(), "last_operation",
+                    entity("type", "create", "state", "succeeded", "description", "", "updated_at", Instant.now().toString(), "created_at", Instant.now().toString()));
+            case "service_keys":
+                return entity("credentials", Collections.emptyMap());
+            case "service_plans":
+                return entity("free", true, "public", true, "active", true, "unique_id", UUID.randomUUID().toString());
+            case "services":
+                return entity("active", true, "bindable", true, "plan_updateable", false, "tags", Collections.emptyList(), "requires", Collections.emptyList(), "unique_id",
+                    UUID.randomUUID().toString());
+            case "space_quota_definitions":
+                return entity("non_basic_services_allowed", true, "total_services", 100, "total_routes", 1000, "memory_limit", 10240, "instance_memory_limit", -1, "app_instance_limit", -1,
+                    "app_task_limit", -1, "total_reserved_route_ports", 0);
+            case "spaces":
+                return entity("allow_ssh", true);
+            case "user_provided_service_instances":
+                return entity("type", "user_provided_service_instance", "credentials", Collections.emptyMap(), "syslog_drain_url", "", "route_service_url", "");
+            default:
+                return entity();
+        }
+    }
+
+    private Table getRequiredTable(String type) {
+        Table table = this.tables.get(type);
+        if (table == null) {
+            throw new IllegalArgumentException(String.format("Unknown resource type %s", type));
+        }
+
+        return table;
+    }
+
+    /**
+     * A line of an application's logs
+     */
+    static final class LogLine {
+
+        private final String message;
+
+        private final String sourceType;
+
+        private final long timestamp;
+
+        private LogLine(String sourceType, String message) {
+            this.message = message;
+            this.sourceType = sourceType;
+            this.timestamp = System.currentTimeMillis() * 1_000_000;
+        }
+
+        String getMessage() {
+            return this.message;
+        }
+
+        String getSourceType() {
+            return this.sourceType;
+        }
+
+        long getTimestamp() {
+            return this.timestamp;
+        }
+
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.fake;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.mockwebserver.MockResponse;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Utilities for creating the responses of a {@link FakeCloudFoundry}
+ */
+final class Responses {
+
+    private Responses() {
+    }
+
+    static MockResponse error(ObjectMapper objectMapper, int status, int code, String errorCode, String description) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("code", code);
+        payload.put("description", description);
+        payload.put("error_code", errorCode);
+
+        return json(objectMapper, status, payload);
+    }
+
+    static MockResponse json(ObjectMapper objectMapper, int status, Object payload) {
+        try {
+            return new MockResponse()
+                .setResponseCode(status)
+                .setHeader("Content-Type", "application/json")
+                .setBody(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static MockResponse noContent() {
+        return new MockResponse()
+            .setResponseCode(204);
+    }
+
+    static MockResponse notFound(ObjectMapper objectMapper) {
+        return error(objectMapper, 404, 10000, "CF-NotFound", "Unknown request");
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.fake;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * An ordered, thread-safe table of the resources of a single type
+ */
+final class Table {
+
+    private final String name;
+
+    private final Map<String, Row> rows = new LinkedHashMap<>();
+
+    Table(String name) {
+        this.name = name;
+    }
+
+    synchronized boolean delete(String id) {
+        return this.rows.remove(id) != null;
+    }
+
+    synchronized Optional<Row> get(String id) {
+        return Optional.ofNullable(this.rows.get(id))
+            .map(Row::copy);
+    }
+
+    String getName() {
+        return this.name;
+    }
+
+    synchronized String insert(Map<String, Object> entity) {
+        String id = UUID.randomUUID().toString();
+        this.rows.put(id, new Row(id, now(), entity));
+        return id;
+    }
+
+    synchronized List<Row> list(Predicate<Row> predicate) {
+        return this.rows.values().stream()
+            .filter(predicate)
+            .map(Row::copy)
+            .collect(Collectors.toList());
+    }
+
+    synchronized int size() {
+        return this.rows.size();
+    }
+
+    synchronized Optional<Row> update(String id, Map<String, Object> changes) {
+        Row row = this.rows.get(id);
+        if (row == null) {
+            return Optional.empty();
+        }
+
+        row.entity.putAll(changes);
+        row.updatedAt = now();
+        return Optional.of(row.copy());
+    }
+
+    private static String now() {
+        return Instant.now().truncatedTo(ChronoUnit.SECONDS).toString();
+    }
+
+    /**
+     * A resource in a table
+     */
+    static final class Row {
+
+        private final String createdAt;
+
+        private final Map<String, Object> entity;
+
+        private final String id;
+
+        private String updatedAt;
+
+        private Row(String id, String createdAt, Map<String, Object> entity) {
+            this.createdAt = createdAt;
+            this.entity = new HashMap<>(entity);
+            this.id = id;
+        }
+
+        String getCreatedAt() {
+            return this.createdAt;
+        }
+
+        Map<String, Object> getEntity() {
+            return Collections.unmodifiableMap(this.entity);
+        }
+
+        String getId() {
+            return this.id;
+        }
+
+        String getUpdatedAt() {
+            return this.updatedAt;
+        }
+
+        Object getValue(String key) {
+            return this.entity.get(key);
+        }
+
+        private Row copy() {
+            Row copy = new Row(this.id, this.createdAt, this.entity);
+            copy.updatedAt = this.updatedAt;
+            return copy;
+        }
+
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.fake;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import okhttp3.mockwebserver.MockResponse;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The UAA endpoints of a {@link FakeCloudFoundry}.  Tokens are signed with a key pair generated when the controller is created.
+ */
+final class UaaController {
+
+    private static final Duration ACCESS_TOKEN_VALIDITY = Duration.ofHours(12);
+
+    private static final String KEY_ID = "fake-key";
+
+    private final KeyPair keyPair;
+
+    private final ObjectMapper objectMapper;
+
+    UaaController(ObjectMapper objectMapper) {
+        this.keyPair = generateKeyPair();
+        this.objectMapper = objectMapper;
+    }
+
+    MockResponse dispatch(FakeRequest request) {
+        switch (String.format("%s %s", request.getMethod(), request.getPath(1))) {
+            case "POST oauth/token":
+                return token(request);
+            case "GET token_key":
+                return Responses.json(this.objectMapper, 200, tokenKey());
+            default:
+                return Responses.notFound(this.objectMapper);
+        }
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+            keyPairGenerator.initialize(2048);
+            return keyPairGenerator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String accessToken(String username, Instant issuedAt) {
+        return Jwts.builder()
+            .setHeaderParam("kid", KEY_ID)
+            .setId(UUID.randomUUID().toString())
+            .setIssuedAt(Date.from(issuedAt))
+            .setExpiration(Date.from(issuedAt.plus(ACCESS_TOKEN_VALIDITY)))
+            .claim("user_name", username)
+            .signWith(SignatureAlgorithm.RS256, this.keyPair.getPrivate())
+            .compact();
+    }
+
+    private MockResponse token(FakeRequest request) {
+        String username = request.getBodyAsForm().getOrDefault("username", "admin");
+        Instant now = Instant.now();
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("access_token", accessToken(username, now));
+        payload.put("token_type", "bearer");
+        payload.put("refresh_token", UUID.randomUUID().toString());
+        payload.put("expires_in", ACCESS_TOKEN_VALIDITY.getSeconds());
+        payload.put("scope", "cloud_controller.admin openid");
+        payload.put("jti", UUID.randomUUID().toString());
+
+        return Responses.json(this.objectMapper, 200, payload);
+    }
+
+    private Map<String, Object> tokenKey() {
+        RSAPublicKey publicKey = (RSAPublicKey) this.keyPair.getPublic();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("kid", KEY_ID);
+        payload.put("alg", "SHA256withRSA");
+        payload.put("value", String.format("-----BEGIN PUBLIC KEY-----\n%s\n-----END PUBLIC KEY-----", Base64.getEncoder().encodeToString(publicKey.getEncoded())));
+        payload.put("kty", "RSA");
+        payload.put("use", "sig");
+        payload.put("n", encoder.encodeToString(publicKey.getModulus().toByteArray()));
+        payload.put("e", encoder.encodeToString(publicKey.getPublicExponent().toByteArray()));
+
+        return payload;
+    }
+
+}
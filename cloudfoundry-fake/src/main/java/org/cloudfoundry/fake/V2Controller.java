@@ -0,0 +1,633 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.fake;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.mockwebserver.MockResponse;
+import org.cloudfoundry.fake.Table.Row;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The v2 Cloud Controller endpoints of a {@link FakeCloudFoundry}
+ */
+final class V2Controller {
+
+    private static final List<String> COMPARISON_OPERATORS = Arrays.asList(">=", "<=", ">", "<", ":");
+
+    private static final int DEFAULT_RESULTS_PER_PAGE = 50;
+
+    private static final Map<String, List<Dependent>> DEPENDENTS = new HashMap<>();
+
+    private static final int MAXIMUM_RESULTS_PER_PAGE = 100;
+
+    private static final Map<String, Map<String, Relation>> RELATIONS = new HashMap<>();
+
+    private static final Map<String, Uniqueness> UNIQUENESS = new HashMap<>();
+
+    static {
+        relation("apps", "route_mappings", Relation.direct("route_mappings", "app_guid"));
+        relation("apps", "routes", Relation.joined("routes", "route_mappings", "app_guid", "route_guid"));
+        relation("apps", "service_bindings", Relation.direct("service_bindings", "app_guid"));
+        relation("organizations", "private_domains", Relation.direct("private_domains", "owning_organization_guid"));
+        relation("organizations", "space_quota_definitions", Relation.direct("space_quota_definitions", "organization_guid"));
+        relation("organizations", "spaces", Relation.direct("spaces", "organization_guid"));
+        relation("routes", "apps", Relation.joined("apps", "route_mappings", "route_guid", "app_guid"));
+        relation("routes", "route_mappings", Relation.direct("route_mappings", "route_guid"));
+        relation("service_instances", "service_bindings", Relation.direct("service_bindings", "service_instance_guid"));
+        relation("service_instances", "service_keys", Relation.direct("service_keys", "service_instance_guid"));
+        relation("service_plans", "service_instances", Relation.direct("service_instances", "service_plan_guid"));
+        relation("services", "service_plans", Relation.direct("service_plans", "service_guid"));
+        relation("spaces", "apps", Relation.direct("apps", "space_guid"));
+        relation("spaces", "routes", Relation.direct("routes", "space_guid"));
+        relation("spaces", "service_instances", Relation.direct("service_instances", "space_guid"));
+
+        DEPENDENTS.put("apps", Arrays.asList(new Dependent("route_mappings", "app_guid"), new Dependent("service_bindings", "app_guid")));
+        DEPENDENTS.put("routes", Collections.singletonList(new Dependent("route_mappings", "route_guid")));
+        DEPENDENTS.put("service_instances", Arrays.asList(new Dependent("service_bindings", "service_instance_guid"), new Dependent("service_keys", "service_instance_guid")));
+
+        UNIQUENESS.put("apps", new Uniqueness(100002, "CF-AppNameTaken", "space_guid", "name"));
+        UNIQUENESS.put("organizations", new Uniqueness(30002, "CF-OrganizationNameTaken", "name"));
+        UNIQUENESS.put("routes", new Uniqueness(210003, "CF-RouteHostTaken", "domain_guid", "host", "path"));
+        UNIQUENESS.put("service_instances", new Uniqueness(60002, "CF-ServiceInstanceNameTaken", "space_guid", "name"));
+        UNIQUENESS.put("spaces", new Uniqueness(40002, "CF-SpaceNameTaken", "organization_guid", "name"));
+    }
+
+    private final ObjectMapper objectMapper;
+
+    private final String root;
+
+    private final FakeState state;
+
+    V2Controller(ObjectMapper objectMapper, FakeState state, String root) {
+        this.objectMapper = objectMapper;
+        this.root = root;
+        this.state = state;
+    }
+
+    MockResponse dispatch(FakeRequest request) {
+        String type = request.getSegment(1);
+        String id = request.getSegment(2);
+        String relation = request.getSegment(3);
+        String method = request.getMethod();
+
+        if ("info".equals(type)) {
+            return info();
+        } else if ("resource_match".equals(type)) {
+            return Responses.json(this.objectMapper, 200, Collections.emptyList());
+        } else if ("jobs".equals(type) && id != null) {
+            return Responses.json(this.objectMapper, 200, job(id));
+        }
+
+        Table table = this.state.getTable(type);
+        if (table == null) {
+            return Responses.notFound(this.objectMapper);
+        }
+
+        switch (request.getSegmentCount()) {
+            case 2:
+                if ("GET".equals(method)) {
+                    return page(request, table, table.list(row -> true));
+                } else if ("POST".equals(method)) {
+                    return create(request, table);
+                }
+                break;
+            case 3:
+                if ("GET".equals(method)) {
+                    return get(table, id);
+                } else if ("PUT".equals(method)) {
+                    return update(request, table, id);
+                } else if ("DELETE".equals(method)) {
+                    return delete(request, table, id);
+                }
+                break;
+            case 4:
+                if ("apps".equals(type)) {
+                    Optional<MockResponse> response = application(request, id, relation);
+                    if (response.isPresent()) {
+                        return response.get();
+                    }
+                }
+
+                if ("spaces".equals(type) && "summary".equals(relation) && "GET".equals(method)) {
+                    return spaceSummary(id);
+                } else if ("GET".equals(method)) {
+                    return related(request, table, id, relation);
+                } else if ("PUT".equals(method)) {
+                    return get(table, id, 201);
+                }
+                break;
+            case 5:
+                if ("PUT".equals(method)) {
+                    return associate(table, id, relation, request.getSegment(4));
+                } else if ("DELETE".equals(method)) {
+                    return dissociate(table, id, relation, request.getSegment(4));
+                }
+                break;
+            default:
+                break;
+        }
+
+        return Responses.notFound(this.objectMapper);
+    }
+
+    private static int compare(String actual, String expected) {
+        return actual == null ? -1 : actual.compareTo(expected);
+    }
+
+    private static Map<String, Object> entity(Object... keysAndValues) {
+        Map<String, Object> entity = new LinkedHashMap<>();
+
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            entity.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+
+        return entity;
+    }
+
+    private static Predicate<Row> filter(String filter, FakeState state) {
+        int in = filter.indexOf(" IN ");
+        if (in > 0) {
+            String field = filter.substring(0, in);
+            Set<String> values = Arrays.stream(filter.substring(in + 4).split(",")).collect(Collectors.toSet());
+            return row -> values.contains(getValue(row, field, state));
+        }
+
+        String operator = null;
+        int index = Integer.MAX_VALUE;
+        for (String candidate : COMPARISON_OPERATORS) {
+            int candidateIndex = filter.indexOf(candidate);
+            if (candidateIndex > 0 && candidateIndex < index) {
+                operator = candidate;
+                index = candidateIndex;
+            }
+        }
+
+        if (operator == null) {
+            return row -> true;
+        }
+
+        String field = filter.substring(0, index);
+        String value = filter.substring(index + operator.length());
+
+        switch (operator) {
+            case ">=":
+                return row -> compare(getValue(row, field, state), value) >= 0;
+            case "<=":
+                return row -> compare(getValue(row, field, state), value) <= 0;
+            case ">":
+                return row -> compare(getValue(row, field, state), value) > 0;
+            case "<":
+                return row -> compare(getValue(row, field, state), value) < 0;
+            default:
+                return row -> value.equals(getValue(row, field, state));
+        }
+    }
+
+    private static Predicate<Row> filters(List<String> filters, FakeState state) {
+        return filters.stream()
+            .map(filter -> filter(filter, state))
+            .reduce(row -> true, Predicate::and);
+    }
+
+    private static int getInteger(FakeRequest request, String name, int defaultValue) {
+        return request.getParameter(name)
+            .map(Integer::parseInt)
+            .orElse(defaultValue);
+    }
+
+    private static String getValue(Row row, String field, FakeState state) {
+        if ("guid".equals(field)) {
+            return row.getId();
+        } else if ("timestamp".equals(field) || "created_at".equals(field)) {
+            return row.getCreatedAt();
+        }
+
+        Object value = row.getValue(field);
+        if (value == null && "organization_guid".equals(field) && row.getValue("space_guid") != null) {
+            value = state.getTable("spaces").get((String) row.getValue("space_guid"))
+                .map(space -> space.getValue("organization_guid"))
+                .orElse(null);
+        }
+
+        return value == null ? null : value.toString();
+    }
+
+    private static boolean isStarted(Row application) {
+        return "STARTED".equals(application.getValue("state"));
+    }
+
+    private static Map<String, Object> job(String id) {
+        return entity(
+            "metadata", entity("guid", id, "url", "/v2/jobs/" + id, "created_at", Instant.now().toString()),
+            "entity", entity("guid", id, "status", "finished"));
+    }
+
+    private static void relation(String type, String name, Relation relation) {
+        RELATIONS.computeIfAbsent(type, k -> new HashMap<>()).put(name, relation);
+    }
+
+    private static Map<String, Object> resource(Table table, Row row) {
+        return entity(
+            "metadata", entity("guid", row.getId(), "url", String.format("/v2/%s/%s", table.getName(), row.getId()), "created_at", row.getCreatedAt(), "updated_at", row.getUpdatedAt()),
+            "entity", row.getEntity());
+    }
+
+    private Optional<MockResponse> application(FakeRequest request, String id, String endpoint) {
+        Optional<Row> application = this.state.getTable("apps").get(id);
+        if (!application.isPresent()) {
+            return Optional.empty();
+        }
+
+        switch (request.getMethod() + " " + endpoint) {
+            case "GET env":
+                return Optional.of(Responses.json(this.objectMapper, 200, entity("environment_json", application.get().getValue("environment_json"), "staging_env_json",
+                    Collections.emptyMap(), "running_env_json", Collections.emptyMap(), "system_env_json", Collections.emptyMap(), "application_env_json", Collections.emptyMap())));
+            case "GET instances":
+                return Optional.of(instances(application.get()));
+            case "GET stats":
+                return Optional.of(stats(application.get()));
+            case "GET summary":
+                return Optional.of(Responses.json(this.objectMapper, 200, applicationSummary(application.get())));
+            case "POST restage":
+                this.state.getTable("apps").update(id, entity("package_state", "STAGED"));
+                this.state.log(id, "STG", "Staging complete");
+                return Optional.of(get(this.state.getTable("apps"), id, 201));
+            case "PUT bits":
+                this.state.getTable("apps").update(id, entity("package_state", "PENDING", "package_updated_at", Instant.now().toString()));
+                return Optional.of(request.getParameter("async").map(Boolean::parseBoolean).orElse(false) ?
+                    Responses.json(this.objectMapper, 201, job(UUID.randomUUID().toString())) : Responses.json(this.objectMapper, 201, Collections.emptyMap()));
+            default:
+                return Optional.empty();
+        }
+    }
+
+    private Map<String, Object> applicationSummary(Row application) {
+        List<Map<String, Object>> routes = related("apps", application.getId(), "routes").stream()
+            .map(this::routeSummary)
+            .collect(Collectors.toList());
+
+        List<Map<String, Object>> services = related("apps", application.getId(), "service_bindings").stream()
+            .map(binding -> this.state.getTable("service_instances").get((String) binding.getValue("service_instance_guid")))
+            .filter(Optional::isPresent)
+            .map(serviceInstance -> serviceInstanceSummary(serviceInstance.get()))
+            .collect(Collectors.toList());
+
+        Map<String, Object> summary = new LinkedHashMap<>(application.getEntity());
+        summary.put("guid", application.getId());
+        summary.put("routes", routes);
+        summary.put("running_instances", isStarted(application) ? application.getValue("instances") : 0);
+        summary.put("services", services);
+        summary.put("available_domains", this.state.getTable("shared_domains").list(row -> true).stream()
+            .map(domain -> entity("guid", domain.getId(), "name", domain.getValue("name")))
+            .collect(Collectors.toList()));
+        summary.put("urls", routes.stream()
+            .map(route -> String.format("%s.%s", route.get("host"), ((Map<?, ?>) route.get("domain")).get("name")))
+            .collect(Collectors.toList()));
+        summary.put("service_count", services.size());
+        summary.put("service_names", services.stream().map(service -> service.get("name")).collect(Collectors.toList()));
+
+        return summary;
+    }
+
+    private MockResponse associate(Table table, String id, String relation, String childId) {
+        if (!table.get(id).isPresent()) {
+            return Responses.notFound(this.objectMapper);
+        }
+
+        if ("apps".equals(table.getName()) && "routes".equals(relation)) {
+            mapRoute(id, childId);
+        } else if ("routes".equals(table.getName()) && "apps".equals(relation)) {
+            mapRoute(childId, id);
+        }
+
+        return get(table, id, 201);
+    }
+
+    private MockResponse create(FakeRequest request, Table table) {
+        Map<String, Object> entity = request.getBodyAsMap(this.objectMapper);
+
+        Uniqueness uniqueness = UNIQUENESS.get(table.getName());
+        if (uniqueness != null && !table.list(uniqueness.matches(entity)).isEmpty()) {
+            return Responses.error(this.objectMapper, 400, uniqueness.code, uniqueness.errorCode, String.format("The %s is taken", uniqueness.fields));
+        }
+
+        String id = this.state.insert(table.getName(), entity);
+        return get(table, id, 201);
+    }
+
+    private MockResponse delete(FakeRequest request, Table table, String id) {
+        if (!table.delete(id)) {
+            return Responses.notFound(this.objectMapper);
+        }
+
+        DEPENDENTS.getOrDefault(table.getName(), Collections.emptyList())
+            .forEach(dependent -> {
+                Table dependentTable = this.state.getTable(dependent.type);
+                dependentTable.list(row -> id.equals(row.getValue(dependent.foreignKey)))
+                    .forEach(row -> dependentTable.delete(row.getId()));
+            });
+
+        if (request.getParameter("async").map(Boolean::parseBoolean).orElse(false)) {
+            return Responses.json(this.objectMapper, 202, job(UUID.randomUUID().toString()));
+        }
+
+        return Responses.noContent();
+    }
+
+    private MockResponse dissociate(Table table, String id, String relation, String childId) {
+        if ("apps".equals(table.getName()) && "routes".equals(relation)) {
+            unmapRoute(id, childId);
+        } else if ("routes".equals(table.getName()) && "apps".equals(relation)) {
+            unmapRoute(childId, id);
+        }
+
+        return Responses.noContent();
+    }
+
+    private MockResponse get(Table table, String id) {
+        return get(table, id, 200);
+    }
+
+    private MockResponse get(Table table, String id, int status) {
+        return table.get(id)
+            .map(row -> Responses.json(this.objectMapper, status, resource(table, row)))
+            .orElseGet(() -> Responses.error(this.objectMapper, 404, 10010, "CF-ResourceNotFound", String.format("The %s could not be found: %s", table.getName(), id)));
+    }
+
+    private MockResponse info() {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("name", "fake");
+        info.put("build", "fake");
+        info.put("description", "Fake Cloud Foundry");
+        info.put("api_version", "2.75.0");
+        info.put("authorization_endpoint", this.root + "/uaa");
+        info.put("token_endpoint", this.root + "/uaa");
+        info.put("doppler_logging_endpoint", this.root.replaceFirst("^http", "ws") + "/doppler");
+        info.put("routing_endpoint", this.root + "/routing");
+
+        return Responses.json(this.objectMapper, 200, info);
+    }
+
+    private MockResponse instances(Row application) {
+        if (!isStarted(application)) {
+            return Responses.error(this.objectMapper, 400, 220001, "CF-InstancesError", "Instances error: App is stopped");
+        }
+
+        double since = Instant.now().getEpochSecond();
+        Map<String, Object> instances = new LinkedHashMap<>();
+        IntStream.range(0, ((Number) application.getValue("instances")).intValue())
+            .forEach(index -> instances.put(String.valueOf(index), entity("state", "RUNNING", "since", since, "uptime", 100)));
+
+        return Responses.json(this.objectMapper, 200, instances);
+    }
+
+    private void mapRoute(String applicationId, String routeId) {
+        if (this.state.getTable("route_mappings").list(row -> applicationId.equals(row.getValue("app_guid")) && routeId.equals(row.getValue("route_guid"))).isEmpty()) {
+            this.state.mapRoute(applicationId, routeId);
+        }
+    }
+
+    private MockResponse page(FakeRequest request, Table table, List<Row> rows) {
+        List<Row> filtered = rows.stream()
+            .filter(filters(request.getParameters("q"), this.state))
+            .collect(Collectors.toList());
+
+        if ("desc".equals(request.getParameter("order-direction").orElse("asc"))) {
+            Collections.reverse(filtered);
+        }
+
+        int resultsPerPage = Math.max(1, Math.min(MAXIMUM_RESULTS_PER_PAGE, getInteger(request, "results-per-page", DEFAULT_RESULTS_PER_PAGE)));
+        int totalPages = Math.max(1, (filtered.size() + resultsPerPage - 1) / resultsPerPage);
+        int page = Math.max(1, getInteger(request, "page", 1));
+
+        List<Map<String, Object>> resources = filtered.stream()
+            .skip((long) (page - 1) * resultsPerPage)
+            .limit(resultsPerPage)
+            .map(row -> resource(table, row))
+            .collect(Collectors.toList());
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("total_results", filtered.size());
+        payload.put("total_pages", totalPages);
+        payload.put("prev_url", page > 1 ? String.format("/v2/%s?page=%d&results-per-page=%d", table.getName(), page - 1, resultsPerPage) : null);
+        payload.put("next_url", page < totalPages ? String.format("/v2/%s?page=%d&results-per-page=%d", table.getName(), page + 1, resultsPerPage) : null);
+        payload.put("resources", resources);
+
+        return Responses.json(this.objectMapper, 200, payload);
+    }
+
+    private List<Row> related(String type, String id, String name) {
+        Relation relation = RELATIONS.getOrDefault(type, Collections.emptyMap()).get(name);
+        if (relation == null) {
+            return Collections.emptyList();
+        }
+
+        Table target = this.state.getTable(relation.target);
+        if (relation.join == null) {
+            return target.list(row -> id.equals(row.getValue(relation.foreignKey)));
+        }
+
+        Set<Object> targetIds = this.state.getTable(relation.join).list(row -> id.equals(row.getValue(relation.foreignKey))).stream()
+            .map(row -> row.getValue(relation.targetKey))
+            .collect(Collectors.toSet());
+
+        return target.list(row -> targetIds.contains(row.getId()));
+    }
+
+    private MockResponse related(FakeRequest request, Table table, String id, String name) {
+        Relation relation = RELATIONS.getOrDefault(table.getName(), Collections.emptyMap()).get(name);
+        if (relation == null || !table.get(id).isPresent()) {
+            return Responses.notFound(this.objectMapper);
+        }
+
+        return page(request, this.state.getTable(relation.target), related(table.getName(), id, name));
+    }
+
+    private Map<String, Object> routeSummary(Row route) {
+        Object domain = this.state.getTable("shared_domains").get((String) route.getValue("domain_guid"))
+            .map(Optional::of)
+            .orElseGet(() -> this.state.getTable("private_domains").get((String) route.getValue("domain_guid")))
+            .map(row -> entity("guid", row.getId(), "name", row.getValue("name")))
+            .orElse(entity("guid", route.getValue("domain_guid")));
+
+        return entity("guid", route.getId(), "host", route.getValue("host"), "path", route.getValue("path"), "port", route.getValue("port"), "domain", domain);
+    }
+
+    private Map<String, Object> serviceInstanceSummary(Row serviceInstance) {
+        Map<String, Object> servicePlan = this.state.getTable("service_plans").get((String) serviceInstance.getValue("service_plan_guid"))
+            .map(plan -> {
+                Map<String, Object> service = this.state.getTable("services").get((String) plan.getValue("service_guid"))
+                    .map(row -> entity("guid", row.getId(), "label", row.getValue("label"), "provider", row.getValue("provider"), "version", row.getValue("version")))
+                    .orElse(null);
+                return entity("guid", plan.getId(), "name", plan.getValue("name"), "service", service);
+            })
+            .orElse(null);
+
+        int boundApplications = this.state.getTable("service_bindings").list(row -> serviceInstance.getId().equals(row.getValue("service_instance_guid"))).size();
+
+        return entity("guid", serviceInstance.getId(), "name", serviceInstance.getValue("name"), "bound_app_count", boundApplications, "last_operation",
+            serviceInstance.getValue("last_operation"), "dashboard_url", serviceInstance.getValue("dashboard_url"), "service_plan", servicePlan);
+    }
+
+    private MockResponse spaceSummary(String id) {
+        Optional<Row> space = this.state.getTable("spaces").get(id);
+        if (!space.isPresent()) {
+            return Responses.notFound(this.objectMapper);
+        }
+
+        List<Map<String, Object>> applications = related("spaces", id, "apps").stream()
+            .map(this::applicationSummary)
+            .collect(Collectors.toList());
+
+        List<Map<String, Object>> services = related("spaces", id, "service_instances").stream()
+            .map(this::serviceInstanceSummary)
+            .collect(Collectors.toList());
+
+        return Responses.json(this.objectMapper, 200, entity("guid", id, "name", space.get().getValue("name"), "apps", applications, "services", services));
+    }
+
+    private MockResponse stats(Row application) {
+        if (!isStarted(application)) {
+            return Responses.error(this.objectMapper, 400, 200003, "CF-AppStoppedStatsError", "Could not fetch stats for stopped app");
+        }
+
+        long memory = ((Number) application.getValue("memory")).longValue() * 1024 * 1024;
+        long disk = ((Number) application.getValue("disk_quota")).longValue() * 1024 * 1024;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        IntStream.range(0, ((Number) application.getValue("instances")).intValue())
+            .forEach(index -> stats.put(String.valueOf(index), entity("state", "RUNNING", "stats", entity("name", application.getValue("name"), "uris", Collections.emptyList(), "host",
+                "10.0.0.1", "port", 61000 + index, "uptime", 100, "mem_quota", memory, "disk_quota", disk, "fds_quota", 16384, "usage", entity("time", Instant.now().toString(), "cpu", 0.01,
+                    "mem", memory / 4, "disk", disk / 4)))));
+
+        return Responses.json(this.objectMapper, 200, stats);
+    }
+
+    private void unmapRoute(String applicationId, String routeId) {
+        Table routeMappings = this.state.getTable("route_mappings");
+        routeMappings.list(row -> applicationId.equals(row.getValue("app_guid")) && routeId.equals(row.getValue("route_guid")))
+            .forEach(row -> routeMappings.delete(row.getId()));
+    }
+
+    private MockResponse update(FakeRequest request, Table table, String id) {
+        Map<String, Object> changes = new HashMap<>(request.getBodyAsMap(this.objectMapper));
+
+        if ("apps".equals(table.getName())) {
+            updateApplication(id, changes);
+        }
+
+        return table.update(id, changes)
+            .map(row -> Responses.json(this.objectMapper, 201, resource(table, row)))
+            .orElseGet(() -> Responses.error(this.objectMapper, 404, 10010, "CF-ResourceNotFound", String.format("The %s could not be found: %s", table.getName(), id)));
+    }
+
+    private void updateApplication(String id, Map<String, Object> changes) {
+        Optional<Row> application = this.state.getTable("apps").get(id);
+        if (!application.isPresent()) {
+            return;
+        }
+
+        if ("STARTED".equals(changes.get("state"))) {
+            if (!"STAGED".equals(application.get().getValue("package_state"))) {
+                changes.put("package_state", "STAGED");
+                this.state.log(id, "STG", "Staging complete");
+            }
+
+            this.state.log(id, "CELL", "Container became healthy");
+        } else if ("STOPPED".equals(changes.get("state"))) {
+            this.state.log(id, "CELL", "Exited");
+        }
+
+        changes.put("version", UUID.randomUUID().toString());
+    }
+
+    private static final class Dependent {
+
+        private final String foreignKey;
+
+        private final String type;
+
+        private Dependent(String type, String foreignKey) {
+            this.foreignKey = foreignKey;
+            this.type = type;
+        }
+
+    }
+
+    private static final class Relation {
+
+        private final String foreignKey;
+
+        private final String join;
+
+        private final String target;
+
+        private final String targetKey;
+
+        private Relation(String target, String join, String foreignKey, String targetKey) {
+            this.foreignKey = foreignKey;
+            this.join = join;
+            this.target = target;
+            this.targetKey = targetKey;
+        }
+
+        private static Relation direct(String target, String foreignKey) {
+            return new Relation(target, null, foreignKey, null);
+        }
+
+        private static Relation joined(String target, String join, String foreignKey, String targetKey) {
+            return new Relation(target, join, foreignKey, targetKey);
+        }
+
+    }
+
+    private static final class Uniqueness {
+
+        private final int code;
+
+        private final String errorCode;
+
+        private final List<String> fields;
+
+        private Uniqueness(int code, String errorCode, String... fields) {
+            this.code = code;
+            this.errorCode = errorCode;
+            this.fields = Arrays.asList(fields);
+        }
+
+        private Predicate<Row> matches(Map<String, Object> entity) {
+            return row -> this.fields.stream()
+                .allMatch(field -> Objects.equals(Objects.toString(row.getValue(field), ""), Objects.toString(entity.get(field), "")));
+        }
+
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.fake;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.mockwebserver.MockResponse;
+import org.cloudfoundry.fake.Table.Row;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * The v3 Cloud Controller endpoints of a {@link FakeCloudFoundry}.  Only applications are supported, backed by the same state as the v2 endpoints.
+ */
+final class V3Controller {
+
+    private static final int DEFAULT_PER_PAGE = 50;
+
+    private static final int MAXIMUM_PER_PAGE = 5000;
+
+    private final ObjectMapper objectMapper;
+
+    private final FakeState state;
+
+    V3Controller(ObjectMapper objectMapper, FakeState state) {
+        this.objectMapper = objectMapper;
+        this.state = state;
+    }
+
+    MockResponse dispatch(FakeRequest request) {
+        if (!"GET".equals(request.getMethod()) || !"apps".equals(request.getSegment(1))) {
+            return Responses.notFound(this.objectMapper);
+        }
+
+        switch (request.getSegmentCount()) {
+            case 2:
+                return list(request);
+            case 3:
+                return this.state.getTable("apps").get(request.getSegment(2))
+                    .map(row -> Responses.json(this.objectMapper, 200, application(row)))
+                    .orElseGet(() -> Responses.error(this.objectMapper, 404, 10010, "CF-ResourceNotFound", "App not found"));
+            default:
+                return Responses.notFound(this.objectMapper);
+        }
+    }
+
+    private static Map<String, Object> application(Row row) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("buildpack", row.getValue("buildpack"));
+        data.put("stack", "cflinuxfs2");
+
+        Map<String, Object> lifecycle = new LinkedHashMap<>();
+        lifecycle.put("type", "buildpack");
+        lifecycle.put("data", data);
+
+        Map<String, Object> links = new LinkedHashMap<>();
+        links.put("self", link(String.format("/v3/apps/%s", row.getId())));
+        links.put("space", link(String.format("/v2/spaces/%s", row.getValue("space_guid"))));
+
+        Map<String, Object> application = new LinkedHashMap<>();
+        application.put("guid", row.getId());
+        application.put("name", row.getValue("name"));
+        application.put("desired_state", row.getValue("state"));
+        application.put("total_desired_instances", row.getValue("instances"));
+        application.put("created_at", row.getCreatedAt());
+        application.put("updated_at", row.getUpdatedAt());
+        application.put("lifecycle", lifecycle);
+        application.put("environment_variables", row.getValue("environment_json"));
+        application.put("links", links);
+
+        return application;
+    }
+
+    private static int getInteger(FakeRequest request, String name, int defaultValue) {
+        return request.getParameter(name)
+            .map(Integer::parseInt)
+            .orElse(defaultValue);
+    }
+
+    private static Map<String, Object> link(String href) {
+        return Collections.singletonMap("href", href);
+    }
+
+    private static Map<String, Object> pageLink(int page, int perPage) {
+        return link(String.format("/v3/apps?page=%d&per_page=%d", page, perPage));
+    }
+
+    private Predicate<Row> filter(FakeRequest request, String parameter, Function<Row, Object> extractor) {
+        Optional<Set<String>> values = request.getParameter(parameter)
+            .map(value -> Arrays.stream(value.split(",")).collect(Collectors.toSet()));
+
+        return row -> values
+            .map(v -> v.contains(String.valueOf(extractor.apply(row))))
+            .orElse(true);
+    }
+
+    private MockResponse list(FakeRequest request) {
+        Predicate<Row> filter = filter(request, "guids", Row::getId)
+            .and(filter(request, "names", row -> row.getValue("name")))
+            .and(filter(request, "space_guids", row -> row.getValue("space_guid")))
+            .and(filter(request, "organization_guids", this::getOrganizationId));
+
+        List<Row> rows = this.state.getTable("apps").list(filter);
+
+        int perPage = Math.max(1, Math.min(MAXIMUM_PER_PAGE, getInteger(request, "per_page", DEFAULT_PER_PAGE)));
+        int totalPages = Math.max(1, (rows.size() + perPage - 1) / perPage);
+        int page = Math.max(1, getInteger(request, "page", 1));
+
+        Map<String, Object> pagination = new LinkedHashMap<>();
+        pagination.put("total_results", rows.size());
+        pagination.put("total_pages", totalPages);
+        pagination.put("first", pageLink(1, perPage));
+        pagination.put("last", pageLink(totalPages, perPage));
+        pagination.put("next", page < totalPages ? pageLink(page + 1, perPage) : null);
+        pagination.put("previous", page > 1 ? pageLink(page - 1, perPage) : null);
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("pagination", pagination);
+        payload.put("resources", rows.stream()
+            .skip((long) (page - 1) * perPage)
+            .limit(perPage)
+            .map(V3Controller::application)
+            .collect(Collectors.toList()));
+
+        return Responses.json(this.objectMapper, 200, payload);
+    }
+
+    private Object getOrganizationId(Row application) {
+        return this.state.getTable("spaces").get((String) application.getValue("space_guid"))
+            .map(space -> space.getValue("organization_guid"))
+            .orElse(null);
+    }
+
+}
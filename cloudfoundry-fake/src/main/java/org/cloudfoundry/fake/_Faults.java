@@ -0,0 +1,72 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.fake;
+
+import org.immutables.value.Value;
+
+import java.time.Duration;
+
+/**
+ * The faults injected into the responses of a {@link FakeCloudFoundry}
+ */
+@Value.Immutable
+abstract class _Faults {
+
+    @Value.Check
+    void check() {
+        if (getErrorRate() < 0 || getErrorRate() > 1) {
+            throw new IllegalStateException("errorRate must be between 0 and 1 inclusive");
+        }
+
+        if (getLatency().isNegative() || getLatencyJitter().isNegative()) {
+            throw new IllegalStateException("latency and latencyJitter must not be negative");
+        }
+    }
+
+    /**
+     * The probability, between {@code 0} and {@code 1}, that a request fails with the error status.  Defaults to {@code 0}.
+     */
+    @Value.Default
+    Double getErrorRate() {
+        return 0D;
+    }
+
+    /**
+     * The status of injected errors.  Defaults to {@code 503}.
+     */
+    @Value.Default
+    Integer getErrorStatus() {
+        return 503;
+    }
+
+    /**
+     * The latency added to every response.  Defaults to none.
+     */
+    @Value.Default
+    Duration getLatency() {
+        return Duration.ZERO;
+    }
+
+    /**
+     * The maximum random latency added to the fixed latency of every response.  Defaults to none.
+     */
+    @Value.Default
+    Duration getLatencyJitter() {
+        return Duration.ZERO;
+    }
+
+}
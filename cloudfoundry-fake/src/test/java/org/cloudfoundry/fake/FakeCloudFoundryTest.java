@@ -0,0 +1,159 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.fake;
+
+import org.cloudfoundry.client.v2.ClientV2Exception;
+import org.cloudfoundry.client.v2.applications.ApplicationResource;
+import org.cloudfoundry.client.v2.applications.ListApplicationsRequest;
+import org.cloudfoundry.client.v2.organizations.CreateOrganizationRequest;
+import org.cloudfoundry.client.v2.organizations.ListOrganizationsRequest;
+import org.cloudfoundry.doppler.RecentLogsRequest;
+import org.cloudfoundry.reactor.DefaultConnectionContext;
+import org.cloudfoundry.reactor.client.ReactorCloudFoundryClient;
+import org.cloudfoundry.reactor.doppler.ReactorDopplerClient;
+import org.cloudfoundry.reactor.uaa.ReactorUaaClient;
+import org.cloudfoundry.util.PaginationUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class FakeCloudFoundryTest {
+
+    private final FakeCloudFoundry fake = new FakeCloudFoundry(new FakeState().seed(1, 1, 120));
+
+    private ReactorCloudFoundryClient cloudFoundryClient;
+
+    private DefaultConnectionContext connectionContext;
+
+    @After
+    public void cleanUp() throws IOException {
+        this.fake.close();
+    }
+
+    @Test
+    public void createDuplicateName() {
+        this.cloudFoundryClient.organizations()
+            .create(CreateOrganizationRequest.builder()
+                .name("organization-0")
+                .build())
+            .as(StepVerifier::create)
+            .consumeErrorWith(t -> assertThat(t).isInstanceOf(ClientV2Exception.class).hasMessageContaining("CF-OrganizationNameTaken"))
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void injectErrors() {
+        this.fake.setFaults(Faults.builder()
+            .errorRate(1.0)
+            .errorStatus(502)
+            .build());
+
+        this.cloudFoundryClient.organizations()
+            .list(ListOrganizationsRequest.builder()
+                .build())
+            .as(StepVerifier::create)
+            .consumeErrorWith(t -> assertThat(t).isInstanceOf(ClientV2Exception.class).hasMessageContaining("CF-InjectedFault"))
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void listPaginated() {
+        PaginationUtils
+            .requestClientV2Resources(page -> this.cloudFoundryClient.applicationsV2()
+                .list(ListApplicationsRequest.builder()
+                    .name("application-1", "application-119")
+                    .page(page)
+                    .build()))
+            .map(resource -> resource.getEntity().getName())
+            .as(StepVerifier::create)
+            .expectNext("application-1", "application-119")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        this.fake.resetRequestCount();
+
+        PaginationUtils
+            .requestClientV2Resources(page -> this.cloudFoundryClient.applicationsV2()
+                .list(ListApplicationsRequest.builder()
+                    .page(page)
+                    .build()))
+            .count()
+            .as(StepVerifier::create)
+            .expectNext(120L)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertThat(this.fake.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void recentLogs() {
+        String applicationId = PaginationUtils
+            .requestClientV2Resources(page -> this.cloudFoundryClient.applicationsV2()
+                .list(ListApplicationsRequest.builder()
+                    .name("application-0")
+                    .page(page)
+                    .build()))
+            .map(ApplicationResource::getMetadata)
+            .blockFirst(Duration.ofSeconds(5))
+            .getId();
+
+        ReactorDopplerClient.builder()
+            .connectionContext(this.connectionContext)
+            .tokenProvider(this.fake.getTokenProvider())
+            .build()
+            .recentLogs(RecentLogsRequest.builder()
+                .applicationId(applicationId)
+                .build())
+            .map(envelope -> envelope.getLogMessage().getMessage())
+            .as(StepVerifier::create)
+            .expectNext("Container became healthy")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        this.fake.start();
+        this.connectionContext = this.fake.getConnectionContext();
+
+        this.cloudFoundryClient = ReactorCloudFoundryClient.builder()
+            .connectionContext(this.connectionContext)
+            .tokenProvider(this.fake.getTokenProvider())
+            .build();
+    }
+
+    @Test
+    public void username() {
+        ReactorUaaClient.builder()
+            .connectionContext(this.connectionContext)
+            .tokenProvider(this.fake.getTokenProvider())
+            .build()
+            .getUsername()
+            .as(StepVerifier::create)
+            .expectNext("fake-username")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+}
@@ -51,6 +51,7 @@ import org.cloudfoundry.routing.RoutingClient;
 import org.cloudfoundry.uaa.UaaClient;
 import org.cloudfoundry.util.ExceptionUtils;
 import org.cloudfoundry.util.PaginationUtils;
+import org.cloudfoundry.util.ResourceCache;
 import org.cloudfoundry.util.ResourceUtils;
 import org.immutables.value.Value;
 import reactor.core.publisher.Flux;
@@ -74,7 +75,7 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Applications applications() {
-        return new DefaultApplications(getCloudFoundryClientPublisher(), getDopplerClientPublisher(), getSpaceId());
+        return new DefaultApplications(getCloudFoundryClientPublisher(), getDopplerClientPublisher(), getResourceCache(), getSpaceId());
     }
 
     @Override
@@ -182,6 +183,12 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
         }
     }
 
+    /**
+     * The cache of resources known to exist in the foundation's resource cache, used to skip resource matching when pushing applications
+     */
+    @Nullable
+    abstract ResourceCache getResourceCache();
+
     /**
      * The {@link RoutingClient} to use for operations functionality
      */
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.operations.applications;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.applications.DownloadApplicationRequest;
+import org.cloudfoundry.client.v2.applications.UploadApplicationRequest;
+import org.cloudfoundry.client.v2.applications.UploadApplicationResponse;
+import org.cloudfoundry.util.JobUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.cloudfoundry.util.tuple.TupleUtils.function;
+
+/**
+ * Migrates applications' bits from one foundation to another.  Each application's bits are streamed from a download in the source foundation directly into an upload in the target foundation.
+ * Only a bounded number of chunks is buffered between the two, so backpressure from the upload slows the download, and nothing is staged to disk.  All migrations share a single bandwidth limit.
+ * <p>
+ * The applications must already exist in the target foundation.  Once its bits have been migrated, an application must be restaged in the target foundation before it can be started.
+ */
+public final class ApplicationMigrator {
+
+    private static final int PREFETCH = 32;
+
+    private static final Duration PROGRESS_INTERVAL = Duration.ofSeconds(1);
+
+    private final BandwidthLimiter bandwidthLimiter;
+
+    private final Mono<CloudFoundryClient> source;
+
+    private final Mono<CloudFoundryClient> target;
+
+    /**
+     * Creates a new instance
+     *
+     * @param source         the client of the source foundation
+     * @param target         the client of the target foundation
+     * @param bytesPerSecond the maximum combined throughput of all migrations, in bytes per second, or zero for no limit
+     */
+    public ApplicationMigrator(Mono<CloudFoundryClient> source, Mono<CloudFoundryClient> target, long bytesPerSecond) {
+        this.bandwidthLimiter = new BandwidthLimiter(bytesPerSecond);
+        this.source = source;
+        this.target = target;
+    }
+
+    /**
+     * Migrates an application's bits
+     *
+     * @param request the migrate application request
+     * @return the progress of the migration, reported every second and on completion
+     */
+    public Flux<MigrationProgress> migrate(MigrateApplicationRequest request) {
+        return Mono
+            .when(this.source, this.target)
+            .flatMap(function((source, target) -> migrate(source, target, this.bandwidthLimiter, request)));
+    }
+
+    /**
+     * Migrates many applications' bits concurrently
+     *
+     * @param requests    the migrate application requests
+     * @param concurrency the maximum number of applications to migrate concurrently
+     * @return the progress of each migration, reported every second and on completion
+     */
+    public Flux<MigrationProgress> migrate(Flux<MigrateApplicationRequest> requests, int concurrency) {
+        return requests
+            .flatMap(this::migrate, concurrency);
+    }
+
+    private static Flux<MigrationProgress> migrate(CloudFoundryClient source, CloudFoundryClient target, BandwidthLimiter bandwidthLimiter, MigrateApplicationRequest request) {
+        return Flux
+            .defer(() -> {
+                AtomicLong bytesTransferred = new AtomicLong();
+                Instant start = Instant.now();
+
+                Flux<byte[]> bits = requestDownloadApplication(source, request.getSourceApplicationId())
+                    .concatMap(chunk -> bandwidthLimiter.acquire(chunk.length)
+                        .then(Mono.just(chunk)), PREFETCH)
+                    .doOnNext(chunk -> bytesTransferred.addAndGet(chunk.length));
+
+                Mono<MigrationProgress> completion = requestUploadApplication(target, request.getTargetApplicationId(), bits)
+                    .then(job -> JobUtils.waitForCompletion(target, job))
+                    .then(Mono.fromSupplier(() -> toProgress(request, bytesTransferred, start, true)))
+                    .cache();
+
+                return Flux.interval(PROGRESS_INTERVAL)
+                    .map(i -> toProgress(request, bytesTransferred, start, false))
+                    .takeUntilOther(completion)
+                    .mergeWith(completion);
+            });
+    }
+
+    private static Flux<byte[]> requestDownloadApplication(CloudFoundryClient cloudFoundryClient, String applicationId) {
+        return cloudFoundryClient.applicationsV2()
+            .download(DownloadApplicationRequest.builder()
+                .applicationId(applicationId)
+                .build());
+    }
+
+    private static Mono<UploadApplicationResponse> requestUploadApplication(CloudFoundryClient cloudFoundryClient, String applicationId, Flux<byte[]> bits) {
+        return cloudFoundryClient.applicationsV2()
+            .upload(UploadApplicationRequest.builder()
+                .applicationBits(bits)
+                .applicationId(applicationId)
+                .async(true)
+                .build());
+    }
+
+    private static MigrationProgress toProgress(MigrateApplicationRequest request, AtomicLong bytesTransferred, Instant start, boolean complete) {
+        return MigrationProgress.builder()
+            .bytesTransferred(bytesTransferred.get())
+            .complete(complete)
+            .elapsed(Duration.between(start, Instant.now()))
+            .sourceApplicationId(request.getSourceApplicationId())
+            .targetApplicationId(request.getTargetApplicationId())
+            .build();
+    }
+
+}
@@ -122,6 +122,14 @@ public interface Applications {
      */
     Mono<Void> push(PushApplicationRequest request);
 
+    /**
+     * Push several applications, overlapping the stages of different applications' pushes.  A failure to push one application does not stop the others.
+     *
+     * @param request the push applications request
+     * @return the result of each application's push, as it completes
+     */
+    Flux<PushApplicationResult> pushAll(PushApplicationsRequest request);
+
     /**
      * Rename a specific application
      *
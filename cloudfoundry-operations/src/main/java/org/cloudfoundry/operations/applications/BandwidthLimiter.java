@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.operations.applications;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the combined throughput of any number of transfers.  Each transfer reserves time on a shared schedule for the bytes it is about to send, and waits until the reservation starts.
+ */
+final class BandwidthLimiter {
+
+    private final long bytesPerSecond;
+
+    private final AtomicLong next = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Creates a new instance
+     *
+     * @param bytesPerSecond the maximum combined throughput, in bytes per second, or zero for no limit
+     */
+    BandwidthLimiter(long bytesPerSecond) {
+        if (bytesPerSecond < 0) {
+            throw new IllegalArgumentException("Bandwidth must not be negative");
+        }
+
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    /**
+     * Waits until a number of bytes may be sent
+     *
+     * @param bytes the number of bytes to send
+     * @return completes when the bytes may be sent
+     */
+    Mono<Void> acquire(int bytes) {
+        if (this.bytesPerSecond == 0) {
+            return Mono.empty();
+        }
+
+        long cost = bytes * TimeUnit.SECONDS.toNanos(1) / this.bytesPerSecond;
+        long now = System.nanoTime();
+        long start = Math.max(this.next.getAndUpdate(reserved -> Math.max(reserved, now) + cost), now);
+
+        return start <= now ? Mono.empty() : Mono.delay(Duration.ofNanos(start - now)).then();
+    }
+
+}
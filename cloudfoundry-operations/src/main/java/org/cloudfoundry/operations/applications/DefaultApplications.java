@@ -80,6 +80,7 @@ import org.cloudfoundry.doppler.EventType;
 import org.cloudfoundry.doppler.LogMessage;
 import org.cloudfoundry.doppler.RecentLogsRequest;
 import org.cloudfoundry.doppler.StreamRequest;
+import org.cloudfoundry.util.CompressedApplication;
 import org.cloudfoundry.util.DateUtils;
 import org.cloudfoundry.util.DelayTimeoutException;
 import org.cloudfoundry.util.ExceptionUtils;
@@ -87,9 +88,11 @@ import org.cloudfoundry.util.FileUtils;
 import org.cloudfoundry.util.FluentMap;
 import org.cloudfoundry.util.JobUtils;
 import org.cloudfoundry.util.PaginationUtils;
+import org.cloudfoundry.util.ResourceCache;
 import org.cloudfoundry.util.ResourceMatchingUtils;
 import org.cloudfoundry.util.ResourceUtils;
 import org.cloudfoundry.util.SortingUtils;
+import org.cloudfoundry.util.StatusPoller;
 import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -109,17 +112,22 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
-import static org.cloudfoundry.util.DelayUtils.exponentialBackOff;
 import static org.cloudfoundry.util.tuple.TupleUtils.function;
 import static org.cloudfoundry.util.tuple.TupleUtils.predicate;
 
 public final class DefaultApplications implements Applications {
 
+    private static final int CF_APP_BITS_UPLOAD_INVALID = 160001;
+
     private static final int CF_APP_STOPPED_STATS_ERROR = 200003;
 
     private static final int CF_BUILDPACK_COMPILED_FAILED = 170004;
@@ -130,6 +138,12 @@ public final class DefaultApplications implements Applications {
 
     private static final int CF_STAGING_TIME_EXPIRED = 170007;
 
+    private static final int DEFAULT_PREPARE_CONCURRENCY = 4;
+
+    private static final int DEFAULT_START_CONCURRENCY = 8;
+
+    private static final int DEFAULT_UPLOAD_CONCURRENCY = 2;
+
     private static final Comparator<LogMessage> LOG_MESSAGE_COMPARATOR = Comparator.comparing(LogMessage::getTimestamp);
 
     private static final Duration LOG_MESSAGE_TIMESPAN = Duration.ofMillis(500);
@@ -146,17 +160,28 @@ public final class DefaultApplications implements Applications {
 
     private final RandomWords randomWords;
 
+    private final ResourceCache resourceCache;
+
     private final Mono<String> spaceId;
 
     public DefaultApplications(Mono<CloudFoundryClient> cloudFoundryClient, Mono<DopplerClient> dopplerClient, Mono<String> spaceId) {
-        this(cloudFoundryClient, dopplerClient, spaceId, new WordListRandomWords());
+        this(cloudFoundryClient, dopplerClient, null, spaceId);
+    }
+
+    public DefaultApplications(Mono<CloudFoundryClient> cloudFoundryClient, Mono<DopplerClient> dopplerClient, ResourceCache resourceCache, Mono<String> spaceId) {
+        this(cloudFoundryClient, dopplerClient, resourceCache, spaceId, new WordListRandomWords());
     }
 
     DefaultApplications(Mono<CloudFoundryClient> cloudFoundryClient, Mono<DopplerClient> dopplerClient, Mono<String> spaceId, RandomWords randomWords) {
+        this(cloudFoundryClient, dopplerClient, null, spaceId, randomWords);
+    }
+
+    DefaultApplications(Mono<CloudFoundryClient> cloudFoundryClient, Mono<DopplerClient> dopplerClient, ResourceCache resourceCache, Mono<String> spaceId, RandomWords randomWords) {
         this.cloudFoundryClient = cloudFoundryClient;
         this.dopplerClient = dopplerClient;
-        this.spaceId = spaceId;
         this.randomWords = randomWords;
+        this.resourceCache = resourceCache;
+        this.spaceId = spaceId;
     }
 
     @Override
@@ -171,7 +196,7 @@ public final class DefaultApplications implements Applications {
             .then(function((cloudFoundryClient, sourceApplicationId, targetApplicationId) -> copyBits(cloudFoundryClient, sourceApplicationId, targetApplicationId)
                 .then(Mono.just(Tuples.of(cloudFoundryClient, targetApplicationId)))))
             .filter(predicate((cloudFoundryClient, targetApplicationId) -> Optional.ofNullable(request.getRestart()).orElse(false)))
-            .then(function((cloudFoundryClient, targetApplicationId) -> restartApplication(cloudFoundryClient, request.getTargetName(), targetApplicationId, request.getStagingTimeout(),
+            .then(function((cloudFoundryClient, targetApplicationId) -> restartApplication(cloudFoundryClient, this.dopplerClient, request.getTargetName(), targetApplicationId, request.getStagingTimeout(),
                 request.getStartupTimeout())))
             .checkpoint();
     }
@@ -307,23 +332,26 @@ public final class DefaultApplications implements Applications {
     @Override
     public Mono<Void> push(PushApplicationRequest request) {
         if (request.getApplication() != null) {
-            return this.cloudFoundryClient
-                .then(cloudFoundryClient -> Mono.when(
-                    Mono.just(cloudFoundryClient),
-                    this.spaceId,
-                    getOptionalStackId(cloudFoundryClient, request.getStack())
-                ))
-                .then(function((cloudFoundryClient, spaceId, stackId) -> Mono.when(
-                    Mono.just(cloudFoundryClient),
-                    getApplicationId(cloudFoundryClient, request, spaceId, stackId.orElse(null)),
-                    ResourceMatchingUtils.getMatchedResources(cloudFoundryClient, request.getApplication()),
-                    Mono.just(spaceId)
-                )))
-                .then(function((cloudFoundryClient, applicationId, matchedResources, spaceId) -> prepareDomainsAndRoutes(cloudFoundryClient, request, applicationId, spaceId, this.randomWords)
-                    .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId, matchedResources)))))
-                .then(function((cloudFoundryClient, applicationId, matchedResources) -> uploadApplicationAndWait(cloudFoundryClient, applicationId, request.getApplication(), matchedResources)
-                    .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId)))))
-                .then(function((cloudFoundryClient, applicationId) -> stopAndStartApplication(cloudFoundryClient, applicationId, request)))
+            return compressApplication(request.getApplication())
+                .then(compressed -> this.cloudFoundryClient
+                    .then(cloudFoundryClient -> Mono.when(
+                        Mono.just(cloudFoundryClient),
+                        this.spaceId,
+                        getOptionalStackId(cloudFoundryClient, request.getStack())
+                    ))
+                    .then(function((cloudFoundryClient, spaceId, stackId) -> Mono.when(
+                        Mono.just(cloudFoundryClient),
+                        getApplicationId(cloudFoundryClient, request, spaceId, stackId.orElse(null)),
+                        getMatchedResources(cloudFoundryClient, request.getApplication(), compressed, this.resourceCache),
+                        Mono.just(spaceId)
+                    )))
+                    .then(function((cloudFoundryClient, applicationId, matchedResources, spaceId) -> prepareDomainsAndRoutes(cloudFoundryClient, request, applicationId, spaceId, this.randomWords)
+                        .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId, matchedResources)))))
+                    .then(function((cloudFoundryClient, applicationId, matchedResources) -> uploadApplicationAndWait(cloudFoundryClient, applicationId, request.getApplication(), compressed,
+                        matchedResources, this.resourceCache)
+                        .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId)))))
+                    .then(function((cloudFoundryClient, applicationId) -> stopAndStartApplication(cloudFoundryClient, this.dopplerClient, applicationId, request)))
+                    .doAfterTerminate((v, t) -> compressed.ifPresent(CompressedApplication::close)))
                 .checkpoint();
         } else if (request.getDockerImage() != null) {
             return this.cloudFoundryClient
@@ -339,13 +367,33 @@ public final class DefaultApplications implements Applications {
                 )))
                 .then(function((cloudFoundryClient, applicationId, spaceId) -> prepareDomainsAndRoutes(cloudFoundryClient, request, applicationId, spaceId, this.randomWords)
                     .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId)))))
-                .then(function((cloudFoundryClient, applicationId) -> stopAndStartApplication(cloudFoundryClient, applicationId, request)))
+                .then(function((cloudFoundryClient, applicationId) -> stopAndStartApplication(cloudFoundryClient, this.dopplerClient, applicationId, request)))
                 .checkpoint();
         } else {
             throw new IllegalStateException("One of application or dockerImage must be supplied");
         }
     }
 
+    @Override
+    public Flux<PushApplicationResult> pushAll(PushApplicationsRequest request) {
+        return Mono
+            .when(this.cloudFoundryClient, this.spaceId)
+            .flatMap(function((cloudFoundryClient, spaceId) -> {
+                PushLookups lookups = new PushLookups(cloudFoundryClient, spaceId);
+
+                return Flux.fromIterable(request.getApplications())
+                    .map(PushProgress::new)
+                    .flatMap(progress -> prepareApplication(cloudFoundryClient, lookups, progress, spaceId, this.randomWords, this.resourceCache),
+                        Optional.ofNullable(request.getPrepareConcurrency()).orElse(DEFAULT_PREPARE_CONCURRENCY))
+                    .flatMap(progress -> uploadPushedApplication(cloudFoundryClient, progress, this.resourceCache),
+                        Optional.ofNullable(request.getUploadConcurrency()).orElse(DEFAULT_UPLOAD_CONCURRENCY))
+                    .flatMap(progress -> startPushedApplication(cloudFoundryClient, this.dopplerClient, progress),
+                        Optional.ofNullable(request.getStartConcurrency()).orElse(DEFAULT_START_CONCURRENCY))
+                    .map(PushProgress::toResult);
+            }))
+            .checkpoint();
+    }
+
     @Override
     public Mono<Void> rename(RenameApplicationRequest request) {
         return Mono
@@ -367,7 +415,7 @@ public final class DefaultApplications implements Applications {
                 Mono.just(cloudFoundryClient),
                 getApplicationId(cloudFoundryClient, request.getName(), spaceId)
             )))
-            .then(function((cloudFoundryClient, applicationId) -> restageApplication(cloudFoundryClient, request.getName(), applicationId, request.getStagingTimeout(), request.getStartupTimeout())))
+            .then(function((cloudFoundryClient, applicationId) -> restageApplication(cloudFoundryClient, this.dopplerClient, request.getName(), applicationId, request.getStagingTimeout(), request.getStartupTimeout())))
             .checkpoint();
     }
 
@@ -383,7 +431,7 @@ public final class DefaultApplications implements Applications {
                 Mono.just(cloudFoundryClient),
                 stopApplicationIfNotStopped(cloudFoundryClient, resource)
             )))
-            .then(function((cloudFoundryClient, stoppedApplication) -> startApplicationAndWait(cloudFoundryClient, request.getName(), ResourceUtils.getId(stoppedApplication),
+            .then(function((cloudFoundryClient, stoppedApplication) -> startApplicationAndWait(cloudFoundryClient, this.dopplerClient, request.getName(), ResourceUtils.getId(stoppedApplication),
                 request.getStagingTimeout(), request.getStartupTimeout())))
             .checkpoint();
     }
@@ -414,7 +462,7 @@ public final class DefaultApplications implements Applications {
                 requestUpdateApplicationScale(cloudFoundryClient, applicationId, request.getDiskLimit(), request.getInstances(), request.getMemoryLimit())
             )))
             .filter(predicate((cloudFoundryClient, resource) -> isRestartRequired(request, resource)))
-            .then(function((cloudFoundryClient, resource) -> restartApplication(cloudFoundryClient, request.getName(), ResourceUtils.getId(resource), request.getStagingTimeout(),
+            .then(function((cloudFoundryClient, resource) -> restartApplication(cloudFoundryClient, this.dopplerClient, request.getName(), ResourceUtils.getId(resource), request.getStagingTimeout(),
                 request.getStartupTimeout())))
             .checkpoint();
     }
@@ -463,7 +511,7 @@ public final class DefaultApplications implements Applications {
                 Mono.just(cloudFoundryClient),
                 getApplicationIdWhere(cloudFoundryClient, request.getName(), spaceId, isNotIn(STARTED_STATE))
             )))
-            .then(function((cloudFoundryClient, applicationId) -> startApplicationAndWait(cloudFoundryClient, request.getName(), applicationId, request.getStagingTimeout(),
+            .then(function((cloudFoundryClient, applicationId) -> startApplicationAndWait(cloudFoundryClient, this.dopplerClient, request.getName(), applicationId, request.getStagingTimeout(),
                 request.getStartupTimeout())))
             .checkpoint();
     }
@@ -520,6 +568,15 @@ public final class DefaultApplications implements Applications {
         };
     }
 
+    private static Mono<Optional<CompressedApplication>> compressApplication(Path application) {
+        if (!Files.isDirectory(application)) {
+            return Mono.just(Optional.empty());
+        }
+
+        return CompressedApplication.of(application)
+            .map(Optional::of);
+    }
+
     private static ApplicationEvent convertToApplicationEvent(EventResource resource) {
         EventEntity entity = resource.getEntity();
         Date timestamp = null;
@@ -698,6 +755,12 @@ public final class DefaultApplications implements Applications {
         return ResourceUtils.getEntity(resource).getEnvironmentJsons();
     }
 
+    private static String getInstancesState(ApplicationInstancesResponse response) {
+        return response.getInstances().values().stream()
+            .map(ApplicationInstanceInfo::getState)
+            .reduce("UNKNOWN", collectStates()::apply);
+    }
+
     private static Flux<LogMessage> getLogs(Mono<DopplerClient> dopplerClient, String applicationId, Boolean recent) {
         if (Optional.ofNullable(recent).orElse(false)) {
             return requestLogsRecent(dopplerClient, applicationId)
@@ -713,6 +776,30 @@ public final class DefaultApplications implements Applications {
         }
     }
 
+    private static Mono<List<ResourceMatchingUtils.ArtifactMetadata>> getMatchedResources(CloudFoundryClient cloudFoundryClient, Path application,
+                                                                                           Optional<CompressedApplication> compressed, ResourceCache resourceCache) {
+        if (resourceCache == null) {
+            return compressed
+                .map(c -> ResourceMatchingUtils.getMatchedResources(cloudFoundryClient, c))
+                .orElseGet(() -> ResourceMatchingUtils.getMatchedResources(cloudFoundryClient, application));
+        }
+
+        return compressed
+            .map(c -> ResourceMatchingUtils.getMatchedResources(cloudFoundryClient, c, resourceCache))
+            .orElseGet(() -> ResourceMatchingUtils.getMatchedResources(cloudFoundryClient, application, resourceCache));
+    }
+
+    private static List<String> getMissingHashes(List<ResourceMatchingUtils.ArtifactMetadata> matchedResources, List<ResourceMatchingUtils.ArtifactMetadata> confirmedResources) {
+        Set<String> confirmedHashes = confirmedResources.stream()
+            .map(ResourceMatchingUtils.ArtifactMetadata::getHash)
+            .collect(Collectors.toSet());
+
+        return matchedResources.stream()
+            .map(ResourceMatchingUtils.ArtifactMetadata::getHash)
+            .filter(hash -> !confirmedHashes.contains(hash))
+            .collect(Collectors.toList());
+    }
+
     @SuppressWarnings("unchecked")
     private static Map<String, Object> getMetadataRequest(EventEntity entity) {
         Map<String, Optional<Object>> metadata = Optional
@@ -763,6 +850,10 @@ public final class DefaultApplications implements Applications {
             .otherwise(NoSuchElementException.class, t -> ExceptionUtils.illegalArgument("Space %s not found", space));
     }
 
+    private static String getPackageState(AbstractApplicationResource resource) {
+        return ResourceUtils.getEntity(resource).getPackageState();
+    }
+
     private static Mono<String> getPrivateDomainId(CloudFoundryClient cloudFoundryClient, String domain, String organizationId) {
         return requestPrivateDomain(cloudFoundryClient, domain, organizationId)
             .map(ResourceUtils::getId)
@@ -862,18 +953,56 @@ public final class DefaultApplications implements Applications {
         return state -> "STAGED".equals(state) || "FAILED".equals(state);
     }
 
+    private static Mono<PushProgress> prepareApplication(CloudFoundryClient cloudFoundryClient, PushLookups lookups, PushProgress progress, String spaceId, RandomWords randomWords,
+                                                         ResourceCache resourceCache) {
+        PushApplicationRequest request = progress.request;
+
+        return pushStage(progress, p -> lookups.getStackId(request.getStack())
+            .then(stackId -> Mono.when(
+                timePushStage(p, PushStage.APPLICATION, getApplicationId(cloudFoundryClient, request, spaceId, stackId.orElse(null))),
+                request.getApplication() == null ? Mono.just(Collections.<ResourceMatchingUtils.ArtifactMetadata>emptyList()) :
+                    timePushStage(p, PushStage.RESOURCE_MATCH, compressApplication(request.getApplication())
+                        .doOnNext(compressed -> p.compressed = compressed)
+                        .then(compressed -> getMatchedResources(cloudFoundryClient, request.getApplication(), compressed, resourceCache)))
+            ))
+            .then(function((applicationId, matchedResources) -> {
+                p.applicationId = applicationId;
+                p.matchedResources = matchedResources;
+
+                return timePushStage(p, PushStage.ROUTE, prepareDomainsAndRoutes(cloudFoundryClient, request, applicationId, spaceId, randomWords, lookups.getDomainId(request.getDomain())));
+            })));
+    }
+
     private static Mono<Void> prepareDomainsAndRoutes(CloudFoundryClient cloudFoundryClient, PushApplicationRequest validRequest, String applicationId, String spaceId, RandomWords randomWords) {
+        return prepareDomainsAndRoutes(cloudFoundryClient, validRequest, applicationId, spaceId, randomWords, getSpaceOrganizationId(cloudFoundryClient, spaceId)
+            .then(organizationId -> getDomainId(cloudFoundryClient, validRequest.getDomain(), organizationId)));
+    }
+
+    private static Mono<Void> prepareDomainsAndRoutes(CloudFoundryClient cloudFoundryClient, PushApplicationRequest validRequest, String applicationId, String spaceId, RandomWords randomWords,
+                                                      Mono<String> domainIdMono) {
         if (Optional.ofNullable(validRequest.getNoRoute()).orElse(false)) {
             return Mono.empty();
         }
 
-        return getSpaceOrganizationId(cloudFoundryClient, spaceId)
-            .then(organizationId -> getDomainId(cloudFoundryClient, validRequest.getDomain(), organizationId))
+        return domainIdMono
             .then(domainId -> getPushRouteId(cloudFoundryClient, domainId, validRequest, spaceId, randomWords))
             .then(routeId -> requestAssociateRoute(cloudFoundryClient, applicationId, routeId))
             .then();
     }
 
+    private static Mono<PushProgress> pushStage(PushProgress progress, Function<PushProgress, Mono<?>> stage) {
+        if (progress.error != null) {
+            return Mono.just(progress);
+        }
+
+        return stage.apply(progress)
+            .then(Mono.just(progress))
+            .otherwise(t -> {
+                progress.error = t;
+                return Mono.just(progress);
+            });
+    }
+
     private static Map<String, Object> removeFromEnvironment(Map<String, Object> environment, String variableName) {
         Map<String, Object> modified = new HashMap<>(environment);
         modified.remove(variableName);
@@ -1231,31 +1360,35 @@ public final class DefaultApplications implements Applications {
             .upload(request);
     }
 
-    private static Mono<Void> restageApplication(CloudFoundryClient cloudFoundryClient, String application, String applicationId, Duration stagingTimeout, Duration startupTimeout) {
+    private static Mono<Void> restageApplication(CloudFoundryClient cloudFoundryClient, Mono<DopplerClient> dopplerClient, String application, String applicationId, Duration stagingTimeout, Duration startupTimeout) {
         return requestRestageApplication(cloudFoundryClient, applicationId)
-            .then(response -> waitForStaging(cloudFoundryClient, application, applicationId, stagingTimeout))
-            .then(waitForRunning(cloudFoundryClient, application, applicationId, startupTimeout));
+            .then(response -> waitForStaging(cloudFoundryClient, dopplerClient, application, applicationId, ResourceUtils.getEntity(response).getSpaceId(), stagingTimeout))
+            .then(waitForRunning(cloudFoundryClient, dopplerClient, application, applicationId, startupTimeout));
     }
 
-    private static Mono<Void> restartApplication(CloudFoundryClient cloudFoundryClient, String application, String applicationId, Duration stagingTimeout, Duration startupTimeout) {
+    private static Mono<Void> restartApplication(CloudFoundryClient cloudFoundryClient, Mono<DopplerClient> dopplerClient, String application, String applicationId, Duration stagingTimeout, Duration startupTimeout) {
         return stopApplication(cloudFoundryClient, applicationId)
-            .then(startApplicationAndWait(cloudFoundryClient, application, applicationId, stagingTimeout, startupTimeout));
+            .then(startApplicationAndWait(cloudFoundryClient, dopplerClient, application, applicationId, stagingTimeout, startupTimeout));
     }
 
     private static Predicate<AbstractApplicationResource> sshEnabled(Boolean enabled) {
         return resource -> enabled.equals(ResourceUtils.getEntity(resource).getEnableSsh());
     }
 
-    private static Mono<Void> startApplicationAndWait(CloudFoundryClient cloudFoundryClient, String application, String applicationId, Duration stagingTimeout, Duration startupTimeout) {
+    private static Mono<Void> startApplicationAndWait(CloudFoundryClient cloudFoundryClient, Mono<DopplerClient> dopplerClient, String application, String applicationId, Duration stagingTimeout, Duration startupTimeout) {
         return requestUpdateApplicationState(cloudFoundryClient, applicationId, STARTED_STATE)
-            .then(response -> waitForStaging(cloudFoundryClient, application, applicationId, stagingTimeout))
-            .then(waitForRunning(cloudFoundryClient, application, applicationId, startupTimeout));
+            .then(response -> waitForStaging(cloudFoundryClient, dopplerClient, application, applicationId, ResourceUtils.getEntity(response).getSpaceId(), stagingTimeout))
+            .then(waitForRunning(cloudFoundryClient, dopplerClient, application, applicationId, startupTimeout));
     }
 
-    private static Mono<Void> stopAndStartApplication(CloudFoundryClient cloudFoundryClient, String applicationId, PushApplicationRequest request) {
+    private static Mono<PushProgress> startPushedApplication(CloudFoundryClient cloudFoundryClient, Mono<DopplerClient> dopplerClient, PushProgress progress) {
+        return pushStage(progress, p -> timePushStage(p, PushStage.START, stopAndStartApplication(cloudFoundryClient, dopplerClient, p.applicationId, p.request)));
+    }
+
+    private static Mono<Void> stopAndStartApplication(CloudFoundryClient cloudFoundryClient, Mono<DopplerClient> dopplerClient, String applicationId, PushApplicationRequest request) {
         return stopApplication(cloudFoundryClient, applicationId)
             .filter(resource -> !Optional.ofNullable(request.getNoStart()).orElse(false))
-            .then(resource -> startApplicationAndWait(cloudFoundryClient, request.getName(), applicationId, request.getStagingTimeout(), request.getStartupTimeout()));
+            .then(resource -> startApplicationAndWait(cloudFoundryClient, dopplerClient, request.getName(), applicationId, request.getStagingTimeout(), request.getStartupTimeout()));
     }
 
     private static Mono<AbstractApplicationResource> stopApplication(CloudFoundryClient cloudFoundryClient, String applicationId) {
@@ -1266,6 +1399,16 @@ public final class DefaultApplications implements Applications {
         return isNotIn(resource, STOPPED_STATE) ? stopApplication(cloudFoundryClient, ResourceUtils.getId(resource)) : Mono.just(resource);
     }
 
+    private static <T> Mono<T> timePushStage(PushProgress progress, PushStage stage, Mono<T> work) {
+        return Mono
+            .defer(() -> {
+                long start = System.nanoTime();
+
+                return work
+                    .doAfterTerminate((v, t) -> progress.stageTimings.put(stage, Duration.ofNanos(System.nanoTime() - start)));
+            });
+    }
+
     private static ApplicationDetail toApplicationDetail(SummaryApplicationResponse summaryApplicationResponse, GetStackResponse getStackResponse, List<InstanceDetail> instanceDetails,
                                                          List<String> urls) {
         return ApplicationDetail.builder()
@@ -1389,17 +1532,20 @@ public final class DefaultApplications implements Applications {
             .collectList();
     }
 
-    private static Mono<Void> uploadApplicationAndWait(CloudFoundryClient cloudFoundryClient, String applicationId, Path application, List<ResourceMatchingUtils.ArtifactMetadata> matchedResources) {
+    private static Mono<Void> uploadApplicationAndWait(CloudFoundryClient cloudFoundryClient, String applicationId, Path application, Optional<CompressedApplication> compressed,
+                                                       List<ResourceMatchingUtils.ArtifactMetadata> matchedResources) {
         return Mono
             .defer(() -> {
-                if (matchedResources.isEmpty()) {
+                if (matchedResources.isEmpty() && !compressed.isPresent()) {
                     return requestUploadApplication(cloudFoundryClient, applicationId, application, matchedResources);
                 } else {
                     List<String> paths = matchedResources.stream()
                         .map(ResourceMatchingUtils.ArtifactMetadata::getPath)
                         .collect(Collectors.toList());
 
-                    return FileUtils.compress(application, p -> !paths.contains(p))
+                    return compressed
+                        .map(c -> c.write(p -> !paths.contains(p)))
+                        .orElseGet(() -> FileUtils.compress(application, p -> !paths.contains(p)))
                         .then(filteredApplication -> requestUploadApplication(cloudFoundryClient, applicationId, filteredApplication, matchedResources)
                             .doOnTerminate((v, t) -> {
                                 try {
@@ -1413,32 +1559,125 @@ public final class DefaultApplications implements Applications {
             .then(job -> JobUtils.waitForCompletion(cloudFoundryClient, job));
     }
 
-    private static Mono<Void> waitForRunning(CloudFoundryClient cloudFoundryClient, String application, String applicationId, Duration startupTimeout) {
+    private static Mono<Void> uploadApplicationAndWait(CloudFoundryClient cloudFoundryClient, String applicationId, Path application, Optional<CompressedApplication> compressed,
+                                                       List<ResourceMatchingUtils.ArtifactMetadata> matchedResources, ResourceCache resourceCache) {
+        if (resourceCache == null || matchedResources.isEmpty()) {
+            return uploadApplicationAndWait(cloudFoundryClient, applicationId, application, compressed, matchedResources);
+        }
+
+        return uploadApplicationAndWait(cloudFoundryClient, applicationId, application, compressed, matchedResources)
+            .otherwise(ExceptionUtils.statusCode(CF_APP_BITS_UPLOAD_INVALID), t -> ResourceMatchingUtils.getMatchedResources(cloudFoundryClient, matchedResources)
+                .then(confirmedResources -> {
+                    List<String> missingHashes = getMissingHashes(matchedResources, confirmedResources);
+
+                    if (missingHashes.isEmpty()) {
+                        return Mono.<Void>error(t);
+                    }
+
+                    resourceCache.remove(missingHashes);
+                    return uploadApplicationAndWait(cloudFoundryClient, applicationId, application, compressed, confirmedResources);
+                }));
+    }
+
+    private static Mono<PushProgress> uploadPushedApplication(CloudFoundryClient cloudFoundryClient, PushProgress progress, ResourceCache resourceCache) {
+        if (progress.request.getApplication() == null) {
+            return Mono.just(progress);
+        }
+
+        return pushStage(progress, p -> timePushStage(p, PushStage.UPLOAD, uploadApplicationAndWait(cloudFoundryClient, p.applicationId, p.request.getApplication(), p.compressed,
+            p.matchedResources, resourceCache)))
+            .doOnNext(PushProgress::close);
+    }
+
+    private static Mono<Void> waitForRunning(CloudFoundryClient cloudFoundryClient, Mono<DopplerClient> dopplerClient, String application, String applicationId, Duration startupTimeout) {
         Duration timeout = Optional.ofNullable(startupTimeout).orElse(Duration.ofMinutes(5));
 
-        return requestApplicationInstances(cloudFoundryClient, applicationId)
-            .flatMap(response -> Flux.fromIterable(response.getInstances().values()))
-            .map(ApplicationInstanceInfo::getState)
-            .reduce("UNKNOWN", collectStates())
-            .filter(isInstanceComplete())
-            .repeatWhenEmpty(exponentialBackOff(Duration.ofSeconds(1), Duration.ofSeconds(15), timeout))
+        return ReadinessDetector
+            .waitFor(requestLogsStream(dopplerClient, applicationId), ReadinessDetector.isInstanceSignal(), requestApplicationInstances(cloudFoundryClient, applicationId).map(DefaultApplications::getInstancesState),
+                isInstanceComplete(), remaining -> StatusPoller.of(cloudFoundryClient)
+                    .waitForApplicationInstances(applicationId, response -> isInstanceComplete().test(getInstancesState(response)), remaining)
+                    .map(DefaultApplications::getInstancesState),
+                timeout)
             .filter(isRunning())
             .otherwiseIfEmpty(ExceptionUtils.illegalState("Application %s failed during start", application))
             .otherwise(DelayTimeoutException.class, t -> ExceptionUtils.illegalState("Application %s timed out during start", application))
             .then();
     }
 
-    private static Mono<Void> waitForStaging(CloudFoundryClient cloudFoundryClient, String application, String applicationId, Duration stagingTimeout) {
+    private static Mono<Void> waitForStaging(CloudFoundryClient cloudFoundryClient, Mono<DopplerClient> dopplerClient, String application, String applicationId, String spaceId, Duration stagingTimeout) {
         Duration timeout = Optional.ofNullable(stagingTimeout).orElse(Duration.ofMinutes(15));
 
-        return requestGetApplication(cloudFoundryClient, applicationId)
-            .map(response -> ResourceUtils.getEntity(response).getPackageState())
-            .filter(isStagingComplete())
-            .repeatWhenEmpty(exponentialBackOff(Duration.ofSeconds(1), Duration.ofSeconds(15), timeout))
+        return ReadinessDetector
+            .waitFor(requestLogsStream(dopplerClient, applicationId), ReadinessDetector.isStagingSignal(), requestGetApplication(cloudFoundryClient, applicationId).map(DefaultApplications::getPackageState),
+                isStagingComplete(), remaining -> StatusPoller.of(cloudFoundryClient)
+                    .waitForApplicationPackageState(spaceId, applicationId, isStagingComplete(), remaining),
+                timeout)
             .filter(isStaged())
             .otherwiseIfEmpty(ExceptionUtils.illegalState("Application %s failed during staging", application))
             .otherwise(DelayTimeoutException.class, t -> ExceptionUtils.illegalState("Application %s timed out during staging", application))
             .then();
     }
 
+    private static final class PushLookups {
+
+        private final CloudFoundryClient cloudFoundryClient;
+
+        private final ConcurrentMap<String, Mono<String>> domainIds = new ConcurrentHashMap<>();
+
+        private final Mono<String> organizationId;
+
+        private final ConcurrentMap<String, Mono<Optional<String>>> stackIds = new ConcurrentHashMap<>();
+
+        private PushLookups(CloudFoundryClient cloudFoundryClient, String spaceId) {
+            this.cloudFoundryClient = cloudFoundryClient;
+            this.organizationId = getSpaceOrganizationId(cloudFoundryClient, spaceId).cache();
+        }
+
+        private Mono<String> getDomainId(String domain) {
+            return this.domainIds.computeIfAbsent(Optional.ofNullable(domain).orElse(""), key -> this.organizationId
+                .then(organizationId -> DefaultApplications.getDomainId(this.cloudFoundryClient, domain, organizationId))
+                .cache());
+        }
+
+        private Mono<Optional<String>> getStackId(String stack) {
+            return this.stackIds.computeIfAbsent(Optional.ofNullable(stack).orElse(""), key -> getOptionalStackId(this.cloudFoundryClient, stack).cache());
+        }
+
+    }
+
+    private static final class PushProgress {
+
+        private final PushApplicationRequest request;
+
+        private final Map<PushStage, Duration> stageTimings = new ConcurrentHashMap<>();
+
+        private volatile String applicationId;
+
+        private volatile Optional<CompressedApplication> compressed = Optional.empty();
+
+        private volatile Throwable error;
+
+        private volatile List<ResourceMatchingUtils.ArtifactMetadata> matchedResources;
+
+        private PushProgress(PushApplicationRequest request) {
+            this.request = request;
+        }
+
+        private void close() {
+            this.compressed.ifPresent(CompressedApplication::close);
+        }
+
+        private PushApplicationResult toResult() {
+            close();
+
+            return PushApplicationResult.builder()
+                .applicationId(this.applicationId)
+                .error(this.error)
+                .name(this.request.getName())
+                .putAllStageTimings(this.stageTimings)
+                .build();
+        }
+
+    }
+
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations.applications;
+
+/**
+ * The stages an application passes through when pushed with the push applications operation
+ */
+public enum PushStage {
+
+    /**
+     * Creating or updating the application
+     */
+    APPLICATION,
+
+    /**
+     * Hashing the application's files and matching them against the resource cache
+     */
+    RESOURCE_MATCH,
+
+    /**
+     * Creating and mapping the application's route
+     */
+    ROUTE,
+
+    /**
+     * Compressing and uploading the application's bits, and waiting for the upload to complete
+     */
+    UPLOAD,
+
+    /**
+     * Stopping, starting, and waiting for the application to stage and run
+     */
+    START
+
+}
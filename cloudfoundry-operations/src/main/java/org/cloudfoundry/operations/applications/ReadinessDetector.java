@@ -0,0 +1,135 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations.applications;
+
+import org.cloudfoundry.doppler.Envelope;
+import org.cloudfoundry.doppler.EventType;
+import org.cloudfoundry.doppler.LogMessage;
+import org.cloudfoundry.util.DelayTimeoutException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Detects application state changes from the application's Doppler stream.  Signals in the stream, such as staging completing or an instance becoming healthy, trigger a single targeted check of
+ * the application's state.  A slow safety check guards against signals that are missed while the stream is connecting.  If the stream is unavailable, waiting falls back to polling.
+ */
+final class ReadinessDetector {
+
+    static final Duration SAFETY_INTERVAL = Duration.ofSeconds(15);
+
+    private static final Object INITIAL = new Object();
+
+    private static final List<String> INSTANCE_SIGNALS = Arrays.asList("container became healthy", "exited", "crashed", "successfully created container");
+
+    private static final List<String> STAGING_SIGNALS = Arrays.asList("staging complete", "staging failed", "uploading complete", "successfully destroyed container");
+
+    private ReadinessDetector() {
+    }
+
+    /**
+     * Returns a predicate that matches stream signals that an application instance may have changed state.  Container metrics are not signals: they are emitted periodically by every running
+     * instance and would trigger a state check on each metric.
+     *
+     * @return a predicate that matches instance signals
+     */
+    static Predicate<Envelope> isInstanceSignal() {
+        return envelope -> isLogMessage(envelope, INSTANCE_SIGNALS, "API", "CELL", "DEA");
+    }
+
+    /**
+     * Returns a predicate that matches stream signals that application staging may have completed
+     *
+     * @return a predicate that matches staging signals
+     */
+    static Predicate<Envelope> isStagingSignal() {
+        return envelope -> isLogMessage(envelope, STAGING_SIGNALS, "STG");
+    }
+
+    /**
+     * Waits for a state check to satisfy a predicate, checking when the stream signals a possible state change
+     *
+     * @param stream   the application's stream
+     * @param signal   the predicate that matches signals in the stream
+     * @param check    the check of the current state
+     * @param complete the predicate the state must satisfy
+     * @param fallback the wait to fall back to if the stream is unavailable, given the remaining timeout
+     * @param timeout  the maximum amount of time to wait for
+     * @param <T>      the type of the state
+     * @return the state that satisfied the predicate, or a {@link DelayTimeoutException} if the timeout passes first
+     */
+    static <T> Mono<T> waitFor(Flux<Envelope> stream, Predicate<Envelope> signal, Mono<T> check, Predicate<T> complete, Function<Duration, Mono<T>> fallback, Duration timeout) {
+        return Mono
+            .defer(() -> {
+                Instant finish = Instant.now().plus(timeout);
+
+                Flux<Object> signals = stream
+                    .filter(signal)
+                    .cast(Object.class)
+                    .onErrorResumeWith(t -> Flux.error(new StreamUnavailableException(t)))
+                    .concatWith(Mono.error(new StreamUnavailableException(null)));
+
+                return Flux.<Object>merge(Mono.just(INITIAL), signals, Flux.interval(SAFETY_INTERVAL))
+                    .onBackpressureLatest()
+                    .concatMap(trigger -> check, 1)
+                    .filter(complete)
+                    .next()
+                    .timeout(timeout)
+                    .otherwise(TimeoutException.class, t -> Mono.error(new DelayTimeoutException()))
+                    .otherwise(StreamUnavailableException.class, t -> fallback.apply(getRemaining(finish)));
+            });
+    }
+
+    private static Duration getRemaining(Instant finish) {
+        Duration remaining = Duration.between(Instant.now(), finish);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    private static boolean isLogMessage(Envelope envelope, List<String> messages, String... sourceTypes) {
+        if (EventType.LOG_MESSAGE != envelope.getEventType()) {
+            return false;
+        }
+
+        LogMessage logMessage = envelope.getLogMessage();
+        if (logMessage == null || !Arrays.asList(sourceTypes).contains(logMessage.getSourceType())) {
+            return false;
+        }
+
+        String message = logMessage.getMessage().toLowerCase(Locale.ENGLISH);
+        return messages.stream()
+            .anyMatch(message::contains);
+    }
+
+    private static final class StreamUnavailableException extends RuntimeException {
+
+        private static final long serialVersionUID = -4617408416095328224L;
+
+        private StreamUnavailableException(Throwable cause) {
+            super("Application stream unavailable", cause);
+        }
+
+    }
+
+}
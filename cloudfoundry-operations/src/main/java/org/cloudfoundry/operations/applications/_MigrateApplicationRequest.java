@@ -0,0 +1,38 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.operations.applications;
+
+import org.immutables.value.Value;
+
+/**
+ * The request options for migrating an application's bits between foundations
+ */
+@Value.Immutable
+abstract class _MigrateApplicationRequest {
+
+    /**
+     * The id of the application in the source foundation
+     */
+    abstract String getSourceApplicationId();
+
+    /**
+     * The id of the application in the target foundation
+     */
+    abstract String getTargetApplicationId();
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations.applications;
+
+import org.cloudfoundry.Nullable;
+import org.immutables.value.Value;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The result of pushing one application with the push applications operation
+ */
+@Value.Immutable
+abstract class _PushApplicationResult {
+
+    /**
+     * The id of the application, if it was created
+     */
+    @Nullable
+    abstract String getApplicationId();
+
+    /**
+     * The error that stopped the push, if it failed
+     */
+    @Nullable
+    abstract Throwable getError();
+
+    /**
+     * The name of the application
+     */
+    abstract String getName();
+
+    /**
+     * The time taken by each stage of the push that ran
+     */
+    abstract Map<PushStage, Duration> getStageTimings();
+
+    /**
+     * Whether the push succeeded
+     */
+    @Value.Derived
+    boolean isSuccessful() {
+        return getError() == null;
+    }
+
+}
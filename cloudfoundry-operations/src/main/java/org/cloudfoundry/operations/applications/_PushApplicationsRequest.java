@@ -0,0 +1,68 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations.applications;
+
+import org.cloudfoundry.Nullable;
+import org.immutables.value.Value;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The request options for the push applications operation
+ */
+@Value.Immutable
+abstract class _PushApplicationsRequest {
+
+    @Value.Check
+    void check() {
+        Set<String> names = new HashSet<>();
+
+        getApplications().stream()
+            .map(PushApplicationRequest::getName)
+            .filter(name -> !names.add(name))
+            .findFirst()
+            .ifPresent(name -> {
+                throw new IllegalStateException(String.format("Application %s can only be pushed once", name));
+            });
+    }
+
+    /**
+     * The applications to push
+     */
+    abstract List<PushApplicationRequest> getApplications();
+
+    /**
+     * The maximum number of applications created, matched against the resource cache and routed at once.  Defaults to {@code 4}.
+     */
+    @Nullable
+    abstract Integer getPrepareConcurrency();
+
+    /**
+     * The maximum number of applications started, and waited for, at once.  Defaults to {@code 8}.
+     */
+    @Nullable
+    abstract Integer getStartConcurrency();
+
+    /**
+     * The maximum number of applications compressed and uploaded at once.  Defaults to {@code 2}.
+     */
+    @Nullable
+    abstract Integer getUploadConcurrency();
+
+}
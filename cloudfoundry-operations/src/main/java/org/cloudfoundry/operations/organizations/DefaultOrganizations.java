@@ -19,6 +19,7 @@ package org.cloudfoundry.operations.organizations;
 import org.cloudfoundry.client.CloudFoundryClient;
 import org.cloudfoundry.client.v2.featureflags.GetFeatureFlagRequest;
 import org.cloudfoundry.client.v2.featureflags.GetFeatureFlagResponse;
+import org.cloudfoundry.client.v2.organizationquotadefinitions.AbstractOrganizationQuotaDefinition;
 import org.cloudfoundry.client.v2.organizationquotadefinitions.GetOrganizationQuotaDefinitionRequest;
 import org.cloudfoundry.client.v2.organizationquotadefinitions.GetOrganizationQuotaDefinitionResponse;
 import org.cloudfoundry.client.v2.organizationquotadefinitions.ListOrganizationQuotaDefinitionsRequest;
@@ -50,14 +51,18 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple4;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 
 import static org.cloudfoundry.util.tuple.TupleUtils.function;
 import static org.cloudfoundry.util.tuple.TupleUtils.predicate;
 
 public final class DefaultOrganizations implements Organizations {
 
+    private static final List<String> ORGANIZATION_RELATIONS = Arrays.asList("private_domains", "quota_definition", "space_quota_definitions", "spaces");
+
     private static final String SET_ROLES_BY_USERNAME_FEATURE_FLAG = "set_roles_by_username";
 
     private final Mono<CloudFoundryClient> cloudFoundryClient;
@@ -100,7 +105,7 @@ public final class DefaultOrganizations implements Organizations {
         return this.cloudFoundryClient
             .then(cloudFoundryClient -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getOrganization(cloudFoundryClient, request.getName())
+                getOrganizationWithRelations(cloudFoundryClient, request.getName())
             ))
             .then(function((cloudFoundryClient, organizationResource) -> getAuxiliaryContent(cloudFoundryClient, organizationResource)
                 .map(function((domains, organizationQuota, spacesQuotas, spaces) -> toOrganizationDetail(domains, organizationQuota, spacesQuotas, spaces, organizationResource, request)))))
@@ -141,14 +146,12 @@ public final class DefaultOrganizations implements Organizations {
     }
 
     private static Mono<Tuple4<List<String>, OrganizationQuota, List<SpaceQuota>, List<String>>> getAuxiliaryContent(CloudFoundryClient cloudFoundryClient, OrganizationResource organizationResource) {
-        String organizationId = ResourceUtils.getId(organizationResource);
-
         return Mono
             .when(
-                getDomainNames(cloudFoundryClient, organizationId),
+                getDomainNames(cloudFoundryClient, organizationResource),
                 getOrganizationQuota(cloudFoundryClient, organizationResource),
-                getSpaceQuotas(cloudFoundryClient, organizationId),
-                getSpaceNames(cloudFoundryClient, organizationId)
+                getSpaceQuotas(cloudFoundryClient, organizationResource),
+                getSpaceNames(cloudFoundryClient, organizationResource)
             );
     }
 
@@ -157,8 +160,10 @@ public final class DefaultOrganizations implements Organizations {
             .map(ResourceUtils::getId);
     }
 
-    private static Mono<List<String>> getDomainNames(CloudFoundryClient cloudFoundryClient, String organizationId) {
-        return requestListPrivateDomains(cloudFoundryClient, organizationId)
+    private static Mono<List<String>> getDomainNames(CloudFoundryClient cloudFoundryClient, OrganizationResource resource) {
+        return Optional.ofNullable(ResourceUtils.getEntity(resource).getPrivateDomains())
+            .map(Flux::fromIterable)
+            .orElseGet(() -> requestListPrivateDomains(cloudFoundryClient, ResourceUtils.getId(resource)))
             .map(resource -> resource.getEntity().getName())
             .mergeWith(requestListSharedDomains(cloudFoundryClient)
                 .map(resource -> resource.getEntity().getName()))
@@ -182,9 +187,14 @@ public final class DefaultOrganizations implements Organizations {
     }
 
     private static Mono<OrganizationQuota> getOrganizationQuota(CloudFoundryClient cloudFoundryClient, OrganizationResource resource) {
+        OrganizationQuotaDefinitionResource quotaDefinition = ResourceUtils.getEntity(resource).getQuotaDefinition();
+
+        if (quotaDefinition != null) {
+            return Mono.just(toOrganizationQuota(quotaDefinition, resource));
+        }
+
         return requestOrganizationQuotaDefinition(cloudFoundryClient, ResourceUtils.getEntity(resource).getQuotaDefinitionId())
             .map(response -> toOrganizationQuota(response, resource));
-
     }
 
     private static Mono<OrganizationQuotaDefinitionResource> getOrganizationQuotaDefinition(CloudFoundryClient cloudFoundryClient, String quotaDefinitionName) {
@@ -198,14 +208,24 @@ public final class DefaultOrganizations implements Organizations {
             .map(ResourceUtils::getId);
     }
 
-    private static Mono<List<String>> getSpaceNames(CloudFoundryClient cloudFoundryClient, String organizationId) {
-        return requestSpaces(cloudFoundryClient, organizationId)
+    private static Mono<OrganizationResource> getOrganizationWithRelations(CloudFoundryClient cloudFoundryClient, String organization) {
+        return requestOrganizationsWithRelations(cloudFoundryClient, organization)
+            .single()
+            .otherwise(NoSuchElementException.class, t -> ExceptionUtils.illegalArgument("Organization %s does not exist", organization));
+    }
+
+    private static Mono<List<String>> getSpaceNames(CloudFoundryClient cloudFoundryClient, OrganizationResource resource) {
+        return Optional.ofNullable(ResourceUtils.getEntity(resource).getSpaces())
+            .map(Flux::fromIterable)
+            .orElseGet(() -> requestSpaces(cloudFoundryClient, ResourceUtils.getId(resource)))
             .map(resource -> ResourceUtils.getEntity(resource).getName())
             .collectList();
     }
 
-    private static Mono<List<SpaceQuota>> getSpaceQuotas(CloudFoundryClient cloudFoundryClient, String organizationId) {
-        return requestSpaceQuotaDefinitions(cloudFoundryClient, organizationId)
+    private static Mono<List<SpaceQuota>> getSpaceQuotas(CloudFoundryClient cloudFoundryClient, OrganizationResource resource) {
+        return Optional.ofNullable(ResourceUtils.getEntity(resource).getSpaceQuotaDefinitions())
+            .map(Flux::fromIterable)
+            .orElseGet(() -> requestSpaceQuotaDefinitions(cloudFoundryClient, ResourceUtils.getId(resource)))
             .map(DefaultOrganizations::toSpaceQuota)
             .collectList();
     }
@@ -300,6 +320,17 @@ public final class DefaultOrganizations implements Organizations {
                     .build()));
     }
 
+    private static Flux<OrganizationResource> requestOrganizationsWithRelations(CloudFoundryClient cloudFoundryClient, String organizationName) {
+        return PaginationUtils
+            .requestClientV2Resources(page -> cloudFoundryClient.organizations()
+                .list(ListOrganizationsRequest.builder()
+                    .includeRelations(ORGANIZATION_RELATIONS)
+                    .inlineRelationsDepth(1)
+                    .name(organizationName)
+                    .page(page)
+                    .build()));
+    }
+
     private static Flux<SpaceQuotaDefinitionResource> requestSpaceQuotaDefinitions(CloudFoundryClient cloudFoundryClient, String organizationId) {
         return PaginationUtils
             .requestClientV2Resources(page -> cloudFoundryClient.organizations()
@@ -347,16 +378,16 @@ public final class DefaultOrganizations implements Organizations {
             .build();
     }
 
-    private static OrganizationQuota toOrganizationQuota(GetOrganizationQuotaDefinitionResponse response, OrganizationResource resource) {
+    private static OrganizationQuota toOrganizationQuota(AbstractOrganizationQuotaDefinition quotaDefinition, OrganizationResource resource) {
         return OrganizationQuota.builder()
-            .id(ResourceUtils.getId(response))
+            .id(ResourceUtils.getId(quotaDefinition))
             .organizationId(ResourceUtils.getId(resource))
-            .name(ResourceUtils.getEntity(response).getName())
-            .totalMemoryLimit(ResourceUtils.getEntity(response).getMemoryLimit())
-            .instanceMemoryLimit(ResourceUtils.getEntity(response).getInstanceMemoryLimit())
-            .totalRoutes(ResourceUtils.getEntity(response).getTotalRoutes())
-            .totalServiceInstances(ResourceUtils.getEntity(response).getTotalServices())
-            .paidServicePlans(ResourceUtils.getEntity(response).getNonBasicServicesAllowed())
+            .name(ResourceUtils.getEntity(quotaDefinition).getName())
+            .totalMemoryLimit(ResourceUtils.getEntity(quotaDefinition).getMemoryLimit())
+            .instanceMemoryLimit(ResourceUtils.getEntity(quotaDefinition).getInstanceMemoryLimit())
+            .totalRoutes(ResourceUtils.getEntity(quotaDefinition).getTotalRoutes())
+            .totalServiceInstances(ResourceUtils.getEntity(quotaDefinition).getTotalServices())
+            .paidServicePlans(ResourceUtils.getEntity(quotaDefinition).getNonBasicServicesAllowed())
             .build();
     }
 
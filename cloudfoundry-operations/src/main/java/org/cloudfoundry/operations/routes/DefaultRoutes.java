@@ -21,14 +21,17 @@ import org.cloudfoundry.client.v2.Resource;
 import org.cloudfoundry.client.v2.applications.ApplicationResource;
 import org.cloudfoundry.client.v2.applications.AssociateApplicationRouteRequest;
 import org.cloudfoundry.client.v2.applications.AssociateApplicationRouteResponse;
+import org.cloudfoundry.client.v2.applications.ListApplicationsRequest;
 import org.cloudfoundry.client.v2.applications.RemoveApplicationRouteRequest;
 import org.cloudfoundry.client.v2.organizations.ListOrganizationPrivateDomainsRequest;
 import org.cloudfoundry.client.v2.organizations.ListOrganizationSpacesRequest;
 import org.cloudfoundry.client.v2.privatedomains.PrivateDomainResource;
+import org.cloudfoundry.client.v2.routemappings.ListRouteMappingsRequest;
+import org.cloudfoundry.client.v2.routemappings.RouteMappingEntity;
+import org.cloudfoundry.client.v2.routemappings.RouteMappingResource;
 import org.cloudfoundry.client.v2.routes.AbstractRouteResource;
 import org.cloudfoundry.client.v2.routes.CreateRouteResponse;
 import org.cloudfoundry.client.v2.routes.DeleteRouteResponse;
-import org.cloudfoundry.client.v2.routes.ListRouteApplicationsRequest;
 import org.cloudfoundry.client.v2.routes.RouteEntity;
 import org.cloudfoundry.client.v2.routes.RouteExistsRequest;
 import org.cloudfoundry.client.v2.routes.RouteResource;
@@ -46,18 +49,22 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuples;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
 import static org.cloudfoundry.util.tuple.TupleUtils.function;
-import static org.cloudfoundry.util.tuple.TupleUtils.predicate;
 
 public final class DefaultRoutes implements Routes {
 
+    private static final int ROUTE_BATCH_SIZE = 50;
+
     private final Mono<CloudFoundryClient> cloudFoundryClient;
 
     private final Mono<String> organizationId;
@@ -126,12 +133,10 @@ public final class DefaultRoutes implements Routes {
             .when(this.cloudFoundryClient, this.spaceId)
             .flatMap(function((cloudFoundryClient, spaceId) -> requestSpaceRoutes(cloudFoundryClient, spaceId)
                 .filter(route -> isRouteOrphan(ResourceUtils.getEntity(route)))
-                .map(ResourceUtils::getId)
-                .map(routeId -> Tuples.of(cloudFoundryClient, routeId))))
-            .flatMap(function((cloudFoundryClient, routeId) -> getApplications(cloudFoundryClient, routeId)
-                .map(applicationResources -> Tuples.of(cloudFoundryClient, applicationResources, routeId))))
-            .filter(predicate((cloudFoundryClient, applicationResources, routeId) -> isApplicationOrphan(applicationResources)))
-            .flatMap(function((cloudFoundryClient, applicationResources, routeId) -> deleteRoute(cloudFoundryClient, routeId)))
+                .buffer(ROUTE_BATCH_SIZE)
+                .concatMap(routes -> getRouteApplicationIds(cloudFoundryClient, routes)
+                    .flatMapIterable(routeApplicationIds -> getUnmappedRouteIds(routeApplicationIds, routes)))
+                .flatMap(routeId -> deleteRoute(cloudFoundryClient, routeId))))
             .then()
             .checkpoint();
     }
@@ -146,16 +151,20 @@ public final class DefaultRoutes implements Routes {
                     getAllDomains(cloudFoundryClient, organizationId),
                     getAllSpaces(cloudFoundryClient, organizationId)
                 )))
-            .flatMap(function((cloudFoundryClient, domains, spaces) -> getRoutes(cloudFoundryClient, request, this.organizationId, this.spaceId)
-                .map(resource -> Tuples.of(cloudFoundryClient, domains, resource, spaces))))
-            .flatMap(function((cloudFoundryClient, domains, resource, spaces) -> Mono
-                .when(
-                    getApplicationNames(cloudFoundryClient, ResourceUtils.getId(resource)),
-                    getDomainName(domains, ResourceUtils.getEntity(resource).getDomainId()),
-                    Mono.just(resource),
-                    getSpaceName(spaces, ResourceUtils.getEntity(resource).getSpaceId())
-                )))
-            .map(function(DefaultRoutes::toRoute))
+            .flatMap(function((cloudFoundryClient, domains, spaces) -> {
+                Mono<Map<String, String>> applications = getAllApplications(cloudFoundryClient, request, this.organizationId, this.spaceId).cache();
+
+                return getRoutes(cloudFoundryClient, request, this.organizationId, this.spaceId)
+                    .buffer(ROUTE_BATCH_SIZE)
+                    .concatMap(routes -> Mono
+                        .when(
+                            applications,
+                            getRouteApplicationIds(cloudFoundryClient, routes)
+                        )
+                        .flatMap(function((applicationNames, routeApplicationIds) -> Flux.fromIterable(routes)
+                            .map(resource -> toRoute(getApplicationNames(applicationNames, routeApplicationIds, ResourceUtils.getId(resource)),
+                                getDomainName(domains, ResourceUtils.getEntity(resource).getDomainId()), resource, getSpaceName(spaces, ResourceUtils.getEntity(resource).getSpaceId()))))));
+            }))
             .checkpoint();
     }
 
@@ -194,6 +203,21 @@ public final class DefaultRoutes implements Routes {
             .then(job -> JobUtils.waitForCompletion(cloudFoundryClient, job));
     }
 
+    private static Mono<Map<String, String>> getAllApplications(CloudFoundryClient cloudFoundryClient, ListRoutesRequest request, Mono<String> organizationId, Mono<String> spaceId) {
+        Flux<ApplicationResource> applications;
+
+        if (Level.ORGANIZATION == request.getLevel()) {
+            applications = organizationId
+                .flatMap(organizationId1 -> requestOrganizationApplications(cloudFoundryClient, organizationId1));
+        } else {
+            applications = spaceId
+                .flatMap(spaceId1 -> requestSpaceApplications(cloudFoundryClient, spaceId1));
+        }
+
+        return applications
+            .collectMap(ResourceUtils::getId, resource -> ResourceUtils.getEntity(resource).getName());
+    }
+
     private static Mono<Map<String, String>> getAllDomains(CloudFoundryClient cloudFoundryClient, String organizationId) {
         return requestAllPrivateDomains(cloudFoundryClient, organizationId)
             .map(resource -> Tuples.of(ResourceUtils.getId(resource), ResourceUtils.getEntity(resource).getName()))
@@ -219,15 +243,12 @@ public final class DefaultRoutes implements Routes {
             .map(ResourceUtils::getId);
     }
 
-    private static Mono<List<String>> getApplicationNames(CloudFoundryClient cloudFoundryClient, String routeId) {
-        return requestApplications(cloudFoundryClient, routeId)
-            .map(resource -> ResourceUtils.getEntity(resource).getName())
-            .collectList();
-    }
-
-    private static Mono<List<ApplicationResource>> getApplications(CloudFoundryClient cloudFoundryClient, String routeId) {
-        return requestApplications(cloudFoundryClient, routeId)
-            .collectList();
+    private static List<String> getApplicationNames(Map<String, String> applicationNames, Map<String, Collection<String>> routeApplicationIds, String routeId) {
+        return routeApplicationIds.getOrDefault(routeId, Collections.emptyList()).stream()
+            .distinct()
+            .map(applicationNames::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
     }
 
     private static Mono<Resource<?>> getDomain(CloudFoundryClient cloudFoundryClient, String organizationId, String domain) {
@@ -241,8 +262,8 @@ public final class DefaultRoutes implements Routes {
             .map(ResourceUtils::getId);
     }
 
-    private static Mono<String> getDomainName(Map<String, String> domains, String domainId) {
-        return Mono.just(domains.get(domainId));
+    private static String getDomainName(Map<String, String> domains, String domainId) {
+        return domains.get(domainId);
     }
 
     private static Flux<Resource<?>> getDomains(CloudFoundryClient cloudFoundryClient, String organizationId, String domain) {
@@ -282,6 +303,14 @@ public final class DefaultRoutes implements Routes {
         }
     }
 
+    private static Mono<Map<String, Collection<String>>> getRouteApplicationIds(CloudFoundryClient cloudFoundryClient, List<RouteResource> routes) {
+        return requestRouteMappings(cloudFoundryClient, routes.stream()
+            .map(ResourceUtils::getId)
+            .collect(Collectors.toList()))
+            .map(ResourceUtils::getEntity)
+            .collectMultimap(RouteMappingEntity::getRouteId, RouteMappingEntity::getApplicationId);
+    }
+
     private static Mono<String> getRouteId(CloudFoundryClient cloudFoundryClient, String host, String domain, String domainId, String path, Integer port) {
         return getRoute(cloudFoundryClient, domainId, domain, host, path, port)
             .map(ResourceUtils::getId);
@@ -308,12 +337,15 @@ public final class DefaultRoutes implements Routes {
             .map(ResourceUtils::getId);
     }
 
-    private static Mono<String> getSpaceName(Map<String, String> spaces, String spaceId) {
-        return Mono.just(spaces.get(spaceId));
+    private static String getSpaceName(Map<String, String> spaces, String spaceId) {
+        return spaces.get(spaceId);
     }
 
-    private static boolean isApplicationOrphan(List<ApplicationResource> applications) {
-        return applications.isEmpty();
+    private static List<String> getUnmappedRouteIds(Map<String, Collection<String>> routeApplicationIds, List<RouteResource> routes) {
+        return routes.stream()
+            .map(ResourceUtils::getId)
+            .filter(routeId -> !routeApplicationIds.containsKey(routeId))
+            .collect(Collectors.toList());
     }
 
     private static boolean isIdentical(String s, String t) {
@@ -350,15 +382,6 @@ public final class DefaultRoutes implements Routes {
                     .build()));
     }
 
-    private static Flux<ApplicationResource> requestApplications(CloudFoundryClient cloudFoundryClient, String routeId) {
-        return PaginationUtils
-            .requestClientV2Resources(page -> cloudFoundryClient.routes()
-                .listApplications(ListRouteApplicationsRequest.builder()
-                    .routeId(routeId)
-                    .page(page)
-                    .build()));
-    }
-
     private static Flux<ApplicationResource> requestApplications(CloudFoundryClient cloudFoundryClient, String application, String spaceId) {
         return PaginationUtils
             .requestClientV2Resources(page -> cloudFoundryClient.spaces()
@@ -405,6 +428,15 @@ public final class DefaultRoutes implements Routes {
                 .build());
     }
 
+    private static Flux<ApplicationResource> requestOrganizationApplications(CloudFoundryClient cloudFoundryClient, String organizationId) {
+        return PaginationUtils
+            .requestClientV2Resources(page -> cloudFoundryClient.applicationsV2()
+                .list(ListApplicationsRequest.builder()
+                    .organizationId(organizationId)
+                    .page(page)
+                    .build()));
+    }
+
     private static Flux<PrivateDomainResource> requestPrivateDomains(CloudFoundryClient cloudFoundryClient, String organizationId, String domain) {
         return PaginationUtils
             .requestClientV2Resources(page -> cloudFoundryClient.organizations()
@@ -432,6 +464,15 @@ public final class DefaultRoutes implements Routes {
                 .build());
     }
 
+    private static Flux<RouteMappingResource> requestRouteMappings(CloudFoundryClient cloudFoundryClient, List<String> routeIds) {
+        return PaginationUtils
+            .requestClientV2Resources(page -> cloudFoundryClient.routeMappings()
+                .list(ListRouteMappingsRequest.builder()
+                    .page(page)
+                    .routeIds(routeIds)
+                    .build()));
+    }
+
     private static Flux<RouteResource> requestRoutes(CloudFoundryClient cloudFoundryClient, UnaryOperator<org.cloudfoundry.client.v2.routes.ListRoutesRequest.Builder> modifier) {
 
         org.cloudfoundry.client.v2.routes.ListRoutesRequest.Builder listBuilder = modifier.apply(org.cloudfoundry.client.v2.routes.ListRoutesRequest.builder());
@@ -461,6 +502,15 @@ public final class DefaultRoutes implements Routes {
                     .build()));
     }
 
+    private static Flux<ApplicationResource> requestSpaceApplications(CloudFoundryClient cloudFoundryClient, String spaceId) {
+        return PaginationUtils
+            .requestClientV2Resources(page -> cloudFoundryClient.spaces()
+                .listApplications(ListSpaceApplicationsRequest.builder()
+                    .page(page)
+                    .spaceId(spaceId)
+                    .build()));
+    }
+
     private static Flux<RouteResource> requestSpaceRoutes(CloudFoundryClient cloudFoundryClient, String spaceId) {
         return PaginationUtils
             .requestClientV2Resources(page -> cloudFoundryClient.spaces()
@@ -37,7 +37,6 @@ import org.cloudfoundry.client.v2.serviceinstances.AbstractServiceInstanceResour
 import org.cloudfoundry.client.v2.serviceinstances.BaseServiceInstanceEntity;
 import org.cloudfoundry.client.v2.serviceinstances.CreateServiceInstanceResponse;
 import org.cloudfoundry.client.v2.serviceinstances.DeleteServiceInstanceResponse;
-import org.cloudfoundry.client.v2.serviceinstances.GetServiceInstanceResponse;
 import org.cloudfoundry.client.v2.serviceinstances.LastOperation;
 import org.cloudfoundry.client.v2.serviceinstances.ListServiceInstanceServiceKeysRequest;
 import org.cloudfoundry.client.v2.serviceinstances.UnionServiceInstanceEntity;
@@ -54,6 +53,7 @@ import org.cloudfoundry.client.v2.serviceplans.ServicePlanEntity;
 import org.cloudfoundry.client.v2.serviceplans.ServicePlanResource;
 import org.cloudfoundry.client.v2.serviceplanvisibilities.ListServicePlanVisibilitiesRequest;
 import org.cloudfoundry.client.v2.serviceplanvisibilities.ServicePlanVisibilityResource;
+import org.cloudfoundry.client.v2.services.AbstractServiceResource;
 import org.cloudfoundry.client.v2.services.GetServiceRequest;
 import org.cloudfoundry.client.v2.services.GetServiceResponse;
 import org.cloudfoundry.client.v2.services.ServiceEntity;
@@ -70,11 +70,11 @@ import org.cloudfoundry.client.v2.userprovidedserviceinstances.AssociateUserProv
 import org.cloudfoundry.client.v2.userprovidedserviceinstances.CreateUserProvidedServiceInstanceResponse;
 import org.cloudfoundry.client.v2.userprovidedserviceinstances.DeleteUserProvidedServiceInstanceRequest;
 import org.cloudfoundry.client.v2.userprovidedserviceinstances.UpdateUserProvidedServiceInstanceResponse;
-import org.cloudfoundry.util.DelayUtils;
 import org.cloudfoundry.util.ExceptionUtils;
 import org.cloudfoundry.util.JobUtils;
 import org.cloudfoundry.util.PaginationUtils;
 import org.cloudfoundry.util.ResourceUtils;
+import org.cloudfoundry.util.StatusPoller;
 import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -252,7 +252,7 @@ public final class DefaultServices implements Services {
                     Mono.just(resource),
                     Mono.just(Optional.ofNullable(servicePlanEntity.getName())),
                     getBoundApplications(cloudFoundryClient, ResourceUtils.getId(resource)),
-                    getServiceEntity(cloudFoundryClient, Optional.ofNullable(servicePlanEntity.getServiceId()))
+                    getServiceEntity(cloudFoundryClient, servicePlanEntity)
                 )))
             .map(function(DefaultServices::toServiceInstance))
             .checkpoint();
@@ -483,8 +483,7 @@ public final class DefaultServices implements Services {
             return ExceptionUtils.illegalArgument("Plan does not exist for the %s service", serviceInstance.getEntity().getName());
         }
 
-        return getServiceId(cloudFoundryClient, servicePlanId)
-            .then(serviceId -> requestGetService(cloudFoundryClient, serviceId))
+        return getService(cloudFoundryClient, servicePlanId)
             .filter(DefaultServices::isPlanUpdateable)
             .otherwiseIfEmpty(ExceptionUtils.illegalArgument("Plan for the %s service cannot be updated", serviceInstance.getEntity().getName()))
             .flatMap(response -> requestListServicePlans(cloudFoundryClient, ResourceUtils.getId(response)))
@@ -517,6 +516,19 @@ public final class DefaultServices implements Services {
             .map(ResourceUtils::getId);
     }
 
+    private static Mono<AbstractServiceResource> getService(CloudFoundryClient cloudFoundryClient, String servicePlanId) {
+        return requestGetServicePlanWithService(cloudFoundryClient, servicePlanId)
+            .map(ResourceUtils::getEntity)
+            .then(servicePlanEntity -> {
+                if (servicePlanEntity.getService() != null) {
+                    return Mono.<AbstractServiceResource>just(servicePlanEntity.getService());
+                }
+
+                return requestGetService(cloudFoundryClient, servicePlanEntity.getServiceId())
+                    .cast(AbstractServiceResource.class);
+            });
+    }
+
     private static Mono<String> getServiceBindingId(CloudFoundryClient cloudFoundryClient, String applicationId, String serviceInstanceId, String serviceInstanceName) {
         return requestListServiceBindings(cloudFoundryClient, applicationId, serviceInstanceId)
             .singleOrEmpty()
@@ -524,19 +536,18 @@ public final class DefaultServices implements Services {
             .map(ResourceUtils::getId);
     }
 
-    private static Mono<ServiceEntity> getServiceEntity(CloudFoundryClient cloudFoundryClient, Optional<String> serviceId) {
+    private static Mono<ServiceEntity> getServiceEntity(CloudFoundryClient cloudFoundryClient, ServicePlanEntity servicePlanEntity) {
+        if (servicePlanEntity.getService() != null) {
+            return Mono.just(ResourceUtils.getEntity(servicePlanEntity.getService()));
+        }
+
         return Mono
-            .justOrEmpty(serviceId)
-            .then(serviceId1 -> requestGetService(cloudFoundryClient, serviceId1))
+            .justOrEmpty(servicePlanEntity.getServiceId())
+            .then(serviceId -> requestGetService(cloudFoundryClient, serviceId))
             .map(ResourceUtils::getEntity)
             .otherwiseIfEmpty(Mono.just(ServiceEntity.builder().build()));
     }
 
-    private static Mono<String> getServiceId(CloudFoundryClient cloudFoundryClient, String servicePlanId) {
-        return requestGetServicePlan(cloudFoundryClient, servicePlanId)
-            .map(response -> response.getEntity().getServiceId());
-    }
-
     private static Mono<String> getServiceIdByName(CloudFoundryClient cloudFoundryClient, String spaceId, String service) {
         return getSpaceService(cloudFoundryClient, spaceId, service)
             .map(ResourceUtils::getId);
@@ -551,7 +562,7 @@ public final class DefaultServices implements Services {
     private static Mono<ServicePlanEntity> getServicePlanEntity(CloudFoundryClient cloudFoundryClient, String servicePlanId) {
         return Mono
             .justOrEmpty(servicePlanId)
-            .then(servicePlanId1 -> requestGetServicePlan(cloudFoundryClient, servicePlanId1))
+            .then(servicePlanId1 -> requestGetServicePlanWithService(cloudFoundryClient, servicePlanId1))
             .map(ResourceUtils::getEntity)
             .otherwiseIfEmpty(Mono.just(ServicePlanEntity.builder().build()));
     }
@@ -607,7 +618,7 @@ public final class DefaultServices implements Services {
         return !state.equals("in progress");
     }
 
-    private static boolean isPlanUpdateable(GetServiceResponse response) {
+    private static boolean isPlanUpdateable(AbstractServiceResource response) {
         return response.getEntity().getPlanUpdateable();
     }
 
@@ -724,16 +735,11 @@ public final class DefaultServices implements Services {
                 .build());
     }
 
-    private static Mono<GetServiceInstanceResponse> requestGetServiceInstance(CloudFoundryClient cloudFoundryClient, String serviceInstanceId) {
-        return cloudFoundryClient.serviceInstances()
-            .get(org.cloudfoundry.client.v2.serviceinstances.GetServiceInstanceRequest.builder()
-                .serviceInstanceId(serviceInstanceId)
-                .build());
-    }
-
-    private static Mono<GetServicePlanResponse> requestGetServicePlan(CloudFoundryClient cloudFoundryClient, String servicePlanId) {
+    private static Mono<GetServicePlanResponse> requestGetServicePlanWithService(CloudFoundryClient cloudFoundryClient, String servicePlanId) {
         return cloudFoundryClient.servicePlans()
             .get(GetServicePlanRequest.builder()
+                .includeRelation("service")
+                .inlineRelationsDepth(1)
                 .servicePlanId(servicePlanId)
                 .build());
     }
@@ -1010,10 +1016,9 @@ public final class DefaultServices implements Services {
             return Mono.empty();
         }
 
-        return requestGetServiceInstance(cloudFoundryClient, ResourceUtils.getId(serviceInstance))
-            .map(DefaultServices::extractState)
-            .filter(DefaultServices::isNotInProgress)
-            .repeatWhenEmpty(DelayUtils.exponentialBackOff(Duration.ofSeconds(1), Duration.ofSeconds(15), Duration.ofMinutes(5)))
+        return StatusPoller.of(cloudFoundryClient)
+            .waitForServiceInstanceLastOperation(ResourceUtils.getEntity(serviceInstance).getSpaceId(), ResourceUtils.getId(serviceInstance),
+                lastOperation -> isNotInProgress(lastOperation.getState()), Duration.ofMinutes(5))
             .then();
     }
 
@@ -27,6 +27,7 @@ import org.cloudfoundry.client.v2.organizationquotadefinitions.OrganizationQuota
 import org.cloudfoundry.client.v2.organizations.Organizations;
 import org.cloudfoundry.client.v2.privatedomains.PrivateDomains;
 import org.cloudfoundry.client.v2.resourcematch.ResourceMatch;
+import org.cloudfoundry.client.v2.routemappings.RouteMappings;
 import org.cloudfoundry.client.v2.routes.Routes;
 import org.cloudfoundry.client.v2.servicebindings.ServiceBindingsV2;
 import org.cloudfoundry.client.v2.servicebrokers.ServiceBrokers;
@@ -102,6 +103,8 @@ public abstract class AbstractOperationsTest {
 
     protected final RouterGroups routerGroups = mock(RouterGroups.class, RETURNS_SMART_NULLS);
 
+    protected final RouteMappings routeMappings = mock(RouteMappings.class, RETURNS_SMART_NULLS);
+
     protected final Routes routes = mock(Routes.class, RETURNS_SMART_NULLS);
 
     protected final RoutingClient routingClient = mock(RoutingClient.class, RETURNS_SMART_NULLS);
@@ -148,6 +151,7 @@ public abstract class AbstractOperationsTest {
         when(this.cloudFoundryClient.organizationQuotaDefinitions()).thenReturn(this.organizationQuotaDefinitions);
         when(this.cloudFoundryClient.privateDomains()).thenReturn(this.privateDomains);
         when(this.cloudFoundryClient.resourceMatch()).thenReturn(this.resourceMatch);
+        when(this.cloudFoundryClient.routeMappings()).thenReturn(this.routeMappings);
         when(this.cloudFoundryClient.routes()).thenReturn(this.routes);
         when(this.cloudFoundryClient.serviceBindingsV2()).thenReturn(this.serviceBindingsV2);
         when(this.cloudFoundryClient.serviceBrokers()).thenReturn(this.serviceBrokers);
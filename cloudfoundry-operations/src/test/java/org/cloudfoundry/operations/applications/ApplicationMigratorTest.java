@@ -0,0 +1,119 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.operations.applications;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.Metadata;
+import org.cloudfoundry.client.v2.applications.ApplicationsV2;
+import org.cloudfoundry.client.v2.applications.DownloadApplicationRequest;
+import org.cloudfoundry.client.v2.applications.UploadApplicationRequest;
+import org.cloudfoundry.client.v2.applications.UploadApplicationResponse;
+import org.cloudfoundry.client.v2.jobs.JobEntity;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.RETURNS_SMART_NULLS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public final class ApplicationMigratorTest {
+
+    private final ApplicationsV2 sourceApplications = mock(ApplicationsV2.class, RETURNS_SMART_NULLS);
+
+    private final CloudFoundryClient sourceClient = mock(CloudFoundryClient.class, RETURNS_SMART_NULLS);
+
+    private final ApplicationsV2 targetApplications = mock(ApplicationsV2.class, RETURNS_SMART_NULLS);
+
+    private final CloudFoundryClient targetClient = mock(CloudFoundryClient.class, RETURNS_SMART_NULLS);
+
+    private final ApplicationMigrator migrator = new ApplicationMigrator(Mono.just(this.sourceClient), Mono.just(this.targetClient), 0);
+
+    @Test
+    public void migrate() {
+        requestDownload(this.sourceApplications, "test-source-application-id", new byte[100], new byte[200]);
+        requestUpload(this.targetApplications);
+
+        this.migrator
+            .migrate(MigrateApplicationRequest.builder()
+                .sourceApplicationId("test-source-application-id")
+                .targetApplicationId("test-target-application-id")
+                .build())
+            .filter(MigrationProgress::isComplete)
+            .as(StepVerifier::create)
+            .consumeNextWith(progress -> {
+                assertThat(progress.getBytesTransferred()).isEqualTo(300);
+                assertThat(progress.getTargetApplicationId()).isEqualTo("test-target-application-id");
+            })
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void migrateBandwidthLimited() {
+        requestDownload(this.sourceApplications, "test-source-application-id", new byte[1_000], new byte[1_000]);
+        requestUpload(this.targetApplications);
+
+        new ApplicationMigrator(Mono.just(this.sourceClient), Mono.just(this.targetClient), 2_000)
+            .migrate(MigrateApplicationRequest.builder()
+                .sourceApplicationId("test-source-application-id")
+                .targetApplicationId("test-target-application-id")
+                .build())
+            .filter(MigrationProgress::isComplete)
+            .as(StepVerifier::create)
+            .consumeNextWith(progress -> assertThat(progress.getElapsed()).isGreaterThanOrEqualTo(Duration.ofMillis(400)))
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Before
+    public void setUp() {
+        when(this.sourceClient.applicationsV2()).thenReturn(this.sourceApplications);
+        when(this.targetClient.applicationsV2()).thenReturn(this.targetApplications);
+    }
+
+    private static void requestDownload(ApplicationsV2 applications, String applicationId, byte[]... chunks) {
+        when(applications
+            .download(DownloadApplicationRequest.builder()
+                .applicationId(applicationId)
+                .build()))
+            .thenReturn(Flux.just(chunks));
+    }
+
+    private static void requestUpload(ApplicationsV2 applications) {
+        when(applications
+            .upload(any(UploadApplicationRequest.class)))
+            .thenAnswer(invocation -> ((UploadApplicationRequest) invocation.getArguments()[0]).getApplicationBits()
+                .then()
+                .then(Mono.just(UploadApplicationResponse.builder()
+                    .metadata(Metadata.builder()
+                        .id("test-job-id")
+                        .build())
+                    .entity(JobEntity.builder()
+                        .status("finished")
+                        .build())
+                    .build())));
+    }
+
+}
@@ -106,7 +106,9 @@ import org.cloudfoundry.doppler.StreamRequest;
 import org.cloudfoundry.operations.AbstractOperationsTest;
 import org.cloudfoundry.util.DateUtils;
 import org.cloudfoundry.util.FluentMap;
+import org.cloudfoundry.util.ResourceCache;
 import org.cloudfoundry.util.ResourceMatchingUtils;
+import org.junit.Before;
 import org.junit.Test;
 import org.springframework.core.io.ClassPathResource;
 import reactor.core.publisher.Flux;
@@ -128,8 +130,12 @@ import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.cloudfoundry.operations.TestObjects.fill;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.RETURNS_SMART_NULLS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public final class DefaultApplicationsTest extends AbstractOperationsTest {
@@ -139,6 +145,11 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
     private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), Mono.just(TEST_SPACE_ID),
         this.randomWords);
 
+    @Before
+    public void mockStream() {
+        when(this.dopplerClient.stream(any(StreamRequest.class))).thenReturn(Flux.empty());
+    }
+
     @Test
     public void copySourceNoRestartOrgSpace() {
         requestApplications(this.cloudFoundryClient, "test-application-name", TEST_SPACE_ID, "test-metadata-id");
@@ -1091,6 +1102,60 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
             .verify(Duration.ofSeconds(5));
     }
 
+    @Test
+    public void pushAll() {
+        requestApplicationsEmpty(this.cloudFoundryClient, "test-name-1", TEST_SPACE_ID);
+        requestCreateDockerApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
+            .dockerImage("cloudfoundry/lattice-app")
+            .domain("test-domain")
+            .name("test-name-1")
+            .build(), TEST_SPACE_ID, null, "test-application-id-1");
+        requestApplicationsEmpty(this.cloudFoundryClient, "test-name-2", TEST_SPACE_ID);
+        requestCreateDockerApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
+            .dockerImage("cloudfoundry/lattice-app")
+            .domain("test-other-domain")
+            .name("test-name-2")
+            .build(), TEST_SPACE_ID, null, "test-application-id-2");
+        requestSpace(this.cloudFoundryClient, TEST_SPACE_ID, TEST_ORGANIZATION_ID);
+        requestPrivateDomain(this.cloudFoundryClient, "test-domain", TEST_ORGANIZATION_ID, "test-domain-id");
+        requestPrivateDomainNotFound(this.cloudFoundryClient, "test-other-domain", TEST_ORGANIZATION_ID);
+        requestSharedDomainNotFound(this.cloudFoundryClient, "test-other-domain");
+        requestRoutesEmpty(this.cloudFoundryClient, "test-domain-id", "test-name-1", null);
+        requestCreateRoute(this.cloudFoundryClient, "test-domain-id", "test-name-1", null, TEST_SPACE_ID, "test-route-id");
+        requestAssociateRoute(this.cloudFoundryClient, "test-application-id-1", "test-route-id");
+        requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id-1", "STOPPED");
+        requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id-1", "STARTED");
+        requestGetApplication(this.cloudFoundryClient, "test-application-id-1");
+        requestApplicationInstancesRunning(this.cloudFoundryClient, "test-application-id-1");
+
+        this.applications
+            .pushAll(PushApplicationsRequest.builder()
+                .application(PushApplicationRequest.builder()
+                    .dockerImage("cloudfoundry/lattice-app")
+                    .domain("test-domain")
+                    .name("test-name-1")
+                    .build())
+                .application(PushApplicationRequest.builder()
+                    .dockerImage("cloudfoundry/lattice-app")
+                    .domain("test-other-domain")
+                    .name("test-name-2")
+                    .build())
+                .build())
+            .collectMap(PushApplicationResult::getName)
+            .as(StepVerifier::create)
+            .consumeNextWith(results -> {
+                assertThat(results.get("test-name-1").isSuccessful()).isTrue();
+                assertThat(results.get("test-name-1").getApplicationId()).isEqualTo("test-application-id-1");
+                assertThat(results.get("test-name-1").getStageTimings()).containsOnlyKeys(PushStage.APPLICATION, PushStage.ROUTE, PushStage.START);
+
+                assertThat(results.get("test-name-2").isSuccessful()).isFalse();
+                assertThat(results.get("test-name-2").getError()).isInstanceOf(IllegalArgumentException.class).hasMessage("Domain test-other-domain not found");
+                assertThat(results.get("test-name-2").getStageTimings()).doesNotContainKey(PushStage.START);
+            })
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
     @Test
     public void pushDocker() {
         requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
@@ -1574,6 +1639,44 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
             .verify(Duration.ofSeconds(5));
     }
 
+    @Test
+    public void pushResourceCacheUploadFails() throws IOException {
+        Path testApplication = new ClassPathResource("test-application.zip").getFile().toPath();
+
+        ResourceCache resourceCache = new ResourceCache(Duration.ofMinutes(1), 10);
+        resourceCache.add(Arrays.asList("da39a3ee5e6b4b0d3255bfef95601890afd80709", "45044a6ddbfe11415a8f8a6219de68a2c66b496b"));
+
+        DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), resourceCache, Mono.just(TEST_SPACE_ID),
+            this.randomWords);
+
+        requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
+        requestCreateApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
+            .application(testApplication)
+            .domain("test-domain")
+            .name("test-name")
+            .build(), TEST_SPACE_ID, null, "test-application-id");
+        requestSpace(this.cloudFoundryClient, TEST_SPACE_ID, TEST_ORGANIZATION_ID);
+        requestPrivateDomain(this.cloudFoundryClient, "test-domain", TEST_ORGANIZATION_ID, "test-domain-id");
+        requestRoutesEmpty(this.cloudFoundryClient, "test-domain-id", "test-name", null);
+        requestCreateRoute(this.cloudFoundryClient, "test-domain-id", "test-name", null, TEST_SPACE_ID, "test-route-id");
+        requestAssociateRoute(this.cloudFoundryClient, "test-application-id", "test-route-id");
+        requestUploadError(this.cloudFoundryClient);
+
+        applications
+            .push(PushApplicationRequest.builder()
+                .application(testApplication)
+                .domain("test-domain")
+                .name("test-name")
+                .build())
+            .as(StepVerifier::create)
+            .consumeErrorWith(t -> assertThat(t).isInstanceOf(ClientV2Exception.class).hasMessage("CF-AppMemoryQuotaExceeded(100005): You have exceeded your organization's memory limit"))
+            .verify(Duration.ofSeconds(5));
+
+        verify(this.cloudFoundryClient.resourceMatch(), never()).list(any(ListMatchingResourcesRequest.class));
+        verify(this.cloudFoundryClient.applicationsV2()).upload(any(UploadApplicationRequest.class));
+        assertThat(resourceCache.size()).isEqualTo(2);
+    }
+
     @Test
     public void pushSharedDomain() throws IOException {
         Path testApplication = new ClassPathResource("test-application.zip").getFile().toPath();
@@ -1610,6 +1713,51 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
             .verify(Duration.ofSeconds(5));
     }
 
+    @Test
+    public void pushStaleResourceCache() throws IOException {
+        Path testApplication = new ClassPathResource("test-application.zip").getFile().toPath();
+
+        ResourceCache resourceCache = new ResourceCache(Duration.ofMinutes(1), 10);
+        resourceCache.add(Arrays.asList("da39a3ee5e6b4b0d3255bfef95601890afd80709", "45044a6ddbfe11415a8f8a6219de68a2c66b496b"));
+
+        DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), resourceCache, Mono.just(TEST_SPACE_ID),
+            this.randomWords);
+
+        requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
+        requestCreateApplication(this.cloudFoundryClient, PushApplicationRequest.builder()
+            .application(testApplication)
+            .domain("test-domain")
+            .name("test-name")
+            .build(), TEST_SPACE_ID, null, "test-application-id");
+        requestSpace(this.cloudFoundryClient, TEST_SPACE_ID, TEST_ORGANIZATION_ID);
+        requestPrivateDomain(this.cloudFoundryClient, "test-domain", TEST_ORGANIZATION_ID, "test-domain-id");
+        requestRoutesEmpty(this.cloudFoundryClient, "test-domain-id", "test-name", null);
+        requestListMatchingResources(this.cloudFoundryClient, Arrays.asList(new ResourceMatchingUtils.ArtifactMetadata("da39a3ee5e6b4b0d3255bfef95601890afd80709", "Staticfile", "100644", 0),
+            new ResourceMatchingUtils.ArtifactMetadata("45044a6ddbfe11415a8f8a6219de68a2c66b496b", "index.html", "100644", 178)));
+        requestCreateRoute(this.cloudFoundryClient, "test-domain-id", "test-name", null, TEST_SPACE_ID, "test-route-id");
+        requestAssociateRoute(this.cloudFoundryClient, "test-application-id", "test-route-id");
+        requestUploadStaleResources(this.cloudFoundryClient, "test-job-id");
+        requestJobSuccess(this.cloudFoundryClient, "test-job-id");
+        requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STOPPED");
+        requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STARTED");
+        requestGetApplication(this.cloudFoundryClient, "test-application-id");
+        requestApplicationInstancesRunning(this.cloudFoundryClient, "test-application-id");
+
+        applications
+            .push(PushApplicationRequest.builder()
+                .application(testApplication)
+                .domain("test-domain")
+                .name("test-name")
+                .build())
+            .as(StepVerifier::create)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        verify(this.cloudFoundryClient.resourceMatch()).list(any(ListMatchingResourcesRequest.class));
+        verify(this.cloudFoundryClient.applicationsV2(), times(2)).upload(any(UploadApplicationRequest.class));
+        assertThat(resourceCache.size()).isZero();
+    }
+
     @Test
     public void pushStartFailsRunning() throws IOException {
         Path testApplication = new ClassPathResource("test-application.zip").getFile().toPath();
@@ -3315,4 +3463,23 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
                     .build()));
     }
 
+    private static void requestUploadError(CloudFoundryClient cloudFoundryClient) {
+        when(cloudFoundryClient.applicationsV2()
+            .upload(any(UploadApplicationRequest.class)))
+            .thenReturn(Mono.error(new ClientV2Exception(400, 100005, "You have exceeded your organization's memory limit", "CF-AppMemoryQuotaExceeded")));
+    }
+
+    private static void requestUploadStaleResources(CloudFoundryClient cloudFoundryClient, String jobId) {
+        when(cloudFoundryClient.applicationsV2()
+            .upload(any(UploadApplicationRequest.class)))
+            .thenReturn(Mono.error(new ClientV2Exception(400, 160001, "The app upload is invalid: missing resources", "CF-AppBitsUploadInvalid")),
+                Mono.just(fill(UploadApplicationResponse.builder())
+                    .metadata(fill(Metadata.builder())
+                        .id(jobId)
+                        .build())
+                    .entity(fill(JobEntity.builder(), "job-entity-")
+                        .build())
+                    .build()));
+    }
+
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations.applications;
+
+import org.cloudfoundry.doppler.ContainerMetric;
+import org.cloudfoundry.doppler.Envelope;
+import org.cloudfoundry.doppler.EventType;
+import org.cloudfoundry.doppler.LogMessage;
+import org.cloudfoundry.doppler.MessageType;
+import org.cloudfoundry.util.DelayTimeoutException;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.LinkedList;
+import java.util.Queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class ReadinessDetectorTest {
+
+    @Test
+    public void isInstanceSignal() {
+        assertThat(ReadinessDetector.isInstanceSignal().test(envelope("CELL", "Container became healthy"))).isTrue();
+        assertThat(ReadinessDetector.isInstanceSignal().test(envelope("APP", "Container became healthy"))).isFalse();
+        assertThat(ReadinessDetector.isInstanceSignal().test(envelope("CELL", "Creating container"))).isFalse();
+        assertThat(ReadinessDetector.isInstanceSignal().test(Envelope.builder()
+            .eventType(EventType.CONTAINER_METRIC)
+            .containerMetric(ContainerMetric.builder()
+                .applicationId("test-application-id")
+                .cpuPercentage(0.0)
+                .diskBytes(0L)
+                .instanceIndex(0)
+                .memoryBytes(0L)
+                .build())
+            .origin("test-origin")
+            .build())).isFalse();
+    }
+
+    @Test
+    public void isStagingSignal() {
+        assertThat(ReadinessDetector.isStagingSignal().test(envelope("STG", "Staging complete"))).isTrue();
+        assertThat(ReadinessDetector.isStagingSignal().test(envelope("STG", "Downloading buildpack"))).isFalse();
+        assertThat(ReadinessDetector.isStagingSignal().test(envelope("APP", "Staging complete"))).isFalse();
+    }
+
+    @Test
+    public void waitFor() {
+        Queue<String> states = new LinkedList<>();
+        states.add("STAGING");
+        states.add("STAGED");
+
+        Flux<Envelope> stream = Flux.concat(Mono.delay(Duration.ofMillis(200)).then(Mono.just(envelope("STG", "Staging complete"))), Flux.never());
+
+        ReadinessDetector
+            .waitFor(stream, ReadinessDetector.isStagingSignal(), Mono.fromSupplier(states::remove), "STAGED"::equals, remaining -> Mono.error(new AssertionError("Unexpected fallback")),
+                Duration.ofSeconds(5))
+            .as(StepVerifier::create)
+            .expectNext("STAGED")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void waitForStreamUnavailable() {
+        ReadinessDetector
+            .waitFor(Flux.error(new IllegalStateException("test-message")), ReadinessDetector.isStagingSignal(), Mono.just("STAGING"), "STAGED"::equals, remaining -> Mono.just("STAGED"),
+                Duration.ofSeconds(5))
+            .as(StepVerifier::create)
+            .expectNext("STAGED")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void waitForTimeout() {
+        ReadinessDetector
+            .waitFor(Flux.never(), ReadinessDetector.isStagingSignal(), Mono.just("STAGING"), "STAGED"::equals, remaining -> Mono.just("STAGED"), Duration.ofMillis(200))
+            .as(StepVerifier::create)
+            .expectError(DelayTimeoutException.class)
+            .verify(Duration.ofSeconds(5));
+    }
+
+    private static Envelope envelope(String sourceType, String message) {
+        return Envelope.builder()
+            .eventType(EventType.LOG_MESSAGE)
+            .logMessage(LogMessage.builder()
+                .message(message)
+                .messageType(MessageType.OUT)
+                .sourceType(sourceType)
+                .timestamp(0L)
+                .build())
+            .origin("test-origin")
+            .build();
+    }
+
+}
@@ -155,7 +155,32 @@ public final class DefaultOrganizationsTest extends AbstractOperationsTest {
 
     @Test
     public void info() {
-        requestOrganizations(this.cloudFoundryClient, TEST_ORGANIZATION_NAME);
+        requestOrganizationsWithRelations(this.cloudFoundryClient, TEST_ORGANIZATION_NAME);
+        requestSharedDomains(this.cloudFoundryClient);
+
+        this.organizations
+            .get(OrganizationInfoRequest.builder()
+                .name(TEST_ORGANIZATION_NAME)
+                .build())
+            .as(StepVerifier::create)
+            .expectNext(fill(OrganizationDetail.builder())
+                .domain("test-private-domain-name", "test-shared-domain-name")
+                .id(TEST_ORGANIZATION_ID)
+                .name(TEST_ORGANIZATION_NAME)
+                .quota(fill(OrganizationQuota.builder())
+                    .organizationId(TEST_ORGANIZATION_ID)
+                    .build())
+                .space("test-name")
+                .spaceQuota(fill(SpaceQuota.builder())
+                    .build())
+                .build())
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void infoRelationsNotInlined() {
+        requestOrganizationsWithRelationsNotInlined(this.cloudFoundryClient, TEST_ORGANIZATION_NAME);
         requestPrivateDomains(this.cloudFoundryClient, TEST_ORGANIZATION_ID);
         requestSharedDomains(this.cloudFoundryClient);
         requestOrganizationQuotaDefinition(this.cloudFoundryClient, "test-organization-entity-quotaDefinitionId");
@@ -393,6 +418,57 @@ public final class DefaultOrganizationsTest extends AbstractOperationsTest {
                     .build()));
     }
 
+    private static void requestOrganizationsWithRelations(CloudFoundryClient cloudFoundryClient, String organizationName) {
+        when(cloudFoundryClient.organizations()
+            .list(ListOrganizationsRequest.builder()
+                .includeRelation("private_domains", "quota_definition", "space_quota_definitions", "spaces")
+                .inlineRelationsDepth(1)
+                .name(organizationName)
+                .page(1)
+                .build()))
+            .thenReturn(Mono
+                .just(fill(ListOrganizationsResponse.builder())
+                    .resource(fill(OrganizationResource.builder(), "organization-")
+                        .entity(fill(OrganizationEntity.builder(), "organization-entity-")
+                            .privateDomain(fill(PrivateDomainResource.builder())
+                                .entity(fill(PrivateDomainEntity.builder())
+                                    .name("test-private-domain-name")
+                                    .build())
+                                .build())
+                            .quotaDefinition(fill(OrganizationQuotaDefinitionResource.builder())
+                                .entity(fill(OrganizationQuotaDefinitionEntity.builder())
+                                    .build())
+                                .build())
+                            .spaceQuotaDefinition(fill(SpaceQuotaDefinitionResource.builder())
+                                .build())
+                            .space(fill(SpaceResource.builder())
+                                .build())
+                            .build())
+                        .build())
+                    .build()));
+    }
+
+    private static void requestOrganizationsWithRelationsNotInlined(CloudFoundryClient cloudFoundryClient, String organizationName) {
+        when(cloudFoundryClient.organizations()
+            .list(ListOrganizationsRequest.builder()
+                .includeRelation("private_domains", "quota_definition", "space_quota_definitions", "spaces")
+                .inlineRelationsDepth(1)
+                .name(organizationName)
+                .page(1)
+                .build()))
+            .thenReturn(Mono
+                .just(fill(ListOrganizationsResponse.builder())
+                    .resource(fill(OrganizationResource.builder(), "organization-")
+                        .entity(fill(OrganizationEntity.builder(), "organization-entity-")
+                            .privateDomains(null)
+                            .quotaDefinition(null)
+                            .spaceQuotaDefinitions(null)
+                            .spaces(null)
+                            .build())
+                        .build())
+                    .build()));
+    }
+
     private static void requestPrivateDomains(CloudFoundryClient cloudFoundryClient, String organizationId) {
         when(cloudFoundryClient.organizations()
             .listPrivateDomains(ListOrganizationPrivateDomainsRequest.builder()
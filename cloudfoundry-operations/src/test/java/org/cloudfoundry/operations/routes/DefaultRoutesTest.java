@@ -22,6 +22,8 @@ import org.cloudfoundry.client.v2.Metadata;
 import org.cloudfoundry.client.v2.applications.ApplicationResource;
 import org.cloudfoundry.client.v2.applications.AssociateApplicationRouteRequest;
 import org.cloudfoundry.client.v2.applications.AssociateApplicationRouteResponse;
+import org.cloudfoundry.client.v2.applications.ListApplicationsRequest;
+import org.cloudfoundry.client.v2.applications.ListApplicationsResponse;
 import org.cloudfoundry.client.v2.applications.RemoveApplicationRouteRequest;
 import org.cloudfoundry.client.v2.jobs.ErrorDetails;
 import org.cloudfoundry.client.v2.jobs.GetJobRequest;
@@ -32,10 +34,12 @@ import org.cloudfoundry.client.v2.organizations.ListOrganizationPrivateDomainsRe
 import org.cloudfoundry.client.v2.organizations.ListOrganizationSpacesRequest;
 import org.cloudfoundry.client.v2.organizations.ListOrganizationSpacesResponse;
 import org.cloudfoundry.client.v2.privatedomains.PrivateDomainResource;
+import org.cloudfoundry.client.v2.routemappings.ListRouteMappingsRequest;
+import org.cloudfoundry.client.v2.routemappings.ListRouteMappingsResponse;
+import org.cloudfoundry.client.v2.routemappings.RouteMappingEntity;
+import org.cloudfoundry.client.v2.routemappings.RouteMappingResource;
 import org.cloudfoundry.client.v2.routes.CreateRouteResponse;
 import org.cloudfoundry.client.v2.routes.DeleteRouteResponse;
-import org.cloudfoundry.client.v2.routes.ListRouteApplicationsRequest;
-import org.cloudfoundry.client.v2.routes.ListRouteApplicationsResponse;
 import org.cloudfoundry.client.v2.routes.ListRoutesResponse;
 import org.cloudfoundry.client.v2.routes.RouteEntity;
 import org.cloudfoundry.client.v2.routes.RouteExistsRequest;
@@ -336,7 +340,7 @@ public final class DefaultRoutesTest extends AbstractOperationsTest {
     @Test
     public void deleteOrphanedRoutesAssociatedApplication() {
         requestSpaceRoutes(this.cloudFoundryClient, TEST_SPACE_ID);
-        requestApplications(this.cloudFoundryClient, "test-route-id");
+        requestRouteMappings(this.cloudFoundryClient, "test-route-id");
 
         this.routes
             .deleteOrphanedRoutes()
@@ -360,7 +364,7 @@ public final class DefaultRoutesTest extends AbstractOperationsTest {
     @Test
     public void deleteOrphanedRoutesNoAssociations() {
         requestSpaceRoutes(this.cloudFoundryClient, TEST_SPACE_ID);
-        requestApplicationsEmpty(this.cloudFoundryClient, "test-route-id");
+        requestRouteMappingsEmpty(this.cloudFoundryClient, "test-route-id");
         requestDeleteRoute(this.cloudFoundryClient, "test-route-id");
         requestJobSuccess(this.cloudFoundryClient, "test-id");
 
@@ -374,7 +378,7 @@ public final class DefaultRoutesTest extends AbstractOperationsTest {
     @Test
     public void deleteOrphanedRoutesNoAssociationsFailure() {
         requestSpaceRoutes(this.cloudFoundryClient, TEST_SPACE_ID);
-        requestApplicationsEmpty(this.cloudFoundryClient, "test-route-id");
+        requestRouteMappingsEmpty(this.cloudFoundryClient, "test-route-id");
         requestDeleteRoute(this.cloudFoundryClient, "test-route-id");
         requestJobFailure(this.cloudFoundryClient, "test-id");
 
@@ -439,7 +443,8 @@ public final class DefaultRoutesTest extends AbstractOperationsTest {
         requestPrivateDomainsAll(this.cloudFoundryClient, TEST_ORGANIZATION_ID);
         requestSharedDomainsAll(this.cloudFoundryClient);
         requestSpacesAll(this.cloudFoundryClient, TEST_ORGANIZATION_ID);
-        requestApplications(this.cloudFoundryClient, "test-id");
+        requestOrganizationApplications(this.cloudFoundryClient, TEST_ORGANIZATION_ID);
+        requestRouteMappings(this.cloudFoundryClient, "test-id");
 
         this.routes
             .list(ListRoutesRequest.builder()
@@ -464,7 +469,6 @@ public final class DefaultRoutesTest extends AbstractOperationsTest {
         requestPrivateDomainsAll(this.cloudFoundryClient, TEST_ORGANIZATION_ID);
         requestSharedDomainsAll(this.cloudFoundryClient);
         requestSpacesAll(this.cloudFoundryClient, TEST_ORGANIZATION_ID);
-        requestApplications(this.cloudFoundryClient, "test-id");
 
         this.routes
             .list(ListRoutesRequest.builder()
@@ -481,7 +485,8 @@ public final class DefaultRoutesTest extends AbstractOperationsTest {
         requestPrivateDomainsAll(this.cloudFoundryClient, TEST_ORGANIZATION_ID);
         requestSharedDomainsAll(this.cloudFoundryClient);
         requestSpacesAll(this.cloudFoundryClient, TEST_ORGANIZATION_ID);
-        requestApplications(this.cloudFoundryClient, "test-route-id");
+        requestRouteMappings(this.cloudFoundryClient, "test-route-id");
+        requestSpaceApplications(this.cloudFoundryClient, TEST_SPACE_ID);
 
         this.routes
             .list(ListRoutesRequest.builder()
@@ -765,19 +770,6 @@ public final class DefaultRoutesTest extends AbstractOperationsTest {
             .verify(Duration.ofSeconds(5));
     }
 
-    private static void requestApplications(CloudFoundryClient cloudFoundryClient, String routeId) {
-        when(cloudFoundryClient.routes()
-            .listApplications(ListRouteApplicationsRequest.builder()
-                .page(1)
-                .routeId(routeId)
-                .build()))
-            .thenReturn(Mono
-                .just(fill(ListRouteApplicationsResponse.builder())
-                    .resource(fill(ApplicationResource.builder(), "application-")
-                        .build())
-                    .build()));
-    }
-
     private static void requestApplications(CloudFoundryClient cloudFoundryClient, String application, String spaceId) {
         when(cloudFoundryClient.spaces()
             .listApplications(ListSpaceApplicationsRequest.builder()
@@ -792,17 +784,6 @@ public final class DefaultRoutesTest extends AbstractOperationsTest {
                     .build()));
     }
 
-    private static void requestApplicationsEmpty(CloudFoundryClient cloudFoundryClient, String routeId) {
-        when(cloudFoundryClient.routes()
-            .listApplications(ListRouteApplicationsRequest.builder()
-                .page(1)
-                .routeId(routeId)
-                .build()))
-            .thenReturn(Mono
-                .just(fill(ListRouteApplicationsResponse.builder())
-                    .build()));
-    }
-
     private static void requestApplicationsEmpty(CloudFoundryClient cloudFoundryClient, String application, String spaceId) {
         when(cloudFoundryClient.spaces()
             .listApplications(ListSpaceApplicationsRequest.builder()
@@ -914,6 +895,19 @@ public final class DefaultRoutesTest extends AbstractOperationsTest {
                 }));
     }
 
+    private static void requestOrganizationApplications(CloudFoundryClient cloudFoundryClient, String organizationId) {
+        when(cloudFoundryClient.applicationsV2()
+            .list(ListApplicationsRequest.builder()
+                .organizationId(organizationId)
+                .page(1)
+                .build()))
+            .thenReturn(Mono
+                .just(fill(ListApplicationsResponse.builder())
+                    .resource(fill(ApplicationResource.builder(), "application-")
+                        .build())
+                    .build()));
+    }
+
     private static void requestOrganizationsRoutes(CloudFoundryClient cloudFoundryClient, String organizationId) {
         when(cloudFoundryClient.routes()
             .list(org.cloudfoundry.client.v2.routes.ListRoutesRequest.builder()
@@ -993,6 +987,34 @@ public final class DefaultRoutesTest extends AbstractOperationsTest {
             .thenReturn(Mono.empty());
     }
 
+    private static void requestRouteMappings(CloudFoundryClient cloudFoundryClient, String routeId) {
+        when(cloudFoundryClient.routeMappings()
+            .list(ListRouteMappingsRequest.builder()
+                .page(1)
+                .routeId(routeId)
+                .build()))
+            .thenReturn(Mono
+                .just(fill(ListRouteMappingsResponse.builder())
+                    .resource(fill(RouteMappingResource.builder())
+                        .entity(fill(RouteMappingEntity.builder())
+                            .applicationId("test-application-id")
+                            .routeId(routeId)
+                            .build())
+                        .build())
+                    .build()));
+    }
+
+    private static void requestRouteMappingsEmpty(CloudFoundryClient cloudFoundryClient, String routeId) {
+        when(cloudFoundryClient.routeMappings()
+            .list(ListRouteMappingsRequest.builder()
+                .page(1)
+                .routeId(routeId)
+                .build()))
+            .thenReturn(Mono
+                .just(fill(ListRouteMappingsResponse.builder())
+                    .build()));
+    }
+
     private static void requestRouteExistsFalse(CloudFoundryClient cloudFoundryClient, String domainId, String host, String path) {
         when(cloudFoundryClient.routes()
             .exists(RouteExistsRequest.builder()
@@ -1119,6 +1141,19 @@ public final class DefaultRoutesTest extends AbstractOperationsTest {
                     .build()));
     }
 
+    private static void requestSpaceApplications(CloudFoundryClient cloudFoundryClient, String spaceId) {
+        when(cloudFoundryClient.spaces()
+            .listApplications(ListSpaceApplicationsRequest.builder()
+                .page(1)
+                .spaceId(spaceId)
+                .build()))
+            .thenReturn(Mono
+                .just(fill(ListSpaceApplicationsResponse.builder())
+                    .resource(fill(ApplicationResource.builder(), "application-")
+                        .build())
+                    .build()));
+    }
+
     private static void requestSpaceRoutes(CloudFoundryClient cloudFoundryClient, String spaceId) {
         when(cloudFoundryClient.spaces()
             .listRoutes(ListSpaceRoutesRequest.builder()
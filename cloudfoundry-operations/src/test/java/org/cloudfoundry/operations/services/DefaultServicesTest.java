@@ -487,6 +487,32 @@ public final class DefaultServicesTest extends AbstractOperationsTest {
             .verify(Duration.ofSeconds(5));
     }
 
+    @Test
+    public void getServiceInstanceManagedServiceInlined() {
+        requestListSpaceServiceInstancesManaged(this.cloudFoundryClient, "test-service-instance-name", TEST_SPACE_ID);
+        requestGetServicePlanServiceInlined(this.cloudFoundryClient, "test-service-plan-id", "test-service-plan", "test-service-id", "test-service");
+        requestListSpaceServiceBindings(this.cloudFoundryClient, "test-service-instance-id", "test-application-id");
+        requestGetApplication(this.cloudFoundryClient, "test-application-id", "test-application");
+
+        this.services
+            .getInstance(GetServiceInstanceRequest.builder()
+                .name("test-service-instance-name")
+                .build())
+            .as(StepVerifier::create)
+            .expectNext(fill(ServiceInstance.builder())
+                .application("test-application")
+                .documentationUrl("test-documentation-url")
+                .id("test-service-instance-id")
+                .lastOperation("test-type")
+                .name("test-service-instance-name")
+                .plan("test-service-plan")
+                .tag("test-tag")
+                .type(ServiceInstanceType.MANAGED)
+                .build())
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
     @Test
     public void getServiceInstanceNoInstances() {
         requestListSpaceServiceInstancesEmpty(this.cloudFoundryClient, "test-invalid-name", TEST_SPACE_ID);
@@ -1264,12 +1290,39 @@ public final class DefaultServicesTest extends AbstractOperationsTest {
     private static void requestGetServicePlan(CloudFoundryClient cloudFoundryClient, String servicePlanId, String servicePlan, String serviceId) {
         when(cloudFoundryClient.servicePlans()
             .get(GetServicePlanRequest.builder()
+                .includeRelation("service")
+                .inlineRelationsDepth(1)
+                .servicePlanId(servicePlanId)
+                .build()))
+            .thenReturn(Mono
+                .just(fill(GetServicePlanResponse.builder())
+                    .entity(ServicePlanEntity.builder()
+                        .name(servicePlan)
+                        .serviceId(serviceId)
+                        .build())
+                    .build()));
+    }
+
+    private static void requestGetServicePlanServiceInlined(CloudFoundryClient cloudFoundryClient, String servicePlanId, String servicePlan, String serviceId, String service) {
+        when(cloudFoundryClient.servicePlans()
+            .get(GetServicePlanRequest.builder()
+                .includeRelation("service")
+                .inlineRelationsDepth(1)
                 .servicePlanId(servicePlanId)
                 .build()))
             .thenReturn(Mono
                 .just(fill(GetServicePlanResponse.builder())
                     .entity(ServicePlanEntity.builder()
                         .name(servicePlan)
+                        .service(fill(ServiceResource.builder())
+                            .metadata(fill(Metadata.builder())
+                                .id(serviceId)
+                                .build())
+                            .entity(fill(ServiceEntity.builder())
+                                .extra("{\"displayName\":\"test-value\",\"longDescription\":\"test-value\",\"documentationUrl\":\"test-documentation-url\",\"supportUrl\":\"test-value\"}")
+                                .label(service)
+                                .build())
+                            .build())
                         .serviceId(serviceId)
                         .build())
                     .build()));
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.util;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * An element of a stream that must be acknowledged once it has been processed.  Acknowledging an element allows the stream's checkpoint to advance past it.
+ *
+ * @param <T> the type of the element
+ */
+public final class Acknowledgeable<T> {
+
+    private final Mono<Void> acknowledgement;
+
+    private final T value;
+
+    Acknowledgeable(T value, Mono<Void> acknowledgement) {
+        this.acknowledgement = acknowledgement;
+        this.value = value;
+    }
+
+    /**
+     * Acknowledges that the element has been processed
+     *
+     * @return completes when the acknowledgement has been recorded
+     */
+    public Mono<Void> acknowledge() {
+        return this.acknowledgement;
+    }
+
+    /**
+     * Returns the element
+     *
+     * @return the element
+     */
+    public T getValue() {
+        return this.value;
+    }
+
+}
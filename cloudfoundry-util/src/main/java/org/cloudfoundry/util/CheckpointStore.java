@@ -0,0 +1,44 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.util;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * A store of the position that a consumer has reached in a stream
+ */
+public interface CheckpointStore {
+
+    /**
+     * Loads a checkpoint
+     *
+     * @param key the key of the checkpoint
+     * @return the checkpoint, or empty if none has been saved
+     */
+    Mono<String> load(String key);
+
+    /**
+     * Saves a checkpoint, replacing any existing checkpoint
+     *
+     * @param key        the key of the checkpoint
+     * @param checkpoint the checkpoint
+     * @return completes when the checkpoint has been saved
+     */
+    Mono<Void> save(String key, String checkpoint);
+
+}
@@ -0,0 +1,480 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.utils.BoundedInputStream;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * An application directory whose files have been hashed and compressed in a single pass.  Each file is read once, and its SHA-1 hash, CRC and deflated contents are calculated together on a bounded
+ * pool of worker threads.  The deflated contents are kept, in memory or spilled to a temporary file, so that once resource matching has decided which files need to be uploaded, the upload archive
+ * can be written without deflating the application's files again.
+ * <p>
+ * As with {@link FileUtils#compress(Path, Predicate, int, int)}, files that are unlikely to compress, because of their file type or because a deflated sample of their contents does not shrink, are
+ * stored uncompressed.  Their contents are not kept, and are streamed into the archive from the file when it is written.
+ */
+public final class CompressedApplication implements AutoCloseable {
+
+    private static final int MEMORY_LIMIT = 64 * 1_024 * 1_024;
+
+    private static final int SPILL_THRESHOLD = 1_024 * 1_024;
+
+    private final List<Entry> entries;
+
+    private final Spills spills;
+
+    private CompressedApplication(List<Entry> entries, Spills spills) {
+        this.entries = entries;
+        this.spills = spills;
+    }
+
+    /**
+     * Hashes and compresses each file in an application directory, using the default compression level and a worker thread per processor
+     *
+     * @param application the application directory
+     * @return the compressed application
+     */
+    public static Mono<CompressedApplication> of(Path application) {
+        return of(application, Deflater.DEFAULT_COMPRESSION, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Hashes and compresses each file in an application directory
+     *
+     * @param application the application directory
+     * @param level       the deflate compression level, from {@link Deflater#DEFAULT_COMPRESSION} to {@link Deflater#BEST_COMPRESSION}
+     * @param parallelism the number of files to hash and compress concurrently
+     * @return the compressed application
+     */
+    public static Mono<CompressedApplication> of(Path application, int level, int parallelism) {
+        ParallelCompressor.checkArguments(level, parallelism);
+
+        return Mono
+            .fromCallable(() -> create(application, level, parallelism))
+            .subscribeOn(Schedulers.elastic());
+    }
+
+    /**
+     * Deletes any compressed contents that were spilled to disk
+     */
+    @Override
+    public void close() {
+        this.spills.delete();
+    }
+
+    /**
+     * Returns the metadata of each file in the application
+     *
+     * @return the metadata of each file in the application
+     */
+    public List<ResourceMatchingUtils.ArtifactMetadata> getArtifactMetadata() {
+        return this.entries.stream()
+            .filter(entry -> entry.hash != null)
+            .map(entry -> new ResourceMatchingUtils.ArtifactMetadata(entry.hash, entry.name, FileUtils.permissions(entry.mode), (int) entry.size))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Writes the compressed entries of the application to a zip archive, filtering out entries
+     *
+     * @param filter a filter applied to each path
+     * @return the {@link Path} of the zip archive
+     */
+    public Mono<Path> write(Predicate<String> filter) {
+        return Mono
+            .fromCallable(() -> {
+                Path staging = Files.createTempFile("resource-matched-", ".zip");
+
+                try (ZipArchiveOutputStream out = new ZipArchiveOutputStream(staging.toFile())) {
+                    for (Entry entry : this.entries) {
+                        if (filter.test(entry.name)) {
+                            entry.write(out);
+                        }
+                    }
+                }
+
+                return staging;
+            })
+            .subscribeOn(Schedulers.elastic());
+    }
+
+    private static CompressedApplication create(Path application, int level, int parallelism) throws IOException {
+        ExecutorService executor = ParallelCompressor.newWorkers(parallelism);
+        List<Future<Entry>> pending = new ArrayList<>();
+        Spills spills = new Spills(parallelism);
+        boolean complete = false;
+
+        try (Stream<Path> contents = Files.walk(application)) {
+            for (Path path : (Iterable<Path>) contents::iterator) {
+                if (Files.isSameFile(application, path)) {
+                    continue;
+                }
+
+                String name = FileUtils.getRelativePathName(application, path);
+                int mode = FileUtils.getUnixMode(path);
+                FileTime lastModifiedTime = Files.getLastModifiedTime(path);
+
+                if (Files.isDirectory(path)) {
+                    pending.add(CompletableFuture.completedFuture(new Entry(name, mode, lastModifiedTime)));
+                } else {
+                    pending.add(executor.submit(() -> read(path, name, mode, lastModifiedTime, level, spills)));
+                }
+            }
+
+            List<Entry> entries = new ArrayList<>(pending.size());
+            for (Future<Entry> entry : pending) {
+                entries.add(entry.get());
+            }
+
+            spills.finish();
+            complete = true;
+
+            return new CompressedApplication(Collections.unmodifiableList(entries), spills);
+        } catch (ExecutionException e) {
+            throw Exceptions.propagate(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Exceptions.propagate(e);
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+            executor.shutdownNow();
+
+            if (!complete) {
+                spills.delete();
+            }
+        }
+    }
+
+    private static Entry read(Path path, String name, int mode, FileTime lastModifiedTime, int level, Spills spills) throws IOException, InterruptedException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("sha1");
+        } catch (NoSuchAlgorithmException e) {
+            throw Exceptions.propagate(e);
+        }
+
+        Spill spill = spills.acquire();
+
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] sample = ParallelCompressor.readSample(in);
+            boolean deflated = !ParallelCompressor.isIncompressible(name) && !ParallelCompressor.isIncompressible(sample, level);
+
+            CRC32 crc = new CRC32();
+            Deflater deflater = deflated ? new Deflater(level, true) : null;
+            EntryOutputStream compressed = deflated ? new EntryOutputStream(spills, spill) : null;
+            long[] size = new long[]{sample.length};
+
+            try (OutputStream out = deflated ? new DeflaterOutputStream(compressed, deflater) : null) {
+                digest.update(sample);
+                crc.update(sample);
+                if (out != null) {
+                    out.write(sample);
+                }
+
+                ByteArrayPool.withByteArray(buffer -> {
+                    try {
+                        int length;
+                        while ((length = in.read(buffer)) != -1) {
+                            if (Thread.interrupted()) {
+                                throw new InterruptedIOException();
+                            }
+
+                            digest.update(buffer, 0, length);
+                            crc.update(buffer, 0, length);
+                            if (out != null) {
+                                out.write(buffer, 0, length);
+                            }
+                            size[0] += length;
+                        }
+                    } catch (IOException e) {
+                        throw Exceptions.propagate(e);
+                    }
+                });
+            } finally {
+                if (deflater != null) {
+                    deflater.end();
+                }
+            }
+
+            return new Entry(path, name, mode, lastModifiedTime, String.format("%040x", new BigInteger(1, digest.digest())), size[0], crc.getValue(), compressed);
+        } finally {
+            spills.release(spill);
+        }
+    }
+
+    private static final class Entry {
+
+        private final long compressedSize;
+
+        private final byte[] content;
+
+        private final long crc;
+
+        private final String hash;
+
+        private final FileTime lastModifiedTime;
+
+        private final int mode;
+
+        private final String name;
+
+        private final long offset;
+
+        private final Path path;
+
+        private final long size;
+
+        private final Spill spill;
+
+        private Entry(String name, int mode, FileTime lastModifiedTime) {
+            this(null, name, mode, lastModifiedTime, null, 0, 0, null);
+        }
+
+        private Entry(Path path, String name, int mode, FileTime lastModifiedTime, String hash, long size, long crc, EntryOutputStream compressed) {
+            this.compressedSize = compressed == null ? size : compressed.count;
+            this.content = compressed == null ? null : compressed.getContent();
+            this.crc = crc;
+            this.hash = hash;
+            this.lastModifiedTime = lastModifiedTime;
+            this.mode = mode;
+            this.name = name;
+            this.offset = compressed == null ? 0 : compressed.offset;
+            this.path = path;
+            this.size = size;
+            this.spill = compressed == null ? null : compressed.spill;
+        }
+
+        private InputStream open() throws IOException {
+            if (this.spill == null) {
+                return Files.newInputStream(this.path);
+            }
+
+            return this.content != null ? new ByteArrayInputStream(this.content) : this.spill.read(this.offset, this.compressedSize);
+        }
+
+        private void write(ZipArchiveOutputStream out) throws IOException {
+            ZipArchiveEntry entry = new ZipArchiveEntry(this.name);
+            entry.setUnixMode(this.mode);
+            entry.setLastModifiedTime(this.lastModifiedTime);
+
+            if (this.hash == null) {
+                out.putArchiveEntry(entry);
+                out.closeArchiveEntry();
+                return;
+            }
+
+            entry.setMethod(this.spill == null ? ZipEntry.STORED : ZipEntry.DEFLATED);
+            entry.setCompressedSize(this.compressedSize);
+            entry.setCrc(this.crc);
+            entry.setSize(this.size);
+
+            try (InputStream raw = open()) {
+                out.addRawArchiveEntry(entry, raw);
+            }
+        }
+
+    }
+
+    private static final class EntryOutputStream extends OutputStream {
+
+        private final Spill spill;
+
+        private final Spills spills;
+
+        private long count;
+
+        private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+
+        private long offset = -1;
+
+        private EntryOutputStream(Spills spills, Spill spill) {
+            this.spill = spill;
+            this.spills = spills;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (this.memory != null && (this.memory.size() + len > SPILL_THRESHOLD || !this.spills.reserveMemory(len))) {
+                this.offset = this.spill.position;
+                this.spill.write(this.memory.toByteArray(), 0, this.memory.size());
+                this.spills.releaseMemory(this.memory.size());
+                this.memory = null;
+            }
+
+            if (this.memory != null) {
+                this.memory.write(b, off, len);
+            } else {
+                this.spill.write(b, off, len);
+            }
+
+            this.count += len;
+        }
+
+        private byte[] getContent() {
+            return this.memory == null ? null : this.memory.toByteArray();
+        }
+
+    }
+
+    /**
+     * A temporary file that one worker at a time appends spilled contents to, so that the contents of each entry are contiguous
+     */
+    private static final class Spill {
+
+        private OutputStream out;
+
+        private Path path;
+
+        private long position;
+
+        private void delete() {
+            try {
+                finish();
+
+                if (this.path != null) {
+                    Files.deleteIfExists(this.path);
+                }
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+        }
+
+        private void finish() throws IOException {
+            if (this.out != null) {
+                this.out.close();
+                this.out = null;
+            }
+        }
+
+        private InputStream read(long offset, long length) throws IOException {
+            InputStream in = Channels.newInputStream(FileChannel.open(this.path).position(offset));
+
+            return new BoundedInputStream(in, length) {
+
+                @Override
+                public void close() throws IOException {
+                    in.close();
+                }
+
+            };
+        }
+
+        private void write(byte[] b, int off, int len) throws IOException {
+            if (this.out == null) {
+                this.path = Files.createTempFile("compressed-application-", ".spill");
+                this.out = Files.newOutputStream(this.path);
+            }
+
+            this.out.write(b, off, len);
+            this.position += len;
+        }
+
+    }
+
+    /**
+     * A spill per worker, and the memory budget shared by all workers
+     */
+    private static final class Spills {
+
+        private final BlockingQueue<Spill> available = new LinkedBlockingQueue<>();
+
+        private final List<Spill> spills = new ArrayList<>();
+
+        private long memory;
+
+        private Spills(int count) {
+            for (int i = 0; i < count; i++) {
+                Spill spill = new Spill();
+                this.available.add(spill);
+                this.spills.add(spill);
+            }
+        }
+
+        private Spill acquire() throws InterruptedException {
+            return this.available.take();
+        }
+
+        private void delete() {
+            this.spills.forEach(Spill::delete);
+        }
+
+        private void finish() throws IOException {
+            for (Spill spill : this.spills) {
+                spill.finish();
+            }
+        }
+
+        private void release(Spill spill) {
+            this.available.add(spill);
+        }
+
+        private synchronized void releaseMemory(long length) {
+            this.memory -= length;
+        }
+
+        private synchronized boolean reserveMemory(long length) {
+            if (this.memory + length > MEMORY_LIMIT) {
+                return false;
+            }
+
+            this.memory += length;
+            return true;
+        }
+
+    }
+
+}
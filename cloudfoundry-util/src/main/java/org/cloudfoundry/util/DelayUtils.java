@@ -26,6 +26,7 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -39,6 +40,20 @@ public final class DelayUtils {
     private DelayUtils() {
     }
 
+    /**
+     * Calculates the next delay in a decorrelated jitter backoff sequence.  The next delay is chosen at random between the minimum and three times the previous delay, capped at the maximum.
+     *
+     * @param minimum  the minimum duration
+     * @param maximum  the maximum duration
+     * @param previous the previous delay in the sequence
+     * @return the next delay
+     */
+    public static Duration decorrelatedJitter(Duration minimum, Duration maximum, Duration previous) {
+        long lower = minimum.toMillis();
+        long upper = Math.max(lower, previous.toMillis() * 3);
+        return min(Duration.ofMillis(ThreadLocalRandom.current().nextLong(lower, upper + 1)), maximum);
+    }
+
     /**
      * Implements an exponential backoff delay for use with {@link Mono#repeatWhenEmpty(Function)}
      *
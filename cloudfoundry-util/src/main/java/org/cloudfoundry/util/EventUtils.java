@@ -0,0 +1,138 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.util;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.OrderDirection;
+import org.cloudfoundry.client.v2.events.EventResource;
+import org.cloudfoundry.client.v2.events.ListEventsRequest;
+import org.cloudfoundry.client.v2.events.ListEventsResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Utilities for tailing audit events
+ */
+public final class EventUtils {
+
+    private static final int MAXIMUM_SEEN = 10_000;
+
+    private static final int RESULTS_PER_PAGE = 100;
+
+    private EventUtils() {
+    }
+
+    /**
+     * Tails audit events.  Events are listed from a timestamp watermark, the latest timestamp seen so far, less an overlap window that catches events that are recorded late or share a timestamp
+     * with the watermark.  Events seen within the overlap window are remembered, up to a bound, so that they are only emitted once.  Pages are requested one at a time, each only once the events of
+     * the previous page have been emitted, so that however far back the watermark starts only one page is held in memory.  Once all events have been listed, new events are polled for.
+     *
+     * @param cloudFoundryClient the client to use to request events
+     * @param filter             the types and actees to filter events by on the server.  The request's page, order direction and timestamps are replaced.
+     * @param start              the timestamp to start tailing from
+     * @param pollInterval       the interval to wait for before polling for new events
+     * @param overlap            the overlap window
+     * @return the events, in the order they were recorded
+     */
+    public static Flux<EventResource> tailEvents(CloudFoundryClient cloudFoundryClient, ListEventsRequest filter, Instant start, Duration pollInterval, Duration overlap) {
+        return Flux
+            .defer(() -> {
+                Watermark watermark = new Watermark(start, overlap);
+
+                return Flux
+                    .defer(() -> requestEvents(cloudFoundryClient, filter, watermark.getFrom(), 1))
+                    .filter(watermark::advance)
+                    .concatWith(Mono.delay(pollInterval).then(Mono.<EventResource>empty()))
+                    .repeat();
+            });
+    }
+
+    private static Flux<EventResource> requestEvents(CloudFoundryClient cloudFoundryClient, ListEventsRequest filter, Instant from, int page) {
+        return requestListEvents(cloudFoundryClient, filter, from, page)
+            .flatMap(response -> ResourceUtils.getResources(response)
+                .concatWith(Flux.defer(() -> page < Optional.ofNullable(response.getTotalPages()).orElse(1) ? requestEvents(cloudFoundryClient, filter, from, page + 1) : Flux.empty())));
+    }
+
+    private static Mono<ListEventsResponse> requestListEvents(CloudFoundryClient cloudFoundryClient, ListEventsRequest filter, Instant from, int page) {
+        return cloudFoundryClient.events()
+            .list(ListEventsRequest.builder()
+                .from(filter)
+                .orderDirection(OrderDirection.ASCENDING)
+                .page(page)
+                .resultsPerPage(RESULTS_PER_PAGE)
+                .timestamps(Collections.singletonList(from.toString()))
+                .build());
+    }
+
+    private static final class Watermark {
+
+        private final Duration overlap;
+
+        private final Map<String, Instant> seen = new LinkedHashMap<>();
+
+        private Instant timestamp;
+
+        private Watermark(Instant start, Duration overlap) {
+            this.overlap = overlap;
+            this.timestamp = start.truncatedTo(ChronoUnit.SECONDS);
+        }
+
+        private synchronized boolean advance(EventResource event) {
+            String id = ResourceUtils.getId(event);
+            if (this.seen.containsKey(id)) {
+                return false;
+            }
+
+            Instant timestamp = Instant.parse(ResourceUtils.getEntity(event).getTimestamp());
+            this.seen.put(id, timestamp);
+
+            if (timestamp.isAfter(this.timestamp)) {
+                this.timestamp = timestamp;
+            }
+
+            Instant from = getFrom();
+            Iterator<Instant> timestamps = this.seen.values().iterator();
+            while (timestamps.hasNext()) {
+                Instant seen = timestamps.next();
+
+                if (seen.isBefore(from) || this.seen.size() > MAXIMUM_SEEN) {
+                    timestamps.remove();
+                } else {
+                    break;
+                }
+            }
+
+            return true;
+        }
+
+        private synchronized Instant getFrom() {
+            return this.timestamp.minus(this.overlap);
+        }
+
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.util;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * A {@link CheckpointStore} that keeps each checkpoint in a file in a directory.  Checkpoints are written to a temporary file and moved into place, so a crash never leaves a partial checkpoint.
+ */
+public final class FileCheckpointStore implements CheckpointStore {
+
+    private final Path directory;
+
+    /**
+     * Creates a new instance
+     *
+     * @param directory the directory to keep checkpoints in
+     */
+    public FileCheckpointStore(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public Mono<String> load(String key) {
+        return Mono
+            .fromCallable(() -> {
+                Path checkpoint = getPath(key);
+                return Files.exists(checkpoint) ? new String(Files.readAllBytes(checkpoint), StandardCharsets.UTF_8).trim() : null;
+            })
+            .filter(checkpoint -> !checkpoint.isEmpty())
+            .subscribeOn(Schedulers.elastic());
+    }
+
+    @Override
+    public Mono<Void> save(String key, String checkpoint) {
+        return Mono
+            .<Void>fromRunnable(() -> {
+                try {
+                    Files.createDirectories(this.directory);
+
+                    Path staging = Files.createTempFile(this.directory, key, ".tmp");
+                    Files.write(staging, checkpoint.getBytes(StandardCharsets.UTF_8));
+                    Files.move(staging, getPath(key), ATOMIC_MOVE, REPLACE_EXISTING);
+                } catch (IOException e) {
+                    throw Exceptions.propagate(e);
+                }
+            })
+            .subscribeOn(Schedulers.elastic());
+    }
+
+    private Path getPath(String key) {
+        return this.directory.resolve(String.format("%s.checkpoint", key));
+    }
+
+}
@@ -16,7 +16,6 @@
 
 package org.cloudfoundry.util;
 
-import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.commons.compress.archivers.zip.ZipFile;
 import reactor.core.Exceptions;
@@ -28,16 +27,17 @@ import java.io.InputStream;
 import java.math.BigInteger;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.attribute.FileTime;
 import java.nio.file.attribute.PosixFileAttributes;
 import java.nio.file.attribute.PosixFilePermission;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Enumeration;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
+import java.util.zip.Deflater;
 
 /**
  * Utilities for files
@@ -81,6 +81,21 @@ public final class FileUtils {
      * @return the {@link Path} for a compressed artifact
      */
     public static Mono<Path> compress(Path candidate, Predicate<String> filter) {
+        return compress(candidate, filter, Deflater.DEFAULT_COMPRESSION, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Compresses a candidate {@link Path} filtering out entries.  Entries are deflated in parallel, and entries that are already compressed are stored uncompressed.
+     *
+     * @param candidate   the candidate {@link Path} to compress
+     * @param filter      a filter applied to each path
+     * @param level       the deflate compression level, from {@link Deflater#DEFAULT_COMPRESSION} to {@link Deflater#BEST_COMPRESSION}
+     * @param parallelism the number of entries to compress concurrently
+     * @return the {@link Path} for a compressed artifact
+     */
+    public static Mono<Path> compress(Path candidate, Predicate<String> filter, int level, int parallelism) {
+        ParallelCompressor.checkArguments(level, parallelism);
+
         return Mono
             .defer(() -> {
                 try {
@@ -88,9 +103,9 @@ public final class FileUtils {
 
                     try (ZipArchiveOutputStream out = new ZipArchiveOutputStream(staging.toFile())) {
                         if (Files.isDirectory(candidate)) {
-                            compressFromDirectory(candidate, filter, out);
+                            compressFromDirectory(candidate, filter, out, level, parallelism);
                         } else {
-                            compressFromZip(candidate, filter, out);
+                            compressFromZip(candidate, filter, out, level, parallelism);
                         }
                     }
 
@@ -193,9 +208,9 @@ public final class FileUtils {
         }
     }
 
-    private static void compressFromDirectory(Path candidate, Predicate<String> filter, ZipArchiveOutputStream out) {
+    private static void compressFromDirectory(Path candidate, Predicate<String> filter, ZipArchiveOutputStream out, int level, int parallelism) {
         try (Stream<Path> contents = Files.walk(candidate)) {
-            contents
+            Iterator<ParallelCompressor.Source> sources = contents
                 .filter(path -> {
                     try {
                         return !Files.isSameFile(candidate, path);
@@ -204,38 +219,39 @@ public final class FileUtils {
                     }
                 })
                 .filter(path -> filter.test(getRelativePathName(candidate, path)))
-                .forEach(path -> {
-                    try (InputStream in = Files.isDirectory(path) ? null : Files.newInputStream(path)) {
-                        write(in, Files.getLastModifiedTime(path), getUnixMode(path), out, getRelativePathName(candidate, path));
+                .map(path -> {
+                    try {
+                        return new ParallelCompressor.Source(getRelativePathName(candidate, path), getUnixMode(path), Files.getLastModifiedTime(path),
+                            () -> Files.isDirectory(path) ? null : Files.newInputStream(path));
                     } catch (IOException e) {
                         throw Exceptions.propagate(e);
                     }
-                });
+                })
+                .iterator();
+
+            ParallelCompressor.compress(sources, out, level, parallelism);
         } catch (IOException e) {
             throw Exceptions.propagate(e);
         }
     }
 
-    private static void compressFromZip(Path candidate, Predicate<String> filter, ZipArchiveOutputStream out) {
+    private static void compressFromZip(Path candidate, Predicate<String> filter, ZipArchiveOutputStream out, int level, int parallelism) {
         try (ZipFile zipFile = new ZipFile(candidate.toFile())) {
-            Enumeration<ZipArchiveEntry> entries = zipFile.getEntries();
-
-            while (entries.hasMoreElements()) {
-                ZipArchiveEntry entry = entries.nextElement();
+            Iterator<ParallelCompressor.Source> sources = Collections.list(zipFile.getEntries()).stream()
+                .filter(entry -> filter.test(entry.getName()))
+                .map(entry -> {
+                    int mode = entry.getUnixMode();
+                    return new ParallelCompressor.Source(entry.getName(), mode == 0 ? DEFAULT_PERMISSIONS : mode, entry.getLastModifiedTime(), () -> zipFile.getInputStream(entry));
+                })
+                .iterator();
 
-                if (filter.test(entry.getName())) {
-                    try (InputStream in = zipFile.getInputStream(entry)) {
-                        int mode = entry.getUnixMode();
-                        write(in, entry.getLastModifiedTime(), mode == 0 ? DEFAULT_PERMISSIONS : mode, out, entry.getName());
-                    }
-                }
-            }
+            ParallelCompressor.compress(sources, out, level, parallelism);
         } catch (IOException e) {
             throw Exceptions.propagate(e);
         }
     }
 
-    private static int getUnixMode(Path path) throws IOException {
+    static int getUnixMode(Path path) throws IOException {
         return Optional.ofNullable(Files.readAttributes(path, PosixFileAttributes.class))
             .map(attributes -> attributes.permissions().stream()
                 .map(PERMISSION_MODES::get)
@@ -244,30 +260,4 @@ public final class FileUtils {
             .orElse(DEFAULT_PERMISSIONS);
     }
 
-    private static void write(InputStream in, FileTime lastModifiedTime, int mode, ZipArchiveOutputStream out, String path) {
-        try {
-            ZipArchiveEntry entry = new ZipArchiveEntry(path);
-            entry.setUnixMode(mode);
-            entry.setLastModifiedTime(lastModifiedTime);
-            out.putArchiveEntry(entry);
-
-            if (in != null) {
-                ByteArrayPool.withByteArray(buffer -> {
-                    try {
-                        int length;
-                        while ((length = in.read(buffer)) != -1) {
-                            out.write(buffer, 0, length);
-                        }
-                    } catch (IOException e) {
-                        throw Exceptions.propagate(e);
-                    }
-                });
-            }
-
-            out.closeArchiveEntry();
-        } catch (IOException e) {
-            throw Exceptions.propagate(e);
-        }
-    }
-
 }
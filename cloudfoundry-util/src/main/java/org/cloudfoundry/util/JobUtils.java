@@ -20,15 +20,11 @@ import org.cloudfoundry.client.CloudFoundryClient;
 import org.cloudfoundry.client.v2.ClientV2Exception;
 import org.cloudfoundry.client.v2.Resource;
 import org.cloudfoundry.client.v2.jobs.ErrorDetails;
-import org.cloudfoundry.client.v2.jobs.GetJobRequest;
-import org.cloudfoundry.client.v2.jobs.GetJobResponse;
 import org.cloudfoundry.client.v2.jobs.JobEntity;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 
-import static org.cloudfoundry.util.DelayUtils.exponentialBackOff;
-
 /**
  * Utilities for Jobs
  */
@@ -51,10 +47,8 @@ public final class JobUtils {
         if (JobUtils.isComplete(ResourceUtils.getEntity(resource))) {
             job = Mono.just(ResourceUtils.getEntity(resource));
         } else {
-            job = requestJob(cloudFoundryClient, ResourceUtils.getId(resource))
-                .map(GetJobResponse::getEntity)
-                .filter(JobUtils::isComplete)
-                .repeatWhenEmpty(exponentialBackOff(Duration.ofSeconds(1), Duration.ofSeconds(15), Duration.ofMinutes(5)));
+            job = StatusPoller.of(cloudFoundryClient)
+                .waitForJob(ResourceUtils.getId(resource), JobUtils::isComplete, Duration.ofMinutes(5));
         }
 
         return job
@@ -72,11 +66,4 @@ public final class JobUtils {
         return "finished".equals(status) || "failed".equals(status);
     }
 
-    private static Mono<GetJobResponse> requestJob(CloudFoundryClient cloudFoundryClient, String jobId) {
-        return cloudFoundryClient.jobs()
-            .get(GetJobRequest.builder()
-                .jobId(jobId)
-                .build());
-    }
-
 }
@@ -0,0 +1,418 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.util;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import reactor.core.Exceptions;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Compresses archive entries in parallel.  Each entry is deflated into its own buffer on a worker thread, and the buffers are then written, in order, into the archive as raw entries.  Entries that
+ * are unlikely to compress, because of their file type or because a deflated sample of their contents does not shrink, are stored uncompressed.  Stored entries are not buffered: the worker only
+ * computes their checksum, and their contents are streamed into the archive from the source when they are written.
+ * <p>
+ * At most {@code parallelism + 1} entries are buffered at any time, and each buffer spills to a temporary file once it grows past {@code 1 MiB}.
+ */
+final class ParallelCompressor {
+
+    private static final List<String> INCOMPRESSIBLE_EXTENSIONS = Arrays.asList(
+        ".7z", ".aar", ".br", ".bz2", ".ear", ".gif", ".gz", ".jar", ".jpeg", ".jpg", ".mp3", ".mp4", ".ogg", ".png", ".tgz", ".war", ".webm", ".webp", ".woff", ".woff2", ".xz", ".zip");
+
+    private static final double INCOMPRESSIBLE_RATIO = 0.9;
+
+    private static final int SAMPLE_SIZE = 64 * 1_024;
+
+    private static final int SPILL_THRESHOLD = 1_024 * 1_024;
+
+    private static final AtomicLong WORKER_COUNTER = new AtomicLong();
+
+    private static final ThreadFactory WORKER_FACTORY = r -> {
+        Thread t = new Thread(r, "compressor-" + WORKER_COUNTER.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    };
+
+    private ParallelCompressor() {
+    }
+
+    /**
+     * Checks that a compression level and parallelism are valid
+     *
+     * @param level       the deflate compression level
+     * @param parallelism the number of entries to compress concurrently
+     * @throws IllegalArgumentException if the level or parallelism is not valid
+     */
+    static void checkArguments(int level, int parallelism) {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException(String.format("Compression level %d must be between %d and %d", level, Deflater.DEFAULT_COMPRESSION, Deflater.BEST_COMPRESSION));
+        }
+
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(String.format("Parallelism %d must be at least 1", parallelism));
+        }
+    }
+
+    /**
+     * Compresses entries into an archive
+     *
+     * @param sources     the sources of the entries, in the order they should appear in the archive
+     * @param out         the archive to write to
+     * @param level       the deflate compression level
+     * @param parallelism the number of entries to compress concurrently
+     */
+    static void compress(Iterator<Source> sources, ZipArchiveOutputStream out, int level, int parallelism) {
+        ExecutorService executor = newWorkers(parallelism);
+        Deque<Future<Compressed>> pending = new ArrayDeque<>();
+        Set<Buffer> buffers = ConcurrentHashMap.newKeySet();
+
+        try {
+            while (sources.hasNext() || !pending.isEmpty()) {
+                while (sources.hasNext() && pending.size() <= parallelism) {
+                    Source source = sources.next();
+                    pending.add(executor.submit(() -> compress(source, level, buffers)));
+                }
+
+                pending.remove().get().write(out);
+            }
+        } catch (ExecutionException e) {
+            throw Exceptions.propagate(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Exceptions.propagate(e);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+            executor.shutdownNow();
+            buffers.forEach(Buffer::delete);
+        }
+    }
+
+    /**
+     * Returns whether an entry's name indicates that its contents are already compressed
+     *
+     * @param name the name of the entry
+     * @return {@code true} if the entry's contents are already compressed
+     */
+    static boolean isIncompressible(String name) {
+        String lowerCaseName = name.toLowerCase(Locale.ENGLISH);
+
+        return INCOMPRESSIBLE_EXTENSIONS.stream()
+            .anyMatch(lowerCaseName::endsWith);
+    }
+
+    private static Compressed compress(Source source, int level, Set<Buffer> buffers) throws IOException {
+        try (InputStream in = source.content.open()) {
+            if (in == null) {
+                return new Compressed(source, ZipEntry.STORED, 0, 0, null);
+            }
+
+            byte[] sample = readSample(in);
+            int method = isIncompressible(source.name) || isIncompressible(sample, level) ? ZipEntry.STORED : ZipEntry.DEFLATED;
+
+            CRC32 crc = new CRC32();
+            Buffer buffer = method == ZipEntry.DEFLATED ? new Buffer() : null;
+            Deflater deflater = method == ZipEntry.DEFLATED ? new Deflater(level, true) : null;
+            long[] size = new long[]{sample.length};
+
+            if (buffer != null) {
+                buffers.add(buffer);
+            }
+
+            try (OutputStream content = deflater == null ? null : new DeflaterOutputStream(buffer, deflater)) {
+                crc.update(sample);
+                if (content != null) {
+                    content.write(sample);
+                }
+
+                ByteArrayPool.withByteArray(b -> {
+                    try {
+                        int length;
+                        while ((length = in.read(b)) != -1) {
+                            if (Thread.interrupted()) {
+                                throw new InterruptedIOException();
+                            }
+
+                            crc.update(b, 0, length);
+                            if (content != null) {
+                                content.write(b, 0, length);
+                            }
+                            size[0] += length;
+                        }
+                    } catch (IOException e) {
+                        throw Exceptions.propagate(e);
+                    }
+                });
+            } catch (IOException | RuntimeException e) {
+                if (buffer != null) {
+                    buffer.delete();
+                }
+
+                throw e;
+            } finally {
+                if (deflater != null) {
+                    deflater.end();
+                }
+            }
+
+            return new Compressed(source, method, size[0], crc.getValue(), buffer);
+        }
+    }
+
+    /**
+     * Returns whether a sample of an entry's contents does not shrink when deflated
+     *
+     * @param sample the sample of the entry's contents
+     * @param level  the deflate compression level
+     * @return {@code true} if the entry is unlikely to compress
+     */
+    static boolean isIncompressible(byte[] sample, int level) {
+        if (sample.length == 0) {
+            return true;
+        }
+
+        Deflater deflater = new Deflater(level, true);
+
+        try {
+            deflater.setInput(sample);
+            deflater.finish();
+
+            byte[] b = new byte[sample.length];
+            long deflated = 0;
+            while (!deflater.finished() && deflated < sample.length) {
+                deflated += deflater.deflate(b);
+            }
+
+            return deflated >= sample.length * INCOMPRESSIBLE_RATIO;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Creates a bounded pool of daemon worker threads
+     *
+     * @param parallelism the number of worker threads
+     * @return the pool of worker threads
+     */
+    static ExecutorService newWorkers(int parallelism) {
+        return Executors.newFixedThreadPool(parallelism, WORKER_FACTORY);
+    }
+
+    /**
+     * Reads a sample from the start of an entry's contents
+     *
+     * @param in the entry's contents
+     * @return up to {@code 64 KiB} of the entry's contents
+     * @throws IOException if the contents cannot be read
+     */
+    static byte[] readSample(InputStream in) throws IOException {
+        byte[] sample = new byte[SAMPLE_SIZE];
+
+        int length = 0;
+        int read;
+        while (length < sample.length && (read = in.read(sample, length, sample.length - length)) != -1) {
+            length += read;
+        }
+
+        return length == sample.length ? sample : Arrays.copyOf(sample, length);
+    }
+
+    /**
+     * The content of an entry
+     */
+    @FunctionalInterface
+    interface Content {
+
+        /**
+         * Opens the content of an entry
+         *
+         * @return the content of the entry, or {@code null} if the entry is a directory
+         * @throws IOException if the content cannot be opened
+         */
+        InputStream open() throws IOException;
+
+    }
+
+    /**
+     * The source of an entry
+     */
+    static final class Source {
+
+        private final Content content;
+
+        private final FileTime lastModifiedTime;
+
+        private final int mode;
+
+        private final String name;
+
+        Source(String name, int mode, FileTime lastModifiedTime, Content content) {
+            this.content = content;
+            this.lastModifiedTime = lastModifiedTime;
+            this.mode = mode;
+            this.name = name;
+        }
+
+    }
+
+    /**
+     * A buffer for the deflated contents of an entry that is kept in memory until it grows past the spill threshold, and is then moved to a temporary file
+     */
+    private static final class Buffer extends OutputStream {
+
+        private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+
+        private OutputStream out;
+
+        private Path path;
+
+        private long size;
+
+        @Override
+        public void close() throws IOException {
+            if (this.out != null) {
+                this.out.close();
+                this.out = null;
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (this.memory != null && this.memory.size() + len > SPILL_THRESHOLD) {
+                this.path = Files.createTempFile("parallel-compressor-", ".spill");
+                this.out = Files.newOutputStream(this.path);
+                this.memory.writeTo(this.out);
+                this.memory = null;
+            }
+
+            if (this.memory != null) {
+                this.memory.write(b, off, len);
+            } else {
+                this.out.write(b, off, len);
+            }
+
+            this.size += len;
+        }
+
+        private void delete() {
+            this.memory = null;
+
+            try {
+                close();
+
+                if (this.path != null) {
+                    Files.deleteIfExists(this.path);
+                }
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+        }
+
+        private InputStream open() throws IOException {
+            return this.memory != null ? new ByteArrayInputStream(this.memory.toByteArray()) : Files.newInputStream(this.path);
+        }
+
+    }
+
+    private static final class Compressed {
+
+        private final Buffer content;
+
+        private final long crc;
+
+        private final int method;
+
+        private final long size;
+
+        private final Source source;
+
+        private Compressed(Source source, int method, long size, long crc, Buffer content) {
+            this.content = content;
+            this.crc = crc;
+            this.method = method;
+            this.size = size;
+            this.source = source;
+        }
+
+        private void write(ZipArchiveOutputStream out) throws IOException {
+            ZipArchiveEntry entry = new ZipArchiveEntry(this.source.name);
+            entry.setUnixMode(this.source.mode);
+            entry.setLastModifiedTime(this.source.lastModifiedTime);
+
+            if (entry.isDirectory()) {
+                out.putArchiveEntry(entry);
+                out.closeArchiveEntry();
+                return;
+            }
+
+            entry.setMethod(this.method);
+            entry.setCompressedSize(this.content != null ? this.content.size : this.size);
+            entry.setCrc(this.crc);
+            entry.setSize(this.size);
+
+            if (this.content == null) {
+                try (InputStream in = this.source.content.open()) {
+                    out.addRawArchiveEntry(entry, in);
+                }
+                return;
+            }
+
+            try (InputStream in = this.content.open()) {
+                out.addRawArchiveEntry(entry, in);
+            } finally {
+                this.content.delete();
+            }
+        }
+
+    }
+
+}
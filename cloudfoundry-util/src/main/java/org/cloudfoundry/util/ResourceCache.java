@@ -0,0 +1,215 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of the resources known to exist in a Cloud Foundry foundation's resource cache.  Resources that the foundation has recently matched do not need to be matched again, so a push can skip
+ * them in its resource matching request.
+ * <p>
+ * Each resource is remembered by its SHA-1 hash for a limited time.  The hash is held as a fingerprint of primitive fields rather than as a {@link String}, but with the map entry and the
+ * expiration each resource still costs roughly 100 bytes, so the default maximum of 100,000 resources bounds a cache at about 10 MB.  Because a resource is only ever skipped when it was matched
+ * exactly, a stale entry is the only way that a resource is wrongly assumed to exist; the time-to-live bounds that risk.  A push whose upload fails because resources are missing matches the
+ * resources it claimed again, forgets those that no longer match, and retries once.
+ */
+public final class ResourceCache {
+
+    private static final Duration DEFAULT_TTL = Duration.ofHours(1);
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 100_000;
+
+    private static final Map<String, ResourceCache> SHARED = new ConcurrentHashMap<>();
+
+    private final Clock clock;
+
+    private final Map<Fingerprint, Long> expirations = new ConcurrentHashMap<>();
+
+    private final int maximumSize;
+
+    private final long ttl;
+
+    /**
+     * Creates a new instance
+     *
+     * @param ttl         the time that a resource is remembered for
+     * @param maximumSize the maximum number of resources to remember
+     */
+    public ResourceCache(Duration ttl, int maximumSize) {
+        this(Clock.systemUTC(), ttl, maximumSize);
+    }
+
+    ResourceCache(Clock clock, Duration ttl, int maximumSize) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be at least 1");
+        }
+
+        this.clock = clock;
+        this.maximumSize = maximumSize;
+        this.ttl = ttl.toMillis();
+    }
+
+    /**
+     * Returns the cache shared by all users of a foundation, remembering resources for one hour
+     *
+     * @param apiHost the API host of the foundation
+     * @return the cache for the foundation
+     */
+    public static ResourceCache forHost(String apiHost) {
+        return SHARED.computeIfAbsent(apiHost, key -> new ResourceCache(DEFAULT_TTL, DEFAULT_MAXIMUM_SIZE));
+    }
+
+    /**
+     * Remembers resources that the foundation has matched
+     *
+     * @param hashes the SHA-1 hashes of the resources
+     */
+    public void add(Collection<String> hashes) {
+        Long expiration = this.clock.millis() + this.ttl;
+
+        hashes.stream()
+            .map(Fingerprint::of)
+            .filter(fingerprint -> fingerprint != null)
+            .forEach(fingerprint -> this.expirations.put(fingerprint, expiration));
+
+        if (this.expirations.size() > this.maximumSize) {
+            evict();
+        }
+    }
+
+    /**
+     * Returns whether a resource is known to exist in the foundation's resource cache
+     *
+     * @param hash the SHA-1 hash of the resource
+     * @return {@code true} if the resource is known to exist
+     */
+    public boolean contains(String hash) {
+        Fingerprint fingerprint = Fingerprint.of(hash);
+        if (fingerprint == null) {
+            return false;
+        }
+
+        Long expiration = this.expirations.get(fingerprint);
+        if (expiration == null) {
+            return false;
+        }
+
+        if (expiration <= this.clock.millis()) {
+            this.expirations.remove(fingerprint, expiration);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Forgets all resources
+     */
+    public void invalidate() {
+        this.expirations.clear();
+    }
+
+    /**
+     * Forgets resources that the foundation no longer has
+     *
+     * @param hashes the SHA-1 hashes of the resources
+     */
+    public void remove(Collection<String> hashes) {
+        hashes.stream()
+            .map(Fingerprint::of)
+            .filter(fingerprint -> fingerprint != null)
+            .forEach(this.expirations::remove);
+    }
+
+    /**
+     * Returns the number of resources remembered
+     *
+     * @return the number of resources remembered
+     */
+    public int size() {
+        return this.expirations.size();
+    }
+
+    private void evict() {
+        long now = this.clock.millis();
+        this.expirations.values().removeIf(expiration -> expiration <= now);
+
+        Iterator<Fingerprint> fingerprints = this.expirations.keySet().iterator();
+        while (this.expirations.size() > this.maximumSize && fingerprints.hasNext()) {
+            fingerprints.next();
+            fingerprints.remove();
+        }
+    }
+
+    private static final class Fingerprint {
+
+        private final long high;
+
+        private final int low;
+
+        private final long middle;
+
+        private Fingerprint(long high, long middle, int low) {
+            this.high = high;
+            this.low = low;
+            this.middle = middle;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            Fingerprint that = (Fingerprint) o;
+            return this.high == that.high && this.middle == that.middle && this.low == that.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(this.high);
+        }
+
+        private static Fingerprint of(String hash) {
+            if (hash == null || hash.length() != 40) {
+                return null;
+            }
+
+            try {
+                return new Fingerprint(Long.parseUnsignedLong(hash.substring(0, 16), 16), Long.parseUnsignedLong(hash.substring(16, 32), 16), Integer.parseUnsignedInt(hash.substring(32), 16));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+    }
+
+}
@@ -37,6 +37,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Utilities for matching resources
@@ -48,17 +50,51 @@ public final class ResourceMatchingUtils {
     private ResourceMatchingUtils() {
     }
 
+    public static Mono<List<ArtifactMetadata>> getMatchedResources(CloudFoundryClient cloudFoundryClient, CompressedApplication application) {
+        return getMatchedResources(cloudFoundryClient, Flux.fromIterable(application.getArtifactMetadata()), null);
+    }
+
+    /**
+     * Returns the resources of an application that match resources in the foundation's resource cache, skipping resources already known to exist
+     *
+     * @param cloudFoundryClient the client to match with
+     * @param application        the application
+     * @param resourceCache      the resources known to exist in the foundation's resource cache
+     * @return the matched resources
+     */
+    public static Mono<List<ArtifactMetadata>> getMatchedResources(CloudFoundryClient cloudFoundryClient, CompressedApplication application, ResourceCache resourceCache) {
+        return getMatchedResources(cloudFoundryClient, Flux.fromIterable(application.getArtifactMetadata()), resourceCache);
+    }
+
+    /**
+     * Returns the resources that match resources in the foundation's resource cache, without consulting a {@link ResourceCache}
+     *
+     * @param cloudFoundryClient the client to match with
+     * @param artifactMetadatas  the resources to match
+     * @return the matched resources
+     */
+    public static Mono<List<ArtifactMetadata>> getMatchedResources(CloudFoundryClient cloudFoundryClient, List<ArtifactMetadata> artifactMetadatas) {
+        return getMatchedResources(cloudFoundryClient, Flux.fromIterable(artifactMetadatas), null);
+    }
+
     public static Mono<List<ArtifactMetadata>> getMatchedResources(CloudFoundryClient cloudFoundryClient, Path application) {
-        return (Files.isDirectory(application) ? getArtifactMetadataFromDirectory(application) : getArtifactMetadataFromZip(application))
-            .collectMap(ArtifactMetadata::getHash)
-            .flatMap(artifactMetadatas -> requestListMatchingResources(cloudFoundryClient, artifactMetadatas.values())
-                .flatMapIterable(ListMatchingResourcesResponse::getResources)
-                .map(resource -> artifactMetadatas.get(resource.getHash())))
-            .collectList()
-            .doOnNext(matched -> LOGGER.debug("{} resources matched totaling {}", matched.size(), SizeUtils.asIbi(matched.stream()
-                .mapToInt(ArtifactMetadata::getSize)
-                .sum())))
-            .subscribeOn(Schedulers.elastic());
+        return getMatchedResources(cloudFoundryClient, getArtifactMetadata(application), null);
+    }
+
+    /**
+     * Returns the resources of an application that match resources in the foundation's resource cache, skipping resources already known to exist
+     *
+     * @param cloudFoundryClient the client to match with
+     * @param application        the application
+     * @param resourceCache      the resources known to exist in the foundation's resource cache
+     * @return the matched resources
+     */
+    public static Mono<List<ArtifactMetadata>> getMatchedResources(CloudFoundryClient cloudFoundryClient, Path application, ResourceCache resourceCache) {
+        return getMatchedResources(cloudFoundryClient, getArtifactMetadata(application), resourceCache);
+    }
+
+    private static Flux<ArtifactMetadata> getArtifactMetadata(Path application) {
+        return Flux.defer(() -> Files.isDirectory(application) ? getArtifactMetadataFromDirectory(application) : getArtifactMetadataFromZip(application));
     }
 
     private static Flux<ArtifactMetadata> getArtifactMetadataFromDirectory(Path application) {
@@ -102,6 +138,26 @@ public final class ResourceMatchingUtils {
         return Flux.fromIterable(artifactMetadatas);
     }
 
+    private static Mono<List<ArtifactMetadata>> getMatchedResources(CloudFoundryClient cloudFoundryClient, Flux<ArtifactMetadata> artifacts, ResourceCache resourceCache) {
+        return artifacts
+            .collectMap(ArtifactMetadata::getHash)
+            .flatMap(artifactMetadatas -> {
+                Map<Boolean, List<ArtifactMetadata>> known = artifactMetadatas.values().stream()
+                    .collect(Collectors.partitioningBy(artifactMetadata -> resourceCache != null && resourceCache.contains(artifactMetadata.getHash())));
+
+                LOGGER.debug("{} resources known to be cached", known.get(true).size());
+
+                return Flux.concat(
+                    Flux.fromIterable(known.get(true)),
+                    requestMatchedResources(cloudFoundryClient, known.get(false), artifactMetadatas, resourceCache));
+            })
+            .collectList()
+            .doOnNext(matched -> LOGGER.debug("{} resources matched totaling {}", matched.size(), SizeUtils.asIbi(matched.stream()
+                .mapToInt(ArtifactMetadata::getSize)
+                .sum())))
+            .subscribeOn(Schedulers.elastic());
+    }
+
     private static Mono<ListMatchingResourcesResponse> requestListMatchingResources(CloudFoundryClient cloudFoundryClient, Collection<ArtifactMetadata> artifactMetadatas) {
         ListMatchingResourcesRequest request = artifactMetadatas.stream()
             .reduce(ListMatchingResourcesRequest.builder(), (builder, artifactMetadata) -> builder.resource(Resource.builder()
@@ -115,6 +171,25 @@ public final class ResourceMatchingUtils {
             .list(request);
     }
 
+    private static Flux<ArtifactMetadata> requestMatchedResources(CloudFoundryClient cloudFoundryClient, List<ArtifactMetadata> unknown, Map<String, ArtifactMetadata> artifactMetadatas,
+                                                                  ResourceCache resourceCache) {
+        if (unknown.isEmpty()) {
+            return Flux.empty();
+        }
+
+        return requestListMatchingResources(cloudFoundryClient, unknown)
+            .map(ListMatchingResourcesResponse::getResources)
+            .doOnNext(resources -> {
+                if (resourceCache != null) {
+                    resourceCache.add(resources.stream()
+                        .map(Resource::getHash)
+                        .collect(Collectors.toList()));
+                }
+            })
+            .flatMapIterable(resources -> resources)
+            .map(resource -> artifactMetadatas.get(resource.getHash()));
+    }
+
     /**
      * Metadata information about a given artifact
      */
@@ -0,0 +1,469 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.PaginatedResponse;
+import org.cloudfoundry.client.v2.Resource;
+import org.cloudfoundry.client.v2.applications.ApplicationInstancesRequest;
+import org.cloudfoundry.client.v2.applications.ApplicationInstancesResponse;
+import org.cloudfoundry.client.v2.applications.ApplicationResource;
+import org.cloudfoundry.client.v2.applications.GetApplicationRequest;
+import org.cloudfoundry.client.v2.applications.ListApplicationsRequest;
+import org.cloudfoundry.client.v2.jobs.GetJobRequest;
+import org.cloudfoundry.client.v2.jobs.GetJobResponse;
+import org.cloudfoundry.client.v2.jobs.JobEntity;
+import org.cloudfoundry.client.v2.serviceinstances.GetServiceInstanceRequest;
+import org.cloudfoundry.client.v2.serviceinstances.LastOperation;
+import org.cloudfoundry.client.v2.serviceinstances.ListServiceInstancesRequest;
+import org.cloudfoundry.client.v2.serviceinstances.ServiceInstanceResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A shared poller for the status of long-running Cloud Controller operations.  Rather than each waiter polling on its own backoff schedule, all pending waits against a {@link CloudFoundryClient}
+ * are checked together on a single timer.  Each type of resource backs off exponentially between polls, restarting at the minimum interval whenever a new wait is added.  When a type is polled,
+ * waits for resources in the same space are satisfied with a paginated list call as long as that list takes fewer requests than getting each resource individually, while the remaining waits for
+ * a given resource share a single request.  The timer only runs while there are pending waits.
+ */
+public final class StatusPoller {
+
+    private static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(1);
+
+    private static final Duration DEFAULT_MAXIMUM_INTERVAL = Duration.ofSeconds(15);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("cloudfoundry-client.poller");
+
+    private static final Map<CloudFoundryClient, WeakReference<StatusPoller>> POLLERS = new WeakHashMap<>();
+
+    private final Group<ApplicationInstancesResponse> applicationInstances;
+
+    private final Group<String> applicationPackageStates;
+
+    private final CloudFoundryClient cloudFoundryClient;
+
+    private final List<Group<?>> groups;
+
+    private final Duration interval;
+
+    private final Group<JobEntity> jobs;
+
+    private final long maximumTicks;
+
+    private final Object monitor = new Object();
+
+    private final Group<LastOperation> serviceInstanceLastOperations;
+
+    private Disposable timer;
+
+    StatusPoller(CloudFoundryClient cloudFoundryClient, Duration interval, Duration maximumInterval) {
+        this.cloudFoundryClient = cloudFoundryClient;
+        this.interval = interval;
+        this.maximumTicks = Math.max(1, maximumInterval.toMillis() / interval.toMillis());
+
+        this.applicationInstances = new Group<>(this.monitor, "application instances", null, this::requestApplicationInstances);
+        this.applicationPackageStates = new Group<>(this.monitor, "application package state", this::requestApplicationPackageStates, this::requestApplicationPackageState);
+        this.jobs = new Group<>(this.monitor, "job", null, this::requestJob);
+        this.serviceInstanceLastOperations = new Group<>(this.monitor, "service instance last operation", this::requestServiceInstanceLastOperations,
+            this::requestServiceInstanceLastOperation);
+
+        this.groups = Collections.unmodifiableList(Arrays.asList(this.applicationInstances, this.applicationPackageStates, this.jobs, this.serviceInstanceLastOperations));
+    }
+
+    /**
+     * Returns the shared poller for a {@link CloudFoundryClient}.  Pollers are held weakly: a poller is kept alive by its pending waits, and neither it nor its client is kept alive by the registry.
+     *
+     * @param cloudFoundryClient the client to use to request status
+     * @return the shared poller for the client
+     */
+    public static StatusPoller of(CloudFoundryClient cloudFoundryClient) {
+        synchronized (POLLERS) {
+            StatusPoller statusPoller = Optional.ofNullable(POLLERS.get(cloudFoundryClient))
+                .map(WeakReference::get)
+                .orElse(null);
+
+            if (statusPoller == null) {
+                statusPoller = new StatusPoller(cloudFoundryClient, DEFAULT_INTERVAL, DEFAULT_MAXIMUM_INTERVAL);
+                POLLERS.put(cloudFoundryClient, new WeakReference<>(statusPoller));
+            }
+
+            return statusPoller;
+        }
+    }
+
+    /**
+     * Waits for the instances of an application to satisfy a predicate
+     *
+     * @param applicationId the id of the application
+     * @param predicate     the predicate to satisfy
+     * @param timeout       the maximum amount of time to wait for
+     * @return the instances that satisfied the predicate, or a {@link DelayTimeoutException} if the timeout passes first
+     */
+    public Mono<ApplicationInstancesResponse> waitForApplicationInstances(String applicationId, Predicate<ApplicationInstancesResponse> predicate, Duration timeout) {
+        return waitFor(this.applicationInstances, null, applicationId, predicate, timeout);
+    }
+
+    /**
+     * Waits for the package state of an application to satisfy a predicate
+     *
+     * @param spaceId       the id of the space containing the application.  Waits for applications in the same space are batched.  May be {@code null}.
+     * @param applicationId the id of the application
+     * @param predicate     the predicate to satisfy
+     * @param timeout       the maximum amount of time to wait for
+     * @return the package state that satisfied the predicate, or a {@link DelayTimeoutException} if the timeout passes first
+     */
+    public Mono<String> waitForApplicationPackageState(String spaceId, String applicationId, Predicate<String> predicate, Duration timeout) {
+        return waitFor(this.applicationPackageStates, spaceId, applicationId, predicate, timeout);
+    }
+
+    /**
+     * Waits for a job to satisfy a predicate
+     *
+     * @param jobId     the id of the job
+     * @param predicate the predicate to satisfy
+     * @param timeout   the maximum amount of time to wait for
+     * @return the job that satisfied the predicate, or a {@link DelayTimeoutException} if the timeout passes first
+     */
+    public Mono<JobEntity> waitForJob(String jobId, Predicate<JobEntity> predicate, Duration timeout) {
+        return waitFor(this.jobs, null, jobId, predicate, timeout);
+    }
+
+    /**
+     * Waits for the last operation of a service instance to satisfy a predicate
+     *
+     * @param spaceId           the id of the space containing the service instance.  Waits for service instances in the same space are batched.  May be {@code null}.
+     * @param serviceInstanceId the id of the service instance
+     * @param predicate         the predicate to satisfy
+     * @param timeout           the maximum amount of time to wait for
+     * @return the last operation that satisfied the predicate, or a {@link DelayTimeoutException} if the timeout passes first
+     */
+    public Mono<LastOperation> waitForServiceInstanceLastOperation(String spaceId, String serviceInstanceId, Predicate<LastOperation> predicate, Duration timeout) {
+        return waitFor(this.serviceInstanceLastOperations, spaceId, serviceInstanceId, predicate, timeout);
+    }
+
+    int getWaiting() {
+        synchronized (this.monitor) {
+            return this.groups.stream()
+                .mapToInt(group -> group.waiters.size())
+                .sum();
+        }
+    }
+
+    private <T> void add(Waiter<T> waiter) {
+        synchronized (this.monitor) {
+            waiter.group.waiters.add(waiter);
+            waiter.group.reset();
+
+            if (this.timer == null) {
+                LOGGER.debug("Starting status poller");
+
+                this.timer = Flux.interval(Duration.ZERO, this.interval)
+                    .onBackpressureDrop()
+                    .concatMap(tick -> poll())
+                    .subscribe();
+            }
+        }
+    }
+
+    private Mono<Void> poll() {
+        return Flux.fromIterable(this.groups)
+            .flatMap(group -> group.poll(this.maximumTicks))
+            .then();
+    }
+
+    private <T> void remove(Waiter<T> waiter) {
+        synchronized (this.monitor) {
+            waiter.group.waiters.remove(waiter);
+
+            if (this.timer != null && getWaiting() == 0) {
+                LOGGER.debug("Stopping status poller");
+
+                this.timer.dispose();
+                this.timer = null;
+            }
+        }
+    }
+
+    private Mono<ApplicationInstancesResponse> requestApplicationInstances(String applicationId) {
+        return this.cloudFoundryClient.applicationsV2()
+            .instances(ApplicationInstancesRequest.builder()
+                .applicationId(applicationId)
+                .build());
+    }
+
+    private Mono<String> requestApplicationPackageState(String applicationId) {
+        return this.cloudFoundryClient.applicationsV2()
+            .get(GetApplicationRequest.builder()
+                .applicationId(applicationId)
+                .build())
+            .map(response -> ResourceUtils.getEntity(response).getPackageState());
+    }
+
+    private Mono<Page<String>> requestApplicationPackageStates(String spaceId, Integer page) {
+        return this.cloudFoundryClient.applicationsV2()
+            .list(ListApplicationsRequest.builder()
+                .page(page)
+                .spaceId(spaceId)
+                .build())
+            .map(response -> toPage(response, (ApplicationResource resource) -> ResourceUtils.getEntity(resource).getPackageState()));
+    }
+
+    private Mono<JobEntity> requestJob(String jobId) {
+        return this.cloudFoundryClient.jobs()
+            .get(GetJobRequest.builder()
+                .jobId(jobId)
+                .build())
+            .map(GetJobResponse::getEntity);
+    }
+
+    private Mono<LastOperation> requestServiceInstanceLastOperation(String serviceInstanceId) {
+        return this.cloudFoundryClient.serviceInstances()
+            .get(GetServiceInstanceRequest.builder()
+                .serviceInstanceId(serviceInstanceId)
+                .build())
+            .map(response -> ResourceUtils.getEntity(response).getLastOperation());
+    }
+
+    private Mono<Page<LastOperation>> requestServiceInstanceLastOperations(String spaceId, Integer page) {
+        return this.cloudFoundryClient.serviceInstances()
+            .list(ListServiceInstancesRequest.builder()
+                .page(page)
+                .spaceId(spaceId)
+                .build())
+            .map(response -> toPage(response, (ServiceInstanceResource resource) -> ResourceUtils.getEntity(resource).getLastOperation()));
+    }
+
+    private static <R extends Resource<?>, T> Page<T> toPage(PaginatedResponse<R> response, Function<R, T> status) {
+        Map<String, T> statuses = new HashMap<>();
+        response.getResources().forEach(resource -> statuses.put(ResourceUtils.getId(resource), status.apply(resource)));
+
+        return new Page<>(statuses, response.getTotalPages());
+    }
+
+    private <T> Mono<T> waitFor(Group<T> group, String scope, String id, Predicate<T> predicate, Duration timeout) {
+        return Mono
+            .defer(() -> {
+                Waiter<T> waiter = new Waiter<>(group, scope, id, predicate);
+                add(waiter);
+
+                return waiter.processor
+                    .timeout(timeout)
+                    .otherwise(TimeoutException.class, t -> Mono.error(new DelayTimeoutException()))
+                    .doOnTerminate((value, t) -> remove(waiter))
+                    .doOnCancel(() -> remove(waiter));
+            });
+    }
+
+    private static final class Group<T> {
+
+        private final BiFunction<String, Integer, Mono<Page<T>>> batch;
+
+        private final Object monitor;
+
+        private final String name;
+
+        private final Map<String, Integer> pages = new HashMap<>();
+
+        private final Function<String, Mono<T>> single;
+
+        private final List<Waiter<T>> waiters = new ArrayList<>();
+
+        private long period;
+
+        private long remaining;
+
+        private Group(Object monitor, String name, BiFunction<String, Integer, Mono<Page<T>>> batch, Function<String, Mono<T>> single) {
+            this.batch = batch;
+            this.monitor = monitor;
+            this.name = name;
+            this.single = single;
+        }
+
+        private void deliver(List<Waiter<T>> waiters, Map<String, T> statuses) {
+            waiters.stream()
+                .filter(waiter -> statuses.containsKey(waiter.id))
+                .forEach(waiter -> waiter.offer(statuses.get(waiter.id)));
+        }
+
+        private void fail(List<Waiter<T>> waiters, Set<String> ids, Throwable t) {
+            waiters.stream()
+                .filter(waiter -> ids.contains(waiter.id))
+                .forEach(waiter -> waiter.processor.onError(t));
+        }
+
+        private Mono<Void> poll(long maximumTicks) {
+            List<Waiter<T>> waiters;
+            Map<String, Integer> pages;
+            synchronized (this.monitor) {
+                if (this.waiters.isEmpty() || --this.remaining > 0) {
+                    return Mono.empty();
+                }
+
+                this.remaining = this.period;
+                this.period = Math.min(this.period * 2, maximumTicks);
+
+                waiters = new ArrayList<>(this.waiters);
+                pages = new HashMap<>(this.pages);
+            }
+
+            Map<String, Set<String>> batches = new HashMap<>();
+            Set<String> singles = new HashSet<>();
+
+            waiters.forEach(waiter -> {
+                if (this.batch == null || waiter.scope == null) {
+                    singles.add(waiter.id);
+                } else {
+                    batches.computeIfAbsent(waiter.scope, scope -> new HashSet<>()).add(waiter.id);
+                }
+            });
+
+            batches.entrySet().removeIf(entry -> {
+                Set<String> ids = entry.getValue();
+
+                if (ids.size() <= pages.getOrDefault(entry.getKey(), 1)) {
+                    singles.addAll(ids);
+                    return true;
+                }
+
+                return false;
+            });
+
+            LOGGER.debug("Polling {} {} status in {} batched and {} single requests", waiters.size(), this.name, batches.size(), singles.size());
+
+            return Flux
+                .concat(
+                    Flux.fromIterable(batches.entrySet())
+                        .flatMap(entry -> requestBatch(waiters, entry.getKey(), entry.getValue())),
+                    Flux.fromIterable(singles)
+                        .flatMap(id -> requestSingle(waiters, id)))
+                .then();
+        }
+
+        private Mono<Void> requestBatch(List<Waiter<T>> waiters, String scope, Set<String> ids) {
+            return this.batch.apply(scope, 1)
+                .then(first -> {
+                    synchronized (this.monitor) {
+                        this.pages.put(scope, first.totalPages);
+                    }
+
+                    if (first.totalPages >= ids.size()) {
+                        LOGGER.debug("Listing {} {} status in {} requires {} pages, requesting remainder individually", ids.size(), this.name, scope, first.totalPages);
+                        return Mono.just(first.statuses);
+                    }
+
+                    return Flux.range(2, first.totalPages - 1)
+                        .flatMap(page -> this.batch.apply(scope, page))
+                        .<Map<String, T>>reduce(new HashMap<>(first.statuses), (statuses, page) -> {
+                            statuses.putAll(page.statuses);
+                            return statuses;
+                        });
+                })
+                .doOnSuccess(statuses -> deliver(waiters, statuses))
+                .then(statuses -> Flux.fromIterable(ids)
+                    .filter(id -> !statuses.containsKey(id))
+                    .flatMap(id -> requestSingle(waiters, id))
+                    .then())
+                .otherwise(t -> {
+                    fail(waiters, ids, t);
+                    return Mono.empty();
+                });
+        }
+
+        private Mono<Void> requestSingle(List<Waiter<T>> waiters, String id) {
+            return this.single.apply(id)
+                .map(status -> Collections.singletonMap(id, status))
+                .doOnSuccess(statuses -> deliver(waiters, statuses))
+                .then()
+                .otherwise(t -> {
+                    fail(waiters, Collections.singleton(id), t);
+                    return Mono.empty();
+                });
+        }
+
+        private void reset() {
+            this.period = 1;
+            this.remaining = 1;
+        }
+
+    }
+
+    private static final class Page<T> {
+
+        private final Map<String, T> statuses;
+
+        private final int totalPages;
+
+        private Page(Map<String, T> statuses, Integer totalPages) {
+            this.statuses = statuses;
+            this.totalPages = Optional.ofNullable(totalPages).orElse(1);
+        }
+
+    }
+
+    private static final class Waiter<T> {
+
+        private final Group<T> group;
+
+        private final String id;
+
+        private final Predicate<T> predicate;
+
+        private final MonoProcessor<T> processor = MonoProcessor.create();
+
+        private final String scope;
+
+        private Waiter(Group<T> group, String scope, String id, Predicate<T> predicate) {
+            this.group = group;
+            this.id = id;
+            this.predicate = predicate;
+            this.scope = scope;
+        }
+
+        private void offer(T status) {
+            try {
+                if (this.predicate.test(status)) {
+                    this.processor.onNext(status);
+                }
+            } catch (RuntimeException e) {
+                this.processor.onError(e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,478 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.util;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.ClientV2Exception;
+import org.cloudfoundry.client.v2.Resource;
+import org.cloudfoundry.client.v2.applications.AbstractApplicationResource;
+import org.cloudfoundry.client.v2.applications.GetApplicationRequest;
+import org.cloudfoundry.client.v2.applications.ListApplicationsRequest;
+import org.cloudfoundry.client.v2.events.EventEntity;
+import org.cloudfoundry.client.v2.events.EventResource;
+import org.cloudfoundry.client.v2.events.ListEventsRequest;
+import org.cloudfoundry.client.v2.organizations.AbstractOrganizationResource;
+import org.cloudfoundry.client.v2.organizations.GetOrganizationRequest;
+import org.cloudfoundry.client.v2.organizations.ListOrganizationsRequest;
+import org.cloudfoundry.client.v2.routes.AbstractRouteResource;
+import org.cloudfoundry.client.v2.routes.GetRouteRequest;
+import org.cloudfoundry.client.v2.routes.ListRoutesRequest;
+import org.cloudfoundry.client.v2.serviceinstances.AbstractServiceInstanceResource;
+import org.cloudfoundry.client.v2.serviceinstances.GetServiceInstanceRequest;
+import org.cloudfoundry.client.v2.serviceinstances.ListServiceInstancesRequest;
+import org.cloudfoundry.client.v2.spaces.AbstractSpaceResource;
+import org.cloudfoundry.client.v2.spaces.GetSpaceRequest;
+import org.cloudfoundry.client.v2.spaces.ListSpacesRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * An in-memory replica of a foundation's organizations, spaces, applications, routes and service instances.  The replica is loaded in full once, and then kept up to date by applying audit events
+ * as they are recorded and by periodically reloading one collection at a time.  Queries are answered from indexes by id, by name within a parent and by parent, without any requests to the
+ * foundation.
+ * <p>
+ * Every collection is reloaded at least once per cycle of refreshes, so {@link #getStaleness()} bounds how old any answer can be.  Audit events usually make answers much fresher than that bound.
+ */
+public final class TopologyReplica implements Disposable {
+
+    private static final Duration EVENT_OVERLAP = Duration.ofMinutes(1);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("cloudfoundry-client.topology");
+
+    private static final Duration MAXIMUM_RETRY_DELAY = Duration.ofMinutes(1);
+
+    private static final int RESULTS_PER_PAGE = 100;
+
+    private final ReplicatedCollection<AbstractApplicationResource> applications = new ReplicatedCollection<>("app",
+        cloudFoundryClient -> PaginationUtils.requestClientV2Resources(page -> cloudFoundryClient.applicationsV2()
+            .list(ListApplicationsRequest.builder()
+                .page(page)
+                .resultsPerPage(RESULTS_PER_PAGE)
+                .build())),
+        (cloudFoundryClient, applicationId) -> cloudFoundryClient.applicationsV2()
+            .get(GetApplicationRequest.builder()
+                .applicationId(applicationId)
+                .build()),
+        resource -> resource.getEntity().getSpaceId(), resource -> resource.getEntity().getName());
+
+    private final Mono<CloudFoundryClient> cloudFoundryClient;
+
+    private final ReplicatedCollection<AbstractOrganizationResource> organizations = new ReplicatedCollection<>("organization",
+        cloudFoundryClient -> PaginationUtils.requestClientV2Resources(page -> cloudFoundryClient.organizations()
+            .list(ListOrganizationsRequest.builder()
+                .page(page)
+                .resultsPerPage(RESULTS_PER_PAGE)
+                .build())),
+        (cloudFoundryClient, organizationId) -> cloudFoundryClient.organizations()
+            .get(GetOrganizationRequest.builder()
+                .organizationId(organizationId)
+                .build()),
+        resource -> "", resource -> resource.getEntity().getName());
+
+    private final Duration pollInterval;
+
+    private final Duration refreshInterval;
+
+    private final ReplicatedCollection<AbstractRouteResource> routes = new ReplicatedCollection<>("route",
+        cloudFoundryClient -> PaginationUtils.requestClientV2Resources(page -> cloudFoundryClient.routes()
+            .list(ListRoutesRequest.builder()
+                .page(page)
+                .resultsPerPage(RESULTS_PER_PAGE)
+                .build())),
+        (cloudFoundryClient, routeId) -> cloudFoundryClient.routes()
+            .get(GetRouteRequest.builder()
+                .routeId(routeId)
+                .build()),
+        resource -> resource.getEntity().getSpaceId(), resource -> resource.getEntity().getHost());
+
+    private final ReplicatedCollection<AbstractServiceInstanceResource> serviceInstances = new ReplicatedCollection<>("service_instance",
+        cloudFoundryClient -> PaginationUtils.requestClientV2Resources(page -> cloudFoundryClient.serviceInstances()
+            .list(ListServiceInstancesRequest.builder()
+                .page(page)
+                .resultsPerPage(RESULTS_PER_PAGE)
+                .build())),
+        (cloudFoundryClient, serviceInstanceId) -> cloudFoundryClient.serviceInstances()
+            .get(GetServiceInstanceRequest.builder()
+                .serviceInstanceId(serviceInstanceId)
+                .build()),
+        resource -> resource.getEntity().getSpaceId(), resource -> resource.getEntity().getName());
+
+    private final ReplicatedCollection<AbstractSpaceResource> spaces = new ReplicatedCollection<>("space",
+        cloudFoundryClient -> PaginationUtils.requestClientV2Resources(page -> cloudFoundryClient.spaces()
+            .list(ListSpacesRequest.builder()
+                .page(page)
+                .resultsPerPage(RESULTS_PER_PAGE)
+                .build())),
+        (cloudFoundryClient, spaceId) -> cloudFoundryClient.spaces()
+            .get(GetSpaceRequest.builder()
+                .spaceId(spaceId)
+                .build()),
+        resource -> resource.getEntity().getOrganizationId(), resource -> resource.getEntity().getName());
+
+    private final List<ReplicatedCollection<?>> collections = Arrays.asList(this.organizations, this.spaces, this.applications, this.routes, this.serviceInstances);
+
+    private volatile Disposable synchronization;
+
+    /**
+     * Creates a new instance
+     *
+     * @param cloudFoundryClient the client to replicate the foundation of
+     * @param pollInterval       the interval to poll for audit events at
+     * @param refreshInterval    the interval to reload one collection at
+     */
+    public TopologyReplica(Mono<CloudFoundryClient> cloudFoundryClient, Duration pollInterval, Duration refreshInterval) {
+        this.cloudFoundryClient = cloudFoundryClient;
+        this.pollInterval = pollInterval;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Stops keeping the replica up to date
+     */
+    @Override
+    public void dispose() {
+        Optional.ofNullable(this.synchronization).ifPresent(Disposable::dispose);
+    }
+
+    /**
+     * Returns an application
+     *
+     * @param organization the name of the organization
+     * @param space        the name of the space
+     * @param name         the name of the application
+     * @return the application, if it exists
+     */
+    public Optional<AbstractApplicationResource> getApplication(String organization, String space, String name) {
+        return getSpace(organization, space)
+            .flatMap(resource -> this.applications.getByName(ResourceUtils.getId(resource), name));
+    }
+
+    /**
+     * Returns an organization
+     *
+     * @param name the name of the organization
+     * @return the organization, if it exists
+     */
+    public Optional<AbstractOrganizationResource> getOrganization(String name) {
+        return this.organizations.getByName("", name);
+    }
+
+    /**
+     * Returns a space
+     *
+     * @param organization the name of the organization
+     * @param name         the name of the space
+     * @return the space, if it exists
+     */
+    public Optional<AbstractSpaceResource> getSpace(String organization, String name) {
+        return getOrganization(organization)
+            .flatMap(resource -> this.spaces.getByName(ResourceUtils.getId(resource), name));
+    }
+
+    /**
+     * Returns the longest time since any collection in the replica was last loaded in full.  No answer from the replica is older than this.
+     *
+     * @return the staleness bound of the replica
+     */
+    public Duration getStaleness() {
+        return this.collections.stream()
+            .map(collection -> collection.refreshed)
+            .min(Instant::compareTo)
+            .map(refreshed -> Duration.between(refreshed, Instant.now()))
+            .orElse(Duration.ZERO);
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return this.synchronization == null || this.synchronization.isDisposed();
+    }
+
+    /**
+     * Lists the applications in a space
+     *
+     * @param organization the name of the organization
+     * @param space        the name of the space
+     * @return the applications in the space
+     */
+    public List<AbstractApplicationResource> listApplications(String organization, String space) {
+        return getSpace(organization, space)
+            .map(resource -> this.applications.getByParent(ResourceUtils.getId(resource)))
+            .orElse(Collections.emptyList());
+    }
+
+    /**
+     * Lists the organizations
+     *
+     * @return the organizations
+     */
+    public List<AbstractOrganizationResource> listOrganizations() {
+        return this.organizations.getByParent("");
+    }
+
+    /**
+     * Lists the routes in a space
+     *
+     * @param organization the name of the organization
+     * @param space        the name of the space
+     * @return the routes in the space
+     */
+    public List<AbstractRouteResource> listRoutes(String organization, String space) {
+        return getSpace(organization, space)
+            .map(resource -> this.routes.getByParent(ResourceUtils.getId(resource)))
+            .orElse(Collections.emptyList());
+    }
+
+    /**
+     * Lists the service instances in a space
+     *
+     * @param organization the name of the organization
+     * @param space        the name of the space
+     * @return the service instances in the space
+     */
+    public List<AbstractServiceInstanceResource> listServiceInstances(String organization, String space) {
+        return getSpace(organization, space)
+            .map(resource -> this.serviceInstances.getByParent(ResourceUtils.getId(resource)))
+            .orElse(Collections.emptyList());
+    }
+
+    /**
+     * Lists the spaces in an organization
+     *
+     * @param organization the name of the organization
+     * @return the spaces in the organization
+     */
+    public List<AbstractSpaceResource> listSpaces(String organization) {
+        return getOrganization(organization)
+            .map(resource -> this.spaces.getByParent(ResourceUtils.getId(resource)))
+            .orElse(Collections.emptyList());
+    }
+
+    /**
+     * Loads the replica in full, loading every collection in parallel
+     *
+     * @return completes when the replica has been loaded
+     */
+    public Mono<Void> load() {
+        return this.cloudFoundryClient
+            .then(cloudFoundryClient -> Flux.fromIterable(this.collections)
+                .flatMap(collection -> collection.refresh(cloudFoundryClient))
+                .then());
+    }
+
+    /**
+     * Loads the replica in full, and then keeps it up to date until it is disposed
+     *
+     * @return completes when the replica has been loaded
+     */
+    public Mono<Void> start() {
+        return this.cloudFoundryClient
+            .then(cloudFoundryClient -> {
+                Instant start = Instant.now();
+
+                return load()
+                    .doOnSuccess(v -> this.synchronization = Flux
+                        .merge(applyEvents(cloudFoundryClient, start), refreshPeriodically(cloudFoundryClient))
+                        .subscribe());
+            });
+    }
+
+    private Mono<Void> apply(CloudFoundryClient cloudFoundryClient, EventResource event) {
+        EventEntity entity = ResourceUtils.getEntity(event);
+        String[] type = entity.getType().split("\\.");
+
+        return this.collections.stream()
+            .filter(collection -> type.length == 3 && collection.type.equals(type[1]))
+            .findFirst()
+            .map(collection -> type[2].startsWith("delete") ? Mono.<Void>fromRunnable(() -> collection.remove(entity.getActee())) : collection.update(cloudFoundryClient, entity.getActee()))
+            .orElse(Mono.empty());
+    }
+
+    private Flux<Void> applyEvents(CloudFoundryClient cloudFoundryClient, Instant start) {
+        ListEventsRequest filter = ListEventsRequest.builder()
+            .types(this.collections.stream()
+                .flatMap(collection -> Arrays.asList("create", "delete-request", "delete", "update").stream()
+                    .map(action -> String.format("audit.%s.%s", collection.type, action)))
+                .collect(Collectors.toList()))
+            .build();
+
+        AtomicReference<Instant> resume = new AtomicReference<>(start);
+
+        return Flux
+            .defer(() -> EventUtils.tailEvents(cloudFoundryClient, filter, resume.get(), this.pollInterval, EVENT_OVERLAP))
+            .concatMap(event -> apply(cloudFoundryClient, event)
+                .otherwise(t -> {
+                    LOGGER.warn("Unable to apply event {}", ResourceUtils.getId(event), t);
+                    return Mono.empty();
+                })
+                .doOnSuccess(v -> resume.set(Instant.parse(ResourceUtils.getEntity(event).getTimestamp()))))
+            .retryWhen(errors -> errors
+                .doOnNext(t -> LOGGER.warn("Unable to tail events", t))
+                .zipWith(Flux.range(0, Integer.MAX_VALUE), (t, iteration) -> iteration)
+                .concatMap(iteration -> Mono.delay(getRetryDelay(iteration))));
+    }
+
+    private Duration getRetryDelay(int iteration) {
+        Duration delay = this.pollInterval.multipliedBy(1L << Math.min(iteration, 16));
+        return delay.compareTo(MAXIMUM_RETRY_DELAY) < 0 ? delay : MAXIMUM_RETRY_DELAY;
+    }
+
+    private Flux<Void> refreshPeriodically(CloudFoundryClient cloudFoundryClient) {
+        return Flux.interval(this.refreshInterval)
+            .map(i -> this.collections.get((int) (i % this.collections.size())))
+            .concatMap(collection -> collection.refresh(cloudFoundryClient)
+                .otherwise(t -> {
+                    LOGGER.warn("Unable to refresh {}s", collection.type, t);
+                    return Mono.empty();
+                }));
+    }
+
+    private static final class ReplicatedCollection<R extends Resource<?>> {
+
+        private final BiFunction<CloudFoundryClient, String, Mono<? extends R>> getter;
+
+        private final Function<CloudFoundryClient, Flux<? extends R>> lister;
+
+        private final Function<R, String> name;
+
+        private final Function<R, String> parent;
+
+        private final String type;
+
+        private volatile Index<R> index = new Index<>();
+
+        private volatile Instant refreshed = Instant.EPOCH;
+
+        private ReplicatedCollection(String type, Function<CloudFoundryClient, Flux<? extends R>> lister, BiFunction<CloudFoundryClient, String, Mono<? extends R>> getter,
+                                     Function<R, String> parent, Function<R, String> name) {
+            this.getter = getter;
+            this.lister = lister;
+            this.name = name;
+            this.parent = parent;
+            this.type = type;
+        }
+
+        private Optional<R> getByName(String parent, String name) {
+            Index<R> index = this.index;
+
+            return Optional.ofNullable(index.byParentAndName.get(key(parent, name)))
+                .map(index.byId::get);
+        }
+
+        private List<R> getByParent(String parent) {
+            Index<R> index = this.index;
+
+            return index.byParent.getOrDefault(parent, Collections.emptySet()).stream()
+                .map(index.byId::get)
+                .filter(resource -> resource != null)
+                .collect(Collectors.toList());
+        }
+
+        private String key(String parent, String name) {
+            return String.format("%s/%s", parent, name);
+        }
+
+        private synchronized void put(Index<R> index, R resource) {
+            String id = ResourceUtils.getId(resource);
+            remove(index, id);
+
+            String parent = this.parent.apply(resource);
+            index.byId.put(id, resource);
+            index.byParentAndName.put(key(parent, this.name.apply(resource)), id);
+            index.byParent.computeIfAbsent(parent, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+
+        private Mono<Void> refresh(CloudFoundryClient cloudFoundryClient) {
+            return Mono
+                .defer(() -> {
+                    Instant started = Instant.now();
+
+                    return this.lister.apply(cloudFoundryClient)
+                        .collectList()
+                        .doOnNext(resources -> {
+                            Index<R> index = new Index<>();
+                            resources.forEach(resource -> put(index, resource));
+
+                            synchronized (this) {
+                                this.index = index;
+                                this.refreshed = started;
+                            }
+
+                            LOGGER.debug("Loaded {} {}s", resources.size(), this.type);
+                        })
+                        .then();
+                });
+        }
+
+        private synchronized void remove(String id) {
+            remove(this.index, id);
+        }
+
+        private synchronized void remove(Index<R> index, String id) {
+            Optional.ofNullable(index.byId.remove(id))
+                .ifPresent(resource -> {
+                    String parent = this.parent.apply(resource);
+                    index.byParentAndName.remove(key(parent, this.name.apply(resource)), id);
+                    Optional.ofNullable(index.byParent.get(parent)).ifPresent(ids -> ids.remove(id));
+                });
+        }
+
+        private Mono<Void> update(CloudFoundryClient cloudFoundryClient, String id) {
+            return this.getter.apply(cloudFoundryClient, id)
+                .doOnNext(resource -> put(this.index, resource))
+                .otherwise(ClientV2Exception.class, t -> {
+                    if (t.getStatusCode() == 404) {
+                        remove(id);
+                    } else {
+                        LOGGER.warn("Unable to update {} {}", this.type, id, t);
+                    }
+
+                    return Mono.empty();
+                })
+                .then();
+        }
+
+    }
+
+    private static final class Index<R> {
+
+        private final Map<String, R> byId = new ConcurrentHashMap<>();
+
+        private final Map<String, Set<String>> byParent = new ConcurrentHashMap<>();
+
+        private final Map<String, String> byParentAndName = new ConcurrentHashMap<>();
+
+    }
+
+}
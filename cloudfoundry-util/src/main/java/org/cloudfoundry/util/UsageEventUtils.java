@@ -0,0 +1,176 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.util;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.Resource;
+import org.cloudfoundry.client.v2.applicationusageevents.ApplicationUsageEventResource;
+import org.cloudfoundry.client.v2.applicationusageevents.ListApplicationUsageEventsRequest;
+import org.cloudfoundry.client.v2.applicationusageevents.ListApplicationUsageEventsResponse;
+import org.cloudfoundry.client.v2.serviceusageevents.ListServiceUsageEventsRequest;
+import org.cloudfoundry.client.v2.serviceusageevents.ListServiceUsageEventsResponse;
+import org.cloudfoundry.client.v2.serviceusageevents.ServiceUsageEventResource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Utilities for tailing usage events.  Usage events are paged forward from a checkpoint, the id of the last event that was processed, and new events are polled for once the end of the stream has
+ * been reached.  Each event must be acknowledged once it has been processed; the checkpoint advances past an event only once it and every event before it have been acknowledged, so that a restarted
+ * consumer resumes without missing events.
+ */
+public final class UsageEventUtils {
+
+    private static final int RESULTS_PER_PAGE = 100;
+
+    private UsageEventUtils() {
+    }
+
+    /**
+     * Tails application usage events
+     *
+     * @param cloudFoundryClient the client to use to request application usage events
+     * @param checkpointStore    the store to load the checkpoint from and commit acknowledged events to
+     * @param checkpointKey      the key of the checkpoint
+     * @param pollInterval       the interval to wait for before polling for new events, once the end of the stream has been reached
+     * @return the application usage events
+     */
+    public static Flux<Acknowledgeable<ApplicationUsageEventResource>> tailApplicationUsageEvents(CloudFoundryClient cloudFoundryClient, CheckpointStore checkpointStore, String checkpointKey,
+                                                                                                 Duration pollInterval) {
+        return tail(after -> requestListApplicationUsageEvents(cloudFoundryClient, after), checkpointStore, checkpointKey, pollInterval);
+    }
+
+    /**
+     * Tails service usage events
+     *
+     * @param cloudFoundryClient the client to use to request service usage events
+     * @param checkpointStore    the store to load the checkpoint from and commit acknowledged events to
+     * @param checkpointKey      the key of the checkpoint
+     * @param pollInterval       the interval to wait for before polling for new events, once the end of the stream has been reached
+     * @return the service usage events
+     */
+    public static Flux<Acknowledgeable<ServiceUsageEventResource>> tailServiceUsageEvents(CloudFoundryClient cloudFoundryClient, CheckpointStore checkpointStore, String checkpointKey,
+                                                                                         Duration pollInterval) {
+        return tail(after -> requestListServiceUsageEvents(cloudFoundryClient, after), checkpointStore, checkpointKey, pollInterval);
+    }
+
+    private static Mono<List<ApplicationUsageEventResource>> requestListApplicationUsageEvents(CloudFoundryClient cloudFoundryClient, String afterApplicationUsageEventId) {
+        return cloudFoundryClient.applicationUsageEvents()
+            .list(ListApplicationUsageEventsRequest.builder()
+                .afterApplicationUsageEventId(afterApplicationUsageEventId)
+                .page(1)
+                .resultsPerPage(RESULTS_PER_PAGE)
+                .build())
+            .map(ListApplicationUsageEventsResponse::getResources);
+    }
+
+    private static Mono<List<ServiceUsageEventResource>> requestListServiceUsageEvents(CloudFoundryClient cloudFoundryClient, String afterServiceUsageEventId) {
+        return cloudFoundryClient.serviceUsageEvents()
+            .list(ListServiceUsageEventsRequest.builder()
+                .afterServiceUsageEventId(afterServiceUsageEventId)
+                .page(1)
+                .resultsPerPage(RESULTS_PER_PAGE)
+                .build())
+            .map(ListServiceUsageEventsResponse::getResources);
+    }
+
+    private static <R extends Resource<?>> Flux<Acknowledgeable<R>> tail(Function<String, Mono<List<R>>> pageSupplier, CheckpointStore checkpointStore, String checkpointKey,
+                                                                          Duration pollInterval) {
+        return checkpointStore.load(checkpointKey)
+            .map(Checkpoint::new)
+            .otherwiseIfEmpty(Mono.fromSupplier(() -> new Checkpoint(null)))
+            .flatMap(checkpoint -> Mono
+                .defer(() -> pageSupplier.apply(checkpoint.getLatest()))
+                .doOnNext(checkpoint::fetched)
+                .then(resources -> resources.isEmpty() ? Mono.delay(pollInterval).then(Mono.just(resources)) : Mono.just(resources))
+                .repeat()
+                .flatMapIterable(resources -> resources, 1)
+                .map(resource -> checkpoint.track(resource, id -> checkpointStore.save(checkpointKey, id))));
+    }
+
+    private static final class Checkpoint {
+
+        private final AtomicReference<String> latest;
+
+        private final Deque<Pending> pending = new ArrayDeque<>();
+
+        private Mono<Void> lastCommit = Mono.empty();
+
+        private Checkpoint(String latest) {
+            this.latest = new AtomicReference<>(latest);
+        }
+
+        private synchronized Mono<Void> acknowledge(Pending acknowledged, Function<String, Mono<Void>> commit) {
+            acknowledged.acknowledged = true;
+
+            String committed = null;
+            while (!this.pending.isEmpty() && this.pending.peekFirst().acknowledged) {
+                committed = this.pending.removeFirst().id;
+            }
+
+            if (committed == null) {
+                return this.lastCommit;
+            }
+
+            String id = committed;
+            this.lastCommit = this.lastCommit
+                .otherwise(t -> Mono.empty())
+                .then(Mono.defer(() -> commit.apply(id)))
+                .cache();
+
+            return this.lastCommit;
+        }
+
+        private <R extends Resource<?>> void fetched(List<R> resources) {
+            if (!resources.isEmpty()) {
+                this.latest.set(ResourceUtils.getId(resources.get(resources.size() - 1)));
+            }
+        }
+
+        private String getLatest() {
+            return this.latest.get();
+        }
+
+        private synchronized <R extends Resource<?>> Acknowledgeable<R> track(R resource, Function<String, Mono<Void>> commit) {
+            Pending pending = new Pending(ResourceUtils.getId(resource));
+            this.pending.addLast(pending);
+
+            return new Acknowledgeable<>(resource, Mono.defer(() -> acknowledge(pending, commit)));
+        }
+
+    }
+
+    private static final class Pending {
+
+        private final String id;
+
+        private boolean acknowledged;
+
+        private Pending(String id) {
+            this.id = id;
+        }
+
+    }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.util;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public final class CompressedApplicationTest {
+
+    private final Path application;
+
+    private final byte[] large = new byte[3 * 1_024 * 1_024];
+
+    private final byte[] small;
+
+    public CompressedApplicationTest() throws IOException {
+        this.application = Files.createTempDirectory("compressed-application-test-");
+        new Random(0).nextBytes(this.large);
+
+        StringBuilder small = new StringBuilder();
+        for (int i = 0; i < 1_024; i++) {
+            small.append("test-content\n");
+        }
+        this.small = small.toString().getBytes(StandardCharsets.UTF_8);
+
+        Files.createDirectory(this.application.resolve("test-directory"));
+        Files.write(this.application.resolve("test-directory").resolve("test-small"), this.small);
+        Files.write(this.application.resolve("test-large"), this.large);
+    }
+
+    @After
+    public void cleanUp() throws IOException {
+        delete(this.application);
+    }
+
+    @Test
+    public void getArtifactMetadata() {
+        try (CompressedApplication compressed = CompressedApplication.of(this.application).block(Duration.ofSeconds(30))) {
+            Map<String, ResourceMatchingUtils.ArtifactMetadata> metadata = compressed.getArtifactMetadata().stream()
+                .collect(Collectors.toMap(ResourceMatchingUtils.ArtifactMetadata::getPath, Function.identity()));
+
+            assertEquals(2, metadata.size());
+            assertEquals(FileUtils.hash(this.application.resolve("test-large")), metadata.get("test-large").getHash());
+            assertEquals(this.large.length, metadata.get("test-large").getSize());
+            assertEquals(FileUtils.hash(this.application.resolve("test-directory").resolve("test-small")), metadata.get("test-directory/test-small").getHash());
+        }
+    }
+
+    @Test
+    public void write() throws IOException {
+        Path archive;
+
+        try (CompressedApplication compressed = CompressedApplication.of(this.application).block(Duration.ofSeconds(30))) {
+            archive = compressed.write(path -> true).block(Duration.ofSeconds(30));
+        }
+
+        try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+            List<String> names = Collections.list(zipFile.entries()).stream()
+                .map(ZipEntry::getName)
+                .sorted()
+                .collect(Collectors.toList());
+
+            assertEquals(3, names.size());
+            assertEquals("test-directory/", names.get(0));
+            assertEquals("test-directory/test-small", names.get(1));
+            assertEquals("test-large", names.get(2));
+
+            assertTrue(zipFile.getEntry("test-directory/").isDirectory());
+            assertEntry(zipFile, "test-directory/test-small", this.small, ZipEntry.DEFLATED);
+            assertEntry(zipFile, "test-large", this.large, ZipEntry.STORED);
+        } finally {
+            Files.delete(archive);
+        }
+    }
+
+    @Test
+    public void writeFiltered() throws IOException {
+        Path archive;
+
+        try (CompressedApplication compressed = CompressedApplication.of(this.application).block(Duration.ofSeconds(30))) {
+            archive = compressed.write(path -> !"test-large".equals(path)).block(Duration.ofSeconds(30));
+        }
+
+        try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+            assertEquals(2, zipFile.size());
+            assertEntry(zipFile, "test-directory/test-small", this.small, ZipEntry.DEFLATED);
+        } finally {
+            Files.delete(archive);
+        }
+    }
+
+    @Test
+    public void writeIncompressibleExtension() throws IOException {
+        Files.write(this.application.resolve("test-small.jar"), this.small);
+        Path archive;
+
+        try (CompressedApplication compressed = CompressedApplication.of(this.application, Deflater.BEST_SPEED, 1).block(Duration.ofSeconds(30))) {
+            archive = compressed.write(path -> true).block(Duration.ofSeconds(30));
+        }
+
+        try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+            assertEquals(4, zipFile.size());
+            assertEntry(zipFile, "test-directory/test-small", this.small, ZipEntry.DEFLATED);
+            assertEntry(zipFile, "test-large", this.large, ZipEntry.STORED);
+            assertEntry(zipFile, "test-small.jar", this.small, ZipEntry.STORED);
+        } finally {
+            Files.delete(archive);
+        }
+    }
+
+    private static void assertEntry(ZipFile zipFile, String name, byte[] expected, int method) throws IOException {
+        ZipEntry entry = zipFile.getEntry(name);
+        assertEquals(method, entry.getMethod());
+        assertEquals(expected.length, entry.getSize());
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        try (InputStream in = zipFile.getInputStream(entry)) {
+            byte[] buffer = new byte[8_192];
+            int length;
+            while ((length = in.read(buffer)) != -1) {
+                actual.write(buffer, 0, length);
+            }
+        }
+        assertArrayEquals(expected, actual.toByteArray());
+
+        CRC32 crc = new CRC32();
+        crc.update(expected);
+        assertEquals(crc.getValue(), entry.getCrc());
+    }
+
+    private static void delete(Path path) throws IOException {
+        try (Stream<Path> paths = Files.walk(path)) {
+            paths
+                .sorted(Comparator.reverseOrder())
+                .forEach(p -> p.toFile().delete());
+        }
+    }
+
+}
@@ -25,8 +25,20 @@ import reactor.test.scheduler.VirtualTimeScheduler;
 
 import java.time.Duration;
 
+import static org.junit.Assert.assertTrue;
+
 public final class DelayUtilsTest {
 
+    @Test
+    public void decorrelatedJitter() {
+        for (int i = 0; i < 100; i++) {
+            Duration delay = DelayUtils.decorrelatedJitter(Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofSeconds(2));
+
+            assertTrue(delay.compareTo(Duration.ofSeconds(1)) >= 0);
+            assertTrue(delay.compareTo(Duration.ofSeconds(5)) <= 0);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void exponentialBackOff() {
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.util;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.Metadata;
+import org.cloudfoundry.client.v2.OrderDirection;
+import org.cloudfoundry.client.v2.events.EventEntity;
+import org.cloudfoundry.client.v2.events.EventResource;
+import org.cloudfoundry.client.v2.events.Events;
+import org.cloudfoundry.client.v2.events.ListEventsRequest;
+import org.cloudfoundry.client.v2.events.ListEventsResponse;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.mockito.Mockito.RETURNS_SMART_NULLS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class EventUtilsTest {
+
+    private final CloudFoundryClient cloudFoundryClient = mock(CloudFoundryClient.class, RETURNS_SMART_NULLS);
+
+    private final Events events = mock(Events.class, RETURNS_SMART_NULLS);
+
+    @Before
+    public void setUp() {
+        when(this.cloudFoundryClient.events()).thenReturn(this.events);
+    }
+
+    @Test
+    public void pagesSequentially() {
+        requestListEvents(this.events, "2016-12-31T23:59:00Z", 1, 2,
+            event("test-id-1", "2017-01-01T00:00:10Z"),
+            event("test-id-2", "2017-01-01T00:00:20Z"));
+        requestListEvents(this.events, "2016-12-31T23:59:00Z", 2, 2,
+            event("test-id-3", "2017-01-01T00:00:30Z"));
+
+        EventUtils
+            .tailEvents(this.cloudFoundryClient, ListEventsRequest.builder()
+                .type("audit.app.update")
+                .build(), Instant.parse("2017-01-01T00:00:00Z"), Duration.ofMillis(100), Duration.ofMinutes(1))
+            .map(ResourceUtils::getId)
+            .take(2)
+            .as(StepVerifier::create)
+            .expectNext("test-id-1", "test-id-2")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        verify(this.events, never()).list(listEventsRequest("2016-12-31T23:59:00Z", 2));
+
+        EventUtils
+            .tailEvents(this.cloudFoundryClient, ListEventsRequest.builder()
+                .type("audit.app.update")
+                .build(), Instant.parse("2017-01-01T00:00:00Z"), Duration.ofMillis(100), Duration.ofMinutes(1))
+            .map(ResourceUtils::getId)
+            .take(3)
+            .as(StepVerifier::create)
+            .expectNext("test-id-1", "test-id-2", "test-id-3")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void tailEvents() {
+        requestListEvents(this.events, "2016-12-31T23:59:00Z",
+            event("test-id-1", "2017-01-01T00:00:10Z"),
+            event("test-id-2", "2017-01-01T00:00:20Z"));
+        requestListEvents(this.events, "2016-12-31T23:59:20Z",
+            event("test-id-2", "2017-01-01T00:00:20Z"),
+            event("test-id-3", "2017-01-01T00:00:20Z"));
+
+        EventUtils
+            .tailEvents(this.cloudFoundryClient, ListEventsRequest.builder()
+                .type("audit.app.update")
+                .build(), Instant.parse("2017-01-01T00:00:00Z"), Duration.ofMillis(100), Duration.ofMinutes(1))
+            .map(ResourceUtils::getId)
+            .take(3)
+            .as(StepVerifier::create)
+            .expectNext("test-id-1", "test-id-2", "test-id-3")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    private static EventResource event(String id, String timestamp) {
+        return EventResource.builder()
+            .metadata(Metadata.builder()
+                .id(id)
+                .build())
+            .entity(EventEntity.builder()
+                .timestamp(timestamp)
+                .type("audit.app.update")
+                .build())
+            .build();
+    }
+
+    private static ListEventsRequest listEventsRequest(String timestamp, int page) {
+        return ListEventsRequest.builder()
+            .orderDirection(OrderDirection.ASCENDING)
+            .page(page)
+            .resultsPerPage(100)
+            .timestamp(timestamp)
+            .type("audit.app.update")
+            .build();
+    }
+
+    private static void requestListEvents(Events events, String timestamp, EventResource... resources) {
+        requestListEvents(events, timestamp, 1, 1, resources);
+    }
+
+    private static void requestListEvents(Events events, String timestamp, int page, int totalPages, EventResource... resources) {
+        when(events
+            .list(listEventsRequest(timestamp, page)))
+            .thenReturn(Mono
+                .just(ListEventsResponse.builder()
+                    .resources(Arrays.asList(resources))
+                    .totalPages(totalPages)
+                    .build()));
+    }
+
+}
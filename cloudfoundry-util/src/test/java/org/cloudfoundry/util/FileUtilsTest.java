@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.util;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public final class FileUtilsTest {
+
+    @Test
+    public void compress() throws IOException {
+        Path application = Files.createTempDirectory("test-application-");
+        byte[] text = String.join("", Collections.nCopies(10_000, "test-text ")).getBytes(StandardCharsets.UTF_8);
+        byte[] image = new byte[100_000];
+        new Random(0).nextBytes(image);
+        byte[] random = new byte[100_000];
+        new Random(1).nextBytes(random);
+        byte[] large = new byte[3 * 1_024 * 1_024];
+        new Random(2).nextBytes(large);
+        System.arraycopy(text, 0, large, 0, text.length);
+
+        Files.write(application.resolve("test-text.txt"), text);
+        Files.write(application.resolve("test-image.png"), image);
+        Files.createDirectory(application.resolve("test-directory"));
+        Files.write(application.resolve("test-directory").resolve("test-random.bin"), random);
+        Files.write(application.resolve("test-large.log"), large);
+
+        Path compressed = FileUtils.compress(application, path -> true, 9, 2).block(Duration.ofSeconds(5));
+
+        try (ZipFile zipFile = new ZipFile(compressed.toFile())) {
+            assertEntry(zipFile, "test-text.txt", ZipEntry.DEFLATED, text);
+            assertEntry(zipFile, "test-image.png", ZipEntry.STORED, image);
+            assertEntry(zipFile, "test-directory/test-random.bin", ZipEntry.STORED, random);
+            assertEntry(zipFile, "test-large.log", ZipEntry.DEFLATED, large);
+            assertTrue(zipFile.getEntry("test-directory/").isDirectory());
+        } finally {
+            Files.delete(compressed);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void compressInvalidLevel() {
+        FileUtils.compress(Paths.get("test-application"), path -> true, 10, 1);
+    }
+
+    private static void assertEntry(ZipFile zipFile, String name, int method, byte[] expected) throws IOException {
+        ZipArchiveEntry entry = zipFile.getEntry(name);
+        assertNotNull(entry);
+        assertEquals(method, entry.getMethod());
+
+        try (InputStream in = zipFile.getInputStream(entry)) {
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8_192];
+            int length;
+            while ((length = in.read(buffer)) != -1) {
+                actual.write(buffer, 0, length);
+            }
+
+            assertArrayEquals(expected, actual.toByteArray());
+        }
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.util;
+
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public final class ResourceCacheTest {
+
+    private static final String HASH_1 = "b907173290db6a155949ab4dc9b2d019dea0c901";
+
+    private static final String HASH_2 = "ff84f89760317996b9dd180ab996b079f418396f";
+
+    private static final String HASH_3 = "da39a3ee5e6b4b0d3255bfef95601890afd80709";
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final ResourceCache resourceCache = new ResourceCache(new TestClock(this.now), Duration.ofMinutes(1), 2);
+
+    @Test
+    public void add() {
+        this.resourceCache.add(Arrays.asList(HASH_1, "test-invalid-hash"));
+
+        assertTrue(this.resourceCache.contains(HASH_1));
+        assertFalse(this.resourceCache.contains(HASH_2));
+        assertFalse(this.resourceCache.contains("test-invalid-hash"));
+        assertEquals(1, this.resourceCache.size());
+    }
+
+    @Test
+    public void expired() {
+        this.resourceCache.add(Collections.singletonList(HASH_1));
+        this.now.addAndGet(Duration.ofMinutes(1).toMillis());
+
+        assertFalse(this.resourceCache.contains(HASH_1));
+        assertEquals(0, this.resourceCache.size());
+    }
+
+    @Test
+    public void forHost() {
+        assertSame(ResourceCache.forHost("test-host"), ResourceCache.forHost("test-host"));
+    }
+
+    @Test
+    public void invalidate() {
+        this.resourceCache.add(Collections.singletonList(HASH_1));
+        this.resourceCache.invalidate();
+
+        assertFalse(this.resourceCache.contains(HASH_1));
+    }
+
+    @Test
+    public void maximumSize() {
+        this.resourceCache.add(Arrays.asList(HASH_1, HASH_2));
+        this.now.addAndGet(Duration.ofMinutes(1).toMillis());
+        this.resourceCache.add(Collections.singletonList(HASH_3));
+
+        assertTrue(this.resourceCache.contains(HASH_3));
+        assertEquals(1, this.resourceCache.size());
+    }
+
+    @Test
+    public void remove() {
+        this.resourceCache.add(Arrays.asList(HASH_1, HASH_2));
+        this.resourceCache.remove(Collections.singletonList(HASH_1));
+
+        assertFalse(this.resourceCache.contains(HASH_1));
+        assertTrue(this.resourceCache.contains(HASH_2));
+    }
+
+    private static final class TestClock extends Clock {
+
+        private final AtomicLong now;
+
+        private TestClock(AtomicLong now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(this.now.get());
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+    }
+
+}
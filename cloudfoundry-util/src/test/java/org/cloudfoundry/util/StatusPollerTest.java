@@ -0,0 +1,191 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.Metadata;
+import org.cloudfoundry.client.v2.applications.ApplicationEntity;
+import org.cloudfoundry.client.v2.applications.ApplicationResource;
+import org.cloudfoundry.client.v2.applications.ApplicationsV2;
+import org.cloudfoundry.client.v2.applications.GetApplicationRequest;
+import org.cloudfoundry.client.v2.applications.GetApplicationResponse;
+import org.cloudfoundry.client.v2.applications.ListApplicationsRequest;
+import org.cloudfoundry.client.v2.applications.ListApplicationsResponse;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.RETURNS_SMART_NULLS;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class StatusPollerTest {
+
+    private final ApplicationsV2 applicationsV2 = mock(ApplicationsV2.class, RETURNS_SMART_NULLS);
+
+    private final CloudFoundryClient cloudFoundryClient = mock(CloudFoundryClient.class, RETURNS_SMART_NULLS);
+
+    private final StatusPoller statusPoller = new StatusPoller(this.cloudFoundryClient, Duration.ofMillis(100), Duration.ofSeconds(15));
+
+    @Test
+    public void backsOff() {
+        requestGetApplication(this.applicationsV2, "test-application-id", "PENDING");
+
+        this.statusPoller
+            .waitForApplicationPackageState("test-space-id", "test-application-id", "STAGED"::equals, Duration.ofSeconds(1))
+            .as(StepVerifier::create)
+            .expectError(DelayTimeoutException.class)
+            .verify(Duration.ofSeconds(5));
+
+        verify(this.applicationsV2, atMost(5)).get(any(GetApplicationRequest.class));
+    }
+
+    @Test
+    public void batchesWaitsInSameSpace() {
+        requestGetApplication(this.applicationsV2, "test-application-id-1", "PENDING");
+        requestGetApplication(this.applicationsV2, "test-application-id-2", "PENDING");
+        requestListApplications(this.applicationsV2, "test-space-id", 1);
+
+        Flux
+            .merge(
+                this.statusPoller.waitForApplicationPackageState("test-space-id", "test-application-id-1", "STAGED"::equals, Duration.ofSeconds(5)),
+                this.statusPoller.waitForApplicationPackageState("test-space-id", "test-application-id-2", "STAGED"::equals, Duration.ofSeconds(5)))
+            .as(StepVerifier::create)
+            .expectNext("STAGED", "STAGED")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        verify(this.applicationsV2, atLeastOnce()).list(any(ListApplicationsRequest.class));
+        assertTrue(this.statusPoller.getWaiting() == 0);
+    }
+
+    @Before
+    public void setUp() {
+        when(this.cloudFoundryClient.applicationsV2()).thenReturn(this.applicationsV2);
+    }
+
+    @Test
+    public void sharedPerClient() {
+        CloudFoundryClient otherCloudFoundryClient = mock(CloudFoundryClient.class, RETURNS_SMART_NULLS);
+
+        assertSame(StatusPoller.of(this.cloudFoundryClient), StatusPoller.of(this.cloudFoundryClient));
+        assertNotSame(StatusPoller.of(this.cloudFoundryClient), StatusPoller.of(otherCloudFoundryClient));
+    }
+
+    @Test
+    public void single() {
+        requestGetApplication(this.applicationsV2, "test-application-id", "STAGED");
+
+        this.statusPoller
+            .waitForApplicationPackageState("test-space-id", "test-application-id", "STAGED"::equals, Duration.ofSeconds(5))
+            .as(StepVerifier::create)
+            .expectNext("STAGED")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        assertTrue(this.statusPoller.getWaiting() == 0);
+    }
+
+    @Test
+    public void singlesWhenListingRequiresMorePages() {
+        requestGetApplication(this.applicationsV2, "test-application-id-1", "STAGED");
+        requestGetApplication(this.applicationsV2, "test-application-id-2", "STAGED");
+        requestListApplications(this.applicationsV2, "test-space-id", 2);
+
+        Flux
+            .merge(
+                this.statusPoller.waitForApplicationPackageState("test-space-id", "test-application-id-1", "STAGED"::equals, Duration.ofSeconds(5)),
+                this.statusPoller.waitForApplicationPackageState("test-space-id", "test-application-id-2", "STAGED"::equals, Duration.ofSeconds(5)))
+            .as(StepVerifier::create)
+            .expectNext("STAGED", "STAGED")
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        verify(this.applicationsV2, never()).list(ListApplicationsRequest.builder()
+            .page(2)
+            .spaceId("test-space-id")
+            .build());
+    }
+
+    @Test
+    public void timeout() {
+        requestGetApplication(this.applicationsV2, "test-application-id", "PENDING");
+
+        this.statusPoller
+            .waitForApplicationPackageState("test-space-id", "test-application-id", "STAGED"::equals, Duration.ofMillis(500))
+            .as(StepVerifier::create)
+            .expectError(DelayTimeoutException.class)
+            .verify(Duration.ofSeconds(5));
+
+        assertTrue(this.statusPoller.getWaiting() == 0);
+    }
+
+    private static ApplicationResource application(String applicationId, String packageState) {
+        return ApplicationResource.builder()
+            .metadata(Metadata.builder()
+                .id(applicationId)
+                .build())
+            .entity(ApplicationEntity.builder()
+                .packageState(packageState)
+                .build())
+            .build();
+    }
+
+    private static void requestGetApplication(ApplicationsV2 applicationsV2, String applicationId, String packageState) {
+        when(applicationsV2
+            .get(GetApplicationRequest.builder()
+                .applicationId(applicationId)
+                .build()))
+            .thenReturn(Mono
+                .just(GetApplicationResponse.builder()
+                    .metadata(Metadata.builder()
+                        .id(applicationId)
+                        .build())
+                    .entity(ApplicationEntity.builder()
+                        .packageState(packageState)
+                        .build())
+                    .build()));
+    }
+
+    private static void requestListApplications(ApplicationsV2 applicationsV2, String spaceId, Integer totalPages) {
+        when(applicationsV2
+            .list(ListApplicationsRequest.builder()
+                .page(1)
+                .spaceId(spaceId)
+                .build()))
+            .thenReturn(Mono
+                .just(ListApplicationsResponse.builder()
+                    .resource(application("test-application-id-1", "STAGED"))
+                    .resource(application("test-application-id-2", "STAGED"))
+                    .resource(application("test-application-id-3", "PENDING"))
+                    .totalPages(totalPages)
+                    .build()));
+    }
+
+}
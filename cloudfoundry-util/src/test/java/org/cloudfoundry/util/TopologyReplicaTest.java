@@ -0,0 +1,245 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.util;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.Metadata;
+import org.cloudfoundry.client.v2.applications.ApplicationEntity;
+import org.cloudfoundry.client.v2.applications.ApplicationResource;
+import org.cloudfoundry.client.v2.applications.ApplicationsV2;
+import org.cloudfoundry.client.v2.applications.GetApplicationRequest;
+import org.cloudfoundry.client.v2.applications.GetApplicationResponse;
+import org.cloudfoundry.client.v2.applications.ListApplicationsRequest;
+import org.cloudfoundry.client.v2.applications.ListApplicationsResponse;
+import org.cloudfoundry.client.v2.events.EventEntity;
+import org.cloudfoundry.client.v2.events.EventResource;
+import org.cloudfoundry.client.v2.events.Events;
+import org.cloudfoundry.client.v2.events.ListEventsRequest;
+import org.cloudfoundry.client.v2.events.ListEventsResponse;
+import org.cloudfoundry.client.v2.organizations.ListOrganizationsRequest;
+import org.cloudfoundry.client.v2.organizations.ListOrganizationsResponse;
+import org.cloudfoundry.client.v2.organizations.OrganizationEntity;
+import org.cloudfoundry.client.v2.organizations.OrganizationResource;
+import org.cloudfoundry.client.v2.organizations.Organizations;
+import org.cloudfoundry.client.v2.routes.ListRoutesRequest;
+import org.cloudfoundry.client.v2.routes.ListRoutesResponse;
+import org.cloudfoundry.client.v2.routes.Routes;
+import org.cloudfoundry.client.v2.serviceinstances.ListServiceInstancesRequest;
+import org.cloudfoundry.client.v2.serviceinstances.ListServiceInstancesResponse;
+import org.cloudfoundry.client.v2.serviceinstances.ServiceInstances;
+import org.cloudfoundry.client.v2.spaces.ListSpacesRequest;
+import org.cloudfoundry.client.v2.spaces.ListSpacesResponse;
+import org.cloudfoundry.client.v2.spaces.SpaceEntity;
+import org.cloudfoundry.client.v2.spaces.SpaceResource;
+import org.cloudfoundry.client.v2.spaces.Spaces;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.RETURNS_SMART_NULLS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public final class TopologyReplicaTest {
+
+    private final ApplicationsV2 applications = mock(ApplicationsV2.class, RETURNS_SMART_NULLS);
+
+    private final CloudFoundryClient cloudFoundryClient = mock(CloudFoundryClient.class, RETURNS_SMART_NULLS);
+
+    private final Events events = mock(Events.class, RETURNS_SMART_NULLS);
+
+    private final Organizations organizations = mock(Organizations.class, RETURNS_SMART_NULLS);
+
+    private final TopologyReplica replica = new TopologyReplica(Mono.just(this.cloudFoundryClient), Duration.ofSeconds(5), Duration.ofMinutes(1));
+
+    private final Routes routes = mock(Routes.class, RETURNS_SMART_NULLS);
+
+    private final ServiceInstances serviceInstances = mock(ServiceInstances.class, RETURNS_SMART_NULLS);
+
+    private final Spaces spaces = mock(Spaces.class, RETURNS_SMART_NULLS);
+
+    @Test
+    public void load() {
+        this.replica.load().block(Duration.ofSeconds(5));
+
+        assertEquals("test-organization-id", ResourceUtils.getId(this.replica.getOrganization("test-organization-name").get()));
+        assertEquals("test-space-id", ResourceUtils.getId(this.replica.getSpace("test-organization-name", "test-space-name").get()));
+        assertEquals("test-application-id", ResourceUtils.getId(this.replica.getApplication("test-organization-name", "test-space-name", "test-application-name").get()));
+        assertEquals(1, this.replica.listApplications("test-organization-name", "test-space-name").size());
+        assertEquals(1, this.replica.listSpaces("test-organization-name").size());
+        assertTrue(this.replica.listRoutes("test-organization-name", "test-space-name").isEmpty());
+        assertFalse(this.replica.getSpace("test-organization-name", "test-other-space-name").isPresent());
+        assertTrue(this.replica.getStaleness().compareTo(Duration.ofSeconds(5)) < 0);
+    }
+
+    @Test
+    public void startRecoversFromErrors() throws InterruptedException {
+        when(this.cloudFoundryClient.events()).thenReturn(this.events);
+
+        when(this.events
+            .list(any(ListEventsRequest.class)))
+            .thenReturn(Mono.error(new IllegalStateException("test-message")), Mono
+                .just(ListEventsResponse.builder()
+                    .resource(event("test-event-id-1", "test-other-application-id"))
+                    .resource(event("test-event-id-2", "test-application-id"))
+                    .totalPages(1)
+                    .build()));
+
+        when(this.applications
+            .get(GetApplicationRequest.builder()
+                .applicationId("test-other-application-id")
+                .build()))
+            .thenReturn(Mono.error(new IllegalStateException("test-message")));
+
+        when(this.applications
+            .get(GetApplicationRequest.builder()
+                .applicationId("test-application-id")
+                .build()))
+            .thenReturn(Mono
+                .just(GetApplicationResponse.builder()
+                    .metadata(Metadata.builder()
+                        .id("test-application-id")
+                        .build())
+                    .entity(ApplicationEntity.builder()
+                        .name("test-renamed-application-name")
+                        .spaceId("test-space-id")
+                        .build())
+                    .build()));
+
+        TopologyReplica replica = new TopologyReplica(Mono.just(this.cloudFoundryClient), Duration.ofMillis(100), Duration.ofMinutes(1));
+
+        try {
+            replica.start().block(Duration.ofSeconds(5));
+
+            Instant finish = Instant.now().plusSeconds(5);
+            while (!replica.getApplication("test-organization-name", "test-space-name", "test-renamed-application-name").isPresent() && Instant.now().isBefore(finish)) {
+                Thread.sleep(50);
+            }
+
+            assertTrue(replica.getApplication("test-organization-name", "test-space-name", "test-renamed-application-name").isPresent());
+        } finally {
+            replica.dispose();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        when(this.cloudFoundryClient.applicationsV2()).thenReturn(this.applications);
+        when(this.cloudFoundryClient.organizations()).thenReturn(this.organizations);
+        when(this.cloudFoundryClient.routes()).thenReturn(this.routes);
+        when(this.cloudFoundryClient.serviceInstances()).thenReturn(this.serviceInstances);
+        when(this.cloudFoundryClient.spaces()).thenReturn(this.spaces);
+
+        when(this.applications
+            .list(ListApplicationsRequest.builder()
+                .page(1)
+                .resultsPerPage(100)
+                .build()))
+            .thenReturn(Mono
+                .just(ListApplicationsResponse.builder()
+                    .resource(ApplicationResource.builder()
+                        .metadata(Metadata.builder()
+                            .id("test-application-id")
+                            .build())
+                        .entity(ApplicationEntity.builder()
+                            .name("test-application-name")
+                            .spaceId("test-space-id")
+                            .build())
+                        .build())
+                    .totalPages(1)
+                    .build()));
+
+        when(this.organizations
+            .list(ListOrganizationsRequest.builder()
+                .page(1)
+                .resultsPerPage(100)
+                .build()))
+            .thenReturn(Mono
+                .just(ListOrganizationsResponse.builder()
+                    .resource(OrganizationResource.builder()
+                        .metadata(Metadata.builder()
+                            .id("test-organization-id")
+                            .build())
+                        .entity(OrganizationEntity.builder()
+                            .name("test-organization-name")
+                            .build())
+                        .build())
+                    .totalPages(1)
+                    .build()));
+
+        when(this.routes
+            .list(ListRoutesRequest.builder()
+                .page(1)
+                .resultsPerPage(100)
+                .build()))
+            .thenReturn(Mono
+                .just(ListRoutesResponse.builder()
+                    .totalPages(1)
+                    .build()));
+
+        when(this.serviceInstances
+            .list(ListServiceInstancesRequest.builder()
+                .page(1)
+                .resultsPerPage(100)
+                .build()))
+            .thenReturn(Mono
+                .just(ListServiceInstancesResponse.builder()
+                    .totalPages(1)
+                    .build()));
+
+        when(this.spaces
+            .list(ListSpacesRequest.builder()
+                .page(1)
+                .resultsPerPage(100)
+                .build()))
+            .thenReturn(Mono
+                .just(ListSpacesResponse.builder()
+                    .resource(SpaceResource.builder()
+                        .metadata(Metadata.builder()
+                            .id("test-space-id")
+                            .build())
+                        .entity(SpaceEntity.builder()
+                            .name("test-space-name")
+                            .organizationId("test-organization-id")
+                            .build())
+                        .build())
+                    .totalPages(1)
+                    .build()));
+    }
+
+    private static EventResource event(String id, String actee) {
+        return EventResource.builder()
+            .metadata(Metadata.builder()
+                .id(id)
+                .build())
+            .entity(EventEntity.builder()
+                .actee(actee)
+                .timestamp(Instant.now().toString())
+                .type("audit.app.update")
+                .build())
+            .build();
+    }
+
+}
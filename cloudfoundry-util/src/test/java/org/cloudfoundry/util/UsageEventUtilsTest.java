@@ -0,0 +1,160 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.util;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.Metadata;
+import org.cloudfoundry.client.v2.applicationusageevents.ApplicationUsageEventResource;
+import org.cloudfoundry.client.v2.applicationusageevents.ApplicationUsageEvents;
+import org.cloudfoundry.client.v2.applicationusageevents.ListApplicationUsageEventsRequest;
+import org.cloudfoundry.client.v2.applicationusageevents.ListApplicationUsageEventsResponse;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.RETURNS_SMART_NULLS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class UsageEventUtilsTest {
+
+    private final ApplicationUsageEvents applicationUsageEvents = mock(ApplicationUsageEvents.class, RETURNS_SMART_NULLS);
+
+    private final Map<String, String> checkpoints = new ConcurrentHashMap<>();
+
+    private final CheckpointStore checkpointStore = new CheckpointStore() {
+
+        @Override
+        public Mono<String> load(String key) {
+            return Mono.justOrEmpty(UsageEventUtilsTest.this.checkpoints.get(key));
+        }
+
+        @Override
+        public Mono<Void> save(String key, String checkpoint) {
+            return Mono.fromRunnable(() -> UsageEventUtilsTest.this.checkpoints.put(key, checkpoint));
+        }
+
+    };
+
+    private final CloudFoundryClient cloudFoundryClient = mock(CloudFoundryClient.class, RETURNS_SMART_NULLS);
+
+    @Before
+    public void setUp() {
+        when(this.cloudFoundryClient.applicationUsageEvents()).thenReturn(this.applicationUsageEvents);
+    }
+
+    @Test
+    public void tailApplicationUsageEvents() {
+        this.checkpoints.put("test-key", "test-id-0");
+        requestListApplicationUsageEvents(this.applicationUsageEvents, "test-id-0", "test-id-1", "test-id-2");
+        requestListApplicationUsageEvents(this.applicationUsageEvents, "test-id-2");
+
+        List<Acknowledgeable<ApplicationUsageEventResource>> events = UsageEventUtils
+            .tailApplicationUsageEvents(this.cloudFoundryClient, this.checkpointStore, "test-key", Duration.ofSeconds(1))
+            .take(2)
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertEquals("test-id-1", ResourceUtils.getId(events.get(0).getValue()));
+        assertEquals("test-id-2", ResourceUtils.getId(events.get(1).getValue()));
+
+        events.get(1).acknowledge().block(Duration.ofSeconds(5));
+        assertEquals("test-id-0", this.checkpoints.get("test-key"));
+
+        events.get(0).acknowledge().block(Duration.ofSeconds(5));
+        assertEquals("test-id-2", this.checkpoints.get("test-key"));
+    }
+
+    @Test
+    public void tailApplicationUsageEventsBoundedDemand() {
+        this.checkpoints.put("test-key", "test-id-0");
+        requestListApplicationUsageEvents(this.applicationUsageEvents, "test-id-0", "test-id-1", "test-id-2");
+        requestListApplicationUsageEvents(this.applicationUsageEvents, "test-id-1");
+        requestListApplicationUsageEvents(this.applicationUsageEvents, "test-id-2", "test-id-3");
+        requestListApplicationUsageEvents(this.applicationUsageEvents, "test-id-3");
+
+        UsageEventUtils
+            .tailApplicationUsageEvents(this.cloudFoundryClient, this.checkpointStore, "test-key", Duration.ofSeconds(1))
+            .map(event -> ResourceUtils.getId(event.getValue()))
+            .as(stream -> StepVerifier.create(stream, 0))
+            .thenRequest(1)
+            .expectNext("test-id-1")
+            .thenAwait(Duration.ofMillis(100))
+            .thenRequest(1)
+            .expectNext("test-id-2")
+            .thenAwait(Duration.ofMillis(100))
+            .thenRequest(1)
+            .expectNext("test-id-3")
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+
+        verify(this.applicationUsageEvents, never()).list(request("test-id-1"));
+        verify(this.applicationUsageEvents, times(1)).list(request("test-id-2"));
+    }
+
+    @Test
+    public void tailApplicationUsageEventsNoCheckpoint() {
+        requestListApplicationUsageEvents(this.applicationUsageEvents, null, "test-id-1");
+        requestListApplicationUsageEvents(this.applicationUsageEvents, "test-id-1");
+
+        List<Acknowledgeable<ApplicationUsageEventResource>> events = UsageEventUtils
+            .tailApplicationUsageEvents(this.cloudFoundryClient, this.checkpointStore, "test-key", Duration.ofSeconds(1))
+            .take(1)
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertEquals("test-id-1", ResourceUtils.getId(events.get(0).getValue()));
+        assertFalse(this.checkpoints.containsKey("test-key"));
+    }
+
+    private static ListApplicationUsageEventsRequest request(String afterId) {
+        return ListApplicationUsageEventsRequest.builder()
+            .afterApplicationUsageEventId(afterId)
+            .page(1)
+            .resultsPerPage(100)
+            .build();
+    }
+
+    private static void requestListApplicationUsageEvents(ApplicationUsageEvents applicationUsageEvents, String afterId, String... ids) {
+        ListApplicationUsageEventsResponse.Builder response = ListApplicationUsageEventsResponse.builder();
+        for (String id : ids) {
+            response.resource(ApplicationUsageEventResource.builder()
+                .metadata(Metadata.builder()
+                    .id(id)
+                    .build())
+                .build());
+        }
+
+        when(applicationUsageEvents
+            .list(request(afterId)))
+            .thenReturn(Mono
+                .just(response.build()));
+    }
+
+}
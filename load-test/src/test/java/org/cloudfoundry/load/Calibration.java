@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.load;
+
+import org.cloudfoundry.fake.FakeCloudFoundry;
+import org.cloudfoundry.operations.CloudFoundryOperations;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The cost of an operation executed on its own: the number of HTTP requests it issues and the number of bytes the client allocates.  Allocation is summed across all threads except those of the
+ * fake foundation, so it includes the client's event loop threads.  Allocation is compared per thread, so threads that start during the measurement are counted from zero and threads that
+ * exit during it are not counted at all.
+ */
+final class Calibration {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(5);
+
+    private final long bytesPerOperation;
+
+    private final double requestsPerOperation;
+
+    private Calibration(long bytesPerOperation, double requestsPerOperation) {
+        this.bytesPerOperation = bytesPerOperation;
+        this.requestsPerOperation = requestsPerOperation;
+    }
+
+    /**
+     * Measures the cost of an operation.  The operation is executed once to warm up, and then sequentially for the given number of iterations.
+     *
+     * @param operation              the operation to measure
+     * @param cloudFoundryOperations the operations to execute against
+     * @param fixture                the data the foundation is seeded with
+     * @param fake                   the fake foundation
+     * @param iterations             the number of measured iterations
+     * @return the cost of the operation
+     */
+    static Calibration measure(Operation operation, CloudFoundryOperations cloudFoundryOperations, Fixture fixture, FakeCloudFoundry fake, int iterations) {
+        operation.execute(cloudFoundryOperations, fixture, 0, fixture.nextSequence()).block(TIMEOUT);
+
+        fake.resetRequestCount();
+        Optional<Map<Long, Long>> startBytes = getAllocatedBytes();
+
+        for (int i = 0; i < iterations; i++) {
+            operation.execute(cloudFoundryOperations, fixture, i, fixture.nextSequence()).block(TIMEOUT);
+        }
+
+        Optional<Map<Long, Long>> finishBytes = getAllocatedBytes();
+        double requests = (double) fake.resetRequestCount() / iterations;
+
+        long bytes = startBytes
+            .flatMap(start -> finishBytes
+                .map(finish -> finish.entrySet().stream()
+                    .mapToLong(entry -> entry.getValue() - start.getOrDefault(entry.getKey(), 0L))
+                    .sum()))
+            .map(total -> total / iterations)
+            .orElse(-1L);
+
+        return new Calibration(bytes, requests);
+    }
+
+    long getBytesPerOperation() {
+        return this.bytesPerOperation;
+    }
+
+    double getRequestsPerOperation() {
+        return this.requestsPerOperation;
+    }
+
+    private static Optional<Map<Long, Long>> getAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+            return Optional.empty();
+        }
+
+        long[] threadIds = Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> !thread.getName().startsWith("MockWebServer"))
+            .mapToLong(Thread::getId)
+            .toArray();
+
+        long[] allocatedBytes = ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(threadIds);
+
+        Map<Long, Long> allocatedBytesByThread = new HashMap<>();
+        for (int i = 0; i < threadIds.length; i++) {
+            if (allocatedBytes[i] >= 0) {
+                allocatedBytesByThread.put(threadIds[i], allocatedBytes[i]);
+            }
+        }
+
+        return Optional.of(allocatedBytesByThread);
+    }
+
+}
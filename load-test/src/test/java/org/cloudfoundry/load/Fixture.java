@@ -0,0 +1,98 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.load;
+
+import org.cloudfoundry.fake.FakeState;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The data that a fake foundation is seeded with for a load test.  A single organization and space contain the seeded applications, each mapped to its own route, and a service instance.
+ */
+final class Fixture {
+
+    static final String ORGANIZATION = "organization-0";
+
+    static final String SPACE = "space-0";
+
+    private static final String SERVICE_INSTANCE = "service-instance-0";
+
+    private final int applications;
+
+    private final Path applicationPath;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private Fixture(int applications, Path applicationPath) {
+        this.applications = applications;
+        this.applicationPath = applicationPath;
+    }
+
+    /**
+     * Seeds the state of a fake foundation
+     *
+     * @param state        the state to seed
+     * @param applications the number of applications to seed
+     * @return the fixture describing the seeded data
+     * @throws IOException if the application to push cannot be created
+     */
+    static Fixture seed(FakeState state, int applications) throws IOException {
+        String organizationId = state.createOrganization(ORGANIZATION);
+        String spaceId = state.createSpace(organizationId, SPACE);
+
+        for (int i = 0; i < applications; i++) {
+            String applicationId = state.createApplication(spaceId, toApplicationName(i));
+            state.mapRoute(applicationId, state.createRoute(spaceId, toApplicationName(i)));
+        }
+
+        state.createServiceInstance(spaceId, SERVICE_INSTANCE);
+
+        Path applicationPath = Files.createTempDirectory("load-test-application");
+        Files.write(applicationPath.resolve("index.html"), "load-test".getBytes(StandardCharsets.UTF_8));
+
+        return new Fixture(applications, applicationPath);
+    }
+
+    String getApplicationName(int target) {
+        return toApplicationName(target % this.applications);
+    }
+
+    Path getApplicationPath() {
+        return this.applicationPath;
+    }
+
+    int getApplications() {
+        return this.applications;
+    }
+
+    String getServiceInstanceName() {
+        return SERVICE_INSTANCE;
+    }
+
+    long nextSequence() {
+        return this.sequence.getAndIncrement();
+    }
+
+    private static String toApplicationName(int index) {
+        return String.format("application-%d", index);
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.cloudfoundry.operations.CloudFoundryOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Issues a scenario's operations at a fixed arrival rate.  Operations start on schedule whether or not earlier operations have completed (an open workload), and latency is measured from each
+ * operation's scheduled start, so that a slow client shows up as latency rather than as a lower request rate.
+ */
+final class LoadGenerator {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+
+    private final Scenario scenario;
+
+    LoadGenerator(Scenario scenario) {
+        this.scenario = scenario;
+
+        scenario.getMix().keySet().forEach(operation -> {
+            this.errors.put(operation, new AtomicLong());
+            this.latencies.put(operation, new ConcurrentHistogram(SIGNIFICANT_DIGITS));
+        });
+    }
+
+    /**
+     * Creates a report of the measured phase
+     *
+     * @param label        a label identifying the code under test
+     * @param calibrations the cost of each operation
+     * @return the report
+     */
+    Report report(String label, Map<Operation, Calibration> calibrations) {
+        double duration = this.scenario.getDuration().toNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+
+        return Report.builder()
+            .arrivalRate(this.scenario.getArrivalRate())
+            .dropped(this.dropped.get())
+            .duration(duration)
+            .label(label)
+            .operations(this.latencies.entrySet().stream()
+                .map(entry -> toOperationReport(entry.getKey(), entry.getValue(), this.errors.get(entry.getKey()).get(), calibrations.get(entry.getKey()), duration))
+                .collect(Collectors.toList()))
+            .scenario(this.scenario.getName())
+            .build();
+    }
+
+    /**
+     * Runs the warm-up and measured phases
+     *
+     * @param cloudFoundryOperations the operations to execute against
+     * @param fixture                the data the foundation is seeded with
+     * @return completion when all operations have completed
+     */
+    Mono<Void> run(CloudFoundryOperations cloudFoundryOperations, Fixture fixture) {
+        return Mono
+            .defer(() -> {
+                long period = (long) (TimeUnit.SECONDS.toNanos(1) / this.scenario.getArrivalRate());
+                long warmupArrivals = this.scenario.getWarmup().toNanos() / period;
+                long arrivals = warmupArrivals + this.scenario.getDuration().toNanos() / period;
+
+                Operation[] selection = getSelection(this.scenario.getMix());
+                Random random = new Random(this.scenario.getSeed());
+                long start = System.nanoTime();
+
+                return Flux.interval(Duration.ofNanos(period))
+                    .take(arrivals)
+                    .onBackpressureDrop(arrival -> {
+                        if (arrival >= warmupArrivals) {
+                            this.dropped.incrementAndGet();
+                        }
+                    })
+                    .flatMap(arrival -> {
+                        Operation operation = selection[random.nextInt(selection.length)];
+                        int target = random.nextInt(fixture.getApplications());
+                        long scheduled = start + (arrival + 1) * period;
+                        boolean measured = arrival >= warmupArrivals;
+
+                        return operation.execute(cloudFoundryOperations, fixture, target, fixture.nextSequence())
+                            .doOnSuccess(v -> {
+                                if (measured) {
+                                    this.latencies.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(Math.max(0, System.nanoTime() - scheduled)));
+                                }
+                            })
+                            .otherwise(t -> {
+                                if (measured) {
+                                    this.errors.get(operation).incrementAndGet();
+                                }
+
+                                return Mono.empty();
+                            });
+                    }, this.scenario.getMaximumOutstanding())
+                    .then();
+            });
+    }
+
+    private static Operation[] getSelection(Map<Operation, Integer> mix) {
+        return new EnumMap<>(mix).entrySet().stream()
+            .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+            .toArray(Operation[]::new);
+    }
+
+    private static double toMilliseconds(long microseconds) {
+        return microseconds / 1000.0;
+    }
+
+    private static OperationReport toOperationReport(Operation operation, Histogram latencies, long errors, Calibration calibration, double duration) {
+        return OperationReport.builder()
+            .bytesPerOperation(calibration.getBytesPerOperation())
+            .count(latencies.getTotalCount())
+            .errors(errors)
+            .max(toMilliseconds(latencies.getMaxValue()))
+            .operation(operation.name())
+            .p50(toMilliseconds(latencies.getValueAtPercentile(50)))
+            .p90(toMilliseconds(latencies.getValueAtPercentile(90)))
+            .p99(toMilliseconds(latencies.getValueAtPercentile(99)))
+            .p999(toMilliseconds(latencies.getValueAtPercentile(99.9)))
+            .requestsPerOperation(calibration.getRequestsPerOperation())
+            .throughput(latencies.getTotalCount() / duration)
+            .build();
+    }
+
+}
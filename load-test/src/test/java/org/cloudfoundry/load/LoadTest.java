@@ -0,0 +1,117 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.load;
+
+import org.cloudfoundry.fake.FakeCloudFoundry;
+import org.cloudfoundry.fake.FakeState;
+import org.cloudfoundry.fake.Faults;
+import org.cloudfoundry.operations.DefaultCloudFoundryOperations;
+import org.cloudfoundry.reactor.DefaultConnectionContext;
+import org.cloudfoundry.reactor.client.ReactorCloudFoundryClient;
+import org.cloudfoundry.reactor.doppler.ReactorDopplerClient;
+import org.cloudfoundry.reactor.uaa.ReactorUaaClient;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs load test scenarios against an in-process fake foundation.  The scenarios to run are named, comma-separated, by the {@code load.scenarios} system property (defaults to {@code mixed}).  If
+ * {@code load.output} names a directory, each report is written to it as {@code <scenario>.json}.  If {@code load.baseline} names a directory of earlier reports, each report is compared to its
+ * baseline.  {@code load.label} labels the reports, typically with a commit id.
+ */
+public final class LoadTest {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(5);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("cloudfoundry-client.load");
+
+    @Test
+    public void run() throws IOException {
+        for (String name : getScenarioNames()) {
+            Report report = run(Scenarios.get(name));
+            LOGGER.info(Reports.format(report));
+
+            String fileName = String.format("%s.json", name);
+
+            String output = System.getProperty("load.output");
+            if (output != null) {
+                Reports.write(Paths.get(output, fileName), report);
+            }
+
+            String baseline = System.getProperty("load.baseline");
+            if (baseline != null && Files.exists(Paths.get(baseline, fileName))) {
+                LOGGER.info(Reports.compare(Reports.read(Paths.get(baseline, fileName)), report));
+            }
+        }
+    }
+
+    private static List<String> getScenarioNames() {
+        return Arrays.asList(System.getProperty("load.scenarios", "mixed").split(","));
+    }
+
+    private static Report run(Scenario scenario) throws IOException {
+        FakeState state = new FakeState();
+        Fixture fixture = Fixture.seed(state, scenario.getApplications());
+
+        try (FakeCloudFoundry fake = new FakeCloudFoundry(state)) {
+            fake.start();
+            fake.setFaults(Faults.builder()
+                .latency(scenario.getLatency())
+                .build());
+
+            DefaultConnectionContext connectionContext = fake.getConnectionContext();
+
+            DefaultCloudFoundryOperations cloudFoundryOperations = DefaultCloudFoundryOperations.builder()
+                .cloudFoundryClient(ReactorCloudFoundryClient.builder()
+                    .connectionContext(connectionContext)
+                    .tokenProvider(fake.getTokenProvider())
+                    .build())
+                .dopplerClient(ReactorDopplerClient.builder()
+                    .connectionContext(connectionContext)
+                    .tokenProvider(fake.getTokenProvider())
+                    .build())
+                .organization(Fixture.ORGANIZATION)
+                .space(Fixture.SPACE)
+                .uaaClient(ReactorUaaClient.builder()
+                    .connectionContext(connectionContext)
+                    .tokenProvider(fake.getTokenProvider())
+                    .build())
+                .build();
+
+            Map<Operation, Calibration> calibrations = new EnumMap<>(Operation.class);
+            scenario.getMix().keySet().stream()
+                .sorted()
+                .forEach(operation -> calibrations.put(operation, Calibration.measure(operation, cloudFoundryOperations, fixture, fake, scenario.getCalibrationIterations())));
+
+            LoadGenerator loadGenerator = new LoadGenerator(scenario);
+            loadGenerator.run(cloudFoundryOperations, fixture)
+                .block(scenario.getWarmup().plus(scenario.getDuration()).plus(DRAIN_TIMEOUT));
+
+            return loadGenerator.report(System.getProperty("load.label", "unlabeled"), calibrations);
+        }
+    }
+
+}
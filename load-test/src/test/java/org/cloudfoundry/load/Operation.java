@@ -0,0 +1,134 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.load;
+
+import org.cloudfoundry.operations.CloudFoundryOperations;
+import org.cloudfoundry.operations.applications.GetApplicationRequest;
+import org.cloudfoundry.operations.applications.PushApplicationRequest;
+import org.cloudfoundry.operations.applications.ScaleApplicationRequest;
+import org.cloudfoundry.operations.routes.Level;
+import org.cloudfoundry.operations.routes.ListRoutesRequest;
+import org.cloudfoundry.operations.services.BindServiceInstanceRequest;
+import org.cloudfoundry.operations.services.UnbindServiceInstanceRequest;
+import reactor.core.publisher.Mono;
+
+/**
+ * The operations that a load test scenario can mix
+ */
+enum Operation {
+
+    /**
+     * Binds a service instance to an application and then unbinds it, leaving the foundation unchanged
+     */
+    BIND_SERVICE {
+        @Override
+        Mono<Void> execute(CloudFoundryOperations cloudFoundryOperations, Fixture fixture, int target, long sequence) {
+            return cloudFoundryOperations.services()
+                .bind(BindServiceInstanceRequest.builder()
+                    .applicationName(fixture.getApplicationName(target))
+                    .serviceInstanceName(fixture.getServiceInstanceName())
+                    .build())
+                .then(Mono.defer(() -> cloudFoundryOperations.services()
+                    .unbind(UnbindServiceInstanceRequest.builder()
+                        .applicationName(fixture.getApplicationName(target))
+                        .serviceInstanceName(fixture.getServiceInstanceName())
+                        .build())));
+        }
+    },
+
+    /**
+     * Gets the details of an application
+     */
+    GET_APPLICATION {
+        @Override
+        Mono<Void> execute(CloudFoundryOperations cloudFoundryOperations, Fixture fixture, int target, long sequence) {
+            return cloudFoundryOperations.applications()
+                .get(GetApplicationRequest.builder()
+                    .name(fixture.getApplicationName(target))
+                    .build())
+                .then();
+        }
+    },
+
+    /**
+     * Lists the applications in the space
+     */
+    LIST_APPLICATIONS {
+        @Override
+        Mono<Void> execute(CloudFoundryOperations cloudFoundryOperations, Fixture fixture, int target, long sequence) {
+            return cloudFoundryOperations.applications()
+                .list()
+                .then();
+        }
+    },
+
+    /**
+     * Lists the routes in the space
+     */
+    LIST_ROUTES {
+        @Override
+        Mono<Void> execute(CloudFoundryOperations cloudFoundryOperations, Fixture fixture, int target, long sequence) {
+            return cloudFoundryOperations.routes()
+                .list(ListRoutesRequest.builder()
+                    .level(Level.SPACE)
+                    .build())
+                .then();
+        }
+    },
+
+    /**
+     * Pushes a new application and waits for it to start
+     */
+    PUSH_APPLICATION {
+        @Override
+        Mono<Void> execute(CloudFoundryOperations cloudFoundryOperations, Fixture fixture, int target, long sequence) {
+            return cloudFoundryOperations.applications()
+                .push(PushApplicationRequest.builder()
+                    .application(fixture.getApplicationPath())
+                    .instances(1)
+                    .memory(64)
+                    .name(String.format("pushed-%d", sequence))
+                    .build());
+        }
+    },
+
+    /**
+     * Scales the instances of an application, alternating between one and two instances
+     */
+    SCALE_APPLICATION {
+        @Override
+        Mono<Void> execute(CloudFoundryOperations cloudFoundryOperations, Fixture fixture, int target, long sequence) {
+            return cloudFoundryOperations.applications()
+                .scale(ScaleApplicationRequest.builder()
+                    .instances(1 + (int) (sequence % 2))
+                    .name(fixture.getApplicationName(target))
+                    .build());
+        }
+    };
+
+    /**
+     * Executes the operation
+     *
+     * @param cloudFoundryOperations the operations to execute against
+     * @param fixture                the data the foundation is seeded with
+     * @param target                 the index of the seeded application to target
+     * @param sequence               the unique sequence number of this execution
+     * @return completion when the operation completes
+     */
+    abstract Mono<Void> execute(CloudFoundryOperations cloudFoundryOperations, Fixture fixture, int target, long sequence);
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Utilities for formatting, persisting and comparing {@link Report}s.  Reports are written as JSON, so that runs from different commits can be compared.
+ */
+final class Reports {
+
+    private static final String COMPARISON_FORMAT = "%-20s %9s %9s %9s %9s %9s%n";
+
+    private static final String OPERATION_FORMAT = "%-20s %8s %7s %8s %9s %9s %9s %9s %9s %7s %10s%n";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private Reports() {
+    }
+
+    /**
+     * Formats the change from a baseline report
+     *
+     * @param baseline the baseline report
+     * @param report   the report to compare
+     * @return the formatted comparison
+     */
+    static String compare(Report baseline, Report report) {
+        Map<String, OperationReport> baselineOperations = baseline.getOperations().stream()
+            .collect(Collectors.toMap(OperationReport::getOperation, Function.identity()));
+
+        StringBuilder sb = new StringBuilder()
+            .append(String.format("Scenario %s: %s compared to %s%n", report.getScenario(), report.getLabel(), baseline.getLabel()))
+            .append(String.format(COMPARISON_FORMAT, "operation", "ops/s", "p50", "p99", "req/op", "bytes/op"));
+
+        report.getOperations().stream()
+            .filter(operation -> baselineOperations.containsKey(operation.getOperation()))
+            .forEach(operation -> {
+                OperationReport baselineOperation = baselineOperations.get(operation.getOperation());
+
+                sb.append(String.format(COMPARISON_FORMAT, operation.getOperation(),
+                    change(baselineOperation.getThroughput(), operation.getThroughput()),
+                    change(baselineOperation.getP50(), operation.getP50()),
+                    change(baselineOperation.getP99(), operation.getP99()),
+                    change(baselineOperation.getRequestsPerOperation(), operation.getRequestsPerOperation()),
+                    change(baselineOperation.getBytesPerOperation(), operation.getBytesPerOperation())));
+            });
+
+        return sb.toString();
+    }
+
+    /**
+     * Formats a report as a table
+     *
+     * @param report the report to format
+     * @return the formatted report
+     */
+    static String format(Report report) {
+        StringBuilder sb = new StringBuilder()
+            .append(String.format("Scenario %s (%s): %.1f ops/s offered for %.0fs, %d arrivals dropped%n", report.getScenario(), report.getLabel(), report.getArrivalRate(), report.getDuration(),
+                report.getDropped()))
+            .append(String.format(OPERATION_FORMAT, "operation", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "req/op", "bytes/op"));
+
+        report.getOperations().forEach(operation -> sb.append(String.format(OPERATION_FORMAT, operation.getOperation(), operation.getCount(), operation.getErrors(),
+            String.format("%.2f", operation.getThroughput()), String.format("%.2f", operation.getP50()), String.format("%.2f", operation.getP90()), String.format("%.2f", operation.getP99()),
+            String.format("%.2f", operation.getP999()), String.format("%.2f", operation.getMax()), String.format("%.1f", operation.getRequestsPerOperation()), operation.getBytesPerOperation())));
+
+        return sb.toString();
+    }
+
+    /**
+     * Reads a report
+     *
+     * @param path the path to read from
+     * @return the report
+     * @throws IOException if the report cannot be read
+     */
+    static Report read(Path path) throws IOException {
+        return OBJECT_MAPPER.readValue(path.toFile(), Report.class);
+    }
+
+    /**
+     * Writes a report
+     *
+     * @param path   the path to write to
+     * @param report the report to write
+     * @throws IOException if the report cannot be written
+     */
+    static void write(Path path, Report report) throws IOException {
+        Files.createDirectories(path.getParent());
+        OBJECT_MAPPER.writeValue(path.toFile(), report);
+    }
+
+    private static String change(double baseline, double value) {
+        if (baseline == 0) {
+            return value == 0 ? "0.0%" : "n/a";
+        }
+
+        return String.format("%+.1f%%", (value - baseline) * 100 / baseline);
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * The predefined load test scenarios.  Any scenario's size, rate and durations can be overridden with the {@code load.applications}, {@code load.arrivalRate}, {@code load.duration},
+ * {@code load.latency} and {@code load.warmup} system properties, with durations in ISO-8601 format (e.g. {@code PT30S}).
+ */
+final class Scenarios {
+
+    private static final List<Scenario> SCENARIOS = Arrays.asList(
+        Scenario.builder()
+            .name("get-application")
+            .arrivalRate(50.0)
+            .mix(Operation.GET_APPLICATION, 1)
+            .build(),
+        Scenario.builder()
+            .name("list-routes-20k")
+            .applications(20_000)
+            .arrivalRate(0.2)
+            .calibrationIterations(3)
+            .mix(Operation.LIST_ROUTES, 1)
+            .build(),
+        Scenario.builder()
+            .name("mixed")
+            .arrivalRate(20.0)
+            .mix(Operation.BIND_SERVICE, 5)
+            .mix(Operation.GET_APPLICATION, 50)
+            .mix(Operation.LIST_APPLICATIONS, 20)
+            .mix(Operation.LIST_ROUTES, 10)
+            .mix(Operation.PUSH_APPLICATION, 5)
+            .mix(Operation.SCALE_APPLICATION, 10)
+            .build(),
+        Scenario.builder()
+            .name("push")
+            .arrivalRate(2.0)
+            .mix(Operation.PUSH_APPLICATION, 1)
+            .build());
+
+    private Scenarios() {
+    }
+
+    /**
+     * Returns a named scenario, with any overrides from system properties applied
+     *
+     * @param name the name of the scenario
+     * @return the scenario
+     */
+    static Scenario get(String name) {
+        Scenario scenario = SCENARIOS.stream()
+            .filter(candidate -> candidate.getName().equals(name))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException(String.format("Unknown scenario %s.  Known scenarios are %s", name, getNames())));
+
+        Scenario.Builder builder = Scenario.builder().from(scenario);
+
+        getProperty("load.applications").map(Integer::parseInt).ifPresent(builder::applications);
+        getProperty("load.arrivalRate").map(Double::parseDouble).ifPresent(builder::arrivalRate);
+        getProperty("load.duration").map(Duration::parse).ifPresent(builder::duration);
+        getProperty("load.latency").map(Duration::parse).ifPresent(builder::latency);
+        getProperty("load.warmup").map(Duration::parse).ifPresent(builder::warmup);
+
+        return builder.build();
+    }
+
+    /**
+     * Returns the names of the predefined scenarios
+     *
+     * @return the names of the predefined scenarios
+     */
+    static List<String> getNames() {
+        return SCENARIOS.stream()
+            .map(Scenario::getName)
+            .collect(Collectors.toList());
+    }
+
+    private static Optional<String> getProperty(String name) {
+        return Optional.ofNullable(System.getProperty(name))
+            .filter(value -> !value.isEmpty());
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.load;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.immutables.value.Value;
+
+/**
+ * The measurements of one operation in a load test run.  Latencies are in milliseconds, measured from each operation's scheduled start so that queuing delay is included.
+ */
+@JsonDeserialize
+@Value.Immutable
+abstract class _OperationReport {
+
+    /**
+     * The number of bytes allocated by the client per operation, or {@code -1} if the JVM cannot measure allocation
+     */
+    @JsonProperty("bytes_per_operation")
+    abstract Long getBytesPerOperation();
+
+    /**
+     * The number of measured operations that completed successfully
+     */
+    @JsonProperty("count")
+    abstract Long getCount();
+
+    /**
+     * The number of measured operations that failed
+     */
+    @JsonProperty("errors")
+    abstract Long getErrors();
+
+    /**
+     * The maximum latency
+     */
+    @JsonProperty("max")
+    abstract Double getMax();
+
+    /**
+     * The name of the operation
+     */
+    @JsonProperty("operation")
+    abstract String getOperation();
+
+    /**
+     * The 50th percentile latency
+     */
+    @JsonProperty("p50")
+    abstract Double getP50();
+
+    /**
+     * The 90th percentile latency
+     */
+    @JsonProperty("p90")
+    abstract Double getP90();
+
+    /**
+     * The 99th percentile latency
+     */
+    @JsonProperty("p99")
+    abstract Double getP99();
+
+    /**
+     * The 99.9th percentile latency
+     */
+    @JsonProperty("p999")
+    abstract Double getP999();
+
+    /**
+     * The number of HTTP requests issued per operation
+     */
+    @JsonProperty("requests_per_operation")
+    abstract Double getRequestsPerOperation();
+
+    /**
+     * The number of successful operations completed per second
+     */
+    @JsonProperty("throughput")
+    abstract Double getThroughput();
+
+}
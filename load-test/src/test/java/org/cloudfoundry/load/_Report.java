@@ -0,0 +1,68 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.load;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.immutables.value.Value;
+
+import java.util.List;
+
+/**
+ * The results of a load test scenario run
+ */
+@JsonDeserialize
+@Value.Immutable
+abstract class _Report {
+
+    /**
+     * The number of operations offered per second
+     */
+    @JsonProperty("arrival_rate")
+    abstract Double getArrivalRate();
+
+    /**
+     * The number of arrivals dropped because the maximum number of operations were outstanding
+     */
+    @JsonProperty("dropped")
+    abstract Long getDropped();
+
+    /**
+     * The duration of the measured phase in seconds
+     */
+    @JsonProperty("duration")
+    abstract Double getDuration();
+
+    /**
+     * A label identifying the code under test, such as a commit id
+     */
+    @JsonProperty("label")
+    abstract String getLabel();
+
+    /**
+     * The measurements of each operation, ordered by operation name
+     */
+    @JsonProperty("operations")
+    abstract List<OperationReport> getOperations();
+
+    /**
+     * The name of the scenario
+     */
+    @JsonProperty("scenario")
+    abstract String getScenario();
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.load;
+
+import org.immutables.value.Value;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * A load test scenario: a weighted mix of operations issued at a fixed arrival rate against a fake foundation of a given size
+ */
+@Value.Immutable
+abstract class _Scenario {
+
+    @Value.Check
+    void check() {
+        if (getArrivalRate() <= 0) {
+            throw new IllegalStateException("arrivalRate must be greater than 0");
+        }
+
+        if (getApplications() < 1) {
+            throw new IllegalStateException("applications must be greater than or equal to 1");
+        }
+
+        if (getMix().isEmpty() || getMix().values().stream().anyMatch(weight -> weight < 0) || getMix().values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalStateException("mix must contain at least one operation with a positive weight");
+        }
+    }
+
+    /**
+     * The number of applications seeded in the fake foundation.  Defaults to {@code 100}.
+     */
+    @Value.Default
+    Integer getApplications() {
+        return 100;
+    }
+
+    /**
+     * The number of operations started per second, regardless of how long earlier operations take
+     */
+    abstract Double getArrivalRate();
+
+    /**
+     * The number of times each operation is executed on its own to measure its request amplification and allocation.  Defaults to {@code 20}.
+     */
+    @Value.Default
+    Integer getCalibrationIterations() {
+        return 20;
+    }
+
+    /**
+     * The duration of the measured phase.  Defaults to 60 seconds.
+     */
+    @Value.Default
+    Duration getDuration() {
+        return Duration.ofSeconds(60);
+    }
+
+    /**
+     * The latency the fake foundation adds to every response.  Defaults to 5 milliseconds.
+     */
+    @Value.Default
+    Duration getLatency() {
+        return Duration.ofMillis(5);
+    }
+
+    /**
+     * The maximum number of outstanding operations.  Arrivals beyond this are dropped and reported.  Defaults to {@code 256}.
+     */
+    @Value.Default
+    Integer getMaximumOutstanding() {
+        return 256;
+    }
+
+    /**
+     * The relative weights of the operations in the mix
+     */
+    abstract Map<Operation, Integer> getMix();
+
+    /**
+     * The name of the scenario
+     */
+    abstract String getName();
+
+    /**
+     * The seed for the random selection of operations and targets, so that runs issue the same sequence.  Defaults to {@code 0}.
+     */
+    @Value.Default
+    Long getSeed() {
+        return 0L;
+    }
+
+    /**
+     * The duration of the unmeasured warm-up phase.  Defaults to 10 seconds.
+     */
+    @Value.Default
+    Duration getWarmup() {
+        return Duration.ofSeconds(10);
+    }
+
+}